@@ -28,6 +28,8 @@ import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.swing.JDialog;
@@ -37,6 +39,7 @@ import javax.swing.JLabel;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.DownloadableFile;
+import com.atlauncher.data.Instance;
 import com.atlauncher.data.LauncherVersion;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.gui.tabs.InstancesTab;
@@ -66,7 +69,6 @@ import com.google.gson.reflect.TypeToken;
 
 import org.mini2Dx.gettext.GetText;
 
-import net.arikia.dev.drpc.DiscordRPC;
 import okhttp3.OkHttpClient;
 
 public class Launcher {
@@ -87,8 +89,7 @@ public class Launcher {
     private Thread updateThread;
 
     // Minecraft tracking variables
-    private Process minecraftProcess = null; // The process minecraft is running on
-    public boolean minecraftLaunched = false; // If Minecraft has been Launched
+    private final Set<String> launchedInstances = ConcurrentHashMap.newKeySet(); // Instances launching or running
 
     public void checkIfWeCanLoad() {
         if (!Java.isUsingJavaSupportingLetsEncrypt()) {
@@ -483,9 +484,31 @@ public class Launcher {
         this.parent = parent;
     }
 
-    public void setMinecraftLaunched(boolean launched) {
-        this.minecraftLaunched = launched;
-        App.TRAY_MENU.setMinecraftLaunched(launched);
+    /**
+     * Marks an instance as launching/running or not. Each instance can only be launched once at a time, but any number
+     * of different instances can be.
+     *
+     * @return false if the instance was being marked as launched but already was
+     */
+    public boolean setMinecraftLaunched(Instance instance, boolean launched) {
+        boolean changed = launched ? this.launchedInstances.add(instance.launcher.name)
+                : this.launchedInstances.remove(instance.launcher.name);
+
+        App.TRAY_MENU.setMinecraftLaunched(isMinecraftLaunched());
+
+        return changed;
+    }
+
+    public boolean isMinecraftLaunched() {
+        return !this.launchedInstances.isEmpty();
+    }
+
+    public boolean isMinecraftLaunched(Instance instance) {
+        return this.launchedInstances.contains(instance.launcher.name);
+    }
+
+    public boolean isMinecraftLaunchedOtherThan(Instance instance) {
+        return this.launchedInstances.stream().anyMatch(name -> !name.equals(instance.launcher.name));
     }
 
     /**
@@ -595,28 +618,4 @@ public class Launcher {
     public void refreshPacksPanel() {
         this.packsPanel.refresh(); // Refresh the instances panel
     }
-
-    public void showKillMinecraft(Process minecraft) {
-        this.minecraftProcess = minecraft;
-        App.console.showKillMinecraft();
-    }
-
-    public void hideKillMinecraft() {
-        App.console.hideKillMinecraft();
-    }
-
-    public void killMinecraft() {
-        if (this.minecraftProcess != null) {
-            LogManager.error("Killing Minecraft");
-
-            if (App.settings.enableDiscordIntegration && App.discordInitialized) {
-                DiscordRPC.discordClearPresence();
-            }
-
-            this.minecraftProcess.destroy();
-            this.minecraftProcess = null;
-        } else {
-            LogManager.error("Cannot kill Minecraft as there is no instance open!");
-        }
-    }
 }
@@ -0,0 +1,247 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.collection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Aho-Corasick automaton for finding any of a fixed set of strings in text in a single pass, no matter how many strings
+ * are being looked for.
+ *
+ * The automaton is built once up front into a full transition table, so searching is a table lookup per character.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class AhoCorasick<T> {
+    private final List<String> patterns;
+    private final List<T> values;
+
+    // characters below 128 are looked up directly, anything else goes through the map
+    private final int[] asciiColumns = new int[128];
+    private final Map<Character, Integer> otherColumns = new HashMap<>();
+    private final int columns;
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    private AhoCorasick(List<String> patterns, List<T> values) {
+        this.patterns = patterns;
+        this.values = values;
+
+        int nextColumn = 1;
+        for (String pattern : patterns) {
+            for (char c : pattern.toCharArray()) {
+                if (getColumn(c) == 0) {
+                    if (c < 128) {
+                        this.asciiColumns[c] = nextColumn++;
+                    } else {
+                        this.otherColumns.put(c, nextColumn++);
+                    }
+                }
+            }
+        }
+        this.columns = nextColumn;
+
+        // build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> matches = new ArrayList<>();
+        trie.add(new int[this.columns]);
+        matches.add(new ArrayList<>());
+
+        for (int i = 0; i < patterns.size(); i++) {
+            int state = 0;
+
+            for (char c : patterns.get(i).toCharArray()) {
+                int column = getColumn(c);
+
+                if (trie.get(state)[column] == 0) {
+                    trie.get(state)[column] = trie.size();
+                    trie.add(new int[this.columns]);
+                    matches.add(new ArrayList<>());
+                }
+
+                state = trie.get(state)[column];
+            }
+
+            matches.get(state).add(i);
+        }
+
+        // then fill in the failure transitions breadth first, so every state has a transition for every column
+        int[] fail = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int column = 1; column < this.columns; column++) {
+            int next = trie.get(0)[column];
+
+            if (next != 0) {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches.get(state).addAll(matches.get(fail[state]));
+
+            for (int column = 1; column < this.columns; column++) {
+                int next = trie.get(state)[column];
+
+                if (next != 0) {
+                    fail[next] = trie.get(fail[state])[column];
+                    queue.add(next);
+                } else {
+                    trie.get(state)[column] = trie.get(fail[state])[column];
+                }
+            }
+        }
+
+        this.transitions = trie.toArray(new int[0][]);
+        this.outputs = new int[trie.size()][];
+
+        for (int i = 0; i < trie.size(); i++) {
+            List<Integer> stateMatches = matches.get(i);
+
+            if (!stateMatches.isEmpty()) {
+                this.outputs[i] = stateMatches.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    private int getColumn(char c) {
+        if (c < 128) {
+            return this.asciiColumns[c];
+        }
+
+        return this.otherColumns.getOrDefault(c, 0);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Calls the handler for every match in the text, in order of where the match ends. Where more than one string ends
+     * at the same place, the longest is given first.
+     */
+    public void find(CharSequence text, MatchHandler<T> handler) {
+        search(text, (start, end, index) -> handler.onMatch(start, end, this.values.get(index)));
+    }
+
+    private void search(CharSequence text, MatchHandler<Integer> handler) {
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = this.transitions[state][getColumn(text.charAt(i))];
+
+            int[] matched = this.outputs[state];
+            if (matched != null) {
+                for (int index : matched) {
+                    if (!handler.onMatch(i + 1 - this.patterns.get(index).length(), i + 1, index)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if any of the strings are in the text.
+     */
+    public boolean containsAny(CharSequence text) {
+        boolean[] found = { false };
+
+        find(text, (start, end, value) -> {
+            found[0] = true;
+            return false;
+        });
+
+        return found[0];
+    }
+
+    /**
+     * Replaces every occurrence of the strings in the text, preferring the leftmost and then longest match where they
+     * overlap.
+     */
+    public String replaceAll(String text, Function<T, String> replacement) {
+        List<int[]> found = new ArrayList<>();
+
+        search(text, (start, end, index) -> {
+            found.add(new int[] { start, end, index });
+            return true;
+        });
+
+        if (found.isEmpty()) {
+            return text;
+        }
+
+        found.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(b[1], a[1]));
+
+        StringBuilder replaced = new StringBuilder(text.length());
+        int position = 0;
+
+        for (int[] match : found) {
+            if (match[0] < position) {
+                continue;
+            }
+
+            replaced.append(text, position, match[0]);
+            replaced.append(replacement.apply(this.values.get(match[2])));
+            position = match[1];
+        }
+
+        replaced.append(text, position, text.length());
+
+        return replaced.toString();
+    }
+
+    public interface MatchHandler<T> {
+        /**
+         * @return if searching should carry on
+         */
+        boolean onMatch(int start, int end, T value);
+    }
+
+    public static final class Builder<T> {
+        private final List<String> patterns = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a string to look for. Null or empty strings are ignored, as are strings which have already been added.
+         */
+        public Builder<T> add(String pattern, T value) {
+            if (pattern != null && !pattern.isEmpty() && !this.patterns.contains(pattern)) {
+                this.patterns.add(pattern);
+                this.values.add(value);
+            }
+
+            return this;
+        }
+
+        public AhoCorasick<T> build() {
+            return new AhoCorasick<>(new ArrayList<>(this.patterns), new ArrayList<>(this.values));
+        }
+    }
+}
@@ -52,6 +52,9 @@ public class Constants {
     public static final String CROWDIN_URL = "https://crowdin.com/project/atlauncher";
     public static final String SENTRY_DSN = "https://499c3bbc55cb434dad42a3ac670e2c91@sentry.io/1498519";
 
+    // Folder inside of instances and servers which the launcher keeps its own files in
+    public static final String INSTANCE_DATA_FOLDER = ".atlauncher";
+
     // Launcher domains, endpoints, etc
     public static String BASE_LAUNCHER_PROTOCOL = "https://";
     public static String BASE_LAUNCHER_DOMAIN = "atlauncher.com";
@@ -18,5 +18,14 @@
 package com.atlauncher.data;
 
 public enum BackupMode {
-    NORMAL, NORMAL_PLUS_MODS, FULL
+    NORMAL(false), NORMAL_PLUS_MODS(true), FULL(true);
+
+    /**
+     * If the zip should be compressed on all cores. Normal backups are usually small enough that it's not worth it.
+     */
+    public final boolean parallelCompression;
+
+    BackupMode(boolean parallelCompression) {
+        this.parallelCompression = parallelCompression;
+    }
 }
@@ -25,13 +25,10 @@ import java.awt.Image;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -40,6 +37,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -70,6 +68,7 @@ import com.atlauncher.Network;
 import com.atlauncher.annot.Json;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
+import com.atlauncher.data.backup.BackupSnapshot;
 import com.atlauncher.data.curseforge.CurseForgeFile;
 import com.atlauncher.data.curseforge.CurseForgeProject;
 import com.atlauncher.data.curseforge.CurseForgeProjectLatestFile;
@@ -105,6 +104,7 @@ import com.atlauncher.exceptions.InvalidPack;
 import com.atlauncher.gui.dialogs.InstanceInstallerDialog;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.gui.dialogs.RenameInstanceDialog;
+import com.atlauncher.interfaces.NetworkProgressable;
 import com.atlauncher.managers.AccountManager;
 import com.atlauncher.managers.CurseForgeUpdateManager;
 import com.atlauncher.managers.DialogManager;
@@ -112,20 +112,29 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.ModpacksChUpdateManager;
 import com.atlauncher.managers.PackManager;
+import com.atlauncher.managers.ProcessManager;
+import com.atlauncher.mclauncher.ClassDataSharing;
 import com.atlauncher.mclauncher.MCLauncher;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
+import com.atlauncher.utils.ArchiveExtractor;
 import com.atlauncher.utils.ArchiveUtils;
+import com.atlauncher.utils.ArchiveWriter;
 import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.MinecraftCrashAnalyser;
+import com.atlauncher.utils.MinecraftLogClassifier;
 import com.atlauncher.utils.OS;
+import com.atlauncher.utils.SharedTasks;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.utils.ZipNameMapper;
+import com.atlauncher.utils.backup.BackupRepository;
+import com.atlauncher.utils.walker.FilteredFileVisitor;
+import com.atlauncher.utils.walker.PathFilter;
 import com.google.gson.JsonIOException;
 
 import org.mini2Dx.gettext.GetText;
 
-import net.arikia.dev.drpc.DiscordRPC;
 import net.arikia.dev.drpc.DiscordRichPresence;
 import okhttp3.OkHttpClient;
 
@@ -428,55 +437,58 @@ public class Instance extends MinecraftVersion {
 
                 JavaRuntime runtimeToDownload = runtimesForSystem.get(javaVersion.component).get(0);
 
-                try {
-                    JavaRuntimeManifest javaRuntimeManifest = com.atlauncher.network.Download.build().cached()
-                            .setUrl(runtimeToDownload.manifest.url).size(runtimeToDownload.manifest.size)
-                            .hash(runtimeToDownload.manifest.sha1).downloadTo(FileSystem.MINECRAFT_RUNTIMES
-                                    .resolve(javaVersion.component).resolve("manifest.json"))
-                            .asClassWithThrow(JavaRuntimeManifest.class);
-
-                    DownloadPool pool = new DownloadPool();
-
-                    // create root directory
-                    Path runtimeSystemDirectory = FileSystem.MINECRAFT_RUNTIMES.resolve(javaVersion.component)
-                            .resolve(runtimeSystemString);
-                    Path runtimeDirectory = runtimeSystemDirectory.resolve(javaVersion.component);
-                    FileUtils.createDirectory(runtimeDirectory);
-
-                    // create all the directories
-                    javaRuntimeManifest.files.forEach((key, file) -> {
-                        if (file.type == JavaRuntimeManifestFileType.DIRECTORY) {
-                            FileUtils.createDirectory(runtimeDirectory.resolve(key));
-                        }
-                    });
+                // another instance launching at the same time may need the same runtime
+                SharedTasks.run("runtime:" + javaVersion.component + ":" + runtimeToDownload.version.name, () -> {
+                    try {
+                        JavaRuntimeManifest javaRuntimeManifest = com.atlauncher.network.Download.build().cached()
+                                .setUrl(runtimeToDownload.manifest.url).size(runtimeToDownload.manifest.size)
+                                .hash(runtimeToDownload.manifest.sha1).downloadTo(FileSystem.MINECRAFT_RUNTIMES
+                                        .resolve(javaVersion.component).resolve("manifest.json"))
+                                .asClassWithThrow(JavaRuntimeManifest.class);
+
+                        DownloadPool pool = new DownloadPool();
+
+                        // create root directory
+                        Path runtimeSystemDirectory = FileSystem.MINECRAFT_RUNTIMES.resolve(javaVersion.component)
+                                .resolve(runtimeSystemString);
+                        Path runtimeDirectory = runtimeSystemDirectory.resolve(javaVersion.component);
+                        FileUtils.createDirectory(runtimeDirectory);
+
+                        // create all the directories
+                        javaRuntimeManifest.files.forEach((key, file) -> {
+                            if (file.type == JavaRuntimeManifestFileType.DIRECTORY) {
+                                FileUtils.createDirectory(runtimeDirectory.resolve(key));
+                            }
+                        });
 
-                    // collect the files we need to download
-                    javaRuntimeManifest.files.forEach((key, file) -> {
-                        if (file.type == JavaRuntimeManifestFileType.FILE) {
-                            com.atlauncher.network.Download download = new com.atlauncher.network.Download()
-                                    .setUrl(file.downloads.raw.url).downloadTo(runtimeDirectory.resolve(key))
-                                    .hash(file.downloads.raw.sha1).size(file.downloads.raw.size)
-                                    .executable(file.executable).withHttpClient(httpClient);
+                        // collect the files we need to download
+                        javaRuntimeManifest.files.forEach((key, file) -> {
+                            if (file.type == JavaRuntimeManifestFileType.FILE) {
+                                com.atlauncher.network.Download download = new com.atlauncher.network.Download()
+                                        .setUrl(file.downloads.raw.url).downloadTo(runtimeDirectory.resolve(key))
+                                        .hash(file.downloads.raw.sha1).size(file.downloads.raw.size)
+                                        .executable(file.executable).withHttpClient(httpClient);
 
-                            pool.add(download);
-                        }
-                    });
+                                pool.add(download);
+                            }
+                        });
 
-                    DownloadPool smallPool = pool.downsize();
+                        DownloadPool smallPool = pool.downsize();
 
-                    progressDialog.setTotalBytes(smallPool.totalSize());
+                        progressDialog.setTotalBytes(smallPool.totalSize());
 
-                    smallPool.downloadAll();
+                        smallPool.downloadAll();
 
-                    // write out the version file (theres also a .sha1 file created, but we're not
-                    // doing that)
-                    Files.write(runtimeSystemDirectory.resolve(".version"),
-                            runtimeToDownload.version.name.getBytes(StandardCharsets.UTF_8));
-                    // Files.write(runtimeSystemDirectory.resolve(javaVersion.component
-                    // + ".sha1"), runtimeToDownload.version.name.getBytes(StandardCharsets.UTF_8));
-                } catch (IOException e) {
-                    LogManager.logStackTrace("Failed to download Java runtime", e);
-                }
+                        // write out the version file (theres also a .sha1 file created, but we're not
+                        // doing that)
+                        Files.write(runtimeSystemDirectory.resolve(".version"),
+                                runtimeToDownload.version.name.getBytes(StandardCharsets.UTF_8));
+                        // Files.write(runtimeSystemDirectory.resolve(javaVersion.component
+                        // + ".sha1"), runtimeToDownload.version.name.getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        LogManager.logStackTrace("Failed to download Java runtime", e);
+                    }
+                });
             }
         }
         progressDialog.doneTask();
@@ -489,24 +501,27 @@ public class Instance extends MinecraftVersion {
                 .size(assetIndex.size).downloadTo(FileSystem.RESOURCES_INDEXES.resolve(assetIndex.id + ".json"))
                 .withHttpClient(httpClient).asClass(AssetIndex.class);
 
-        DownloadPool pool = new DownloadPool();
+        // another instance launching at the same time may be checking the same assets
+        SharedTasks.run("assets:" + assetIndex.id + ":" + assetIndex.sha1, () -> {
+            DownloadPool pool = new DownloadPool();
 
-        index.objects.forEach((key, object) -> {
-            String filename = object.hash.substring(0, 2) + "/" + object.hash;
-            String url = String.format("%s/%s", Constants.MINECRAFT_RESOURCES, filename);
+            index.objects.forEach((key, object) -> {
+                String filename = object.hash.substring(0, 2) + "/" + object.hash;
+                String url = String.format("%s/%s", Constants.MINECRAFT_RESOURCES, filename);
 
-            com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(url)
-                    .downloadTo(FileSystem.RESOURCES_OBJECTS.resolve(filename)).hash(object.hash).size(object.size)
-                    .withHttpClient(httpClient);
+                com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(url)
+                        .downloadTo(FileSystem.RESOURCES_OBJECTS.resolve(filename)).hash(object.hash).size(object.size)
+                        .withHttpClient(httpClient);
 
-            pool.add(download);
-        });
+                pool.add(download);
+            });
 
-        DownloadPool smallPool = pool.downsize();
+            DownloadPool smallPool = pool.downsize();
 
-        progressDialog.setTotalBytes(smallPool.totalSize());
+            progressDialog.setTotalBytes(smallPool.totalSize());
 
-        smallPool.downloadAll();
+            smallPool.downloadAll();
+        });
 
         // copy resources to instance
         if (index.mapToResources || assetIndex.id.equalsIgnoreCase("legacy")) {
@@ -532,13 +547,11 @@ public class Instance extends MinecraftVersion {
             if (library.hasNativeForOS()) {
                 Path nativePath = FileSystem.LIBRARIES.resolve(library.getNativeDownloadForOS().path);
 
-                ArchiveUtils.extract(nativePath, nativesTempDir, name -> {
-                    if (library.extract != null && library.extract.shouldExclude(name)) {
-                        return null;
-                    }
-
-                    return name;
-                });
+                try {
+                    new ArchiveExtractor(nativePath, nativesTempDir).extractRule(library.extract).extract();
+                } catch (IOException e) {
+                    LogManager.logStackTrace("Failed to extract natives from " + nativePath.getFileName(), e);
+                }
             }
         });
 
@@ -548,6 +561,11 @@ public class Instance extends MinecraftVersion {
     }
 
     public boolean launch() {
+        if (!App.launcher.setMinecraftLaunched(this, true)) {
+            LogManager.warn("Instance " + this.launcher.name + " is already running!");
+            return false;
+        }
+
         final AbstractAccount account = launcher.account == null ? AccountManager.getSelectedAccount()
                 : AccountManager.getAccountByName(launcher.account);
 
@@ -557,7 +575,7 @@ public class Instance extends MinecraftVersion {
                             .text(GetText.tr("Cannot play instance as you have no account selected.")).build())
                     .setType(DialogManager.ERROR).show();
 
-            App.launcher.setMinecraftLaunched(false);
+            App.launcher.setMinecraftLaunched(this, false);
             return false;
         } else {
             int maximumMemory = (this.launcher.maximumMemory == null) ? App.settings.maximumMemory
@@ -573,7 +591,7 @@ public class Instance extends MinecraftVersion {
 
                 if (ret != 0) {
                     LogManager.warn("Launching of instance cancelled due to user cancelling memory warning!");
-                    App.launcher.setMinecraftLaunched(false);
+                    App.launcher.setMinecraftLaunched(this, false);
                     return false;
                 }
             }
@@ -587,7 +605,7 @@ public class Instance extends MinecraftVersion {
                         .setDefaultOption(DialogManager.YES_OPTION).show();
                 if (ret != 0) {
                     LogManager.warn("Launching of instance cancelled due to user cancelling permgen warning!");
-                    App.launcher.setMinecraftLaunched(false);
+                    App.launcher.setMinecraftLaunched(this, false);
                     return false;
                 }
             }
@@ -612,6 +630,7 @@ public class Instance extends MinecraftVersion {
             if (prepareDialog.getReturnValue() == null || !prepareDialog.getReturnValue()) {
                 LogManager.error("Failed to prepare instance " + this.launcher.name
                         + " for launch. Check the logs and try again.");
+                App.launcher.setMinecraftLaunched(this, false);
                 return false;
             }
 
@@ -620,9 +639,6 @@ public class Instance extends MinecraftVersion {
             Thread launcher = new Thread(() -> {
                 try {
                     long start = System.currentTimeMillis();
-                    if (App.launcher.getParent() != null) {
-                        App.launcher.getParent().setVisible(false);
-                    }
 
                     LogManager.info("Launching pack " + this.launcher.pack + " " + this.launcher.version + " for "
                             + "Minecraft " + this.id);
@@ -644,10 +660,7 @@ public class Instance extends MinecraftVersion {
                         final LoginResponse session = loginDialog.getReturnValue();
 
                         if (session == null) {
-                            App.launcher.setMinecraftLaunched(false);
-                            if (App.launcher.getParent() != null) {
-                                App.launcher.getParent().setVisible(true);
-                            }
+                            App.launcher.setMinecraftLaunched(this, false);
                             return;
                         }
 
@@ -666,10 +679,7 @@ public class Instance extends MinecraftVersion {
 
                         if (!(Boolean) loginDialog.getReturnValue()) {
                             LogManager.error("Failed to login");
-                            App.launcher.setMinecraftLaunched(false);
-                            if (App.launcher.getParent() != null) {
-                                App.launcher.getParent().setVisible(true);
-                            }
+                            App.launcher.setMinecraftLaunched(this, false);
                             DialogManager.okDialog().setTitle(GetText.tr("Error Logging In"))
                                     .setContent(GetText.tr("Couldn't login with Microsoft account"))
                                     .setType(DialogManager.ERROR).show();
@@ -681,10 +691,7 @@ public class Instance extends MinecraftVersion {
 
                     if (process == null) {
                         LogManager.error("Failed to get process for Minecraft");
-                        App.launcher.setMinecraftLaunched(false);
-                        if (App.launcher.getParent() != null) {
-                            App.launcher.getParent().setVisible(true);
-                        }
+                        App.launcher.setMinecraftLaunched(this, false);
                         return;
                     }
 
@@ -697,6 +704,26 @@ public class Instance extends MinecraftVersion {
                         System.exit(0);
                     }
 
+                    MinecraftCrashAnalyser crashAnalyser = MinecraftCrashAnalyser.forMinecraftVersion(this.id);
+
+                    // everything to censor is replaced in the same pass over each line as it's classified
+                    MinecraftLogClassifier classifier = MinecraftLogClassifier.getDefault();
+                    if (!LogManager.showDebug) {
+                        Map<String, String> censored = new LinkedHashMap<>();
+                        censored.put(account.minecraftUsername, "**MINECRAFTUSERNAME**");
+                        censored.put(account.username, "**MINECRAFTUSERNAME**");
+                        censored.put(account.uuid, "**UUID**");
+                        censored.put(account.getAccessToken(), "**ACCESSTOKEN**");
+                        classifier = classifier.censoring(censored);
+                    }
+
+                    RunningProcess runningProcess = ProcessManager.supervise(this.launcher.name, process,
+                            this.ROOT.resolve("logs"), classifier, result -> {
+                                crashAnalyser.accept(result.line);
+                                LogManager.minecraft(result);
+                            });
+                    App.console.addProcessTab(runningProcess);
+
                     if (App.settings.enableDiscordIntegration && App.discordInitialized) {
                         String playing = this.launcher.pack
                                 + (this.launcher.multiMCManifest != null ? " (" + this.launcher.version + ")" : "");
@@ -712,61 +739,26 @@ public class Instance extends MinecraftVersion {
                             presence.setBigImage("atlauncher", playing);
                         }
 
-                        DiscordRPC.discordUpdatePresence(presence.build());
+                        runningProcess.setDiscordPresence(presence.build());
+                        ProcessManager.updateDiscordPresence();
                     }
 
-                    App.launcher.showKillMinecraft(process);
-                    InputStream is = process.getInputStream();
-                    InputStreamReader isr = new InputStreamReader(is);
-                    BufferedReader br = new BufferedReader(isr);
-                    String line;
-                    int detectedError = 0;
-
-                    while ((line = br.readLine()) != null) {
-                        if (line.contains("java.lang.OutOfMemoryError")
-                                || line.contains("There is insufficient memory for the Java Runtime Environment")) {
-                            detectedError = MinecraftError.OUT_OF_MEMORY;
-                        }
-
-                        if (line.contains("java.util.ConcurrentModificationException")
-                                && Utils.matchVersion(this.id, "1.6", true, true)) {
-                            detectedError = MinecraftError.CONCURRENT_MODIFICATION_ERROR_1_6;
-                        }
-
-                        if (line.contains(
-                                "class jdk.internal.loader.ClassLoaders$AppClassLoader cannot be cast to class")) {
-                            detectedError = MinecraftError.USING_NEWER_JAVA_THAN_8;
-                        }
-
-                        if (!LogManager.showDebug) {
-                            line = line.replace(account.minecraftUsername, "**MINECRAFTUSERNAME**");
-                            line = line.replace(account.username, "**MINECRAFTUSERNAME**");
-                            line = line.replace(account.uuid, "**UUID**");
-                            if (account.getAccessToken() != null) {
-                                line = line.replace(account.getAccessToken(), "**ACCESSTOKEN**");
-                            }
-                        }
-                        LogManager.minecraft(line);
-                    }
-                    App.launcher.hideKillMinecraft();
-                    if (App.launcher.getParent() != null && App.settings.keepLauncherOpen) {
-                        App.launcher.getParent().setVisible(true);
-                    }
+                    runningProcess.waitForOutput();
+                    LogManager.debug(runningProcess.getStatistics());
                     long end = System.currentTimeMillis();
-                    if (App.settings.enableDiscordIntegration && App.discordInitialized) {
-                        DiscordRPC.discordClearPresence();
-                    }
                     int exitValue = 0; // Assume we exited fine
                     try {
                         exitValue = process.exitValue(); // Try to get the real exit value
                     } catch (IllegalThreadStateException e) {
                         process.destroy(); // Kill the process
                     }
-                    if (!App.settings.keepLauncherOpen) {
+                    if (!App.settings.keepLauncherOpen && !App.launcher.isMinecraftLaunchedOtherThan(this)) {
                         App.console.setVisible(false); // Hide the console to pretend we've closed
                     }
 
-                    if (exitValue != 0) {
+                    if (runningProcess.wasKilled()) {
+                        LogManager.warn(this.launcher.name + " was killed");
+                    } else if (exitValue != 0) {
                         LogManager.error(
                                 "Oh no. Minecraft crashed. Please check the logs for any errors and provide these logs when asking for support.");
 
@@ -775,18 +767,10 @@ public class Instance extends MinecraftVersion {
                             this.launcher.mods.forEach(mod -> {
                                 if (!mod.userAdded && mod.wasSelected && mod.disabled) {
                                     LogManager.warn("The mod " + mod.name + " (" + mod.file + ") has been disabled.");
+                                } else if (mod.userAdded && mod.type == Type.mods && !mod.disabled) {
+                                    LogManager.warn("The mod " + mod.name + " (" + mod.file + ") has been added.");
                                 }
                             });
-
-                            Files.list(this.ROOT.resolve("mods"))
-                                    .filter(file -> Files.isRegularFile(file)
-                                            && this.launcher.mods.stream()
-                                                    .noneMatch(m -> m.type == Type.mods && !m.userAdded
-                                                            && m.getFile(this).toPath().equals(file)))
-                                    .forEach(newMod -> {
-                                        LogManager.warn(
-                                                "The mod " + newMod.getFileName().toString() + " has been added.");
-                                    });
                         }
 
                         // Submit any pending crash reports from Open Eye if need to since we
@@ -796,11 +780,18 @@ public class Instance extends MinecraftVersion {
                         }
                     }
 
-                    if (detectedError != 0) {
+                    MinecraftCrashAnalyser.Diagnosis diagnosis = crashAnalyser.getDiagnosis(exitValue);
+                    diagnosis.findings.forEach(finding -> LogManager.warn("Detected problem: " + finding));
+
+                    int detectedError = MinecraftError.fromDiagnosis(diagnosis);
+                    if (detectedError != 0 && !runningProcess.wasKilled()) {
                         MinecraftError.showInformationPopup(detectedError);
+                    } else if (diagnosis.isCrash() && !diagnosis.findings.isEmpty()
+                            && !runningProcess.wasKilled()) {
+                        MinecraftError.showCrashReportPopup(this.launcher.name, diagnosis);
                     }
 
-                    App.launcher.setMinecraftLaunched(false);
+                    App.launcher.setMinecraftLaunched(this, false);
                     if (this.getPack() != null && this.getPack().isLoggingEnabled() && !this.launcher.isDev
                             && App.settings.enableLogs) {
                         final int timePlayed = (int) (end - start) / 1000;
@@ -819,11 +810,12 @@ public class Instance extends MinecraftVersion {
                     if (Files.isDirectory(nativesTempDir)) {
                         FileUtils.deleteDirectory(nativesTempDir);
                     }
-                    if (!App.settings.keepLauncherOpen) {
+                    if (!App.settings.keepLauncherOpen && !App.launcher.isMinecraftLaunched()) {
                         System.exit(0);
                     }
                 } catch (Exception e1) {
                     LogManager.logStackTrace(e1);
+                    App.launcher.setMinecraftLaunched(this, false);
                 }
             });
             launcher.start();
@@ -1080,19 +1072,24 @@ public class Instance extends MinecraftVersion {
         return true;
     }
 
+    /**
+     * Exports the instance, writing everything straight into the zip from the instance folder.
+     *
+     * @param progress told how much of the instance has been written to the zip, or null
+     */
     public boolean export(String name, String version, String author, InstanceExportFormat format, String saveTo,
-            List<String> overrides) {
+            List<String> overrides, NetworkProgressable progress) {
         if (format == InstanceExportFormat.CURSEFORGE) {
-            return exportAsCurseZip(name, version, author, saveTo, overrides);
+            return exportAsCurseZip(name, version, author, saveTo, overrides, progress);
         } else if (format == InstanceExportFormat.MULTIMC) {
-            return exportAsMultiMcZip(name, version, author, saveTo, overrides);
+            return exportAsMultiMcZip(name, version, author, saveTo, overrides, progress);
         }
 
         return false;
     }
 
     public boolean exportAsMultiMcZip(String name, String version, String author, String saveTo,
-            List<String> overrides) {
+            List<String> overrides, NetworkProgressable progress) {
         Path to = Paths.get(saveTo).resolve(name + ".zip");
         MultiMCManifest manifest = new MultiMCManifest();
 
@@ -1180,33 +1177,24 @@ public class Instance extends MinecraftVersion {
             manifest.components.add(forgeMappingsComponent);
         }
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.launcher.name + "-export");
-        FileUtils.createDirectory(tempDir);
+        ArchiveWriter writer = new ArchiveWriter().parallel(InstanceExportFormat.MULTIMC.parallelCompression);
 
         // create mmc-pack.json
-        try (FileWriter fileWriter = new FileWriter(tempDir.resolve("mmc-pack.json").toFile())) {
-            Gsons.MINECRAFT.toJson(manifest, fileWriter);
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save mmc-pack.json", e);
-
-            FileUtils.deleteDirectory(tempDir);
-
-            return false;
-        }
+        writer.addFile("mmc-pack.json", Gsons.MINECRAFT.toJson(manifest).getBytes(StandardCharsets.UTF_8));
 
         // create instance.cfg
-        Path instanceCfgPath = tempDir.resolve("instance.cfg");
         Properties instanceCfg = new Properties();
 
         String iconKey = "default";
         if (hasCustomImage()) {
             String customIconFileName = "atlauncher_" + getSafeName().toLowerCase();
-            Path customIconPath = tempDir.resolve(customIconFileName + ".png");
-
-            FileUtils.copyFile(this.getRoot().resolve("instance.png"), customIconPath, true);
 
-            iconKey = customIconFileName;
+            try {
+                writer.addFile(customIconFileName + ".png", this.getRoot().resolve("instance.png"));
+                iconKey = customIconFileName;
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to add the instance icon to the export", e);
+            }
         }
 
         instanceCfg.setProperty("AutoCloseConsole", "false");
@@ -1250,48 +1238,23 @@ public class Instance extends MinecraftVersion {
         instanceCfg.setProperty("notes", "");
         instanceCfg.setProperty("totalTimePlayed", "0");
 
-        try (OutputStream outputStream = Files.newOutputStream(instanceCfgPath)) {
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             instanceCfg.store(outputStream, "Exported by ATLauncher");
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save mmc-pack.json", e);
-
-            FileUtils.deleteDirectory(tempDir);
-
+            writer.addFile("instance.cfg", outputStream.toByteArray());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save instance.cfg", e);
             return false;
         }
 
-        // create an empty .packignore file
-        Path packignoreFile = tempDir.resolve(".packignore");
-        try {
-            packignoreFile.toFile().createNewFile();
-        } catch (IOException ignored) {
-            // this is okay to ignore, it's unused but seems to be there by default
-        }
-
-        // copy over the files into the .minecraft folder
-        Path dotMinecraftPath = tempDir.resolve(".minecraft");
-        FileUtils.createDirectory(dotMinecraftPath);
+        // create an empty .packignore file, it's unused but seems to be there by default
+        writer.addFile(".packignore", new byte[0]);
 
-        for (String path : overrides) {
-            if (!path.equalsIgnoreCase(name + ".zip") && getRoot().resolve(path).toFile().exists()
-                    && (getRoot().resolve(path).toFile().isFile()
-                            || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), dotMinecraftPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), dotMinecraftPath.resolve(path).toFile(), true);
-                }
-            }
-        }
-
-        ArchiveUtils.createZip(tempDir, to);
-
-        FileUtils.deleteDirectory(tempDir);
-
-        return true;
+        // add the files straight from the instance into the .minecraft folder
+        return writeExport(writer, to, ".minecraft/", getExportFilter(name, overrides, false), progress);
     }
 
-    public boolean exportAsCurseZip(String name, String version, String author, String saveTo, List<String> overrides) {
+    public boolean exportAsCurseZip(String name, String version, String author, String saveTo, List<String> overrides,
+            NetworkProgressable progress) {
         Path to = Paths.get(saveTo).resolve(name + ".zip");
         CurseForgeManifest manifest = new CurseForgeManifest();
 
@@ -1326,20 +1289,10 @@ public class Instance extends MinecraftVersion {
         }).collect(Collectors.toList());
         manifest.overrides = "overrides";
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.launcher.name + "-export");
-        FileUtils.createDirectory(tempDir);
+        ArchiveWriter writer = new ArchiveWriter().parallel(InstanceExportFormat.CURSEFORGE.parallelCompression);
 
         // create manifest.json
-        try (FileWriter fileWriter = new FileWriter(tempDir.resolve("manifest.json").toFile())) {
-            Gsons.MINECRAFT.toJson(manifest, fileWriter);
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save manifest.json", e);
-
-            FileUtils.deleteDirectory(tempDir);
-
-            return false;
-        }
+        writer.addFile("manifest.json", Gsons.MINECRAFT.toJson(manifest).getBytes(StandardCharsets.UTF_8));
 
         // create modlist.html
         StringBuilder sb = new StringBuilder("<ul>");
@@ -1353,58 +1306,45 @@ public class Instance extends MinecraftVersion {
         });
         sb.append("</ul>");
 
-        try (FileWriter fileWriter = new FileWriter(tempDir.resolve("modlist.html").toFile())) {
-            fileWriter.write(sb.toString());
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace("Failed to save modlist.html", e);
-
-            FileUtils.deleteDirectory(tempDir);
+        writer.addFile("modlist.html", sb.toString().getBytes(StandardCharsets.UTF_8));
 
-            return false;
-        }
+        // add the overrides straight from the instance, leaving out the mods the manifest downloads from CurseForge
+        return writeExport(writer, to, "overrides/", getExportFilter(name, overrides, true), progress);
+    }
 
-        // copy over the overrides folder
-        Path overridesPath = tempDir.resolve("overrides");
-        FileUtils.createDirectory(overridesPath);
+    private boolean writeExport(ArchiveWriter writer, Path to, String prefix, PathFilter filter,
+            NetworkProgressable progress) {
+        try {
+            writer.addDirectory(prefix, getRoot(), filter).write(to, progress);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to export instance to " + to, e);
+            FileUtils.delete(to);
 
-        for (String path : overrides) {
-            if (!path.equalsIgnoreCase(name + ".zip") && getRoot().resolve(path).toFile().exists()
-                    && (getRoot().resolve(path).toFile().isFile()
-                            || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile(), true);
-                }
-            }
+            return false;
         }
 
-        // remove files that come from CurseForge or aren't disabled
-        launcher.mods.stream().filter(m -> !m.disabled && m.isFromCurseForge()).forEach(mod -> {
-            File file = mod.getFile(this, overridesPath);
+        return true;
+    }
 
-            if (file.exists()) {
-                FileUtils.delete(file.toPath());
-            }
-        });
+    /**
+     * Gets the filter for the files in the instance which should go into an export, which leaves out the export itself
+     * and, when the pack's manifest lists them, any mods which can be downloaded from CurseForge.
+     */
+    private PathFilter getExportFilter(String name, List<String> overrides, boolean excludeCurseForgeMods) {
+        PathFilter filter = PathFilter.include(overrides).exclude(name + ".zip");
 
-        for (String path : overrides) {
-            // if no files, remove the directory
-            if (overridesPath.resolve(path).toFile().isDirectory()
-                    && overridesPath.resolve(path).toFile().list().length == 0) {
-                FileUtils.deleteDirectory(overridesPath.resolve(path));
-            }
+        if (excludeCurseForgeMods) {
+            filter = filter.exclude(launcher.mods.stream().filter(m -> !m.disabled && m.isFromCurseForge())
+                    .map(mod -> FilteredFileVisitor.getRelativePath(getRoot(), mod.getFile(this).toPath()))
+                    .collect(Collectors.toList()));
         }
 
-        ArchiveUtils.createZip(tempDir, to);
-
-        FileUtils.deleteDirectory(tempDir);
-
-        return true;
+        return filter;
     }
 
     public boolean rename(String newName) {
         String oldName = this.launcher.name;
+        ClassDataSharing.deleteArchives(this);
         File oldDir = getRoot().toFile();
         this.launcher.name = newName;
         this.ROOT = FileSystem.INSTANCES.resolve(this.getSafeName());
@@ -1477,6 +1417,7 @@ public class Instance extends MinecraftVersion {
         settings.permGen = launcher.permGen;
         settings.javaPath = launcher.javaPath;
         settings.javaArguments = launcher.javaArguments;
+        settings.jvmTuningProfile = launcher.jvmTuningProfile;
 
         return settings;
     }
@@ -1599,12 +1540,28 @@ public class Instance extends MinecraftVersion {
         Analytics.sendEvent(launcher.pack + " - " + launcher.version, "Backup", getAnalyticsCategory());
 
         final Thread backupThread = new Thread(() -> {
-            Timestamp timestamp = new Timestamp(new Date().getTime());
-            String time = timestamp.toString().replaceAll("[^0-9]", "_");
-            String filename = getSafeName() + "-" + time.substring(0, time.lastIndexOf("_")) + ".zip";
+            if (App.settings.useIncrementalBackups) {
+                try {
+                    BackupRepository repository = BackupRepository.getDefault();
+                    repository.createSnapshot(getSafeName(), getRoot(), backupMode);
 
-            ArchiveUtils.createZip(getRoot(), FileSystem.BACKUPS.resolve(filename),
-                    ZipNameMapper.getMapperForBackupMode(backupMode));
+                    if (App.settings.backupsToKeep > 0) {
+                        repository.prune(getSafeName(), App.settings.backupsToKeep);
+                    }
+                } catch (IOException e) {
+                    LogManager.logStackTrace("Failed to backup " + launcher.name, e);
+                    dialog.dispose();
+                    App.TOASTER.popError(GetText.tr("Backup failed"));
+                    return;
+                }
+            } else {
+                Timestamp timestamp = new Timestamp(new Date().getTime());
+                String time = timestamp.toString().replaceAll("[^0-9]", "_");
+                String filename = getSafeName() + "-" + time.substring(0, time.lastIndexOf("_")) + ".zip";
+
+                ArchiveUtils.createZip(getRoot(), FileSystem.BACKUPS.resolve(filename),
+                        ZipNameMapper.getFilterForBackupMode(backupMode), backupMode.parallelCompression);
+            }
 
             dialog.dispose();
             App.TOASTER.pop(GetText.tr("Backup is complete"));
@@ -1619,6 +1576,84 @@ public class Instance extends MinecraftVersion {
         dialog.setVisible(true);
     }
 
+    public void startRestoreBackup() {
+        if (App.launcher.isMinecraftLaunched(this)) {
+            showCantRestoreWhileRunning();
+            return;
+        }
+
+        List<BackupSnapshot> snapshots;
+        try {
+            snapshots = BackupRepository.getDefault().getSnapshots(getSafeName());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read backups of " + launcher.name, e);
+            snapshots = new ArrayList<>();
+        }
+
+        if (snapshots.size() == 0) {
+            DialogManager.okDialog().setTitle(GetText.tr("Restore Backup"))
+                    .setContent(GetText.tr("There are no backups of this instance to restore."))
+                    .setType(DialogManager.INFO).show();
+            return;
+        }
+
+        JComboBox<BackupSnapshot> snapshotComboBox = new JComboBox<>(snapshots.toArray(new BackupSnapshot[0]));
+
+        int ret = DialogManager.okCancelDialog().setTitle(GetText.tr("Restore Backup")).setContent(snapshotComboBox)
+                .setType(DialogManager.QUESTION).show();
+
+        if (ret != 0) {
+            return;
+        }
+
+        BackupSnapshot snapshot = (BackupSnapshot) snapshotComboBox.getSelectedItem();
+
+        ret = DialogManager.yesNoDialog().setTitle(GetText.tr("Restore Backup"))
+                .setContent(new HTMLBuilder().center().text(GetText.tr(
+                        "Restoring this backup will replace the files it contains and remove any which have been added since.<br/><br/>Are you sure you want to restore it?"))
+                        .build())
+                .setType(DialogManager.WARNING).show();
+
+        if (ret != DialogManager.YES_OPTION) {
+            return;
+        }
+
+        // it may have been launched while the dialogs were open
+        if (App.launcher.isMinecraftLaunched(this)) {
+            showCantRestoreWhileRunning();
+            return;
+        }
+
+        Analytics.sendEvent(launcher.pack + " - " + launcher.version, "RestoreBackup", getAnalyticsCategory());
+
+        final ProgressDialog<Boolean> dialog = new ProgressDialog<>(GetText.tr("Restoring Backup"), 0,
+                GetText.tr("Restoring Backup. Please wait..."), null, App.launcher.getParent());
+        dialog.addThread(new Thread(() -> {
+            try {
+                BackupRepository.getDefault().restore(snapshot, getRoot());
+                dialog.setReturnValue(true);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to restore backup of " + launcher.name, e);
+                dialog.setReturnValue(false);
+            }
+
+            dialog.close();
+        }));
+        dialog.start();
+
+        if (dialog.getReturnValue() != null && dialog.getReturnValue()) {
+            App.TOASTER.pop(GetText.tr("Backup restored"));
+        } else {
+            App.TOASTER.popError(GetText.tr("Failed to restore backup"));
+        }
+    }
+
+    private void showCantRestoreWhileRunning() {
+        DialogManager.okDialog().setTitle(GetText.tr("Restore Backup"))
+                .setContent(GetText.tr("This instance is running. Close it before restoring a backup."))
+                .setType(DialogManager.ERROR).show();
+    }
+
     public boolean canChangeDescription() {
         return isExternalPack() || launcher.vanillaInstance || (getPack() != null && getPack().system);
     }
@@ -18,5 +18,14 @@
 package com.atlauncher.data;
 
 public enum InstanceExportFormat {
-    CURSEFORGE, MULTIMC
+    CURSEFORGE(true), MULTIMC(true);
+
+    /**
+     * If the zip should be compressed on all cores.
+     */
+    public final boolean parallelCompression;
+
+    InstanceExportFormat(boolean parallelCompression) {
+        this.parallelCompression = parallelCompression;
+    }
 }
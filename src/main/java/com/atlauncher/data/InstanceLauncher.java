@@ -57,6 +57,7 @@ public class InstanceLauncher {
     public Integer permGen;
     public String javaPath;
     public String javaArguments;
+    public JvmTuningProfile jvmTuningProfile;
     public String account;
 
     public boolean isDev;
@@ -31,6 +31,8 @@ public class InstanceSettings {
 
     public String javaArguments = null;
 
+    public JvmTuningProfile jvmTuningProfile = null;
+
     /**
      * @return the initialMemory
      */
@@ -100,4 +102,18 @@ public class InstanceSettings {
     public void setJavaArguments(String javaArguments) {
         this.javaArguments = javaArguments;
     }
+
+    /**
+     * @return the jvmTuningProfile
+     */
+    public JvmTuningProfile getJvmTuningProfile() {
+        return this.jvmTuningProfile;
+    }
+
+    /**
+     * @param jvmTuningProfile the jvmTuningProfile to set
+     */
+    public void setJvmTuningProfile(JvmTuningProfile jvmTuningProfile) {
+        this.jvmTuningProfile = jvmTuningProfile;
+    }
 }
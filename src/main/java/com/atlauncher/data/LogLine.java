@@ -0,0 +1,40 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import com.atlauncher.evnt.LogEvent.LogType;
+
+/**
+ * A single line of a log, with the timestamp only set on the first line of each message.
+ */
+public final class LogLine {
+    public final LogType type;
+    public final String timestamp;
+    public final String text;
+
+    public LogLine(LogType type, String timestamp, String text) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.text = text;
+    }
+
+    @Override
+    public String toString() {
+        return this.timestamp == null ? this.text : this.timestamp + this.text;
+    }
+}
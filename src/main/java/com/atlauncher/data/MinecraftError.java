@@ -17,9 +17,17 @@
  */
 package com.atlauncher.data;
 
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+
+import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
+import com.atlauncher.constants.Constants;
 import com.atlauncher.managers.DialogManager;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.MinecraftCrashAnalyser;
 import com.atlauncher.utils.OS;
+import com.atlauncher.utils.Utils;
 
 import org.mini2Dx.gettext.GetText;
 
@@ -28,14 +36,36 @@ public class MinecraftError {
     static final int CONCURRENT_MODIFICATION_ERROR_1_6 = 2;
     static final int USING_NEWER_JAVA_THAN_8 = 3;
 
+    /**
+     * Gets the error to show a popup for from what was found in Minecraft's output, or 0 if there's nothing to show.
+     */
+    static int fromDiagnosis(MinecraftCrashAnalyser.Diagnosis diagnosis) {
+        if (diagnosis.hasFinding(MinecraftCrashAnalyser.USING_NEWER_JAVA_THAN_8)) {
+            return MinecraftError.USING_NEWER_JAVA_THAN_8;
+        }
+
+        if (diagnosis.hasFinding(MinecraftCrashAnalyser.CONCURRENT_MODIFICATION_ERROR_1_6)) {
+            return MinecraftError.CONCURRENT_MODIFICATION_ERROR_1_6;
+        }
+
+        if (diagnosis.hasFinding(MinecraftCrashAnalyser.OUT_OF_MEMORY)) {
+            return MinecraftError.OUT_OF_MEMORY;
+        }
+
+        return 0;
+    }
+
     static void showInformationPopup(int error) {
         switch (error) {
             case MinecraftError.OUT_OF_MEMORY:
                 MinecraftError.showOutOfMemoryPopup();
+                break;
             case MinecraftError.CONCURRENT_MODIFICATION_ERROR_1_6:
                 MinecraftError.showConcurrentModificationError16();
+                break;
             case MinecraftError.USING_NEWER_JAVA_THAN_8:
                 MinecraftError.showUsingNewerJavaThan8Popup();
+                break;
         }
     }
 
@@ -66,4 +96,36 @@ public class MinecraftError {
             OS.openWebBrowser("https://atl.pw/java8download");
         }
     }
+
+    /**
+     * Shows what was found in the output of a crashed instance which doesn't have its own popup, with the option to
+     * upload the report to share when asking for support.
+     */
+    static void showCrashReportPopup(String name, MinecraftCrashAnalyser.Diagnosis diagnosis) {
+        StringBuilder found = new StringBuilder();
+        diagnosis.findings.forEach(finding -> found.append("<br/>").append(finding.description));
+
+        int ret = DialogManager.okDialog().setTitle(GetText.tr("About Your Crash"))
+                .setContent(new HTMLBuilder().center().text(GetText.tr(
+                        "Minecraft has crashed and we found some problems which may have caused it:") + "<br/>"
+                        + found + "<br/><br/>" + GetText.tr(
+                                "You can upload a report with these problems and the last lines of output to share when asking for support."))
+                        .build())
+                .addOption(GetText.tr("Upload Report"), true).setType(DialogManager.INFO).show();
+
+        if (ret == 1) {
+            App.TASKPOOL.execute(() -> {
+                String result = Utils.uploadPaste(name + " - Crash Report", diagnosis.getReport());
+
+                if (result.contains(Constants.PASTE_CHECK_URL)) {
+                    App.TOASTER.pop("Crash report uploaded and link copied to clipboard");
+                    LogManager.info("Crash report uploaded and link copied to clipboard: " + result);
+                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(result), null);
+                } else {
+                    App.TOASTER.popError("Crash report failed to upload!");
+                    LogManager.error("Crash report failed to upload: " + result);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.data.minecraft.FabricMod;
+import com.atlauncher.data.minecraft.MCMod;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.ArchiveIndex;
+import com.atlauncher.utils.ArchiveUtils;
+import com.atlauncher.utils.Hashing;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * What's known about a mod file from its mcmod.info or fabric.mod.json along with its hashes, as kept in a
+ * {@link com.atlauncher.utils.ModMetadataIndex} so the jar doesn't need to be opened again until it changes.
+ */
+public class ModMetadata {
+    public static final String MCMOD_INFO = "mcmod.info";
+    public static final String FABRIC_MOD_JSON = "fabric.mod.json";
+
+    private static final java.lang.reflect.Type MCMOD_LIST_TYPE = new TypeToken<List<MCMod>>() {
+    }.getType();
+
+    public long size;
+    public long lastModified;
+
+    public String id;
+    public String name;
+    public String version;
+    public String description;
+    public LoaderType loader;
+    public List<String> dependencies = new ArrayList<>();
+
+    public long murmur;
+    public String sha1;
+
+    public boolean isFor(long size, long lastModified) {
+        return this.size == size && this.lastModified == lastModified;
+    }
+
+    /**
+     * Gets a copy of this metadata for another file with the same contents, such as a copy of the mod.
+     */
+    public ModMetadata forFile(long size, long lastModified) {
+        ModMetadata copy = new ModMetadata();
+        copy.size = size;
+        copy.lastModified = lastModified;
+        copy.id = this.id;
+        copy.name = this.name;
+        copy.version = this.version;
+        copy.description = this.description;
+        copy.loader = this.loader;
+        copy.dependencies = this.dependencies == null ? new ArrayList<>() : new ArrayList<>(this.dependencies);
+        copy.murmur = this.murmur;
+        copy.sha1 = this.sha1;
+
+        return copy;
+    }
+
+    /**
+     * Fills in the name, version and description of the mod, using the file name for the name when it's not known.
+     */
+    public void applyTo(DisableableMod mod, String fileName) {
+        mod.name = Optional.ofNullable(this.name).orElse(fileName);
+        mod.version = Optional.ofNullable(this.version).orElse("Unknown");
+        mod.description = this.description;
+    }
+
+    /**
+     * Reads the metadata of a mod file, opening it only once to get both metadata files out of it. The hashes aren't
+     * worked out until {@link #hash(Path)} is called, as they're only needed for metadata that's kept.
+     */
+    public static ModMetadata read(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+        ModMetadata metadata = new ModMetadata();
+        metadata.size = attributes.size();
+        metadata.lastModified = attributes.lastModifiedTime().toMillis();
+
+        Map<String, String> files = readMetadataFiles(file);
+        if (!metadata.readMCMod(files.get(MCMOD_INFO))) {
+            metadata.readFabricMod(files.get(FABRIC_MOD_JSON));
+        }
+
+        return metadata;
+    }
+
+    /**
+     * Works out the hashes of the mod file this metadata is for.
+     */
+    public void hash(Path file) throws IOException {
+        this.murmur = Hashing.murmur(file);
+        this.sha1 = Hashing.sha1(file).toString();
+    }
+
+    private static Map<String, String> readMetadataFiles(Path file) {
+        Map<String, String> files = new HashMap<>();
+
+        try {
+            ArchiveIndex.forFile(file).read(Arrays.asList(MCMOD_INFO, FABRIC_MOD_JSON))
+                    .forEach((name, contents) -> files.put(name, new String(contents, StandardCharsets.UTF_8)));
+            return files;
+        } catch (Throwable t) {
+            LogManager.debug("Failed to read mod metadata from central directory of " + file.toAbsolutePath() + ": "
+                    + t.getMessage());
+        }
+
+        files.put(MCMOD_INFO, ArchiveUtils.getFile(file, MCMOD_INFO));
+        files.put(FABRIC_MOD_JSON, ArchiveUtils.getFile(file, FABRIC_MOD_JSON));
+
+        return files;
+    }
+
+    private boolean readMCMod(String contents) {
+        if (contents == null) {
+            return false;
+        }
+
+        try {
+            List<MCMod> mods = Gsons.MINECRAFT.fromJson(contents, MCMOD_LIST_TYPE);
+
+            if (mods == null || mods.size() == 0 || mods.get(0) == null) {
+                return false;
+            }
+
+            MCMod mod = mods.get(0);
+            this.id = mod.modid;
+            this.name = mod.name;
+            this.version = mod.version;
+            this.description = mod.description;
+            this.loader = LoaderType.FORGE;
+
+            if (mod.dependencies != null) {
+                this.dependencies.addAll(mod.dependencies);
+            }
+
+            return true;
+        } catch (Exception ignored) {
+            return false;
+        }
+    }
+
+    private boolean readFabricMod(String contents) {
+        if (contents == null) {
+            return false;
+        }
+
+        try {
+            FabricMod mod = Gsons.MINECRAFT.fromJson(contents, FabricMod.class);
+
+            if (mod == null) {
+                return false;
+            }
+
+            this.id = mod.id;
+            this.name = mod.name;
+            this.version = mod.version;
+            this.description = mod.description;
+            this.loader = LoaderType.FABRIC;
+
+            if (mod.depends != null) {
+                this.dependencies.addAll(mod.depends.keySet());
+            } else if (mod.requires != null) {
+                this.dependencies.addAll(mod.requires.keySet());
+            }
+
+            return true;
+        } catch (Exception ignored) {
+            return false;
+        }
+    }
+}
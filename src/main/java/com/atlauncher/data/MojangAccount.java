@@ -29,7 +29,6 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 
-import com.atlauncher.App;
 import com.atlauncher.Gsons;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.data.mojang.api.MinecraftProfileResponse;
@@ -229,14 +228,12 @@ public class MojangAccount extends AbstractAccount {
                 if (ret == DialogManager.OK_OPTION) {
                     if (passwordField.getPassword().length == 0) {
                         LogManager.error("Aborting login for " + this.minecraftUsername + ", no password entered");
-                        App.launcher.setMinecraftLaunched(false);
                         return null;
                     }
 
                     this.setPassword(new String(passwordField.getPassword()));
                 } else {
                     LogManager.error("Aborting login for " + this.minecraftUsername);
-                    App.launcher.setMinecraftLaunched(false);
                     return null;
                 }
             }
@@ -254,7 +251,6 @@ public class MojangAccount extends AbstractAccount {
                             + "<br/><br/>" + response.getErrorMessage()).build())
                     .setType(DialogManager.ERROR).show();
 
-            App.launcher.setMinecraftLaunched(false);
             return null;
         }
 
@@ -0,0 +1,453 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ProcessManager;
+import com.atlauncher.utils.MinecraftLogClassifier;
+import com.atlauncher.utils.OS;
+
+import net.arikia.dev.drpc.DiscordRichPresence;
+import oshi.software.os.OSProcess;
+
+/**
+ * A process started by the launcher whose output is being read by the {@link ProcessManager}.
+ *
+ * Each line of output is censored and classified (in a single pass by the classifier), kept in a bounded buffer,
+ * written to a rotating log file and then passed on to the handler and any listeners, which are all given the same
+ * classified line. All of that happens on the process manager's thread, so handlers shouldn't block.
+ */
+public class RunningProcess {
+    public static final int MAX_BUFFERED_LINES = 5000;
+    public static final String LOG_FILE_NAME = "launcher_output.log";
+    public static final long MAX_LOG_FILE_SIZE = 10 * 1024 * 1024;
+    public static final int MAX_LOG_FILES = 5;
+
+    public final String name;
+    public final Process process;
+
+    private final InputStream inputStream;
+    private final Charset charset = Charset.defaultCharset();
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+    private final MinecraftLogClassifier classifier;
+    private final Consumer<MinecraftLogClassifier.Result> lineHandler;
+    private volatile List<Consumer<MinecraftLogClassifier.Result>> listeners = Collections.emptyList();
+    private final ArrayDeque<MinecraftLogClassifier.Result> bufferedLines = new ArrayDeque<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private final Path logFile;
+    private BufferedWriter logWriter;
+    private long logFileSize;
+
+    private final long startTime = System.currentTimeMillis();
+    private volatile long totalLines = 0;
+    private volatile long totalBytes = 0;
+    private long sampledAt = startTime;
+    private long sampledLines = 0;
+    private long sampledBytes = 0;
+    private volatile double linesPerSecond = 0;
+    private volatile double bytesPerSecond = 0;
+    private volatile double peakLinesPerSecond = 0;
+
+    private int pid = 0;
+    private OSProcess lastSnapshot;
+    private volatile long memoryUsage = 0;
+    private volatile long peakMemoryUsage = 0;
+    private volatile double cpuUsage = 0;
+
+    private volatile boolean killed = false;
+    private volatile DiscordRichPresence discordPresence;
+
+    public RunningProcess(String name, Process process, Path logsDirectory, MinecraftLogClassifier classifier,
+            Consumer<MinecraftLogClassifier.Result> lineHandler) {
+        this.name = name;
+        this.process = process;
+        this.inputStream = process.getInputStream();
+        this.classifier = classifier;
+        this.lineHandler = lineHandler;
+        this.logFile = logsDirectory == null ? null : logsDirectory.resolve(LOG_FILE_NAME);
+
+        openLogFile();
+    }
+
+    /**
+     * Adds a listener which is first given all the buffered lines and then every line from then on, so no lines are
+     * missed or given twice.
+     */
+    public void addLineListener(Consumer<MinecraftLogClassifier.Result> listener) {
+        synchronized (this.bufferedLines) {
+            this.bufferedLines.forEach(listener);
+
+            List<Consumer<MinecraftLogClassifier.Result>> listeners = new ArrayList<>(this.listeners);
+            listeners.add(listener);
+            this.listeners = listeners;
+        }
+    }
+
+    public void removeLineListener(Consumer<MinecraftLogClassifier.Result> listener) {
+        synchronized (this.bufferedLines) {
+            List<Consumer<MinecraftLogClassifier.Result>> listeners = new ArrayList<>(this.listeners);
+            listeners.remove(listener);
+            this.listeners = listeners;
+        }
+    }
+
+    /**
+     * Gets the last lines of output, up to {@link #MAX_BUFFERED_LINES}.
+     */
+    public List<String> getBufferedLines() {
+        synchronized (this.bufferedLines) {
+            List<String> lines = new ArrayList<>(this.bufferedLines.size());
+            this.bufferedLines.forEach(result -> lines.add(result.line));
+
+            return lines;
+        }
+    }
+
+    /**
+     * Waits until the process has exited and all of its output has been handled.
+     */
+    public void waitForOutput() throws InterruptedException {
+        this.finished.await();
+    }
+
+    public boolean isFinished() {
+        return this.finished.getCount() == 0;
+    }
+
+    public long getTotalLines() {
+        return this.totalLines;
+    }
+
+    public long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    public double getLinesPerSecond() {
+        return this.linesPerSecond;
+    }
+
+    public double getBytesPerSecond() {
+        return this.bytesPerSecond;
+    }
+
+    /**
+     * Gets the resident memory used by the process as of the last time its resources were sampled.
+     */
+    public long getMemoryUsage() {
+        return this.memoryUsage;
+    }
+
+    /**
+     * Gets the CPU used by the process between the last two times its resources were sampled, where 1 is one full
+     * core.
+     */
+    public double getCpuUsage() {
+        return this.cpuUsage;
+    }
+
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    public boolean wasKilled() {
+        return this.killed;
+    }
+
+    public DiscordRichPresence getDiscordPresence() {
+        return this.discordPresence;
+    }
+
+    public void setDiscordPresence(DiscordRichPresence discordPresence) {
+        this.discordPresence = discordPresence;
+    }
+
+    /**
+     * Kills the process. Its output will still be read until it's gone.
+     */
+    public void kill() {
+        LogManager.error("Killing " + this.name);
+
+        this.killed = true;
+        this.process.destroy();
+    }
+
+    public String getStatistics() {
+        double seconds = Math.max(1, System.currentTimeMillis() - this.startTime) / 1000.0;
+
+        return String.format(
+                "%s output %d lines (%.1f lines/s, peak %.1f lines/s) and %d bytes (%.1f bytes/s), peak memory %d MB",
+                this.name, this.totalLines, this.totalLines / seconds, this.peakLinesPerSecond, this.totalBytes,
+                this.totalBytes / seconds, this.peakMemoryUsage / 1048576);
+    }
+
+    /**
+     * Gets the memory and CPU used by the process from the OS. Can be slow, so is run off the process manager's
+     * thread.
+     */
+    public synchronized void sampleResources() {
+        if (isFinished() || this.pid == -1) {
+            return;
+        }
+
+        try {
+            if (this.pid == 0) {
+                this.pid = OS.getProcessId(this.process);
+
+                if (this.pid == -1) {
+                    return;
+                }
+            }
+
+            OSProcess snapshot = OS.getSystemInfo().getOperatingSystem().getProcess(this.pid);
+
+            if (snapshot == null) {
+                return;
+            }
+
+            this.memoryUsage = snapshot.getResidentSetSize();
+            this.peakMemoryUsage = Math.max(this.peakMemoryUsage, this.memoryUsage);
+            this.cpuUsage = this.lastSnapshot == null ? snapshot.getProcessCpuLoadCumulative()
+                    : snapshot.getProcessCpuLoadBetweenTicks(this.lastSnapshot);
+            this.lastSnapshot = snapshot;
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Failed to get resource usage of " + this.name, t, false);
+            this.pid = -1;
+        }
+    }
+
+    /**
+     * Reads whatever output is available without blocking. Only called from the process manager's thread.
+     *
+     * @return if any output was read
+     */
+    public boolean pump(byte[] buffer) {
+        if (isFinished()) {
+            return false;
+        }
+
+        try {
+            // checked before looking for output, so if it's exited then everything it wrote is already available
+            boolean alive = this.process.isAlive();
+            int available = this.inputStream.available();
+
+            if (available > 0) {
+                int read = this.inputStream.read(buffer, 0, Math.min(available, buffer.length));
+
+                if (read > 0) {
+                    onOutput(buffer, read);
+                    return true;
+                }
+
+                if (read == -1) {
+                    finish();
+                    return false;
+                }
+            }
+
+            if (!alive) {
+                finish();
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read output from " + this.name, e);
+            finish();
+        }
+
+        return false;
+    }
+
+    /**
+     * Works out the lines/bytes per second since the last time this was called.
+     */
+    public void sample(long now) {
+        long elapsed = now - this.sampledAt;
+
+        if (elapsed <= 0) {
+            return;
+        }
+
+        this.linesPerSecond = (this.totalLines - this.sampledLines) * 1000.0 / elapsed;
+        this.bytesPerSecond = (this.totalBytes - this.sampledBytes) * 1000.0 / elapsed;
+        this.peakLinesPerSecond = Math.max(this.peakLinesPerSecond, this.linesPerSecond);
+
+        this.sampledAt = now;
+        this.sampledLines = this.totalLines;
+        this.sampledBytes = this.totalBytes;
+    }
+
+    private void onOutput(byte[] buffer, int length) {
+        this.totalBytes += length;
+        int lineStart = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == '\n') {
+                this.partialLine.write(buffer, lineStart, i - lineStart);
+                onLine();
+                lineStart = i + 1;
+            }
+        }
+
+        this.partialLine.write(buffer, lineStart, length - lineStart);
+    }
+
+    private void onLine() {
+        String line = new String(this.partialLine.toByteArray(), this.charset);
+        this.partialLine.reset();
+
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+
+        this.totalLines++;
+
+        // censored and classified in one go, so from here on only the censored line is used
+        MinecraftLogClassifier.Result result = this.classifier.classify(line);
+
+        List<Consumer<MinecraftLogClassifier.Result>> listeners;
+        synchronized (this.bufferedLines) {
+            if (this.bufferedLines.size() == MAX_BUFFERED_LINES) {
+                this.bufferedLines.removeFirst();
+            }
+            this.bufferedLines.addLast(result);
+            listeners = this.listeners;
+        }
+
+        writeToLogFile(result.line);
+
+        try {
+            this.lineHandler.accept(result);
+
+            for (Consumer<MinecraftLogClassifier.Result> listener : listeners) {
+                listener.accept(result);
+            }
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Error handling output from " + this.name, t);
+        }
+    }
+
+    private void finish() {
+        if (this.partialLine.size() != 0) {
+            onLine();
+        }
+
+        sample(System.currentTimeMillis());
+        closeLogFile();
+
+        try {
+            this.inputStream.close();
+        } catch (IOException ignored) {
+        }
+
+        this.finished.countDown();
+    }
+
+    private void openLogFile() {
+        if (this.logFile == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(this.logFile.getParent());
+            rotateLogFiles();
+            this.logWriter = Files.newBufferedWriter(this.logFile, StandardCharsets.UTF_8);
+            this.logFileSize = 0;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to open " + this.logFile + " for writing", e);
+            this.logWriter = null;
+        }
+    }
+
+    private void rotateLogFiles() throws IOException {
+        Files.deleteIfExists(this.logFile.resolveSibling(LOG_FILE_NAME + "." + (MAX_LOG_FILES - 1)));
+
+        for (int i = MAX_LOG_FILES - 2; i >= 0; i--) {
+            Path from = i == 0 ? this.logFile : this.logFile.resolveSibling(LOG_FILE_NAME + "." + i);
+
+            if (Files.exists(from)) {
+                Files.move(from, this.logFile.resolveSibling(LOG_FILE_NAME + "." + (i + 1)),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private void writeToLogFile(String line) {
+        if (this.logWriter == null) {
+            return;
+        }
+
+        try {
+            this.logWriter.write(line);
+            this.logWriter.newLine();
+            this.logFileSize += line.length() + 1;
+
+            if (this.logFileSize > MAX_LOG_FILE_SIZE) {
+                closeLogFile();
+                openLogFile();
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to write to " + this.logFile, e);
+            closeLogFile();
+        }
+    }
+
+    /**
+     * Flushes the log file, called when there's no output waiting so that it stays reasonably up to date.
+     */
+    public void flushLogFile() {
+        if (this.logWriter == null) {
+            return;
+        }
+
+        try {
+            this.logWriter.flush();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to write to " + this.logFile, e);
+            closeLogFile();
+        }
+    }
+
+    private void closeLogFile() {
+        if (this.logWriter == null) {
+            return;
+        }
+
+        try {
+            this.logWriter.close();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to close " + this.logFile, e);
+        }
+
+        this.logWriter = null;
+    }
+}
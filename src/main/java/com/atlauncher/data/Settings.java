@@ -92,6 +92,8 @@ public class Settings {
     public boolean maximiseMinecraft = false;
     public boolean ignoreJavaOnInstanceLaunch = false;
     public boolean useJavaProvidedByMinecraft = true;
+    public JvmTuningProfile jvmTuningProfile = JvmTuningProfile.AUTOMATIC;
+    public boolean jvmTuningUseRecommendedMemory = false;
 
     // Network
     public int concurrentConnections = 8;
@@ -109,6 +111,7 @@ public class Settings {
     public boolean enableAnalytics = true;
     public String analyticsClientId = UUID.randomUUID().toString();
     public boolean enableOpenEyeReporting = true;
+    public int consoleScrollback = 10000;
 
     // Tools
     public boolean enableServerChecker = false;
@@ -117,6 +120,8 @@ public class Settings {
     // Backups
     public boolean enableAutomaticBackupAfterLaunch = false;
     public BackupMode backupMode = BackupMode.NORMAL;
+    public boolean useIncrementalBackups = true;
+    public int backupsToKeep = 0; // 0 keeps every backup
 
     public void convert(Properties properties) {
         String importedDateFormat = properties.getProperty("dateformat");
@@ -319,6 +324,8 @@ public class Settings {
 
         validateServerCheckerWait();
 
+        validateConsoleScrollback();
+
         validateConcurrentConnections();
 
         validateDateFormat();
@@ -486,6 +493,14 @@ public class Settings {
         }
     }
 
+    private void validateConsoleScrollback() {
+        if (consoleScrollback < 1000 || consoleScrollback > 1000000) {
+            LogManager.warn("Tried to set console scrollback to " + consoleScrollback + " which is not valid! Must "
+                    + "be between 1000 and 1000000. Setting back to default of 10000!");
+            consoleScrollback = 10000;
+        }
+    }
+
     private void validateConcurrentConnections() {
         if (concurrentConnections < 1) {
             LogManager.warn("Tried to set the number of concurrent connections to " + concurrentConnections
@@ -0,0 +1,43 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.backup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.atlauncher.annot.Json;
+import com.atlauncher.data.BackupMode;
+
+/**
+ * The manifest for a single backup of an instance, listing every file in it and the chunks that make each one up.
+ */
+@Json
+public class BackupSnapshot {
+    public String id;
+    public String instance;
+    public Date created;
+    public BackupMode backupMode;
+    public long totalSize;
+    public List<BackupFile> files = new ArrayList<>();
+
+    @Override
+    public String toString() {
+        return this.created + " (" + this.backupMode + ", " + (this.totalSize / 1024 / 1024) + " MB)";
+    }
+}
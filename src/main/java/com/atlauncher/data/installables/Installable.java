@@ -64,10 +64,10 @@ public abstract class Installable {
 
     public boolean showModsChooser = true;
     public CurseForgeManifest curseForgeManifest;
-    public Path curseExtractedPath;
+    public Path curseForgeArchive;
     public ModpacksChPackManifest modpacksChPackManifest;
     public MultiMCManifest multiMCManifest;
-    public Path multiMCExtractedPath;
+    public Path multiMCArchive;
 
     public abstract Pack getPack();
 
@@ -151,8 +151,8 @@ public abstract class Installable {
         boolean saveMods = !isServer && isReinstall && this.saveMods;
 
         final InstanceInstaller instanceInstaller = new InstanceInstaller(instanceName, pack, version, isReinstall,
-                isServer, saveMods, null, showModsChooser, loaderVersion, curseForgeManifest, curseExtractedPath,
-                modpacksChPackManifest, multiMCManifest, multiMCExtractedPath) {
+                isServer, saveMods, null, showModsChooser, loaderVersion, curseForgeManifest, curseForgeArchive,
+                modpacksChPackManifest, multiMCManifest, multiMCArchive) {
 
             protected void done() {
                 Boolean success = false;
@@ -248,14 +248,6 @@ public abstract class Installable {
                     }
                 }
 
-                if (this.curseForgeExtractedPath != null) {
-                    FileUtils.deleteDirectory(this.curseForgeExtractedPath);
-                }
-
-                if (this.multiMCExtractedPath != null) {
-                    FileUtils.deleteDirectory(this.multiMCExtractedPath);
-                }
-
                 dialog.dispose();
 
                 if (!addingLoader) {
@@ -29,6 +29,7 @@ public class FabricMod {
     public List<String> authors;
     public List<String> contributors;
     public Map<String, String> requires;
+    public Map<String, Object> depends;
     public String license;
     public String side;
     public List<String> initializers;
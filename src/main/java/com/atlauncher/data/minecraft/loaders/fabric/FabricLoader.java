@@ -22,6 +22,8 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -36,6 +38,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.loaders.Loader;
@@ -69,10 +72,45 @@ public class FabricLoader implements Loader {
         }
     }
 
+    /**
+     * The metadata for a given Minecraft and loader version never changes, so it's kept in the loaders folder and only
+     * fetched the first time it's needed on this machine.
+     */
     public FabricMetaVersion getLoader(String version) {
-        return Download.build()
+        Path cacheFile = FileSystem.LOADERS.resolve("fabric-" + this.minecraft + "-" + version + ".json");
+
+        if (Files.exists(cacheFile)) {
+            try {
+                FabricMetaVersion cached = Gsons.MINECRAFT.fromJson(
+                        new String(Files.readAllBytes(cacheFile), StandardCharsets.UTF_8), FabricMetaVersion.class);
+
+                if (cached != null) {
+                    return cached;
+                }
+            } catch (Throwable e) {
+                LogManager.logStackTrace("Failed to read cached Fabric loader metadata", e);
+            }
+        }
+
+        String json = Download.build()
                 .setUrl(String.format("https://meta.fabricmc.net/v2/versions/loader/%s/%s", this.minecraft, version))
-                .asClass(FabricMetaVersion.class);
+                .asString();
+
+        if (json == null) {
+            return null;
+        }
+
+        FabricMetaVersion metaVersion = Gsons.MINECRAFT.fromJson(json, FabricMetaVersion.class);
+
+        if (metaVersion != null) {
+            try {
+                Files.write(cacheFile, json.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to cache Fabric loader metadata", e);
+            }
+        }
+
+        return metaVersion;
     }
 
     public FabricMetaVersion getVersion(String version) {
@@ -18,7 +18,6 @@
 package com.atlauncher.data.minecraft.loaders.forge;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -34,6 +33,8 @@ import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 
 public class Forge113Loader extends ForgeLoader {
+    private Version versionJson;
+
     @Override
     public ForgeInstallProfile getInstallProfile() {
         ForgeInstallProfile installProfile = super.getInstallProfile();
@@ -68,32 +69,29 @@ public class Forge113Loader extends ForgeLoader {
         });
     }
 
-    public Version getVersion() {
-        Version version = null;
+    @Override
+    public void downloadAndExtractInstaller() throws Exception {
+        this.versionJson = null;
+
+        super.downloadAndExtractInstaller();
+    }
 
-        try {
-            version = Gsons.MINECRAFT.fromJson(new FileReader(new File(this.tempDir, "version.json")), Version.class);
-        } catch (JsonSyntaxException | JsonIOException | FileNotFoundException e) {
-            LogManager.logStackTrace(e);
+    public Version getVersion() {
+        if (this.versionJson == null) {
+            try (FileReader fileReader = new FileReader(new File(this.tempDir, "version.json"))) {
+                this.versionJson = Gsons.MINECRAFT.fromJson(fileReader, Version.class);
+            } catch (JsonSyntaxException | JsonIOException | IOException e) {
+                LogManager.logStackTrace(e);
+            }
         }
 
-        return version;
+        return this.versionJson;
     }
 
     public void runProcessors() {
         ForgeInstallProfile installProfile = this.getInstallProfile();
 
-        installProfile.processors.forEach(processor -> {
-            if (!instanceInstaller.isCancelled()) {
-                try {
-                    processor.process(installProfile, this.tempDir, instanceInstaller);
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                    LogManager.error("Failed to process processor with jar " + processor.getJar());
-                    instanceInstaller.cancel(true);
-                }
-            }
-        });
+        new ProcessorRunner(installProfile, this.tempDir, instanceInstaller).runAll();
     }
 
     public List<Library> getInstallLibraries() {
@@ -20,10 +20,15 @@ package com.atlauncher.data.minecraft.loaders.forge;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.atlauncher.FileSystem;
@@ -38,13 +43,19 @@ import com.atlauncher.data.minecraft.loaders.Loader;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Download;
+import com.atlauncher.utils.ArchiveExtractor;
 import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
 import com.atlauncher.workers.InstanceInstaller;
 import com.google.gson.reflect.TypeToken;
 
 import okhttp3.OkHttpClient;
 
 public class ForgeLoader implements Loader {
+    // written into the extracted installer directory once it's been fully extracted, containing the installers sha1
+    private static final String EXTRACTED_MARKER = ".extracted";
+    private static final Map<Path, Object> EXTRACT_LOCKS = new ConcurrentHashMap<>();
+
     protected String installerUrl;
     protected String version;
     protected String rawVersion;
@@ -54,6 +65,9 @@ public class ForgeLoader implements Loader {
     protected File tempDir;
     protected InstanceInstaller instanceInstaller;
 
+    private ForgeInstallProfile installProfile;
+    private ForgeInstallProfile versionInfo;
+
     @Override
     public void set(Map<String, Object> metadata, File tempDir, InstanceInstaller instanceInstaller,
             LoaderVersion versionOverride) {
@@ -141,14 +155,45 @@ public class ForgeLoader implements Loader {
         return getRecommendedVersion(minecraft);
     }
 
+    /**
+     * The installer is extracted once per Forge version into the loaders folder and then shared between all instances
+     * and servers installing that version.
+     */
+    public Path getExtractedInstallerDirectory() {
+        return FileSystem.LOADERS.resolve("forge-" + this.minecraft + "-" + this.version);
+    }
+
     @Override
     public void downloadAndExtractInstaller() throws Exception {
+        Path extractedDir = getExtractedInstallerDirectory();
+
+        // checking and extracting under the same lock stops two installs of the same version extracting it together
+        synchronized (EXTRACT_LOCKS.computeIfAbsent(extractedDir, dir -> new Object())) {
+            Path existing = findExtractedInstaller(extractedDir, this.installerSha1);
+
+            if (existing != null) {
+                LogManager.debug("Using already extracted Forge installer at " + existing);
+                extractedDir = existing;
+            } else {
+                extractedDir = extractInstaller(downloadInstaller(), extractedDir);
+            }
+        }
+
+        this.tempDir = extractedDir.toFile();
+        this.installProfile = null;
+        this.versionInfo = null;
+
+        this.copyLocalLibraries();
+    }
+
+    private Path downloadInstaller() throws Exception {
         OkHttpClient httpClient = Network.createProgressClient(instanceInstaller);
 
-        Download download = Download.build().setUrl(this.installerUrl)
-                .downloadTo(
-                        FileSystem.LOADERS.resolve("forge-" + this.minecraft + "-" + this.version + "-installer.jar"))
-                .withInstanceInstaller(instanceInstaller).withHttpClient(httpClient).unzipTo(this.tempDir.toPath());
+        Path installerFile = FileSystem.LOADERS
+                .resolve("forge-" + this.minecraft + "-" + this.version + "-installer.jar");
+
+        Download download = Download.build().setUrl(this.installerUrl).downloadTo(installerFile)
+                .withInstanceInstaller(instanceInstaller).withHttpClient(httpClient);
 
         if (installerSize != null) {
             download = download.size(this.installerSize);
@@ -168,7 +213,91 @@ public class ForgeLoader implements Loader {
 
         download.downloadFile();
 
-        this.copyLocalLibraries();
+        return installerFile;
+    }
+
+    /**
+     * Gets the directory an installer with the given sha1 has already been extracted to, or null if it hasn't been.
+     *
+     * If a different installer was extracted to the versions directory (such as when Forge republishes a version), the
+     * new one goes in a directory named with its sha1 next to it rather than replacing it, since other installs may
+     * still be running processors from it.
+     */
+    private static Path findExtractedInstaller(Path extractedDir, String sha1) {
+        String extractedSha1 = getExtractedSha1(extractedDir);
+
+        if (extractedSha1 != null && (sha1 == null || extractedSha1.equalsIgnoreCase(sha1))) {
+            return extractedDir;
+        }
+
+        if (sha1 != null) {
+            Path byHash = getExtractedInstallerDirectory(extractedDir, sha1);
+
+            if (sha1.equalsIgnoreCase(getExtractedSha1(byHash))) {
+                return byHash;
+            }
+        }
+
+        return null;
+    }
+
+    private static Path getExtractedInstallerDirectory(Path extractedDir, String sha1) {
+        return extractedDir.resolveSibling(extractedDir.getFileName() + "-" + sha1.toLowerCase());
+    }
+
+    private static String getExtractedSha1(Path extractedDir) {
+        Path marker = extractedDir.resolve(EXTRACTED_MARKER);
+
+        if (!Files.exists(marker)) {
+            return null;
+        }
+
+        try {
+            return new String(Files.readAllBytes(marker), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read extracted Forge installer marker", e);
+            return null;
+        }
+    }
+
+    /**
+     * Extracts into a staging directory first and then moves it into place, so that a half extracted installer is never
+     * picked up by another install. An existing extraction is never deleted or replaced, and the directory the
+     * installer ended up in is returned.
+     */
+    private static Path extractInstaller(Path installerFile, Path extractedDir) throws IOException {
+        String sha1 = Hashing.sha1(installerFile).toString();
+        Path existing = findExtractedInstaller(extractedDir, sha1);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        Path targetDir = Files.exists(extractedDir) ? getExtractedInstallerDirectory(extractedDir, sha1) : extractedDir;
+        Path stagingDir = targetDir.resolveSibling(targetDir.getFileName() + "-" + System.nanoTime() + ".tmp");
+
+        try {
+            FileUtils.createDirectory(stagingDir);
+            new ArchiveExtractor(installerFile, stagingDir).extract();
+            Files.write(stagingDir.resolve(EXTRACTED_MARKER), sha1.getBytes(StandardCharsets.UTF_8));
+
+            Files.move(stagingDir, targetDir, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // another launcher may have got there first, in which case use what it extracted
+            existing = findExtractedInstaller(extractedDir, sha1);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            throw e;
+        } finally {
+            if (Files.exists(stagingDir)) {
+                FileUtils.deleteDirectory(stagingDir);
+            }
+        }
+
+        return targetDir;
     }
 
     public void copyLocalLibraries() {
@@ -195,33 +324,33 @@ public class ForgeLoader implements Loader {
     }
 
     public ForgeInstallProfile getInstallProfile() {
-        ForgeInstallProfile installProfile = null;
-
-        try {
-            installProfile = Gsons.MINECRAFT.fromJson(new FileReader(new File(this.tempDir, "install_profile.json")),
-                    ForgeInstallProfile.class);
-        } catch (Throwable e) {
-            LogManager.logStackTrace(e);
+        if (this.installProfile == null) {
+            try (FileReader fileReader = new FileReader(new File(this.tempDir, "install_profile.json"))) {
+                this.installProfile = Gsons.MINECRAFT.fromJson(fileReader, ForgeInstallProfile.class);
+            } catch (Throwable e) {
+                LogManager.logStackTrace(e);
+            }
         }
 
-        return installProfile;
+        return this.installProfile;
     }
 
     public ForgeInstallProfile getVersionInfo() {
-        if (this.getInstallProfile().versionInfo != null) {
-            return this.getInstallProfile().versionInfo;
-        }
+        ForgeInstallProfile installProfile = this.getInstallProfile();
 
-        ForgeInstallProfile versionInfo = null;
+        if (installProfile.versionInfo != null) {
+            return installProfile.versionInfo;
+        }
 
-        try {
-            versionInfo = Gsons.MINECRAFT.fromJson(new FileReader(new File(this.tempDir, "version.json")),
-                    ForgeInstallProfile.class);
-        } catch (Throwable e) {
-            LogManager.logStackTrace(e);
+        if (this.versionInfo == null) {
+            try (FileReader fileReader = new FileReader(new File(this.tempDir, "version.json"))) {
+                this.versionInfo = Gsons.MINECRAFT.fromJson(fileReader, ForgeInstallProfile.class);
+            } catch (Throwable e) {
+                LogManager.logStackTrace(e);
+            }
         }
 
-        return versionInfo;
+        return this.versionInfo;
     }
 
     @Override
@@ -19,9 +19,6 @@ package com.atlauncher.data.minecraft.loaders.forge;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Method;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -63,38 +60,37 @@ public class Processor {
         return this.outputs != null && this.outputs.size() != 0;
     }
 
-    public void process(ForgeInstallProfile installProfile, File extractedDir, InstanceInstaller instanceInstaller)
-            throws IOException {
-        // delete any outputs that are invalid. They still need to run
-        if (!this.needToRun(installProfile, extractedDir, instanceInstaller)) {
-            LogManager.debug("No need to run processor " + this.jar + " since outputs all match hashes");
-            return;
-        }
-
-        File librariesDirectory = instanceInstaller.isServer ? instanceInstaller.root.resolve("libraries").toFile()
-                : FileSystem.LIBRARIES.toFile();
+    public File getJarFile(InstanceInstaller instanceInstaller) {
+        return Utils.convertMavenIdentifierToFile(this.jar, getLibrariesDirectory(instanceInstaller));
+    }
 
-        File jarPath = Utils.convertMavenIdentifierToFile(this.jar, librariesDirectory);
+    public String getMainClass(InstanceInstaller instanceInstaller) throws IOException {
+        File jarPath = getJarFile(instanceInstaller);
         LogManager.debug("Jar path is " + jarPath);
         if (!jarPath.exists() || !jarPath.isFile()) {
             LogManager.error("Failed to process processor with jar " + this.jar + " as the jar doesn't exist");
             instanceInstaller.cancel(true);
-            return;
+            return null;
         }
 
-        JarFile jarFile = new JarFile(jarPath);
-        String mainClass = jarFile.getManifest().getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
-        jarFile.close();
+        String mainClass;
+        try (JarFile jarFile = new JarFile(jarPath)) {
+            mainClass = jarFile.getManifest().getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+        }
         LogManager.debug("Found mainclass of " + mainClass);
 
         if (mainClass == null || mainClass.isEmpty()) {
             LogManager.error("Failed to process processor with jar " + this.jar + " as the mainclass wasn't found");
             instanceInstaller.cancel(true);
-            return;
+            return null;
         }
 
-        List<URL> classpath = new ArrayList<>();
-        classpath.add(jarPath.toURI().toURL());
+        return mainClass;
+    }
+
+    public List<File> getClasspathFiles(InstanceInstaller instanceInstaller) {
+        List<File> classpath = new ArrayList<>();
+        classpath.add(getJarFile(instanceInstaller));
 
         for (String classpathItem : this.getClasspath()) {
             LogManager.debug("Adding classpath " + classpathItem);
@@ -104,12 +100,19 @@ public class Processor {
                 LogManager.error("Failed to process processor with jar " + this.jar
                         + " as the classpath item with file " + classpathFile.getAbsolutePath() + " doesn't exist");
                 instanceInstaller.cancel(true);
-                return;
+                return null;
             }
 
-            classpath.add(classpathFile.toURI().toURL());
+            classpath.add(classpathFile);
         }
 
+        return classpath;
+    }
+
+    public List<String> resolveArgs(ForgeInstallProfile installProfile, File extractedDir,
+            InstanceInstaller instanceInstaller) {
+        File librariesDirectory = getLibrariesDirectory(instanceInstaller);
+
         List<String> args = new ArrayList<>();
 
         for (String arg : this.getArgs()) {
@@ -126,7 +129,7 @@ public class Processor {
                     LogManager.error("Failed to process processor with jar " + this.jar + " as the argument with name "
                             + arg + " as the data item with key " + key + " was empty or null");
                     instanceInstaller.cancel(true);
-                    return;
+                    return null;
                 }
 
                 LogManager.debug("Got value of " + value);
@@ -145,7 +148,7 @@ public class Processor {
                             LogManager.error("Failed to process argument with value of " + value + " as the local file "
                                     + localFile.getAbsolutePath() + " doesn't exist");
                             instanceInstaller.cancel(true);
-                            return;
+                            return null;
                         }
 
                         args.add(localFile.getAbsolutePath());
@@ -162,7 +165,7 @@ public class Processor {
                     LogManager.error("Failed to process argument with value of " + arg + " as the file "
                             + artifactFile.getAbsolutePath() + " doesn't exist");
                     instanceInstaller.cancel(true);
-                    return;
+                    return null;
                 }
 
                 args.add(artifactFile.getAbsolutePath());
@@ -179,19 +182,12 @@ public class Processor {
             args.add(FileSystem.LIBRARIES.toFile().getAbsolutePath());
         }
 
-            ClassLoader cl = new URLClassLoader(classpath.toArray(new URL[0]),
-                Processor.class.getClassLoader());
-        try {
-            LogManager.debug("Running processor");
-            Class<?> cls = Class.forName(mainClass, true, cl);
-            Method main = cls.getDeclaredMethod("main", String[].class);
-            main.invoke(null, (Object) args.toArray(new String[0]));
-        } catch (Throwable e) {
-            LogManager.logStackTrace(e);
-            LogManager.error(
-                    "Failed to process processor with jar " + this.jar + " as there was an error invoking the jar");
-            instanceInstaller.cancel(true);
-        }
+        return args;
+    }
+
+    static File getLibrariesDirectory(InstanceInstaller instanceInstaller) {
+        return instanceInstaller.isServer ? instanceInstaller.root.resolve("libraries").toFile()
+                : FileSystem.LIBRARIES.toFile();
     }
 
     public boolean needToRun(ForgeInstallProfile installProfile, File extractedDir,
@@ -200,8 +196,7 @@ public class Processor {
             return true;
         }
 
-        File librariesDirectory = instanceInstaller.isServer ? instanceInstaller.root.resolve("libraries").toFile()
-                : FileSystem.LIBRARIES.toFile();
+        File librariesDirectory = getLibrariesDirectory(instanceInstaller);
 
         for (Entry<String, String> entry : this.outputs.entrySet()) {
             String key = entry.getKey();
@@ -0,0 +1,202 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders.forge;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * Machine wide record of Forge processor runs, so that processors which have already been run with the same tool jar,
+ * arguments and input files don't need to be run again.
+ *
+ * Also keeps a record of file hashes keyed by path, size and last modified time so that unchanged files don't need to
+ * be rehashed. Most of those paths are in an installs temp folder which is gone once it's finished, so hashes for
+ * files which no longer exist (or have changed since) are dropped when saving, keeping it to files still on disk.
+ *
+ * Runs are also pruned when saving. Runs whose output copies have gone, which haven't been used in a while or which are
+ * beyond the most recently used {@link #MAX_RUNS} are dropped, and copies of outputs no run refers to are deleted.
+ */
+public class ProcessorCache {
+    private static final Path CACHE_FILE = FileSystem.LOADERS.resolve("processors.json");
+    private static final Path OUTPUTS_DIRECTORY = FileSystem.LOADERS.resolve("processors");
+    private static final int MAX_RUNS = 200;
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(60);
+
+    private static ProcessorCache instance;
+
+    private Map<String, CachedFile> files = new HashMap<>();
+    private Map<String, CachedRun> runs = new HashMap<>();
+
+    public static synchronized ProcessorCache get() {
+        if (instance == null) {
+            if (Files.exists(CACHE_FILE)) {
+                try (FileReader fileReader = new FileReader(CACHE_FILE.toFile())) {
+                    instance = Gsons.DEFAULT.fromJson(fileReader, ProcessorCache.class);
+                } catch (JsonSyntaxException | JsonIOException | IOException e) {
+                    LogManager.logStackTrace("Failed to read processor cache", e);
+                }
+            }
+
+            if (instance == null) {
+                instance = new ProcessorCache();
+            }
+
+            // runs saved before they were timestamped are treated as just used
+            long now = System.currentTimeMillis();
+            instance.runs.values().stream().filter(run -> run.lastUsed == 0).forEach(run -> run.lastUsed = now);
+        }
+
+        return instance;
+    }
+
+    public synchronized void save() {
+        this.files.entrySet().removeIf(e -> {
+            File file = new File(e.getKey());
+
+            return !file.isFile() || file.length() != e.getValue().size
+                    || file.lastModified() != e.getValue().lastModified;
+        });
+
+        prune(OUTPUTS_DIRECTORY, System.currentTimeMillis());
+
+        try (FileWriter fileWriter = new FileWriter(CACHE_FILE.toFile())) {
+            Gsons.DEFAULT.toJson(this, fileWriter);
+        } catch (JsonIOException | IOException e) {
+            LogManager.logStackTrace("Failed to save processor cache", e);
+        }
+    }
+
+    /**
+     * Gets the SHA-1 hash of a file, only hashing it if it's changed since the last time it was hashed.
+     */
+    public String sha1(File file) {
+        String key = file.getAbsolutePath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        synchronized (this) {
+            CachedFile cached = this.files.get(key);
+
+            if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+                return cached.sha1;
+            }
+        }
+
+        String sha1 = Hashing.sha1(file.toPath()).toString();
+
+        synchronized (this) {
+            this.files.put(key, new CachedFile(sha1, size, lastModified));
+        }
+
+        return sha1;
+    }
+
+    public synchronized CachedRun getRun(String signature) {
+        CachedRun run = this.runs.get(signature);
+
+        if (run != null) {
+            run.lastUsed = System.currentTimeMillis();
+        }
+
+        return run;
+    }
+
+    public synchronized void putRun(String signature, CachedRun run) {
+        run.lastUsed = System.currentTimeMillis();
+        this.runs.put(signature, run);
+    }
+
+    /**
+     * Drops runs which can't be reused or haven't been used recently, then deletes the output copies which no run
+     * refers to any more.
+     */
+    synchronized void prune(Path outputsDirectory, long now) {
+        this.runs.entrySet().removeIf(e -> now - e.getValue().lastUsed > MAX_AGE || e.getValue().outputs.values()
+                .stream().anyMatch(output -> output.copy != null && !new File(output.copy).exists()));
+
+        if (this.runs.size() > MAX_RUNS) {
+            List<String> oldest = this.runs.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastUsed)).map(Map.Entry::getKey)
+                    .limit(this.runs.size() - MAX_RUNS).collect(Collectors.toList());
+            oldest.forEach(this.runs::remove);
+        }
+
+        if (!Files.isDirectory(outputsDirectory)) {
+            return;
+        }
+
+        try (Stream<Path> signatures = Files.list(outputsDirectory)) {
+            signatures.filter(path -> !this.runs.containsKey(path.getFileName().toString()))
+                    .forEach(FileUtils::delete);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to prune processor output copies", e, false);
+        }
+    }
+
+    /**
+     * Outputs which don't live in the shared libraries folder (such as for servers) have a copy kept so that they can
+     * be reused without running the processor again.
+     */
+    public String storeOutputCopy(String signature, int index, File output) {
+        Path copy = OUTPUTS_DIRECTORY.resolve(signature).resolve(index + "-" + output.getName());
+
+        if (!FileUtils.copyFile(output.toPath(), copy, true)) {
+            return null;
+        }
+
+        return copy.toAbsolutePath().toString();
+    }
+
+    public static class CachedFile {
+        public String sha1;
+        public long size;
+        public long lastModified;
+        public String copy;
+
+        public CachedFile(String sha1, long size, long lastModified) {
+            this.sha1 = sha1;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    public static class CachedRun {
+        public Map<String, String> inputs = new HashMap<>();
+        public Map<String, CachedFile> outputs = new HashMap<>();
+        public long lastUsed;
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders.forge;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.workers.InstanceInstaller;
+
+/**
+ * Runs the processors for a Forge install profile.
+ *
+ * Processors which don't share any files with each other are run at the same time, processors using the same tool jar
+ * share a class loader and runs are recorded in the {@link ProcessorCache} so that the same Forge version only needs to
+ * be processed once per machine.
+ */
+public class ProcessorRunner {
+    private static final String INSTALLER_PLACEHOLDER = "{INSTALLER}";
+    private static final String LIBRARIES_PLACEHOLDER = "{LIBRARIES}";
+    private static final String SHARED_LIBRARIES_PLACEHOLDER = "{SHARED_LIBRARIES}";
+
+    private final ForgeInstallProfile installProfile;
+    private final File extractedDir;
+    private final InstanceInstaller instanceInstaller;
+    private final ProcessorCache cache = ProcessorCache.get();
+    private final Map<String, URLClassLoader> classLoaders = new HashMap<>();
+
+    public ProcessorRunner(ForgeInstallProfile installProfile, File extractedDir,
+            InstanceInstaller instanceInstaller) {
+        this.installProfile = installProfile;
+        this.extractedDir = extractedDir;
+        this.instanceInstaller = instanceInstaller;
+    }
+
+    public void runAll() {
+        List<ProcessorTask> tasks = new ArrayList<>();
+
+        for (Processor processor : this.installProfile.processors) {
+            ProcessorTask task = prepare(processor);
+
+            if (task == null) {
+                return;
+            }
+
+            tasks.add(task);
+        }
+
+        if (tasks.size() == 0) {
+            return;
+        }
+
+        ExecutorService executor = Executors
+                .newFixedThreadPool(Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+        Map<ProcessorTask, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+
+        try {
+            for (ProcessorTask task : tasks) {
+                // anything earlier touching the same files needs to finish first
+                CompletableFuture<?>[] dependencies = futures.entrySet().stream()
+                        .filter(e -> e.getKey().sharesFilesWith(task)).map(Map.Entry::getValue)
+                        .toArray(CompletableFuture<?>[]::new);
+
+                futures.put(task, CompletableFuture.allOf(dependencies).thenRunAsync(() -> run(task), executor));
+            }
+
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            LogManager.logStackTrace(e);
+            LogManager.error("Failed to run processors");
+            this.instanceInstaller.cancel(true);
+        } finally {
+            executor.shutdown();
+            closeClassLoaders();
+            this.cache.save();
+        }
+    }
+
+    private ProcessorTask prepare(Processor processor) {
+        try {
+            String mainClass = processor.getMainClass(this.instanceInstaller);
+            List<File> classpath = processor.getClasspathFiles(this.instanceInstaller);
+            List<String> args = processor.resolveArgs(this.installProfile, this.extractedDir, this.instanceInstaller);
+
+            if (mainClass == null || classpath == null || args == null) {
+                return null;
+            }
+
+            return new ProcessorTask(processor, mainClass, classpath, args);
+        } catch (IOException e) {
+            LogManager.logStackTrace(e);
+            LogManager.error("Failed to process processor with jar " + processor.getJar());
+            this.instanceInstaller.cancel(true);
+        }
+
+        return null;
+    }
+
+    private void run(ProcessorTask task) {
+        if (this.instanceInstaller.isCancelled()) {
+            return;
+        }
+
+        String signature = getSignature(task);
+
+        if (isCached(signature)) {
+            LogManager.debug("No need to run processor " + task.processor.getJar() + " since it's already been run");
+            return;
+        }
+
+        if (!task.processor.needToRun(this.installProfile, this.extractedDir, this.instanceInstaller)) {
+            LogManager.debug("No need to run processor " + task.processor.getJar() + " since outputs all match hashes");
+            return;
+        }
+
+        Map<String, long[]> before = new HashMap<>();
+        task.files.forEach(path -> {
+            File file = new File(path);
+
+            if (file.exists()) {
+                before.put(path, new long[] { file.length(), file.lastModified() });
+            }
+        });
+
+        try {
+            URLClassLoader cl = getClassLoader(task.classpath);
+
+            // processors sharing a class loader can't safely run at the same time
+            synchronized (cl) {
+                LogManager.debug("Running processor " + task.processor.getJar());
+                Class<?> cls = Class.forName(task.mainClass, true, cl);
+                Method main = cls.getDeclaredMethod("main", String[].class);
+                main.invoke(null, (Object) task.args.toArray(new String[0]));
+            }
+        } catch (Throwable e) {
+            LogManager.logStackTrace(e);
+            LogManager.error("Failed to process processor with jar " + task.processor.getJar()
+                    + " as there was an error invoking the jar");
+            this.instanceInstaller.cancel(true);
+            return;
+        }
+
+        record(signature, task, before);
+    }
+
+    private String getSignature(ProcessorTask task) {
+        StringBuilder signature = new StringBuilder();
+
+        for (File file : task.classpath) {
+            signature.append(this.cache.sha1(file)).append('\n');
+        }
+
+        for (String arg : task.args) {
+            signature.append(normalise(arg)).append('\n');
+        }
+
+        return Hashing.sha1(signature.toString()).toString();
+    }
+
+    private boolean isCached(String signature) {
+        ProcessorCache.CachedRun run = this.cache.getRun(signature);
+
+        if (run == null) {
+            return false;
+        }
+
+        for (Map.Entry<String, String> input : run.inputs.entrySet()) {
+            File file = new File(denormalise(input.getKey()));
+
+            if (!file.exists() || !this.cache.sha1(file).equals(input.getValue())) {
+                return false;
+            }
+        }
+
+        for (Map.Entry<String, ProcessorCache.CachedFile> output : run.outputs.entrySet()) {
+            File file = new File(denormalise(output.getKey()));
+            ProcessorCache.CachedFile cachedFile = output.getValue();
+
+            if (!file.exists()) {
+                if (cachedFile.copy == null || !new File(cachedFile.copy).exists()) {
+                    return false;
+                }
+
+                FileUtils.copyFile(new File(cachedFile.copy).toPath(), file.toPath(), true);
+            }
+
+            if (!this.cache.sha1(file).equals(cachedFile.sha1)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void record(String signature, ProcessorTask task, Map<String, long[]> before) {
+        ProcessorCache.CachedRun run = new ProcessorCache.CachedRun();
+        int index = 0;
+
+        for (String path : task.files) {
+            File file = new File(path);
+
+            if (!file.isFile()) {
+                continue;
+            }
+
+            long[] previous = before.get(path);
+
+            // anything the processor created or changed is an output, everything else is an input
+            if (previous == null || previous[0] != file.length() || previous[1] != file.lastModified()) {
+                ProcessorCache.CachedFile cachedFile = new ProcessorCache.CachedFile(this.cache.sha1(file),
+                        file.length(), file.lastModified());
+
+                if (!file.toPath().startsWith(FileSystem.LIBRARIES)) {
+                    cachedFile.copy = this.cache.storeOutputCopy(signature, index++, file);
+                }
+
+                run.outputs.put(normalise(path), cachedFile);
+            } else {
+                run.inputs.put(normalise(path), this.cache.sha1(file));
+            }
+        }
+
+        // if we can't tell what it created, then we can't safely skip it next time
+        if (run.outputs.size() != 0) {
+            this.cache.putRun(signature, run);
+        }
+    }
+
+    private String normalise(String path) {
+        String librariesDirectory = this.getLibrariesDirectory().getAbsolutePath();
+        String sharedLibrariesDirectory = FileSystem.LIBRARIES.toAbsolutePath().toString();
+        String installerDirectory = this.extractedDir.getAbsolutePath();
+
+        if (path.startsWith(librariesDirectory)) {
+            return LIBRARIES_PLACEHOLDER + path.substring(librariesDirectory.length());
+        }
+
+        if (path.startsWith(sharedLibrariesDirectory)) {
+            return SHARED_LIBRARIES_PLACEHOLDER + path.substring(sharedLibrariesDirectory.length());
+        }
+
+        if (path.startsWith(installerDirectory)) {
+            return INSTALLER_PLACEHOLDER + path.substring(installerDirectory.length());
+        }
+
+        return path;
+    }
+
+    private String denormalise(String path) {
+        if (path.startsWith(LIBRARIES_PLACEHOLDER)) {
+            return this.getLibrariesDirectory().getAbsolutePath() + path.substring(LIBRARIES_PLACEHOLDER.length());
+        }
+
+        if (path.startsWith(SHARED_LIBRARIES_PLACEHOLDER)) {
+            return FileSystem.LIBRARIES.toAbsolutePath().toString()
+                    + path.substring(SHARED_LIBRARIES_PLACEHOLDER.length());
+        }
+
+        if (path.startsWith(INSTALLER_PLACEHOLDER)) {
+            return this.extractedDir.getAbsolutePath() + path.substring(INSTALLER_PLACEHOLDER.length());
+        }
+
+        return path;
+    }
+
+    private File getLibrariesDirectory() {
+        return Processor.getLibrariesDirectory(this.instanceInstaller);
+    }
+
+    private synchronized URLClassLoader getClassLoader(List<File> classpath) throws MalformedURLException {
+        String key = classpath.stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator));
+
+        URLClassLoader cl = this.classLoaders.get(key);
+
+        if (cl == null) {
+            List<URL> urls = new ArrayList<>();
+
+            for (File file : classpath) {
+                urls.add(file.toURI().toURL());
+            }
+
+            cl = new URLClassLoader(urls.toArray(new URL[0]), Processor.class.getClassLoader());
+            this.classLoaders.put(key, cl);
+        }
+
+        return cl;
+    }
+
+    private synchronized void closeClassLoaders() {
+        this.classLoaders.values().forEach(cl -> {
+            try {
+                cl.close();
+            } catch (IOException e) {
+                LogManager.logStackTrace(e);
+            }
+        });
+
+        this.classLoaders.clear();
+    }
+
+    private static class ProcessorTask {
+        private final Processor processor;
+        private final String mainClass;
+        private final List<File> classpath;
+        private final List<String> args;
+        private final Set<String> files;
+
+        private ProcessorTask(Processor processor, String mainClass, List<File> classpath, List<String> args) {
+            this.processor = processor;
+            this.mainClass = mainClass;
+            this.classpath = classpath;
+            this.args = args;
+            this.files = args.stream().filter(arg -> new File(arg).isAbsolute())
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+
+        private boolean sharesFilesWith(ProcessorTask other) {
+            return this.files.stream().anyMatch(other.files::contains);
+        }
+    }
+}
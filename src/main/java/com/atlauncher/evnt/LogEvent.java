@@ -23,7 +23,6 @@ import javax.swing.UIManager;
 
 import com.atlauncher.App;
 import com.atlauncher.FileSystem;
-import com.atlauncher.gui.components.Console;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.Timestamper;
 
@@ -36,6 +35,8 @@ public final class LogEvent {
     public final String body;
     public final int meta;
 
+    private static String baseDir;
+
     public LogEvent(LogType type, String body) {
         this(type, body, CONSOLE | LOG4J);
     }
@@ -44,7 +45,7 @@ public final class LogEvent {
         this.type = type;
 
         if (App.settings != null && !LogManager.showDebug) {
-            body = body.replace(FileSystem.BASE_DIR.toAbsolutePath().toString(), "**USERSDIR**");
+            body = censorBaseDir(body);
         }
 
         this.body = (!body.endsWith("\n") ? body + "\n" : body);
@@ -52,32 +53,57 @@ public final class LogEvent {
         this.meta = meta;
     }
 
+    /**
+     * String.replace compiles a pattern each call, so only do it for the few messages which contain the path.
+     */
+    private static String censorBaseDir(String body) {
+        if (baseDir == null) {
+            baseDir = FileSystem.BASE_DIR.toAbsolutePath().toString();
+        }
+
+        if (body.indexOf(baseDir) == -1) {
+            return body;
+        }
+
+        return body.replace(baseDir, "**USERSDIR**");
+    }
+
     public void post(Logger logger) {
-        if ((this.meta & CONSOLE) == CONSOLE) {
-            Console c = App.console.console;
-            c.setColor(this.type.color()).setBold(true).write("[" + Timestamper.now() + "] ");
-            c.setColor(UIManager.getColor("EditorPane.foreground")).setBold(false).write(this.body);
+        post(logger, true);
+    }
+
+    public void post(Logger logger, boolean toConsole) {
+        if (toConsole && (this.meta & CONSOLE) == CONSOLE) {
+            App.console.console.write(this.type, Timestamper.now(), this.body);
         }
 
         if ((this.meta & LOG4J) == LOG4J) {
-            switch (type) {
-                case WARN: {
-                    logger.warn(body);
-                    break;
-                }
-                case ERROR: {
-                    logger.error(body);
-                    break;
-                }
-                case DEBUG: {
-                    logger.debug(body);
-                    break;
-                }
-                case INFO:
-                default: {
-                    logger.info(body);
-                    break;
-                }
+            log(logger);
+        }
+    }
+
+    /**
+     * Writes this event to the log files, even if it was only meant for the console, such as a line of game output
+     * which couldn't be queued and would otherwise be lost.
+     */
+    public void log(Logger logger) {
+        switch (type) {
+            case WARN: {
+                logger.warn(body);
+                break;
+            }
+            case ERROR: {
+                logger.error(body);
+                break;
+            }
+            case DEBUG: {
+                logger.debug(body);
+                break;
+            }
+            case INFO:
+            default: {
+                logger.info(body);
+                break;
             }
         }
     }
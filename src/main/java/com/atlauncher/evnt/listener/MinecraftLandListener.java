@@ -17,6 +17,8 @@
  */
 package com.atlauncher.evnt.listener;
 
-public interface MinecraftLandListener {
+import com.atlauncher.data.RunningProcess;
 
-}
\ No newline at end of file
+public interface MinecraftLandListener {
+    void onMinecraftLand(RunningProcess runningProcess);
+}
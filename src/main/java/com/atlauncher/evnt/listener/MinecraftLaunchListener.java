@@ -17,6 +17,8 @@
  */
 package com.atlauncher.evnt.listener;
 
-public interface MinecraftLaunchListener {
+import com.atlauncher.data.RunningProcess;
 
-}
\ No newline at end of file
+public interface MinecraftLaunchListener {
+    void onMinecraftLaunch(RunningProcess runningProcess);
+}
@@ -25,28 +25,47 @@ import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import javax.swing.JButton;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JMenuItem;
+import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 
 import com.atlauncher.App;
 import com.atlauncher.constants.Constants;
+import com.atlauncher.data.RunningProcess;
+import com.atlauncher.evnt.listener.MinecraftLandListener;
 import com.atlauncher.evnt.listener.RelocalizationListener;
 import com.atlauncher.evnt.manager.ConsoleCloseManager;
 import com.atlauncher.evnt.manager.ConsoleOpenManager;
+import com.atlauncher.evnt.manager.MinecraftLandManager;
 import com.atlauncher.evnt.manager.RelocalizationManager;
 import com.atlauncher.gui.components.Console;
 import com.atlauncher.gui.components.ConsoleBottomBar;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ProcessManager;
+import com.atlauncher.utils.MinecraftLogClassifier;
+import com.atlauncher.utils.Timestamper;
 import com.atlauncher.utils.Utils;
 
 import org.mini2Dx.gettext.GetText;
 
-public class LauncherConsole extends JFrame implements RelocalizationListener {
+public class LauncherConsole extends JFrame implements RelocalizationListener, MinecraftLandListener {
 
     private static final long serialVersionUID = -3538990021922025818L;
     public Console console;
@@ -55,6 +74,15 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
 
     private JMenuItem copy;
 
+    private final JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+    private final JTextField searchField = new JTextField();
+    private final JButton findButton = new JButton(GetText.tr("Find"));
+
+    // the launcher's own console is always the first tab, with a tab for the output of each running process after it
+    private final JTabbedPane tabbedPane = new JTabbedPane();
+    private final Map<Console, Runnable> processTabCleanups = new HashMap<>();
+    private final Map<Console, RunningProcess> processTabs = new HashMap<>();
+
     public LauncherConsole() {
         setTitle(Constants.LAUNCHER_NAME + " Console");
         setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
@@ -79,11 +107,16 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
 
         bottomBar = new ConsoleBottomBar();
 
+        setupSearch();
+
         JScrollPane scrollPane = new JScrollPane(console, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
-                JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
-        add(scrollPane, BorderLayout.CENTER);
+                JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        tabbedPane.addTab(GetText.tr("Launcher"), scrollPane);
+        add(searchPanel, BorderLayout.NORTH);
+        add(tabbedPane, BorderLayout.CENTER);
         add(bottomBar, BorderLayout.SOUTH);
         RelocalizationManager.addListener(this);
+        MinecraftLandManager.addListener(this);
 
         addComponentListener(new ComponentAdapter() {
             public void componentResized(ComponentEvent evt) {
@@ -116,17 +149,51 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
         }
     }
 
+    /**
+     * Sets up the search bar, which is hidden until Ctrl+F is pressed.
+     */
+    private void setupSearch() {
+        searchField.addActionListener(e -> findNext());
+        findButton.addActionListener(e -> findNext());
+
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        searchPanel.add(findButton, BorderLayout.EAST);
+        searchPanel.setVisible(false);
+
+        getRootPane().registerKeyboardAction(e -> {
+            searchPanel.setVisible(true);
+            revalidate();
+            searchField.requestFocusInWindow();
+            searchField.selectAll();
+        }, KeyStroke.getKeyStroke(KeyEvent.VK_F, InputEvent.CTRL_DOWN_MASK), JComponent.WHEN_IN_FOCUSED_WINDOW);
+
+        getRootPane().registerKeyboardAction(e -> {
+            searchPanel.setVisible(false);
+            revalidate();
+        }, KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), JComponent.WHEN_IN_FOCUSED_WINDOW);
+    }
+
+    private void findNext() {
+        if (!getSelectedConsole().findNext(searchField.getText())) {
+            Toolkit.getDefaultToolkit().beep();
+        }
+    }
+
     private void setupContextMenu() {
         contextMenu = new JPopupMenu();
 
         copy = new JMenuItem(GetText.tr("Copy"));
         copy.addActionListener(e -> {
-            StringSelection text = new StringSelection(console.getSelectedText());
+            StringSelection text = new StringSelection(getSelectedConsole().getSelectedText());
             Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
             clipboard.setContents(text, null);
         });
         contextMenu.add(copy);
 
+        addContextMenu(console);
+    }
+
+    private void addContextMenu(Console console) {
         console.addMouseListener(new MouseAdapter() {
             public void mousePressed(MouseEvent e) {
                 if (console.getSelectedText() != null) {
@@ -138,6 +205,68 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
         });
     }
 
+    private Console getSelectedConsole() {
+        JScrollPane scrollPane = (JScrollPane) tabbedPane.getSelectedComponent();
+
+        return (Console) scrollPane.getViewport().getView();
+    }
+
+    /**
+     * Adds a tab showing the output of a process, replacing any tab left over from a previous process with the same
+     * name. The tab is removed again once the process has exited.
+     */
+    public void addProcessTab(RunningProcess runningProcess) {
+        SwingUtilities.invokeLater(() -> {
+            // exiting is posted to the EDT after the process finishes, so if it's already finished the tab would
+            // never be removed
+            if (runningProcess.isFinished()) {
+                return;
+            }
+
+            int existing = tabbedPane.indexOfTab(runningProcess.name);
+            if (existing > 0) {
+                removeProcessTab(existing);
+            }
+
+            Console processConsole = new Console();
+            addContextMenu(processConsole);
+
+            Consumer<MinecraftLogClassifier.Result> listener = result -> processConsole.write(result.type,
+                    Timestamper.now(), result.message);
+            runningProcess.addLineListener(listener);
+
+            processTabs.put(processConsole, runningProcess);
+            processTabCleanups.put(processConsole, () -> {
+                runningProcess.removeLineListener(listener);
+                processConsole.dispose();
+            });
+
+            tabbedPane.addTab(runningProcess.name, new JScrollPane(processConsole,
+                    JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED));
+        });
+    }
+
+    /**
+     * Stops updating the tab for a process and removes it. Must be called on the EDT.
+     */
+    private void removeProcessTab(int index) {
+        Console processConsole = (Console) ((JScrollPane) tabbedPane.getComponentAt(index)).getViewport().getView();
+        processTabCleanups.remove(processConsole).run();
+        processTabs.remove(processConsole);
+        tabbedPane.removeTabAt(index);
+    }
+
+    @Override
+    public void onMinecraftLand(RunningProcess runningProcess) {
+        for (int i = tabbedPane.getTabCount() - 1; i > 0; i--) {
+            Console processConsole = (Console) ((JScrollPane) tabbedPane.getComponentAt(i)).getViewport().getView();
+
+            if (processTabs.get(processConsole) == runningProcess) {
+                removeProcessTab(i);
+            }
+        }
+    }
+
     /**
      * Returns a string with the text currently in the console
      *
@@ -147,28 +276,39 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
         return console.getText();
     }
 
-    public void showKillMinecraft() {
-        bottomBar.showKillMinecraft();
-    }
+    /**
+     * Gets the running process whose tab is selected, or the only running process if there's just the one.
+     *
+     * @return the process, or null if it's not clear which one is wanted
+     */
+    public RunningProcess getSelectedProcess() {
+        RunningProcess selected = processTabs.get(getSelectedConsole());
+        if (selected != null && !selected.isFinished()) {
+            return selected;
+        }
 
-    public void hideKillMinecraft() {
-        bottomBar.hideKillMinecraft();
+        List<RunningProcess> running = ProcessManager.getRunningProcesses();
+        return running.size() == 1 ? running.get(0) : null;
     }
 
     public void setupLanguage() {
         LogManager.debug("Setting up language for console");
         copy.setText(GetText.tr("Copy"));
+        findButton.setText(GetText.tr("Find"));
+        tabbedPane.setTitleAt(0, GetText.tr("Launcher"));
         bottomBar.setupLanguage();
         LogManager.debug("Finished setting up language for console");
     }
 
     public void clearConsole() {
-        console.setText(null);
+        console.clear();
     }
 
     @Override
     public void onRelocalization() {
         copy.setText(GetText.tr("Copy"));
+        findButton.setText(GetText.tr("Find"));
+        tabbedPane.setTitleAt(0, GetText.tr("Launcher"));
         bottomBar.setupLanguage();
     }
 }
@@ -18,25 +18,32 @@
 package com.atlauncher.gui;
 
 import java.awt.SystemTray;
+import java.util.List;
+import java.util.Locale;
 
+import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.SwingUtilities;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 
 import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
+import com.atlauncher.data.RunningProcess;
 import com.atlauncher.evnt.listener.ConsoleCloseListener;
 import com.atlauncher.evnt.listener.ConsoleOpenListener;
 import com.atlauncher.evnt.manager.ConsoleCloseManager;
 import com.atlauncher.evnt.manager.ConsoleOpenManager;
 import com.atlauncher.managers.DialogManager;
+import com.atlauncher.managers.ProcessManager;
 
 import org.mini2Dx.gettext.GetText;
 
 @SuppressWarnings("serial")
 public final class TrayMenu extends JPopupMenu implements ConsoleCloseListener, ConsoleOpenListener {
 
-    private final JMenuItem killMCButton = new JMenuItem();
+    private final JMenu killMCButton = new JMenu();
     private final JMenuItem tcButton = new JMenuItem();
     private final JMenuItem quitButton = new JMenuItem();
 
@@ -61,19 +68,20 @@ public final class TrayMenu extends JPopupMenu implements ConsoleCloseListener,
     }
 
     private void addActionListeners() {
-        this.killMCButton.addActionListener(e -> SwingUtilities.invokeLater(() -> {
-            if (App.launcher.minecraftLaunched) {
-                int ret = DialogManager.yesNoDialog().setTitle(GetText.tr("Kill Minecraft"))
-                        .setContent(new HTMLBuilder().center().text(GetText.tr(
-                                "Are you sure you want to kill the Minecraft process?<br/>Doing so can cause corruption of your saves"))
-                                .build())
-                        .setType(DialogManager.ERROR).show();
+        this.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                updateKillMenu();
+            }
 
-                if (ret == DialogManager.YES_OPTION) {
-                    App.launcher.killMinecraft();
-                }
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
             }
-        }));
+        });
         this.tcButton.addActionListener(e -> App.console.setVisible(!App.console.isVisible()));
         this.quitButton.addActionListener(e -> {
             try {
@@ -91,6 +99,35 @@ public final class TrayMenu extends JPopupMenu implements ConsoleCloseListener,
         this.killMCButton.setEnabled(l);
     }
 
+    /**
+     * Lists each running instance along with how much memory and CPU it's using, so the right one can be killed.
+     */
+    private void updateKillMenu() {
+        this.killMCButton.removeAll();
+
+        List<RunningProcess> processes = ProcessManager.getRunningProcesses();
+        this.killMCButton.setEnabled(processes.size() != 0);
+
+        for (RunningProcess process : processes) {
+            JMenuItem item = new JMenuItem(String.format(Locale.ENGLISH, "%s (%d MB, %.0f%% CPU)", process.name,
+                    process.getMemoryUsage() / 1024 / 1024, process.getCpuUsage() * 100));
+
+            item.addActionListener(e -> SwingUtilities.invokeLater(() -> {
+                int ret = DialogManager.yesNoDialog().setTitle(GetText.tr("Kill Minecraft"))
+                        .setContent(new HTMLBuilder().center().text(GetText.tr(
+                                "Are you sure you want to kill the Minecraft process?<br/>Doing so can cause corruption of your saves"))
+                                .build())
+                        .setType(DialogManager.ERROR).show();
+
+                if (ret == DialogManager.YES_OPTION) {
+                    process.kill();
+                }
+            }));
+
+            this.killMCButton.add(item);
+        }
+    }
+
     @Override
     public void onConsoleClose() {
         this.tcButton.setText(GetText.tr("Show Console"));
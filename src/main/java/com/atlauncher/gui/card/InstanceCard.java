@@ -97,6 +97,7 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
     private final JMenuItem normalBackupMenuItem = new JMenuItem(GetText.tr("Normal Backup"));
     private final JMenuItem normalPlusModsBackupMenuItem = new JMenuItem(GetText.tr("Normal + Mods Backup"));
     private final JMenuItem fullBackupMenuItem = new JMenuItem(GetText.tr("Full Backup"));
+    private final JMenuItem restoreBackupMenuItem = new JMenuItem(GetText.tr("Restore Backup"));
     private final DropDownButton backupButton = new DropDownButton(GetText.tr("Backup"), backupPopupMenu);
 
     private final JPopupMenu getHelpPopupMenu = new JPopupMenu();
@@ -261,6 +262,10 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
         fullBackupMenuItem.addActionListener(e -> instance.backup(BackupMode.FULL));
         backupPopupMenu.add(fullBackupMenuItem);
 
+        backupPopupMenu.addSeparator();
+        restoreBackupMenuItem.addActionListener(e -> instance.startRestoreBackup());
+        backupPopupMenu.add(restoreBackupMenuItem);
+
         if (instance.launcher.vanillaInstance) {
             setupEditInstanceButton();
         }
@@ -374,17 +379,13 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
                         instance.ignoreUpdate();
                     }
 
-                    if (!App.launcher.minecraftLaunched) {
-                        if (instance.launch()) {
-                            App.launcher.setMinecraftLaunched(true);
-                        }
+                    if (!App.launcher.isMinecraftLaunched(instance)) {
+                        instance.launch();
                     }
                 }
             } else {
-                if (!App.launcher.minecraftLaunched) {
-                    if (instance.launch()) {
-                        App.launcher.setMinecraftLaunched(true);
-                    }
+                if (!App.launcher.isMinecraftLaunched(instance)) {
+                    instance.launch();
                 }
             }
         });
@@ -478,24 +479,18 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
                                 instance.update();
                             }
                         } else if (ret == 1 || ret == DialogManager.CLOSED_OPTION) {
-                            if (!App.launcher.minecraftLaunched) {
-                                if (instance.launch()) {
-                                    App.launcher.setMinecraftLaunched(true);
-                                }
+                            if (!App.launcher.isMinecraftLaunched(instance)) {
+                                instance.launch();
                             }
                         } else if (ret == 2) {
                             instance.ignoreUpdate();
-                            if (!App.launcher.minecraftLaunched) {
-                                if (instance.launch()) {
-                                    App.launcher.setMinecraftLaunched(true);
-                                }
+                            if (!App.launcher.isMinecraftLaunched(instance)) {
+                                instance.launch();
                             }
                         }
                     } else {
-                        if (!App.launcher.minecraftLaunched) {
-                            if (instance.launch()) {
-                                App.launcher.setMinecraftLaunched(true);
-                            }
+                        if (!App.launcher.isMinecraftLaunched(instance)) {
+                            instance.launch();
                         }
                     }
                 } else if (e.getButton() == MouseEvent.BUTTON3) {
@@ -554,9 +549,14 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
                             final ProgressDialog dialog = new ProgressDialog(GetText.tr("Cloning Instance"), 0,
                                     GetText.tr("Cloning Instance. Please wait..."), null, App.launcher.getParent());
                             dialog.addThread(new Thread(() -> {
-                                InstanceManager.cloneInstance(instance, newName);
+                                boolean cloned = InstanceManager.cloneInstance(instance, newName, dialog);
                                 dialog.close();
-                                App.TOASTER.pop(GetText.tr("Cloned Instance Successfully"));
+
+                                if (cloned) {
+                                    App.TOASTER.pop(GetText.tr("Cloned Instance Successfully"));
+                                } else {
+                                    App.TOASTER.popError(GetText.tr("Failed to clone instance"));
+                                }
                             }));
                             dialog.start();
                         } else if (clonedName == null || clonedName.equals("")) {
@@ -613,17 +613,13 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
                                     instance.update();
                                 }
                             } else if (ret == 1 || ret == DialogManager.CLOSED_OPTION) {
-                                if (!App.launcher.minecraftLaunched) {
-                                    if (instance.launch()) {
-                                        App.launcher.setMinecraftLaunched(true);
-                                    }
+                                if (!App.launcher.isMinecraftLaunched(instance)) {
+                                    instance.launch();
                                 }
                             } else if (ret == 2) {
                                 instance.ignoreUpdate();
-                                if (!App.launcher.minecraftLaunched) {
-                                    if (instance.launch()) {
-                                        App.launcher.setMinecraftLaunched(true);
-                                    }
+                                if (!App.launcher.isMinecraftLaunched(instance)) {
+                                    instance.launch();
                                 }
                             }
                         }
@@ -694,6 +690,7 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
         this.normalBackupMenuItem.setText(GetText.tr("Normal Backup"));
         this.normalPlusModsBackupMenuItem.setText(GetText.tr("Normal + Mods Backup"));
         this.fullBackupMenuItem.setText(GetText.tr("Full Backup"));
+        this.restoreBackupMenuItem.setText(GetText.tr("Restore Backup"));
         this.backupButton.setText(GetText.tr("Backup"));
 
         this.discordLinkMenuItem.setText(GetText.tr("Discord"));
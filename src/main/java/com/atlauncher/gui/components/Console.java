@@ -17,109 +17,383 @@
  */
 package com.atlauncher.gui.components;
 
-import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import javax.swing.JTextPane;
+import javax.swing.AbstractListModel;
+import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.JViewport;
+import javax.swing.ListCellRenderer;
+import javax.swing.Timer;
 import javax.swing.UIManager;
-import javax.swing.text.AbstractDocument;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.BoxView;
-import javax.swing.text.ComponentView;
-import javax.swing.text.Element;
-import javax.swing.text.IconView;
-import javax.swing.text.LabelView;
-import javax.swing.text.ParagraphView;
-import javax.swing.text.SimpleAttributeSet;
-import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledEditorKit;
-import javax.swing.text.View;
-import javax.swing.text.ViewFactory;
 
 import com.atlauncher.App;
+import com.atlauncher.data.LogLine;
+import com.atlauncher.evnt.LogEvent.LogType;
 
+/**
+ * The launcher console.
+ *
+ * Lines are kept in a fixed size ring buffer and shown in a list, so only the lines on screen are ever laid out or
+ * painted no matter how much has been logged. Writes can come from any thread and are queued up, then added to the list
+ * on the EDT a fixed number of times a second. No more lines than the console keeps are ever queued up, with the
+ * oldest being dropped, since they'd be pushed out of the buffer anyway.
+ */
 @SuppressWarnings("serial")
-public final class Console extends JTextPane {
-    private final SimpleAttributeSet attrs = new SimpleAttributeSet();
+public final class Console extends JList<LogLine> {
+    private static final int DEFAULT_MAX_LINES = 10000;
+    private static final int FRAME_DELAY_MS = 50;
+
+    private final Queue<LogLine> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile int maxLines = App.settings == null ? DEFAULT_MAX_LINES : App.settings.consoleScrollback;
+    private final LineBuffer buffer = new LineBuffer(this.maxLines);
+    private final Font boldFont;
+    private final Timer timer;
+    private int widestLine = 0;
 
     public Console() {
-        this.setEditable(false);
-        this.setEditorKit(new WrapEditorKit());
+        super();
+        this.setModel(this.buffer);
         this.setFont(App.THEME.getConsoleFont().deriveFont((float) UIManager.get("Console.fontSize")));
+        this.boldFont = this.getFont().deriveFont(Font.BOLD);
+        this.setCellRenderer(new LineRenderer());
+        this.setFixedCellHeight(this.getFontMetrics(this.boldFont).getHeight() + 2);
+        this.setFixedCellWidth(1);
+
+        this.timer = new Timer(FRAME_DELAY_MS, e -> flushPending());
+        this.timer.start();
     }
 
-    public Console setColor(Color c) {
-        StyleConstants.setForeground(this.attrs, c);
-        return this;
+    /**
+     * Queues up a log message to be shown in the console. Safe to call from any thread.
+     */
+    public void write(LogType type, String timestamp, String body) {
+        String[] lines = body.split("\\r?\\n", -1);
+        int count = lines.length;
+
+        // the body always ends in a newline, so don't add an empty line for it
+        if (count > 1 && lines[count - 1].isEmpty()) {
+            count--;
+        }
+
+        for (int i = 0; i < count; i++) {
+            this.pending.add(new LogLine(type, i == 0 ? "[" + timestamp + "] " : null, lines[i]));
+
+            if (this.pendingCount.incrementAndGet() > this.maxLines && this.pending.poll() != null) {
+                this.pendingCount.decrementAndGet();
+            }
+        }
     }
 
-    public Console setBold(boolean b) {
-        StyleConstants.setBold(this.attrs, b);
-        return this;
+    private void flushPending() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        boolean atBottom = isScrolledToBottom();
+
+        List<LogLine> lines = new ArrayList<>();
+        LogLine line;
+        LogLine longest = null;
+        while ((line = this.pending.poll()) != null) {
+            this.pendingCount.decrementAndGet();
+            lines.add(line);
+
+            // only the longest line is measured, rather than every line on the EDT
+            if (longest == null || line.text.length() > longest.text.length()) {
+                longest = line;
+            }
+        }
+
+        int widest = Math.max(this.widestLine, measure(longest));
+
+        this.buffer.addAll(lines);
+
+        if (widest != this.widestLine) {
+            this.widestLine = widest;
+            this.setFixedCellWidth(widest);
+        }
+
+        if (atBottom && this.buffer.getSize() != 0) {
+            this.ensureIndexIsVisible(this.buffer.getSize() - 1);
+        }
+    }
+
+    private int measure(LogLine line) {
+        if (line == null) {
+            return 0;
+        }
+
+        return (line.timestamp == null ? 0 : this.getFontMetrics(this.boldFont).stringWidth(line.timestamp))
+                + this.getFontMetrics(this.getFont()).stringWidth(line.text) + 10;
+    }
+
+    private boolean isScrolledToBottom() {
+        if (!(this.getParent() instanceof JViewport)) {
+            return true;
+        }
+
+        Rectangle visible = ((JViewport) this.getParent()).getViewRect();
+
+        return visible.y + visible.height >= this.getHeight() - this.getFixedCellHeight();
     }
 
     @Override
     public boolean getScrollableTracksViewportWidth() {
-        return true;
+        return this.getParent() instanceof JViewport
+                && this.getParent().getWidth() > this.getPreferredSize().width;
     }
 
-    public void write(String str) {
-        try {
-            this.getDocument().insertString(this.getDocument().getLength(), str, this.attrs);
-            this.setCaretPosition(this.getDocument().getLength());
-        } catch (BadLocationException ex) {
-            ex.printStackTrace(System.err);
+    /**
+     * Finds the next line (after the selected line, wrapping around) containing the given text, ignoring case.
+     *
+     * @return if a matching line was found and selected
+     */
+    public boolean findNext(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
         }
-    }
-}
 
-// https://stackoverflow.com/a/13375811
-@SuppressWarnings("serial")
-class WrapEditorKit extends StyledEditorKit {
-    ViewFactory defaultFactory = new WrapColumnFactory();
+        String search = text.toLowerCase();
+        int size = this.buffer.getSize();
+        int start = this.getSelectedIndex() + 1;
 
-    public ViewFactory getViewFactory() {
-        return defaultFactory;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+
+            if (this.buffer.getElementAt(index).toString().toLowerCase().contains(search)) {
+                this.setSelectedIndex(index);
+                this.ensureIndexIsVisible(index);
+                return true;
+            }
+        }
+
+        return false;
     }
 
-}
+    public String getSelectedText() {
+        List<LogLine> selected = this.getSelectedValuesList();
 
-class WrapColumnFactory implements ViewFactory {
-    public View create(Element elem) {
-        String kind = elem.getName();
-        if (kind != null) {
-            switch (kind) {
-                case AbstractDocument.ContentElementName:
-                    return new WrapLabelView(elem);
-                case AbstractDocument.ParagraphElementName:
-                    return new ParagraphView(elem);
-                case AbstractDocument.SectionElementName:
-                    return new BoxView(elem, View.Y_AXIS);
-                case StyleConstants.ComponentElementName:
-                    return new ComponentView(elem);
-                case StyleConstants.IconElementName:
-                    return new IconView(elem);
-            }
+        if (selected.isEmpty()) {
+            return null;
         }
 
-        // default to text display
-        return new LabelView(elem);
+        StringBuilder text = new StringBuilder();
+        selected.forEach(line -> text.append(line).append(System.lineSeparator()));
+
+        return text.toString();
+    }
+
+    /**
+     * Gets all the text in the console. Safe to call from any thread.
+     */
+    public String getText() {
+        return this.buffer.getText();
     }
-}
 
-class WrapLabelView extends LabelView {
-    public WrapLabelView(Element elem) {
-        super(elem);
+    /**
+     * Gets a copy of all the lines in the console. Safe to call from any thread.
+     */
+    public List<LogLine> getLines() {
+        return this.buffer.getLines();
     }
 
-    public float getMinimumSpan(int axis) {
-        switch (axis) {
-            case View.X_AXIS:
-                return 0;
-            case View.Y_AXIS:
-                return super.getMinimumSpan(axis);
-            default:
-                throw new IllegalArgumentException("Invalid axis: " + axis);
+    /**
+     * Changes how many lines the console keeps, dropping the oldest lines if there's now too many. Must be called on
+     * the EDT.
+     */
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+        this.buffer.setCapacity(maxLines);
+    }
+
+    public void clear() {
+        this.pending.clear();
+        this.pendingCount.set(0);
+        this.buffer.clear();
+        this.widestLine = 0;
+        this.setFixedCellWidth(1);
+    }
+
+    /**
+     * Stops updating the console, for when it's no longer going to be shown.
+     */
+    public void dispose() {
+        this.timer.stop();
+        this.pending.clear();
+        this.pendingCount.set(0);
+    }
+
+    /**
+     * Ring buffer of the lines in the console. Only changed on the EDT, but read from other threads when getting the
+     * whole log.
+     */
+    private static final class LineBuffer extends AbstractListModel<LogLine> {
+        private LogLine[] lines;
+        private int start = 0;
+        private int size = 0;
+
+        private LineBuffer(int capacity) {
+            this.lines = new LogLine[capacity];
+        }
+
+        @Override
+        public synchronized int getSize() {
+            return this.size;
+        }
+
+        @Override
+        public synchronized LogLine getElementAt(int index) {
+            return this.lines[(this.start + index) % this.lines.length];
+        }
+
+        private void addAll(List<LogLine> added) {
+            int removed;
+            int addedCount;
+            int newSize;
+
+            synchronized (this) {
+                int skip = Math.max(0, added.size() - this.lines.length);
+                addedCount = added.size() - skip;
+                removed = Math.max(0, this.size + addedCount - this.lines.length);
+
+                this.start = (this.start + removed) % this.lines.length;
+                this.size -= removed;
+
+                for (int i = skip; i < added.size(); i++) {
+                    this.lines[(this.start + this.size) % this.lines.length] = added.get(i);
+                    this.size++;
+                }
+
+                newSize = this.size;
+            }
+
+            if (removed != 0) {
+                fireIntervalRemoved(this, 0, removed - 1);
+            }
+
+            if (addedCount != 0) {
+                fireIntervalAdded(this, newSize - addedCount, newSize - 1);
+            }
+        }
+
+        private void setCapacity(int capacity) {
+            int removed;
+
+            synchronized (this) {
+                if (capacity == this.lines.length) {
+                    return;
+                }
+
+                removed = Math.max(0, this.size - capacity);
+                LogLine[] resized = new LogLine[capacity];
+
+                for (int i = removed; i < this.size; i++) {
+                    resized[i - removed] = getElementAt(i);
+                }
+
+                this.lines = resized;
+                this.start = 0;
+                this.size -= removed;
+            }
+
+            if (removed != 0) {
+                fireIntervalRemoved(this, 0, removed - 1);
+            }
+        }
+
+        private void clear() {
+            int oldSize;
+
+            synchronized (this) {
+                oldSize = this.size;
+                this.start = 0;
+                this.size = 0;
+                Arrays.fill(this.lines, null);
+            }
+
+            if (oldSize != 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+        }
+
+        private synchronized List<LogLine> getLines() {
+            List<LogLine> copy = new ArrayList<>(this.size);
+
+            for (int i = 0; i < this.size; i++) {
+                copy.add(getElementAt(i));
+            }
+
+            return copy;
+        }
+
+        private synchronized String getText() {
+            StringBuilder text = new StringBuilder();
+
+            for (int i = 0; i < this.size; i++) {
+                text.append(getElementAt(i)).append(System.lineSeparator());
+            }
+
+            return text.toString();
         }
     }
 
+    /**
+     * Paints the timestamp in bold in the colour for the type of message, followed by the message itself.
+     */
+    private final class LineRenderer extends JComponent implements ListCellRenderer<LogLine> {
+        private LogLine line;
+        private boolean selected;
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends LogLine> list, LogLine value, int index,
+                boolean isSelected, boolean cellHasFocus) {
+            this.line = value;
+            this.selected = isSelected;
+            return this;
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(Console.this.getFixedCellWidth(), Console.this.getFixedCellHeight());
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (this.selected) {
+                g.setColor(Console.this.getSelectionBackground());
+                g.fillRect(0, 0, this.getWidth(), this.getHeight());
+            }
+
+            if (this.line == null) {
+                return;
+            }
+
+            int x = 2;
+            int y = g.getFontMetrics(Console.this.getFont()).getAscent() + 1;
+
+            if (this.line.timestamp != null) {
+                g.setFont(Console.this.boldFont);
+                g.setColor(this.selected ? Console.this.getSelectionForeground() : this.line.type.color());
+                g.drawString(this.line.timestamp, x, y);
+                x += g.getFontMetrics().stringWidth(this.line.timestamp);
+            }
+
+            g.setFont(Console.this.getFont());
+            g.setColor(this.selected ? Console.this.getSelectionForeground()
+                    : UIManager.getColor("EditorPane.foreground"));
+            g.drawString(this.line.text, x, y);
+        }
+    }
 }
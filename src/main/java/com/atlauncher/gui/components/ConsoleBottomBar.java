@@ -22,25 +22,32 @@ import java.awt.FlowLayout;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
-import java.util.concurrent.ExecutionException;
 
 import javax.swing.JButton;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
+import com.atlauncher.data.RunningProcess;
+import com.atlauncher.evnt.listener.MinecraftLandListener;
+import com.atlauncher.evnt.listener.MinecraftLaunchListener;
 import com.atlauncher.evnt.listener.RelocalizationListener;
+import com.atlauncher.evnt.manager.MinecraftLandManager;
+import com.atlauncher.evnt.manager.MinecraftLaunchManager;
 import com.atlauncher.evnt.manager.RelocalizationManager;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ProcessManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.thread.PasteUpload;
 
 import org.mini2Dx.gettext.GetText;
 
 @SuppressWarnings("serial")
-public class ConsoleBottomBar extends BottomBar implements RelocalizationListener {
+public class ConsoleBottomBar extends BottomBar
+        implements RelocalizationListener, MinecraftLaunchListener, MinecraftLandListener {
 
     private final JButton clearButton = new JButton(GetText.tr("Clear"));
     private final JButton copyLogButton = new JButton(GetText.tr("Copy Log"));
@@ -61,6 +68,8 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         this.add(leftSide, BorderLayout.WEST);
 
         RelocalizationManager.addListener(this);
+        MinecraftLaunchManager.addListener(this);
+        MinecraftLandManager.addListener(this);
     }
 
     /**
@@ -80,29 +89,40 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
             clipboard.setContents(text, null);
         });
         uploadLogButton.addActionListener(e -> {
-            String result;
-            try {
-                result = App.TASKPOOL.submit(new PasteUpload()).get();
-            } catch (InterruptedException ignored) {
-                Thread.currentThread().interrupt();
-                return;
-            } catch (ExecutionException ex) {
-                LogManager.logStackTrace("Exception while uploading paste", ex);
-                return;
-            }
-            if (result.contains(Constants.PASTE_CHECK_URL)) {
-                Analytics.sendEvent("UploadLog", "Launcher");
-                App.TOASTER.pop("Log uploaded and link copied to clipboard");
-                LogManager.info("Log uploaded and link copied to clipboard: " + result);
-                StringSelection text = new StringSelection(result);
-                Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-                clipboard.setContents(text, null);
-            } else {
-                App.TOASTER.popError("Log failed to upload!");
-                LogManager.error("Log failed to upload: " + result);
-            }
+            uploadLogButton.setEnabled(false);
+
+            App.TASKPOOL.execute(() -> {
+                // the console can hold a lot more than anyone will read through, so only upload the useful parts
+                String result = new PasteUpload(true).call();
+
+                SwingUtilities.invokeLater(() -> {
+                    uploadLogButton.setEnabled(true);
+
+                    if (result.contains(Constants.PASTE_CHECK_URL)) {
+                        Analytics.sendEvent("UploadLog", "Launcher");
+                        App.TOASTER.pop("Log uploaded and link copied to clipboard");
+                        LogManager.info("Log uploaded and link copied to clipboard: " + result);
+                        StringSelection text = new StringSelection(result);
+                        Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+                        clipboard.setContents(text, null);
+                    } else {
+                        App.TOASTER.popError("Log failed to upload!");
+                        LogManager.error("Log failed to upload: " + result);
+                    }
+                });
+            });
         });
         killMinecraftButton.addActionListener(arg0 -> {
+            RunningProcess process = App.console.getSelectedProcess();
+            if (process == null) {
+                DialogManager.okDialog().setTitle(GetText.tr("Kill Minecraft"))
+                        .setContent(new HTMLBuilder().center()
+                                .text(GetText.tr("Select the tab of the instance you want to kill first."))
+                                .build())
+                        .setType(DialogManager.INFO).show();
+                return;
+            }
+
             int ret = DialogManager.yesNoDialog().setTitle(GetText.tr("Kill Minecraft") + "?")
                     .setContent(new HTMLBuilder().center().text(GetText.tr(
                             "Are you sure you want to kill the Minecraft process?<br/><br/>Doing so can cause corruption of your saves."))
@@ -110,18 +130,19 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
                     .setType(DialogManager.QUESTION).show();
             if (ret == DialogManager.YES_OPTION) {
                 Analytics.sendEvent("KillMinecraft", "Launcher");
-                App.launcher.killMinecraft();
-                killMinecraftButton.setVisible(false);
+                process.kill();
             }
         });
     }
 
-    public void showKillMinecraft() {
-        killMinecraftButton.setVisible(true);
+    @Override
+    public void onMinecraftLaunch(RunningProcess process) {
+        killMinecraftButton.setVisible(ProcessManager.hasRunningProcesses());
     }
 
-    public void hideKillMinecraft() {
-        killMinecraftButton.setVisible(false);
+    @Override
+    public void onMinecraftLand(RunningProcess process) {
+        killMinecraftButton.setVisible(ProcessManager.hasRunningProcesses());
     }
 
     public void setupLanguage() {
@@ -29,8 +29,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -49,10 +51,7 @@ import javax.swing.UIManager;
 import com.atlauncher.App;
 import com.atlauncher.data.DisableableMod;
 import com.atlauncher.data.Instance;
-import com.atlauncher.data.curseforge.CurseForgeFingerprint;
-import com.atlauncher.data.curseforge.CurseForgeFingerprintedMod;
-import com.atlauncher.data.minecraft.FabricMod;
-import com.atlauncher.data.minecraft.MCMod;
+import com.atlauncher.data.ModMetadata;
 import com.atlauncher.exceptions.InvalidMinecraftVersion;
 import com.atlauncher.gui.components.ModsJCheckBox;
 import com.atlauncher.gui.handlers.ModsJCheckBoxTransferHandler;
@@ -63,7 +62,7 @@ import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.utils.CurseForgeApi;
-import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.ModMetadataIndex;
 import com.atlauncher.utils.Utils;
 
 import org.mini2Dx.gettext.GetText;
@@ -215,6 +214,9 @@ public class EditModsDialog extends JDialog {
                 ArrayList<File> files = fcd.getChosenFiles();
                 if (files != null && !files.isEmpty()) {
                     boolean reload = false;
+                    ModMetadataIndex index = ModMetadataIndex.forInstance(instance);
+                    Map<DisableableMod, Path> modsToAdd = new LinkedHashMap<>();
+                    Map<DisableableMod, ModMetadata> modsMetadata = new HashMap<>();
                     for (File file : files) {
                         String typeTemp = fcd.getSelectorValue();
                         com.atlauncher.data.Type type = null;
@@ -232,20 +234,33 @@ public class EditModsDialog extends JDialog {
                             type = com.atlauncher.data.Type.shaderpack;
                         }
                         if (type != null) {
-                            DisableableMod mod = generateMod(file, type, App.settings.enableAddedModsByDefault);
-                            File copyTo = App.settings.enableAddedModsByDefault ? mod.getFile(instance)
-                                    : mod.getDisabledFile(instance);
-
-                            if (!copyTo.getParentFile().exists()) {
-                                copyTo.getParentFile().mkdirs();
-                            }
-
-                            if (Utils.copyFile(file, copyTo, true)) {
-                                instance.launcher.mods.add(mod);
-                                reload = true;
-                            }
+                            ModMetadata metadata = index.get(file.toPath());
+                            DisableableMod mod = generateMod(file, type, App.settings.enableAddedModsByDefault,
+                                    metadata);
+
+                            modsToAdd.put(mod, file.toPath());
+                            modsMetadata.put(mod, metadata);
+                        }
+                    }
+
+                    checkModsOnCurseForge(modsToAdd);
+
+                    for (Map.Entry<DisableableMod, Path> entry : modsToAdd.entrySet()) {
+                        DisableableMod mod = entry.getKey();
+                        File copyTo = App.settings.enableAddedModsByDefault ? mod.getFile(instance)
+                                : mod.getDisabledFile(instance);
+
+                        if (!copyTo.getParentFile().exists()) {
+                            copyTo.getParentFile().mkdirs();
+                        }
+
+                        if (Utils.copyFile(entry.getValue().toFile(), copyTo, true)) {
+                            index.put(copyTo.toPath(), modsMetadata.get(mod));
+                            instance.launcher.mods.add(mod);
+                            reload = true;
                         }
                     }
+                    index.save();
                     if (reload) {
                         reloadPanels();
                     }
@@ -300,7 +315,8 @@ public class EditModsDialog extends JDialog {
         bottomPanel.add(closeButton);
     }
 
-    private DisableableMod generateMod(File file, com.atlauncher.data.Type type, boolean enabled) {
+    private DisableableMod generateMod(File file, com.atlauncher.data.Type type, boolean enabled,
+            ModMetadata metadata) {
         DisableableMod mod = new DisableableMod();
         mod.disabled = !enabled;
         mod.userAdded = true;
@@ -312,49 +328,19 @@ public class EditModsDialog extends JDialog {
         mod.version = "Unknown";
         mod.description = null;
 
-        MCMod mcMod = Utils.getMCModForFile(file);
-        if (mcMod != null) {
-            mod.name = Optional.ofNullable(mcMod.name).orElse(file.getName());
-            mod.version = Optional.ofNullable(mcMod.version).orElse("Unknown");
-            mod.description = Optional.ofNullable(mcMod.description).orElse(null);
-        } else {
-            FabricMod fabricMod = Utils.getFabricModForFile(file);
-            if (fabricMod != null) {
-                mod.name = Optional.ofNullable(fabricMod.name).orElse(file.getName());
-                mod.version = Optional.ofNullable(fabricMod.version).orElse("Unknown");
-                mod.description = Optional.ofNullable(fabricMod.description).orElse(null);
-            }
+        if (metadata != null) {
+            metadata.applyTo(mod, file.getName());
         }
 
-        if (!App.settings.dontCheckModsOnCurseForge) {
-            try {
-                long murmurHash = Hashing.murmur(file.toPath());
-
-                LogManager.debug("File " + file.getName() + " has murmur hash of " + murmurHash);
-
-                CurseForgeFingerprint fingerprintResponse = CurseForgeApi.checkFingerprint(murmurHash);
-
-                if (fingerprintResponse != null && fingerprintResponse.exactMatches.size() == 1) {
-                    CurseForgeFingerprintedMod foundMod = fingerprintResponse.exactMatches.get(0);
-
-                    // add CurseForge information
-                    mod.curseForgeProject = CurseForgeApi.getProjectById(foundMod.id);
-                    mod.curseForgeProjectId = foundMod.id;
-                    mod.curseForgeFile = foundMod.file;
-                    mod.curseForgeFileId = foundMod.file.id;
-
-                    mod.name = mod.curseForgeProject.name;
-                    mod.description = mod.curseForgeProject.summary;
+        return mod;
+    }
 
-                    LogManager.debug("Found matching mod from CurseForge called " + mod.curseForgeProject.name
-                            + " with file named " + mod.curseForgeFile.displayName);
-                }
-            } catch (IOException e1) {
-                LogManager.logStackTrace(e1);
-            }
+    private void checkModsOnCurseForge(Map<DisableableMod, Path> mods) {
+        if (App.settings.dontCheckModsOnCurseForge || mods.size() == 0) {
+            return;
         }
 
-        return mod;
+        CurseForgeApi.addCurseForgeInformation(mods);
     }
 
     private void scanMissingMods() {
@@ -373,11 +359,13 @@ public class EditModsDialog extends JDialog {
                         GetText.tr("Scanning New Mods"), this);
 
                 progressDialog.addThread(new Thread(() -> {
-                    List<DisableableMod> mods = files.parallelStream()
-                            .map(file -> generateMod(file.toFile(), com.atlauncher.data.Type.mods, true))
-                            .collect(Collectors.toList());
-                    mods.forEach(mod -> LogManager.info("Found extra mod with name of " + mod.file));
-                    instance.launcher.mods.addAll(mods);
+                    Map<Path, ModMetadata> metadata = ModMetadataIndex.forInstance(instance).get(files);
+                    Map<DisableableMod, Path> mods = files.stream()
+                            .collect(Collectors.toMap(file -> generateMod(file.toFile(), com.atlauncher.data.Type.mods,
+                                    true, metadata.get(file)), file -> file));
+                    checkModsOnCurseForge(mods);
+                    mods.keySet().forEach(mod -> LogManager.info("Found extra mod with name of " + mod.file));
+                    instance.launcher.mods.addAll(mods.keySet());
                     instance.save();
                     progressDialog.close();
                 }));
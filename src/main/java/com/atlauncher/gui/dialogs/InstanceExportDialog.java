@@ -43,6 +43,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 
 import com.atlauncher.App;
+import com.atlauncher.constants.Constants;
 import com.atlauncher.constants.UIConstants;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.InstanceExportFormat;
@@ -221,7 +222,8 @@ public class InstanceExportDialog extends JDialog {
         File[] files = instance.getRoot().toFile()
                 .listFiles(pathname -> !pathname.getName().equalsIgnoreCase("disabledmods")
                         && !pathname.getName().equalsIgnoreCase("jarmods")
-                        && !pathname.getName().equalsIgnoreCase("instance.json"));
+                        && !pathname.getName().equalsIgnoreCase("instance.json")
+                        && !pathname.getName().equalsIgnoreCase(Constants.INSTANCE_DATA_FOLDER));
 
         for (File filename : files) {
             JCheckBox checkBox = new JCheckBox(filename.getName());
@@ -266,7 +268,7 @@ public class InstanceExportDialog extends JDialog {
             dialog.addThread(new Thread(() -> {
                 if (instance.export(name.getText(), version.getText(), author.getText(),
                         ((ComboItem<InstanceExportFormat>) format.getSelectedItem()).getValue(), saveTo.getText(),
-                        overrides)) {
+                        overrides, dialog)) {
                     App.TOASTER.pop(GetText.tr("Exported Instance Successfully"));
                     OS.openFileExplorer(Paths.get(saveTo.getText()).resolve(name.getText() + ".zip"), true);
                 } else {
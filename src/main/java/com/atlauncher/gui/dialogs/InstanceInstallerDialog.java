@@ -118,12 +118,12 @@ public class InstanceInstallerDialog extends JDialog {
     private final boolean isUpdate;
     private final PackVersion autoInstallVersion;
 
-    public InstanceInstallerDialog(CurseForgeManifest manifest, Path curseExtractedPath) {
-        this(manifest, false, false, null, null, false, curseExtractedPath, null, App.launcher.getParent());
+    public InstanceInstallerDialog(CurseForgeManifest manifest, Path curseForgeArchive) {
+        this(manifest, false, false, null, null, false, curseForgeArchive, null, App.launcher.getParent());
     }
 
-    public InstanceInstallerDialog(MultiMCManifest manifest, Path multiMCExtractedPath) {
-        this(manifest, false, false, null, null, false, null, multiMCExtractedPath, App.launcher.getParent());
+    public InstanceInstallerDialog(MultiMCManifest manifest, Path multiMCArchive) {
+        this(manifest, false, false, null, null, false, null, multiMCArchive, App.launcher.getParent());
     }
 
     public InstanceInstallerDialog(Object object) {
@@ -143,14 +143,14 @@ public class InstanceInstallerDialog extends JDialog {
     }
 
     public InstanceInstallerDialog(Object object, boolean isUpdate, boolean isServer, PackVersion autoInstallVersion,
-            String shareCode, boolean showModsChooser, Path curseExtractedPath, Path multiMCExtractedPath) {
-        this(object, isUpdate, isServer, autoInstallVersion, shareCode, showModsChooser, curseExtractedPath,
-                multiMCExtractedPath, App.launcher.getParent());
+            String shareCode, boolean showModsChooser, Path curseForgeArchive, Path multiMCArchive) {
+        this(object, isUpdate, isServer, autoInstallVersion, shareCode, showModsChooser, curseForgeArchive,
+                multiMCArchive, App.launcher.getParent());
     }
 
     public InstanceInstallerDialog(Object object, final boolean isUpdate, final boolean isServer,
             final PackVersion autoInstallVersion, final String shareCode, final boolean showModsChooser,
-            Path curseExtractedPath, Path multiMCExtractedPath, Window parent) {
+            Path curseForgeArchive, Path multiMCArchive, Window parent) {
         super(parent, ModalityType.DOCUMENT_MODAL);
 
         setName("instanceInstallerDialog");
@@ -294,12 +294,12 @@ public class InstanceInstallerDialog extends JDialog {
                     installable = new CurseForgeManifestInstallable(pack, packVersion, loaderVersion);
 
                     installable.curseForgeManifest = curseForgeManifest;
-                    installable.curseExtractedPath = curseExtractedPath;
+                    installable.curseForgeArchive = curseForgeArchive;
                 } else if (curseForgeProject != null) {
                     installable = new CurseForgeInstallable(pack, packVersion, loaderVersion);
 
                     installable.curseForgeManifest = curseForgeManifest;
-                    installable.curseExtractedPath = curseExtractedPath;
+                    installable.curseForgeArchive = curseForgeArchive;
                 } else if (modpacksChPackManifest != null) {
                     installable = new ModpacksChInstallable(pack, packVersion, loaderVersion);
 
@@ -308,7 +308,7 @@ public class InstanceInstallerDialog extends JDialog {
                     installable = new MultiMCInstallable(pack, packVersion, loaderVersion);
 
                     installable.multiMCManifest = multiMCManifest;
-                    installable.multiMCExtractedPath = multiMCExtractedPath;
+                    installable.multiMCArchive = multiMCArchive;
                 } else if (instance != null && instance.launcher.vanillaInstance) {
                     installable = new VanillaInstallable(packVersion.minecraftVersion, loaderVersion,
                             instance.launcher.description);
@@ -47,6 +47,7 @@ import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.UIConstants;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.JvmTuningProfile;
 import com.atlauncher.gui.components.JLabelWithHover;
 import com.atlauncher.managers.AccountManager;
 import com.atlauncher.utils.ComboItem;
@@ -90,8 +91,8 @@ public class InstanceSettingsDialog extends JDialog {
 
     private void setupComponents() {
         int systemRam = OS.getSystemRam();
-        setSize(750, 400);
-        setMinimumSize(new Dimension(750, 400));
+        setSize(750, 430);
+        setMinimumSize(new Dimension(750, 430));
         setLocationRelativeTo(App.launcher.getParent());
         setLayout(new BorderLayout());
         setResizable(false);
@@ -315,6 +316,43 @@ public class InstanceSettingsDialog extends JDialog {
 
         topPanel.add(javaParametersPanel, gbc);
 
+        // JVM Tuning
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+
+        JLabelWithHover jvmTuningProfileLabel = new JLabelWithHover(GetText.tr("JVM Tuning") + ":", HELP_ICON,
+                new HTMLBuilder().center().split(100).text(GetText.tr(
+                        "How the garbage collector, memory and other Java flags should be tuned when launching this instance. Use Launcher Default will use whatever is set in the launchers Java settings."))
+                        .build());
+
+        topPanel.add(jvmTuningProfileLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        JComboBox<ComboItem<JvmTuningProfile>> jvmTuningProfile = new JComboBox<>();
+        jvmTuningProfile.addItem(new ComboItem<>(null, GetText.tr("Use Launcher Default")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.AUTOMATIC, GetText.tr("Automatic")));
+        jvmTuningProfile
+                .addItem(new ComboItem<>(JvmTuningProfile.THROUGHPUT, GetText.tr("Best performance (G1)")));
+        jvmTuningProfile.addItem(
+                new ComboItem<>(JvmTuningProfile.LOW_LATENCY, GetText.tr("Fewest pauses (ZGC on Java 15+)")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.DISABLED, GetText.tr("Disabled")));
+
+        for (int i = 0; i < jvmTuningProfile.getItemCount(); i++) {
+            ComboItem<JvmTuningProfile> item = jvmTuningProfile.getItemAt(i);
+
+            if (item.getValue() == instance.launcher.jvmTuningProfile) {
+                jvmTuningProfile.setSelectedIndex(i);
+                break;
+            }
+        }
+
+        topPanel.add(jvmTuningProfile, gbc);
+
         // Account
 
         gbc.gridx = 0;
@@ -351,6 +389,7 @@ public class InstanceSettingsDialog extends JDialog {
         saveButton.addActionListener(arg0 -> {
             saveSettings((Integer) initialMemory.getValue(), (Integer) maximumMemory.getValue(),
                     (Integer) permGen.getValue(), javaPath.getText(), javaParameters.getText(),
+                    jvmTuningProfile.getItemAt(jvmTuningProfile.getSelectedIndex()).getValue(),
                     ((ComboItem<String>) account.getSelectedItem()).getValue());
             App.TOASTER.pop("Instance Settings Saved");
             close();
@@ -383,7 +422,7 @@ public class InstanceSettingsDialog extends JDialog {
     }
 
     private void saveSettings(Integer initialMemory, Integer maximumMemory, Integer permGen, String javaPath,
-            String javaParameters, String account) {
+            String javaParameters, JvmTuningProfile jvmTuningProfile, String account) {
         this.instance.launcher.initialMemory = (initialMemory == App.settings.initialMemory ? null : initialMemory);
         this.instance.launcher.maximumMemory = (maximumMemory == App.settings.maximumMemory ? null : maximumMemory);
         this.instance.launcher.permGen = (permGen == App.settings.metaspace ? null : permGen);
@@ -394,6 +433,7 @@ public class InstanceSettingsDialog extends JDialog {
 
         this.instance.launcher.javaArguments = (javaParameters.equals(App.settings.javaParameters) ? null
                 : javaParameters);
+        this.instance.launcher.jvmTuningProfile = jvmTuningProfile;
         this.instance.launcher.account = account;
         this.instance.launcher.account = account;
         this.instance.save();
@@ -21,26 +21,25 @@ import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.UnsupportedFlavorException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 import javax.swing.JComponent;
 import javax.swing.TransferHandler;
 
 import com.atlauncher.App;
 import com.atlauncher.data.DisableableMod;
+import com.atlauncher.data.ModMetadata;
 import com.atlauncher.data.Type;
-import com.atlauncher.data.curseforge.CurseForgeFingerprint;
-import com.atlauncher.data.curseforge.CurseForgeFingerprintedMod;
-import com.atlauncher.data.minecraft.FabricMod;
-import com.atlauncher.data.minecraft.MCMod;
 import com.atlauncher.gui.dialogs.EditModsDialog;
 import com.atlauncher.gui.dialogs.FileTypeDialog;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.managers.DialogManager;
-import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.CurseForgeApi;
-import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.ModMetadataIndex;
 import com.atlauncher.utils.Utils;
 
 import org.mini2Dx.gettext.GetText;
@@ -109,9 +108,14 @@ public class ModsJCheckBoxTransferHandler extends TransferHandler {
                     GetText.tr("Copying Mods"), dialog);
 
             progressDialog.addThread(new Thread(() -> {
+                File copyTo = this.disabled ? dialog.instance.getRoot().resolve("disabledmods").toFile()
+                        : instanceFile;
+                ModMetadataIndex index = ModMetadataIndex.forInstance(dialog.instance);
+                Map<DisableableMod, Path> modsToAdd = new LinkedHashMap<>();
+                Map<DisableableMod, ModMetadata> modsMetadata = new HashMap<>();
+
                 for (Object item : data) {
                     File file = (File) item;
-                    File copyTo = instanceFile;
 
                     if (!Utils.isAcceptedModFile(file)) {
                         DialogManager.okDialog().setTitle(GetText.tr("Invalid File")).setContent(GetText
@@ -120,10 +124,6 @@ public class ModsJCheckBoxTransferHandler extends TransferHandler {
                         continue;
                     }
 
-                    if (this.disabled) {
-                        copyTo = dialog.instance.getRoot().resolve("disabledmods").toFile();
-                    }
-
                     DisableableMod mod = new DisableableMod();
                     mod.disabled = this.disabled;
                     mod.userAdded = true;
@@ -135,57 +135,31 @@ public class ModsJCheckBoxTransferHandler extends TransferHandler {
                     mod.version = "Unknown";
                     mod.description = null;
 
-                    MCMod mcMod = Utils.getMCModForFile(file);
-                    if (mcMod != null) {
-                        mod.name = Optional.ofNullable(mcMod.name).orElse(file.getName());
-                        mod.version = Optional.ofNullable(mcMod.version).orElse("Unknown");
-                        mod.description = Optional.ofNullable(mcMod.description).orElse(null);
-                    } else {
-                        FabricMod fabricMod = Utils.getFabricModForFile(file);
-                        if (fabricMod != null) {
-                            mod.name = Optional.ofNullable(fabricMod.name).orElse(file.getName());
-                            mod.version = Optional.ofNullable(fabricMod.version).orElse("Unknown");
-                            mod.description = Optional.ofNullable(fabricMod.description).orElse(null);
-                        }
+                    ModMetadata metadata = index.get(file.toPath());
+                    if (metadata != null) {
+                        metadata.applyTo(mod, file.getName());
                     }
 
-                    if (!App.settings.dontCheckModsOnCurseForge) {
-                        try {
-                            long murmurHash = Hashing.murmur(file.toPath());
-
-                            LogManager.debug("File " + file.getName() + " has murmur hash of " + murmurHash);
-
-                            CurseForgeFingerprint fingerprintResponse = CurseForgeApi.checkFingerprint(murmurHash);
-
-                            if (fingerprintResponse.exactMatches.size() == 1) {
-                                CurseForgeFingerprintedMod foundMod = fingerprintResponse.exactMatches.get(0);
-
-                                // add CurseForge information
-                                mod.curseForgeProject = CurseForgeApi.getProjectById(foundMod.id);
-                                mod.curseForgeProjectId = foundMod.id;
-                                mod.curseForgeFile = foundMod.file;
-                                mod.curseForgeFileId = foundMod.file.id;
-
-                                mod.name = mod.curseForgeProject.name;
-                                mod.description = mod.curseForgeProject.summary;
+                    modsToAdd.put(mod, file.toPath());
+                    modsMetadata.put(mod, metadata);
+                }
 
-                                LogManager
-                                        .debug("Found matching mod from CurseForge called " + mod.curseForgeProject.name
-                                                + " with file named " + mod.curseForgeFile.displayName);
-                            }
-                        } catch (IOException e1) {
-                            LogManager.logStackTrace(e1);
-                        }
-                    }
+                // look all the mods up on CurseForge at once rather than one request per mod
+                if (!App.settings.dontCheckModsOnCurseForge && modsToAdd.size() != 0) {
+                    CurseForgeApi.addCurseForgeInformation(modsToAdd);
+                }
 
-                    if (!copyTo.exists()) {
-                        copyTo.mkdirs();
-                    }
+                if (!copyTo.exists()) {
+                    copyTo.mkdirs();
+                }
 
-                    if (Utils.copyFile(file, copyTo)) {
+                modsToAdd.forEach((mod, file) -> {
+                    if (Utils.copyFile(file.toFile(), copyTo)) {
+                        index.put(copyTo.toPath().resolve(file.getFileName()), modsMetadata.get(mod));
                         dialog.instance.launcher.mods.add(mod);
                     }
-                }
+                });
+                index.save();
                 progressDialog.close();
             }));
             progressDialog.start();
@@ -21,6 +21,8 @@ import java.awt.GridBagConstraints;
 
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 
 import com.atlauncher.App;
 import com.atlauncher.constants.UIConstants;
@@ -34,6 +36,8 @@ import org.mini2Dx.gettext.GetText;
 public class BackupsSettingsTab extends AbstractSettingsTab {
     private final JComboBox<ComboItem<BackupMode>> backupMode;
     private final JCheckBox enableAutomaticBackupAfterLaunch;
+    private final JCheckBox useIncrementalBackups;
+    private final JSpinner backupsToKeep;
 
     public BackupsSettingsTab() {
         // Backup mode
@@ -84,11 +88,48 @@ public class BackupsSettingsTab extends AbstractSettingsTab {
         enableAutomaticBackupAfterLaunch = new JCheckBox();
         enableAutomaticBackupAfterLaunch.setSelected(App.settings.enableAutomaticBackupAfterLaunch);
         add(enableAutomaticBackupAfterLaunch, gbc);
+
+        // Use incremental backups
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover useIncrementalBackupsLabel = new JLabelWithHover(GetText.tr("Use Incremental Backups") + "?",
+                HELP_ICON, GetText.tr(
+                        "If backups should only store what's changed since the last backup, rather than a full zip file each time."));
+        add(useIncrementalBackupsLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        useIncrementalBackups = new JCheckBox();
+        useIncrementalBackups.setSelected(App.settings.useIncrementalBackups);
+        add(useIncrementalBackups, gbc);
+
+        // Backups to keep
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover backupsToKeepLabel = new JLabelWithHover(GetText.tr("Backups To Keep") + ":", HELP_ICON,
+                GetText.tr(
+                        "How many incremental backups of each instance to keep before removing the oldest. Set to 0 to keep every backup."));
+        add(backupsToKeepLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        backupsToKeep = new JSpinner(new SpinnerNumberModel(App.settings.backupsToKeep, 0, 1000, 1));
+        add(backupsToKeep, gbc);
     }
 
     public void save() {
         App.settings.backupMode = ((ComboItem<BackupMode>) backupMode.getSelectedItem()).getValue();
         App.settings.enableAutomaticBackupAfterLaunch = enableAutomaticBackupAfterLaunch.isSelected();
+        App.settings.useIncrementalBackups = useIncrementalBackups.isSelected();
+        App.settings.backupsToKeep = (Integer) backupsToKeep.getValue();
     }
 
     @Override
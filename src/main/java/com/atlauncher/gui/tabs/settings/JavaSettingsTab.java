@@ -44,12 +44,14 @@ import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.constants.UIConstants;
+import com.atlauncher.data.JvmTuningProfile;
 import com.atlauncher.evnt.listener.RelocalizationListener;
 import com.atlauncher.evnt.listener.SettingsListener;
 import com.atlauncher.evnt.manager.RelocalizationManager;
 import com.atlauncher.evnt.manager.SettingsManager;
 import com.atlauncher.gui.components.JLabelWithHover;
 import com.atlauncher.managers.DialogManager;
+import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.javafinder.JavaInfo;
@@ -80,6 +82,10 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
     private final JLabelWithHover javaParametersLabel;
     private final JTextArea javaParameters;
     private final JButton javaParametersResetButton;
+    private final JLabelWithHover jvmTuningProfileLabel;
+    private final JComboBox<ComboItem<JvmTuningProfile>> jvmTuningProfile;
+    private final JLabelWithHover jvmTuningUseRecommendedMemoryLabel;
+    private final JCheckBox jvmTuningUseRecommendedMemory;
     private final JLabelWithHover startMinecraftMaximisedLabel;
     private final JCheckBox startMinecraftMaximised;
     private final JLabelWithHover ignoreJavaOnInstanceLaunchLabel;
@@ -348,6 +354,61 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
 
         add(javaParametersPanel, gbc);
 
+        // JVM Tuning
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        jvmTuningProfileLabel = new JLabelWithHover(GetText.tr("JVM Tuning") + ":", HELP_ICON,
+                new HTMLBuilder().center().split(100).text(GetText.tr(
+                        "How the garbage collector, memory and other Java flags should be tuned when launching Minecraft, based on the number of mods, the version of Java and your computer. Any Java parameters you set yourself are always kept."))
+                        .build());
+        add(jvmTuningProfileLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        jvmTuningProfile = new JComboBox<>();
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.AUTOMATIC, GetText.tr("Automatic")));
+        jvmTuningProfile
+                .addItem(new ComboItem<>(JvmTuningProfile.THROUGHPUT, GetText.tr("Best performance (G1)")));
+        jvmTuningProfile.addItem(
+                new ComboItem<>(JvmTuningProfile.LOW_LATENCY, GetText.tr("Fewest pauses (ZGC on Java 15+)")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.DISABLED, GetText.tr("Disabled")));
+
+        for (int i = 0; i < jvmTuningProfile.getItemCount(); i++) {
+            ComboItem<JvmTuningProfile> item = jvmTuningProfile.getItemAt(i);
+
+            if (item.getValue() == App.settings.jvmTuningProfile) {
+                jvmTuningProfile.setSelectedIndex(i);
+                break;
+            }
+        }
+
+        add(jvmTuningProfile, gbc);
+
+        // Use Recommended Memory
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        jvmTuningUseRecommendedMemoryLabel = new JLabelWithHover(GetText.tr("Use Recommended Memory") + "?", HELP_ICON,
+                new HTMLBuilder().center().split(100).text(GetText.tr(
+                        "Enabling this lets the Automatic JVM tuning raise the maximum memory to what it thinks the instance needs, based on the number of mods installed."))
+                        .build());
+        add(jvmTuningUseRecommendedMemoryLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        jvmTuningUseRecommendedMemory = new JCheckBox();
+        if (App.settings.jvmTuningUseRecommendedMemory) {
+            jvmTuningUseRecommendedMemory.setSelected(true);
+        }
+        add(jvmTuningUseRecommendedMemory, gbc);
+
         // Start Minecraft Maximised
 
         gbc.gridx = 0;
@@ -459,6 +520,8 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
         App.settings.javaPath = javaPath.getText();
         App.settings.usingCustomJavaPath = !javaPath.getText().equalsIgnoreCase(OS.getDefaultJavaPath());
         App.settings.javaParameters = javaParameters.getText();
+        App.settings.jvmTuningProfile = jvmTuningProfile.getItemAt(jvmTuningProfile.getSelectedIndex()).getValue();
+        App.settings.jvmTuningUseRecommendedMemory = jvmTuningUseRecommendedMemory.isSelected();
         App.settings.maximiseMinecraft = startMinecraftMaximised.isSelected();
         App.settings.ignoreJavaOnInstanceLaunch = ignoreJavaOnInstanceLaunch.isSelected();
         App.settings.useJavaProvidedByMinecraft = useJavaProvidedByMinecraft.isSelected();
@@ -506,6 +569,16 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
 
         this.javaParametersResetButton.setText(GetText.tr("Reset"));
 
+        this.jvmTuningProfileLabel.setText(GetText.tr("JVM Tuning") + ":");
+        this.jvmTuningProfileLabel.setToolTipText(new HTMLBuilder().center().split(100).text(GetText.tr(
+                "How the garbage collector, memory and other Java flags should be tuned when launching Minecraft, based on the number of mods, the version of Java and your computer. Any Java parameters you set yourself are always kept."))
+                .build());
+
+        this.jvmTuningUseRecommendedMemoryLabel.setText(GetText.tr("Use Recommended Memory") + "?");
+        this.jvmTuningUseRecommendedMemoryLabel.setToolTipText(new HTMLBuilder().center().split(100).text(GetText.tr(
+                "Enabling this lets the Automatic JVM tuning raise the maximum memory to what it thinks the instance needs, based on the number of mods installed."))
+                .build());
+
         this.startMinecraftMaximisedLabel.setText(GetText.tr("Start Minecraft Maximised") + "?");
         this.startMinecraftMaximisedLabel.setToolTipText(GetText
                 .tr("Enabling this will start Minecraft maximised so that it takes up the full size of your screen."));
@@ -21,6 +21,8 @@ import java.awt.GridBagConstraints;
 
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 
 import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
@@ -39,6 +41,8 @@ public class LoggingSettingsTab extends AbstractSettingsTab {
 
     private JCheckBox enableOpenEyeReporting;
 
+    private final JSpinner consoleScrollback;
+
     public LoggingSettingsTab() {
         // Forge Logging Level
         gbc.gridx = 0;
@@ -137,6 +141,24 @@ public class LoggingSettingsTab extends AbstractSettingsTab {
             enableOpenEyeReporting.setSelected(true);
         }
         add(enableOpenEyeReporting, gbc);
+
+        // Console Scrollback
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover consoleScrollbackLabel = new JLabelWithHover(GetText.tr("Console Scrollback") + ":",
+            HELP_ICON, "<html>" + GetText.tr(
+                "How many lines the console keeps. Once there's more than this, the oldest lines are removed.")
+                + "</html>");
+        add(consoleScrollbackLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        consoleScrollback = new JSpinner(new SpinnerNumberModel(App.settings.consoleScrollback, 1000, 1000000, 1000));
+        add(consoleScrollback, gbc);
     }
 
     public void save() {
@@ -144,6 +166,8 @@ public class LoggingSettingsTab extends AbstractSettingsTab {
         App.settings.enableLogs = enableLogs.isSelected();
         App.settings.enableAnalytics = enableAnalytics.isSelected();
         App.settings.enableOpenEyeReporting = enableOpenEyeReporting.isSelected();
+        App.settings.consoleScrollback = (Integer) consoleScrollback.getValue();
+        App.console.console.setMaxLines(App.settings.consoleScrollback);
     }
 
     @Override
@@ -27,7 +27,7 @@ import com.atlauncher.FileSystem;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.network.Analytics;
-import com.atlauncher.utils.Utils;
+import com.atlauncher.utils.FileUtils;
 
 import org.mini2Dx.gettext.GetText;
 
@@ -50,12 +50,27 @@ public class LogClearerToolPanel extends AbstractToolPanel implements ActionList
         if (e.getSource() == LAUNCH_BUTTON) {
             Analytics.sendEvent("LogClearer", "Run", "Tool");
 
-            for (File file : FileSystem.LOGS.resolve("old").toFile().listFiles()) {
-                Utils.delete(file);
+            // old logs are gzipped when rolled over, but older versions of the launcher left them uncompressed
+            File[] archives = FileSystem.LOGS.resolve("old").toFile()
+                    .listFiles((dir, name) -> name.endsWith(".log.gz") || name.endsWith(".log"));
+            int cleared = 0;
+            long freed = 0;
+
+            if (archives != null) {
+                for (File file : archives) {
+                    long size = file.length();
+
+                    if (FileUtils.delete(file.toPath())) {
+                        cleared++;
+                        freed += size;
+                    }
+                }
             }
 
             DialogManager.okDialog().setType(DialogManager.INFO).setTitle(GetText.tr("Success"))
-                    .setContent(GetText.tr("Successfully cleared the logs.")).show();
+                    .setContent(GetText.tr("Successfully cleared {0} logs, freeing {1} MB.", cleared,
+                            String.format("%.2f", freed / 1024.0 / 1024.0)))
+                    .show();
         }
     }
 }
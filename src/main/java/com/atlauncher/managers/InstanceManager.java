@@ -19,6 +19,7 @@ package com.atlauncher.managers;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -30,8 +31,11 @@ import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.InstanceV1;
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.mclauncher.ClassDataSharing;
 import com.atlauncher.utils.CurseForgeApi;
 import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.TreeCopier;
 import com.atlauncher.utils.Utils;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
@@ -153,6 +157,7 @@ public class InstanceManager {
     public static void removeInstance(Instance instance) {
         if (Data.INSTANCES.remove(instance)) {
             FileUtils.deleteDirectory(instance.getRoot());
+            ClassDataSharing.deleteArchives(instance);
             App.launcher.reloadInstancesPanel();
         }
     }
@@ -208,19 +213,36 @@ public class InstanceManager {
         return Data.INSTANCES.stream().filter(i -> i.getSafeName().equalsIgnoreCase(name)).findFirst().orElse(null);
     }
 
-    public static void cloneInstance(Instance instance, String clonedName) {
+    /**
+     * Clones the instance and all its files.
+     *
+     * @param progress told how much of the instance has been copied, or null
+     * @return if the instance was cloned
+     */
+    public static boolean cloneInstance(Instance instance, String clonedName, NetworkProgressable progress) {
         Instance clonedInstance = Gsons.MINECRAFT.fromJson(Gsons.MINECRAFT.toJson(instance), Instance.class);
 
         if (clonedInstance == null) {
             LogManager.error("Error Occurred While Cloning Instance! Instance Object Couldn't Be Cloned!");
-        } else {
-            clonedInstance.launcher.name = clonedName;
-            clonedInstance.ROOT = FileSystem.INSTANCES.resolve(clonedInstance.getSafeName());
-            FileUtils.createDirectory(clonedInstance.getRoot());
-            Utils.copyDirectory(instance.getRoot().toFile(), clonedInstance.getRoot().toFile());
-            clonedInstance.save();
-            Data.INSTANCES.add(clonedInstance);
-            App.launcher.reloadInstancesPanel();
+            return false;
         }
+
+        clonedInstance.launcher.name = clonedName;
+        clonedInstance.ROOT = FileSystem.INSTANCES.resolve(clonedInstance.getSafeName());
+        FileUtils.createDirectory(clonedInstance.getRoot());
+
+        try {
+            new TreeCopier(instance.getRoot(), clonedInstance.getRoot()).progress(progress).copy();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Error Occurred While Cloning Instance! Files Couldn't Be Copied!", e);
+            FileUtils.deleteDirectory(clonedInstance.getRoot());
+            return false;
+        }
+
+        clonedInstance.save();
+        Data.INSTANCES.add(clonedInstance);
+        App.launcher.reloadInstancesPanel();
+
+        return true;
     }
 }
@@ -19,8 +19,11 @@ package com.atlauncher.managers;
 
 import java.io.CharArrayWriter;
 import java.io.PrintWriter;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
 
 import com.atlauncher.Gsons;
 import com.atlauncher.evnt.LogEvent;
@@ -30,13 +33,112 @@ import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadException;
 import com.atlauncher.network.ErrorReporting;
 import com.atlauncher.thread.LoggingThread;
+import com.atlauncher.utils.MinecraftLogClassifier;
 
 public final class LogManager {
-    private static final BlockingQueue<LogEvent> queue = new ArrayBlockingQueue<>(128);
+    /**
+     * Once this many events are waiting to be written, threads logging wait for the logging thread to catch up rather
+     * than events being dropped. Threads which can't wait (the EDT, the logging thread itself and the thread reading
+     * game output) instead queue up to the capacity, past which their events are written straight to the log files
+     * (including game output, which otherwise only goes to the console) and aren't shown in the console.
+     */
+    private static final int HIGH_WATER_MARK = 8192;
+    private static final int LOW_WATER_MARK = 2048;
+    private static final int CAPACITY = 16384;
+
+    private static final BlockingQueue<LogEvent> queue = new LinkedBlockingQueue<>(CAPACITY);
+    private static final Object backpressureLock = new Object();
+    private static final AtomicLong queued = new AtomicLong();
+    private static final AtomicLong throttled = new AtomicLong();
+    private static final AtomicLong spilled = new AtomicLong();
+    private static LoggingThread loggingThread;
     public static boolean showDebug = false;
 
     public static void start() {
-        new LoggingThread(queue).start();
+        loggingThread = new LoggingThread(queue);
+        loggingThread.start();
+
+        // log4j's own shutdown hook is disabled so that it's only stopped, and its async appender drained to disk,
+        // after everything still queued has been handed to it
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            loggingThread.interrupt();
+
+            try {
+                // let it finish the batch it's writing, so the flush below doesn't write events around it
+                loggingThread.join(5000);
+            } catch (InterruptedException ignored) {
+                // still flush whatever is left
+            }
+
+            loggingThread.flushToLogFiles();
+            org.apache.logging.log4j.LogManager.shutdown();
+        }));
+    }
+
+    private static void queue(LogEvent event) {
+        queue(event, canWait());
+    }
+
+    private static void queue(LogEvent event, boolean canWait) {
+        if (canWait && queue.size() > HIGH_WATER_MARK) {
+            waitForLoggingThread();
+        }
+
+        if (queue.offer(event)) {
+            queued.incrementAndGet();
+            return;
+        }
+
+        // full, and either this thread can't wait or the logging thread isn't keeping up after waiting
+        spilled.incrementAndGet();
+        LoggingThread.writeToLogFiles(event);
+    }
+
+    private static boolean canWait() {
+        LoggingThread thread = loggingThread;
+
+        return thread != null && thread.isAlive() && Thread.currentThread() != thread
+                && !SwingUtilities.isEventDispatchThread() && !ProcessManager.isOutputThread();
+    }
+
+    private static void waitForLoggingThread() {
+        LoggingThread thread = loggingThread;
+
+        throttled.incrementAndGet();
+
+        synchronized (backpressureLock) {
+            while (queue.size() > LOW_WATER_MARK && thread.isAlive()) {
+                try {
+                    backpressureLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the logging thread after each batch is written, to wake up anything waiting for the queue to drain.
+     */
+    public static void batchWritten() {
+        if (queue.size() <= LOW_WATER_MARK) {
+            synchronized (backpressureLock) {
+                backpressureLock.notifyAll();
+            }
+        }
+    }
+
+    public static long getQueuedCount() {
+        return queued.get();
+    }
+
+    public static long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public static long getSpilledCount() {
+        return spilled.get();
     }
 
     /**
@@ -46,21 +148,21 @@ public final class LogManager {
     public static int debugLevel = 0;
 
     public static void info(String message) {
-        queue.offer(new LogEvent(LogType.INFO, message));
+        queue(new LogEvent(LogType.INFO, message));
     }
 
     public static void debug(String message) {
         if (showDebug) {
-            queue.offer(new LogEvent(LogType.DEBUG, message));
+            queue(new LogEvent(LogType.DEBUG, message));
         }
     }
 
     public static void warn(String message) {
-        queue.offer(new LogEvent(LogType.WARN, message));
+        queue(new LogEvent(LogType.WARN, message));
     }
 
     public static void error(String message) {
-        queue.offer(new LogEvent(LogType.ERROR, message));
+        queue(new LogEvent(LogType.ERROR, message));
     }
 
     public static void debugObject(Object object) {
@@ -74,8 +176,11 @@ public final class LogManager {
     }
 
     public static void minecraft(String message) {
-        Object[] value = prepareMessageForMinecraftLog(message);
-        queue.offer(new LogEvent((LogType) value[0], (String) value[1], LogEvent.CONSOLE));
+        minecraft(MinecraftLogClassifier.getDefault().classify(message));
+    }
+
+    public static void minecraft(MinecraftLogClassifier.Result result) {
+        queue(new LogEvent(result.type, result.message, LogEvent.CONSOLE));
     }
 
     public static void logStackTrace(Throwable t) {
@@ -121,86 +226,8 @@ public final class LogManager {
     }
 
     public static Object[] prepareMessageForMinecraftLog(String text) {
-        LogType type; // The log message type
-        String message; // The log message
-
-        if (text.contains("[INFO] [STDERR]")) {
-            message = text.substring(text.indexOf("[INFO] [STDERR]"));
-            type = LogType.WARN;
-        } else if (text.contains("[INFO]")) {
-            message = text.substring(text.indexOf("[INFO]"));
-            if (message.contains("CONFLICT")) {
-                type = LogType.ERROR;
-            } else if (message.contains("overwriting existing item")) {
-                type = LogType.WARN;
-            } else {
-                type = LogType.INFO;
-            }
-        } else if (text.contains("[WARNING]")) {
-            message = text.substring(text.indexOf("[WARNING]"));
-            type = LogType.WARN;
-        } else if (text.contains("WARNING:")) {
-            message = text.substring(text.indexOf("WARNING:"));
-            type = LogType.WARN;
-        } else if (text.contains("INFO:")) {
-            message = text.substring(text.indexOf("INFO:"));
-            type = LogType.INFO;
-        } else if (text.contains("Exception")) {
-            message = text;
-            type = LogType.ERROR;
-        } else if (text.contains("[SEVERE]")) {
-            message = text.substring(text.indexOf("[SEVERE]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Sound Library Loader/ERROR]")) {
-            message = text.substring(text.indexOf("[Sound Library Loader/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Sound Library Loader/WARN]")) {
-            message = text.substring(text.indexOf("[Sound Library Loader/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[Sound Library Loader/INFO]")) {
-            message = text.substring(text.indexOf("[Sound Library Loader/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[MCO Availability Checker #1/ERROR]")) {
-            message = text.substring(text.indexOf("[MCO Availability Checker #1/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[MCO Availability Checker #1/WARN]")) {
-            message = text.substring(text.indexOf("[MCO Availability Checker #1/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[MCO Availability Checker #1/INFO]")) {
-            message = text.substring(text.indexOf("[MCO Availability Checker #1/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[Client thread/ERROR]")) {
-            message = text.substring(text.indexOf("[Client thread/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Client thread/WARN]")) {
-            message = text.substring(text.indexOf("[Client thread/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[Client thread/INFO]")) {
-            message = text.substring(text.indexOf("[Client thread/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[Server thread/ERROR]")) {
-            message = text.substring(text.indexOf("[Server thread/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Server thread/WARN]")) {
-            message = text.substring(text.indexOf("[Server thread/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[Server thread/INFO]")) {
-            message = text.substring(text.indexOf("[Server thread/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[main/ERROR]")) {
-            message = text.substring(text.indexOf("[main/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[main/WARN]")) {
-            message = text.substring(text.indexOf("[main/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[main/INFO]")) {
-            message = text.substring(text.indexOf("[main/INFO]"));
-            type = LogType.INFO;
-        } else {
-            message = text;
-            type = LogType.INFO;
-        }
+        MinecraftLogClassifier.Result result = MinecraftLogClassifier.getDefault().classify(text);
 
-        return new Object[] { type, message };
+        return new Object[] { result.type, result.message };
     }
 }
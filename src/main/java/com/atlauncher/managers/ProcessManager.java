@@ -0,0 +1,175 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.atlauncher.App;
+import com.atlauncher.data.RunningProcess;
+import com.atlauncher.evnt.manager.MinecraftLandManager;
+import com.atlauncher.evnt.manager.MinecraftLaunchManager;
+import com.atlauncher.utils.MinecraftLogClassifier;
+
+import net.arikia.dev.drpc.DiscordRPC;
+import net.arikia.dev.drpc.DiscordRichPresence;
+
+/**
+ * Reads the output of every process the launcher starts on a single thread, rather than a thread per process blocking
+ * on reads.
+ *
+ * Process streams can't be selected on, so the thread goes round each process reading whatever is available and backs
+ * off when none of them have written anything.
+ *
+ * Also keeps track of which processes are running, so any number of instances can be running at once, each with its
+ * own output, stats and Discord presence.
+ */
+public final class ProcessManager {
+    private static final int BUFFER_SIZE = 8192;
+    private static final long MIN_IDLE_SLEEP_MS = 5;
+    private static final long MAX_IDLE_SLEEP_MS = 50;
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+    private static final long RESOURCE_SAMPLE_INTERVAL_MS = 5000;
+
+    private static final List<RunningProcess> processes = new CopyOnWriteArrayList<>();
+    private static volatile Thread outputThread = null;
+
+    /**
+     * Starts reading the output of the given process.
+     *
+     * @param logsDirectory the directory to write the output to, or null to not write it to disk
+     * @param censor        applied to each line before anything else sees it
+     * @param classifier    used to work out the type of each censored line
+     * @param lineHandler   called with each classified line on the process manager's thread
+     */
+    public static RunningProcess supervise(String name, Process process, Path logsDirectory,
+            MinecraftLogClassifier classifier, Consumer<MinecraftLogClassifier.Result> lineHandler) {
+        RunningProcess runningProcess = new RunningProcess(name, process, logsDirectory, classifier, lineHandler);
+
+        synchronized (ProcessManager.class) {
+            processes.add(runningProcess);
+
+            MinecraftLaunchManager.post(runningProcess);
+
+            if (outputThread == null) {
+                outputThread = new Thread(ProcessManager::readOutput, "ProcessManager");
+                outputThread.setDaemon(true);
+                outputThread.start();
+            }
+        }
+
+        return runningProcess;
+    }
+
+    public static List<RunningProcess> getRunningProcesses() {
+        return new ArrayList<>(processes);
+    }
+
+    public static boolean hasRunningProcesses() {
+        return !processes.isEmpty();
+    }
+
+    /**
+     * Whether this is the thread reading the output of the running processes, which shouldn't ever be made to wait.
+     */
+    public static boolean isOutputThread() {
+        return Thread.currentThread() == outputThread;
+    }
+
+    /**
+     * Shows the Discord presence of the most recently started process which has one, or clears it if there's none.
+     */
+    public static synchronized void updateDiscordPresence() {
+        if (!App.settings.enableDiscordIntegration || !App.discordInitialized) {
+            return;
+        }
+
+        DiscordRichPresence presence = null;
+        for (RunningProcess process : processes) {
+            if (process.getDiscordPresence() != null) {
+                presence = process.getDiscordPresence();
+            }
+        }
+
+        if (presence == null) {
+            DiscordRPC.discordClearPresence();
+        } else {
+            DiscordRPC.discordUpdatePresence(presence);
+        }
+    }
+
+    private static void readOutput() {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long idleSleep = MIN_IDLE_SLEEP_MS;
+        long lastSample = System.currentTimeMillis();
+        long lastResourceSample = 0;
+
+        while (true) {
+            boolean readAny = false;
+
+            for (RunningProcess process : processes) {
+                readAny |= process.pump(buffer);
+
+                if (process.isFinished()) {
+                    processes.remove(process);
+                    MinecraftLandManager.post(process);
+
+                    if (process.getDiscordPresence() != null) {
+                        updateDiscordPresence();
+                    }
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            if (now - lastSample >= SAMPLE_INTERVAL_MS) {
+                processes.forEach(process -> process.sample(now));
+                lastSample = now;
+            }
+
+            if (now - lastResourceSample >= RESOURCE_SAMPLE_INTERVAL_MS) {
+                processes.forEach(process -> App.TASKPOOL.execute(process::sampleResources));
+                lastResourceSample = now;
+            }
+
+            synchronized (ProcessManager.class) {
+                if (processes.isEmpty()) {
+                    outputThread = null;
+                    return;
+                }
+            }
+
+            if (readAny) {
+                idleSleep = MIN_IDLE_SLEEP_MS;
+                continue;
+            }
+
+            processes.forEach(RunningProcess::flushLogFile);
+
+            try {
+                Thread.sleep(idleSleep);
+            } catch (InterruptedException ignored) {
+                // nothing stops this thread other than all the processes finishing
+            }
+
+            idleSleep = Math.min(idleSleep * 2, MAX_IDLE_SLEEP_MS);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.data.Instance;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.OS;
+
+/**
+ * Keeps a dynamic AppCDS archive for each instance, so the classes Minecraft and its libraries load don't have to be
+ * read and verified from the jars on every launch.
+ *
+ * The first launch with a given classpath writes the archive out when the game exits, and launches after that map it
+ * in. The archive is named by a hash of everything which would make it stale (the classpath and its jars, the mods, the
+ * Java runtime and the JVM flags), so changing any of those starts a new archive and the old one is deleted.
+ *
+ * Needs Java 13 or newer along with the JDK's own base archive, which dynamic archives are built on top of.
+ *
+ * The archives are kept in the launchers cache rather than the instance, so they're not exported or backed up, which
+ * means they need deleting with {@link #deleteArchives(Instance)} when the instance is deleted or renamed.
+ */
+public final class ClassDataSharing {
+    public static final int MINIMUM_JAVA_VERSION = 13;
+    public static final int AUTO_CREATE_JAVA_VERSION = 19;
+    public static final String ARCHIVE_EXTENSION = ".jsa";
+
+    /**
+     * Gets the arguments needed to use or create the archive for the instance, or nothing if it can't be used.
+     *
+     * @param javaRoot     the root of the Java install Minecraft is being launched with
+     * @param classpath    the classpath Minecraft is being launched with
+     * @param jvmArguments the other arguments being passed to the JVM
+     */
+    public static List<String> getArguments(Instance instance, Path javaRoot, int javaMajorVersion, String classpath,
+            List<String> jvmArguments) {
+        List<String> arguments = new ArrayList<>();
+
+        if (javaMajorVersion < MINIMUM_JAVA_VERSION) {
+            return arguments;
+        }
+
+        // leave it alone if the user is managing class data sharing themselves
+        if (jvmArguments.stream().anyMatch(argument -> argument.contains("-Xshare")
+                || argument.contains("SharedArchiveFile") || argument.contains("ArchiveClassesAtExit"))) {
+            return arguments;
+        }
+
+        if (!hasBaseArchive(javaRoot)) {
+            LogManager.debug("Not using class data sharing as there's no base archive in " + javaRoot);
+            return arguments;
+        }
+
+        Path archiveDirectory = getArchiveDirectory(instance);
+        String key = getArchiveKey(javaRoot, classpath, instance.getRoot().resolve("mods"), jvmArguments);
+        Path archive = archiveDirectory.resolve(key + ARCHIVE_EXTENSION);
+
+        try {
+            if (!Files.isDirectory(archiveDirectory)) {
+                FileUtils.createDirectory(archiveDirectory);
+            }
+
+            removeStaleArchives(archiveDirectory, archive);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to tidy up class data sharing archives", e, false);
+            return arguments;
+        }
+
+        // a broken or mismatched archive is skipped over by the JVM rather than stopping it from starting
+        arguments.add("-Xshare:auto");
+
+        if (javaMajorVersion >= AUTO_CREATE_JAVA_VERSION) {
+            arguments.add("-XX:+AutoCreateSharedArchive");
+            arguments.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+        } else if (Files.isRegularFile(archive) && archive.toFile().length() != 0) {
+            arguments.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+        } else {
+            LogManager.info("Creating a class data sharing archive for " + instance.getName()
+                    + " which will be written when Minecraft closes");
+            arguments.add("-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath());
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Deletes the archives kept for the instance, as they can't be used once it's been deleted or renamed.
+     */
+    public static void deleteArchives(Instance instance) {
+        Path archiveDirectory = getArchiveDirectory(instance);
+
+        if (Files.isDirectory(archiveDirectory)) {
+            FileUtils.deleteDirectory(archiveDirectory);
+        }
+    }
+
+    private static Path getArchiveDirectory(Instance instance) {
+        return FileSystem.CACHE.resolve("cds").resolve(instance.getSafeName());
+    }
+
+    /**
+     * Gets a hash of everything that, when changed, means an archive can no longer be used.
+     */
+    public static String getArchiveKey(Path javaRoot, String classpath, Path modsDirectory,
+            List<String> jvmArguments) {
+        StringBuilder key = new StringBuilder();
+
+        key.append(javaRoot.toAbsolutePath()).append('\n');
+        appendFileState(key, javaRoot.resolve("release"));
+        appendFileState(key, javaRoot.resolve("lib").resolve("modules"));
+
+        for (String entry : classpath.split(File.pathSeparator)) {
+            appendFileState(key, new File(entry).toPath());
+        }
+
+        if (Files.isDirectory(modsDirectory)) {
+            try (Stream<Path> mods = Files.list(modsDirectory)) {
+                mods.filter(Files::isRegularFile).sorted().forEach(mod -> appendFileState(key, mod));
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to list mods for class data sharing", e, false);
+            }
+        }
+
+        jvmArguments.forEach(argument -> key.append(argument).append('\n'));
+
+        return Hashing.sha1(key.toString()).toString();
+    }
+
+    private static void appendFileState(StringBuilder key, Path file) {
+        key.append(file.toAbsolutePath()).append(':');
+
+        File asFile = file.toFile();
+        if (asFile.exists()) {
+            key.append(asFile.length()).append(':').append(asFile.lastModified());
+        }
+
+        key.append('\n');
+    }
+
+    private static boolean hasBaseArchive(Path javaRoot) {
+        List<Path> locations = OS.isWindows() ? Arrays.asList(javaRoot.resolve("bin/server/classes.jsa"))
+                : Arrays.asList(javaRoot.resolve("lib/server/classes.jsa"),
+                        javaRoot.resolve("lib/server/classes_nocoops.jsa"));
+
+        return locations.stream().anyMatch(Files::isRegularFile);
+    }
+
+    private static void removeStaleArchives(Path archiveDirectory, Path archive) throws IOException {
+        List<Path> stale;
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            stale = files.filter(file -> !file.equals(archive)
+                    && file.getFileName().toString().endsWith(ARCHIVE_EXTENSION)).collect(Collectors.toList());
+        }
+
+        for (Path file : stale) {
+            LogManager.debug("Removing out of date class data sharing archive " + file.getFileName());
+            FileUtils.delete(file);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.atlauncher.constants.Constants;
+import com.atlauncher.data.JvmTuningProfile;
+
+/**
+ * Works out the JVM flags to launch Minecraft with from what's known about the instance (how many mods, which loader),
+ * the Java it's being run with and the machine it's being run on.
+ *
+ * The heap size is what the user set and is never lowered, but the flags are picked to suit it, and AUTOMATIC works
+ * out how much memory the pack is likely to need so it can be pointed out when it's set lower than that. Only if the
+ * user has opted in does AUTOMATIC raise the heap size to what it worked out.
+ *
+ * Flags the user has set themselves always win. If they've picked a garbage collector, no collector specific flags
+ * are added at all. If they haven't changed the launchers default Java parameters, those are replaced by the tuned
+ * ones.
+ */
+public final class JvmTuning {
+    public static final int MAX_RECOMMENDED_MEMORY = 10240;
+
+    /**
+     * The profile which was actually used, so AUTOMATIC is resolved to whichever profile it picked.
+     */
+    public final JvmTuningProfile profile;
+    public final int initialMemory;
+    public final int maximumMemory;
+
+    /**
+     * How much memory AUTOMATIC thinks the pack needs, or 0 if it wasn't worked out.
+     */
+    public final int recommendedMemory;
+    public final String javaArguments;
+    public final List<String> arguments;
+
+    private JvmTuning(JvmTuningProfile profile, int initialMemory, int maximumMemory, int recommendedMemory,
+            String javaArguments, List<String> arguments) {
+        this.profile = profile;
+        this.initialMemory = initialMemory;
+        this.maximumMemory = maximumMemory;
+        this.recommendedMemory = recommendedMemory;
+        this.javaArguments = javaArguments;
+        this.arguments = Collections.unmodifiableList(arguments);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Whether the maximum memory is set lower than what AUTOMATIC thinks the pack needs.
+     */
+    public boolean isBelowRecommendedMemory() {
+        return this.maximumMemory < this.recommendedMemory;
+    }
+
+    /**
+     * Gets the heap size recommended for a pack with the given number of mods. Forge mods tend to need a lot more
+     * memory each than Fabric ones.
+     */
+    public static int getRecommendedMemory(int modCount, boolean forge) {
+        int recommended = 2048 + modCount * (forge ? 24 : 12);
+
+        // round up to the next 512MB
+        recommended = ((recommended + 511) / 512) * 512;
+
+        return Math.min(recommended, MAX_RECOMMENDED_MEMORY);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (-Xms%dM -Xmx%dM %s)", this.profile, this.initialMemory, this.maximumMemory,
+                String.join(" ", this.arguments));
+    }
+
+    public static final class Builder {
+        private JvmTuningProfile profile = JvmTuningProfile.AUTOMATIC;
+        private int javaMajorVersion = 8;
+        private boolean is64Bit = true;
+        private boolean linux = false;
+        private int modCount = 0;
+        private boolean forge = false;
+        private int processors = 1;
+        private int systemRam = 0;
+        private int initialMemory = 512;
+        private int maximumMemory = 4096;
+        private String javaArguments = "";
+        private boolean useRecommendedMemory = false;
+
+        private Builder() {
+        }
+
+        public Builder profile(JvmTuningProfile profile) {
+            this.profile = profile;
+            return this;
+        }
+
+        public Builder javaMajorVersion(int javaMajorVersion) {
+            this.javaMajorVersion = javaMajorVersion;
+            return this;
+        }
+
+        public Builder is64Bit(boolean is64Bit) {
+            this.is64Bit = is64Bit;
+            return this;
+        }
+
+        public Builder linux(boolean linux) {
+            this.linux = linux;
+            return this;
+        }
+
+        public Builder modCount(int modCount) {
+            this.modCount = modCount;
+            return this;
+        }
+
+        public Builder forge(boolean forge) {
+            this.forge = forge;
+            return this;
+        }
+
+        public Builder processors(int processors) {
+            this.processors = processors;
+            return this;
+        }
+
+        /**
+         * @param systemRam the total RAM in the system in MB, or 0 if it's not known
+         */
+        public Builder systemRam(int systemRam) {
+            this.systemRam = systemRam;
+            return this;
+        }
+
+        public Builder initialMemory(int initialMemory) {
+            this.initialMemory = initialMemory;
+            return this;
+        }
+
+        public Builder maximumMemory(int maximumMemory) {
+            this.maximumMemory = maximumMemory;
+            return this;
+        }
+
+        /**
+         * Sets the Java parameters the user has set, either for the instance or in the launchers settings.
+         */
+        public Builder javaArguments(String javaArguments) {
+            this.javaArguments = javaArguments == null ? "" : javaArguments;
+            return this;
+        }
+
+        /**
+         * Sets if AUTOMATIC should raise the maximum memory to what it thinks the pack needs.
+         */
+        public Builder useRecommendedMemory(boolean useRecommendedMemory) {
+            this.useRecommendedMemory = useRecommendedMemory;
+            return this;
+        }
+
+        public JvmTuning build() {
+            // G1 in Java 7 and anything on a 32 bit Java isn't worth tuning, so leave it as it was
+            if (this.profile == JvmTuningProfile.DISABLED || !this.is64Bit || this.javaMajorVersion < 8) {
+                return new JvmTuning(JvmTuningProfile.DISABLED, this.initialMemory, this.maximumMemory, 0,
+                        this.javaArguments, new ArrayList<>());
+            }
+
+            int recommended = 0;
+
+            if (this.profile == JvmTuningProfile.AUTOMATIC) {
+                recommended = getRecommendedMemory(this.modCount, this.forge);
+
+                if (this.systemRam != 0) {
+                    recommended = Math.min(recommended, this.systemRam / 2);
+                }
+            }
+
+            // the heap size is the user's to choose, so unless they've asked for the recommended amount it's only
+            // ever kept within what the JVM will start with
+            int maximum = this.useRecommendedMemory ? Math.max(this.maximumMemory, recommended) : this.maximumMemory;
+            int initial = Math.min(this.initialMemory, maximum);
+
+            boolean plentyOfRam = this.systemRam != 0 && this.systemRam >= maximum * 3;
+
+            JvmTuningProfile resolved = this.profile;
+            if (resolved == JvmTuningProfile.AUTOMATIC) {
+                resolved = this.javaMajorVersion >= 21 && maximum >= 8192 && this.processors >= 8 && plentyOfRam
+                        ? JvmTuningProfile.LOW_LATENCY
+                        : JvmTuningProfile.THROUGHPUT;
+            }
+
+            String javaArguments = this.javaArguments.trim().equals(Constants.DEFAULT_JAVA_PARAMETERS) ? ""
+                    : this.javaArguments;
+            Set<String> existing = Arrays.stream(javaArguments.split(" ")).map(Builder::getOptionName)
+                    .filter(name -> !name.isEmpty()).collect(Collectors.toSet());
+            boolean userChoseGc = existing.stream().anyMatch(name -> name.startsWith("Use") && name.endsWith("GC"));
+
+            List<String> arguments = new ArrayList<>();
+
+            if (!userChoseGc) {
+                if (resolved == JvmTuningProfile.LOW_LATENCY && this.javaMajorVersion >= 15) {
+                    addZgcArguments(arguments, this.javaMajorVersion, this.processors);
+                } else {
+                    addG1Arguments(arguments, maximum, resolved == JvmTuningProfile.LOW_LATENCY ? 50 : 100);
+                }
+            }
+
+            if (this.linux && maximum >= 4096) {
+                arguments.add("-XX:+UseTransparentHugePages");
+            }
+
+            // touching every page up front is only worth it when the whole heap is going to be used anyway
+            if (initial == maximum && maximum <= 8192) {
+                arguments.add("-XX:+AlwaysPreTouch");
+            }
+
+            Set<String> added = new HashSet<>(existing);
+            List<String> filtered = arguments.stream().filter(argument -> added.add(getOptionName(argument)))
+                    .collect(Collectors.toList());
+
+            return new JvmTuning(resolved, initial, maximum, recommended, javaArguments, filtered);
+        }
+
+        private static void addG1Arguments(List<String> arguments, int maximumMemory, int pauseTarget) {
+            // Minecraft allocates a lot of big arrays for chunks, so bigger regions stop them being humongous objects
+            int regionSize = maximumMemory <= 4096 ? 8 : (maximumMemory <= 8192 ? 16 : 32);
+
+            arguments.add("-XX:+UseG1GC");
+            arguments.add("-XX:+ParallelRefProcEnabled");
+            arguments.add("-XX:MaxGCPauseMillis=" + pauseTarget);
+            arguments.add("-XX:+UnlockExperimentalVMOptions");
+            arguments.add("-XX:G1NewSizePercent=30");
+            arguments.add("-XX:G1MaxNewSizePercent=40");
+            arguments.add("-XX:G1HeapRegionSize=" + regionSize + "M");
+            arguments.add("-XX:G1ReservePercent=20");
+            arguments.add("-XX:InitiatingHeapOccupancyPercent=15");
+            arguments.add("-XX:+DisableExplicitGC");
+        }
+
+        private static void addZgcArguments(List<String> arguments, int javaMajorVersion, int processors) {
+            arguments.add("-XX:+UseZGC");
+
+            if (javaMajorVersion >= 21 && javaMajorVersion < 23) {
+                // generational mode is the default from Java 23
+                arguments.add("-XX:+ZGenerational");
+            } else if (javaMajorVersion < 21) {
+                arguments.add("-XX:ConcGCThreads=" + Math.max(2, processors / 4));
+            }
+
+            arguments.add("-XX:+DisableExplicitGC");
+        }
+
+        /**
+         * Gets the name of the option an argument sets, so -XX:+UseG1GC and -XX:-UseG1GC both give UseG1GC.
+         */
+        private static String getOptionName(String argument) {
+            if (!argument.startsWith("-XX:")) {
+                return argument.trim();
+            }
+
+            String name = argument.substring(4);
+
+            if (name.startsWith("+") || name.startsWith("-")) {
+                name = name.substring(1);
+            }
+
+            int equals = name.indexOf('=');
+            return equals == -1 ? name : name.substring(0, equals);
+        }
+    }
+}
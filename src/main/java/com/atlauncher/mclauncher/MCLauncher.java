@@ -31,9 +31,11 @@ import com.atlauncher.FileSystem;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.AbstractAccount;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.JvmTuningProfile;
 import com.atlauncher.data.LoginResponse;
 import com.atlauncher.data.MicrosoftAccount;
 import com.atlauncher.data.MojangAccount;
+import com.atlauncher.data.Type;
 import com.atlauncher.data.minecraft.JavaRuntimes;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.PropertyMapSerializer;
@@ -42,6 +44,7 @@ import com.atlauncher.network.ErrorReporting;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
+import com.atlauncher.utils.javafinder.JavaInfo;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.mojang.authlib.properties.PropertyMap;
@@ -164,18 +167,34 @@ public class MCLauncher {
 
         arguments.add("-XX:-OmitStackTraceInFastThrow");
 
-        arguments.add("-Xms" + initialMemory + "M");
+        int maximumMemoryToUse = maximumMemory;
+        if (OS.getMaximumRam() != 0 && maximumMemory < instance.getMemory()
+                && (OS.getMaximumRam() / 2) >= instance.getMemory()) {
+            maximumMemoryToUse = instance.getMemory();
+        }
 
-        if (OS.getMaximumRam() != 0 && maximumMemory < instance.getMemory()) {
-            if ((OS.getMaximumRam() / 2) < instance.getMemory()) {
-                arguments.add("-Xmx" + maximumMemory + "M");
-            } else {
-                arguments.add("-Xmx" + instance.getMemory() + "M");
-            }
-        } else {
-            arguments.add("-Xmx" + maximumMemory + "M");
+        int javaMajorVersion = getJavaMajorVersion(instance, javaPath);
+        JvmTuning tuning = JvmTuning.builder()
+                .profile(Optional.ofNullable(instance.launcher.jvmTuningProfile)
+                        .orElse(App.settings.jvmTuningProfile))
+                .javaMajorVersion(javaMajorVersion).is64Bit(OS.is64Bit()).linux(OS.isLinux())
+                .modCount((int) instance.launcher.mods.stream().filter(mod -> mod.type == Type.mods && !mod.disabled)
+                        .count())
+                .forge(instance.launcher.loaderVersion != null && instance.launcher.loaderVersion.isForge())
+                .processors(OS.getProcessorCount()).systemRam(OS.getMaximumRam()).initialMemory(initialMemory)
+                .maximumMemory(maximumMemoryToUse).useRecommendedMemory(App.settings.jvmTuningUseRecommendedMemory)
+                .javaArguments(javaArguments).build();
+        LogManager.info("Using JVM tuning " + tuning);
+
+        if (tuning.isBelowRecommendedMemory()) {
+            LogManager.warn("Maximum memory is set to " + tuning.maximumMemory + "MB but this instance will likely "
+                    + "need " + tuning.recommendedMemory + "MB. Increase it in the instance settings if you run out "
+                    + "of memory.");
         }
 
+        arguments.add("-Xms" + tuning.initialMemory + "M");
+        arguments.add("-Xmx" + tuning.maximumMemory + "M");
+
         if (OS.getMaximumRam() != 0 && permGen < instance.getPermGen()
                 && (OS.getMaximumRam() / 8) < instance.getPermGen()) {
             if (Java.useMetaspace()) {
@@ -213,8 +232,8 @@ public class MCLauncher {
             }
         }
 
-        if (!javaArguments.isEmpty()) {
-            for (String arg : javaArguments.split(" ")) {
+        if (!tuning.javaArguments.isEmpty()) {
+            for (String arg : tuning.javaArguments.split(" ")) {
                 if (!arg.isEmpty()) {
                     if (arguments.toString().contains(arg)) {
                         LogManager.error("Duplicate argument " + arg + " found and not added!");
@@ -226,6 +245,16 @@ public class MCLauncher {
             }
         }
 
+        arguments.addAll(tuning.arguments);
+
+        if (tuning.profile != JvmTuningProfile.DISABLED) {
+            List<String> tunedArguments = new ArrayList<>(tuning.arguments);
+            tunedArguments.add(tuning.javaArguments);
+
+            arguments.addAll(ClassDataSharing.getArguments(instance, Paths.get(javaPath), javaMajorVersion,
+                    cpb.toString(), tunedArguments));
+        }
+
         for (String argument : instance.arguments.jvmAsStringList().stream().distinct().collect(Collectors.toList())) {
             argument = replaceArgument(argument, instance, account, props, nativesDir);
 
@@ -264,6 +293,28 @@ public class MCLauncher {
         return arguments;
     }
 
+    /**
+     * Gets the major version of the Java that Minecraft will be launched with, assuming Java 8 if it can't be found.
+     */
+    private static int getJavaMajorVersion(Instance instance, String javaPath) {
+        if (instance.javaVersion != null && App.settings.useJavaProvidedByMinecraft
+                && javaPath.startsWith(FileSystem.MINECRAFT_RUNTIMES.toAbsolutePath().toString())) {
+            return instance.javaVersion.majorVersion;
+        }
+
+        try {
+            JavaInfo javaInfo = new JavaInfo(Java.getPathToJavaExecutable(Paths.get(javaPath)));
+
+            if (javaInfo.majorVersion != null) {
+                return javaInfo.majorVersion;
+            }
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Failed to get the version of Java at " + javaPath, t, false);
+        }
+
+        return 8;
+    }
+
     private static String replaceArgument(String incomingArgument, Instance instance, AbstractAccount account,
             String props, String nativesDir) {
         String argument = incomingArgument;
@@ -57,6 +57,7 @@ public final class Download {
     public Path extractedTo;
     public Path copyTo;
     private boolean ignoreFailures = false;
+    private boolean replaceChanged = false;
     private String hash;
     private Long fingerprint = null;
     public long size = -1L;
@@ -70,6 +71,11 @@ public final class Download {
     // generated on/after request
     public Response response;
 
+    // whether the existing file matched the hash, for the size and modified time it had when it was checked
+    private long checkedLength = -1L;
+    private long checkedLastModified = -1L;
+    private boolean checkedMatches = false;
+
     public Download() {
 
     }
@@ -216,6 +222,16 @@ public final class Download {
         return this;
     }
 
+    /**
+     * When ignoring failures, an existing file is normally kept as is. This only keeps it if it matches the hash, so
+     * that a file left from a previous version (such as when downloading straight into an instance) is replaced.
+     */
+    public Download replaceChanged() {
+        this.replaceChanged = true;
+
+        return this;
+    }
+
     public Download hash(String hash) {
         this.hash = hash;
 
@@ -405,6 +421,10 @@ public final class Download {
         if (Files.exists(this.to)) {
             // if we're ignoring failures and the file is not 0 size, then we're fine
             if (this.ignoreFailures && this.to.toFile().length() != 0) {
+                if (this.replaceChanged && (this.fingerprint != null || this.hash != null)) {
+                    return !existingFileMatches();
+                }
+
                 return false;
             }
 
@@ -450,6 +470,27 @@ public final class Download {
         }
     }
 
+    /**
+     * Checks the existing file against the hash, remembering the result so that it's not hashed again each time the
+     * pool asks if it needs downloading.
+     */
+    private synchronized boolean existingFileMatches() {
+        long length = this.to.toFile().length();
+        long lastModified = this.to.toFile().lastModified();
+
+        if (length != this.checkedLength || lastModified != this.checkedLastModified) {
+            this.checkedMatches = hashMatches();
+            this.checkedLength = length;
+            this.checkedLastModified = lastModified;
+
+            if (!this.checkedMatches) {
+                LogManager.debug("File " + this.to + " has changed and will be downloaded again");
+            }
+        }
+
+        return this.checkedMatches;
+    }
+
     private boolean hashMatches() {
         if (Files.exists(this.to)) {
             if (this.fingerprint != null) {
@@ -17,16 +17,33 @@
  */
 package com.atlauncher.thread;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 import com.atlauncher.evnt.LogEvent;
+import com.atlauncher.managers.LogManager;
 
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Takes log events off the queue and posts them to the console and log files.
+ *
+ * Events are drained in batches so a burst of logging doesn't mean a queue handoff per line, and in debug mode some
+ * counters about the queue are logged every so often.
+ */
 public final class LoggingThread extends Thread {
+    private static final int BATCH_SIZE = 256;
+    private static final long STATS_INTERVAL_MS = 60000;
+
     private final BlockingQueue<LogEvent> queue;
     private static final Logger logger = org.apache.logging.log4j.LogManager.getLogger(LoggingThread.class);
 
+    private long processed = 0;
+    private long batches = 0;
+    private int largestBatch = 0;
+    private long lastStats = System.currentTimeMillis();
+
     public LoggingThread(BlockingQueue<LogEvent> queue) {
         this.queue = queue;
         this.setName("ATL-Logging-Thread");
@@ -34,18 +51,66 @@ public final class LoggingThread extends Thread {
 
     @Override
     public void run() {
+        List<LogEvent> batch = new ArrayList<>(BATCH_SIZE);
+
         while (true) {
-            LogEvent next;
             try {
-                next = this.queue.take();
+                batch.add(this.queue.take());
             } catch (InterruptedException ignored) {
                 Thread.currentThread().interrupt();
                 return;
             }
-            if (next != null) {
-                next.post(logger);
+
+            this.queue.drainTo(batch, BATCH_SIZE - 1);
+
+            for (LogEvent next : batch) {
+                if (next != null) {
+                    next.post(logger);
+                }
             }
+
+            this.processed += batch.size();
+            this.batches++;
+            this.largestBatch = Math.max(this.largestBatch, batch.size());
+            batch.clear();
+
+            LogManager.batchWritten();
+
+            if (LogManager.showDebug && System.currentTimeMillis() - this.lastStats > STATS_INTERVAL_MS) {
+                logStats();
+            }
+        }
+    }
+
+    /**
+     * Writes any events still waiting in the queue straight to the log files. Used when the launcher is exiting so
+     * that nothing queued is lost.
+     */
+    public void flushToLogFiles() {
+        List<LogEvent> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+
+        for (LogEvent event : remaining) {
+            writeToLogFiles(event);
         }
     }
 
+    /**
+     * Writes an event straight to the log files, skipping the console, for when it can't be queued. Events only meant
+     * for the console (such as game output) are written to the log files too, so they aren't lost.
+     */
+    public static void writeToLogFiles(LogEvent event) {
+        event.log(logger);
+    }
+
+    private void logStats() {
+        this.lastStats = System.currentTimeMillis();
+
+        // straight to log4j, since going through the queue would count towards the stats
+        logger.debug(String.format(
+                "Logging stats: %d events in %d batches (largest %d), %d waiting, %d queued, %d producer waits, "
+                        + "%d written to the log files only (not shown in the console)",
+                this.processed, this.batches, this.largestBatch, this.queue.size(), LogManager.getQueuedCount(),
+                LogManager.getThrottledCount(), LogManager.getSpilledCount()));
+    }
 }
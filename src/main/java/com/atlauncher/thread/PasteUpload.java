@@ -18,34 +18,68 @@
 package com.atlauncher.thread;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 import com.atlauncher.App;
 import com.atlauncher.constants.Constants;
+import com.atlauncher.data.LogLine;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.LogTruncator;
 
+/**
+ * Uploads a log to the paste site.
+ *
+ * The request body is written out a line at a time as it's sent, so a large log is never built up as one big string.
+ */
 public final class PasteUpload implements Callable<String> {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final String title;
+    private final List<String> lines;
+
+    /**
+     * Uploads what's in the launcher console.
+     *
+     * @param truncate if logs longer than {@link LogTruncator#MAX_LINES} should be cut down before uploading
+     */
+    public PasteUpload(boolean truncate) {
+        this(Constants.LAUNCHER_NAME + " - Log", consoleLines(truncate));
+    }
+
+    public PasteUpload(String title, List<String> lines) {
+        this.title = title;
+        this.lines = lines;
+    }
+
+    private static List<String> consoleLines(boolean truncate) {
+        List<LogLine> lines = App.console.console.getLines();
+
+        if (truncate) {
+            return LogTruncator.truncate(lines);
+        }
+
+        return lines.stream().map(LogLine::toString).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the url of the paste, or a message saying why it failed
+     */
     @Override
     public String call() {
-        String log = App.console.getLog().replace(System.getProperty("line.separator"), "\n");
-        String urlParameters = "";
-        try {
-            urlParameters += "title=" + URLEncoder.encode(Constants.LAUNCHER_NAME + " - Log", "UTF-8") + "&";
-            urlParameters += "language=" + URLEncoder.encode("text", "UTF-8") + "&";
-            urlParameters += "private=" + URLEncoder.encode("1", "UTF-8") + "&";
-            urlParameters += "text=" + URLEncoder.encode(log, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            LogManager.logStackTrace("Unsupported encoding", e);
-            return "Unsupported encoding";
-        }
         HttpURLConnection conn;
         try {
             conn = (HttpURLConnection) new URL(Constants.PASTE_API_URL).openConnection();
@@ -57,11 +91,17 @@ public final class PasteUpload implements Callable<String> {
             return "Failed to connect to paste API";
         }
         conn.setDoOutput(true);
+        conn.setChunkedStreamingMode(CHUNK_SIZE);
+        conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8");
+
         try {
             conn.connect();
-            conn.getOutputStream().write(urlParameters.getBytes());
-            conn.getOutputStream().flush();
-            conn.getOutputStream().close();
+
+            OutputStream outputStream = conn.getOutputStream();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                    CHUNK_SIZE)) {
+                writeBody(writer);
+            }
         } catch (IOException e) {
             LogManager.logStackTrace("Failed to send data to paste API", e);
             return "Failed to send data to paste API";
@@ -94,6 +134,24 @@ public final class PasteUpload implements Callable<String> {
                 LogManager.logStackTrace("Failed to close error reader", e);
             }
         }
-        return builder.toString();
+
+        // the paste API can respond with an error without an error status, so only a url to a paste is a success
+        String response = builder.toString();
+        if (!response.contains(Constants.PASTE_CHECK_URL)) {
+            LogManager.error("Paste API didn't return a paste url: " + response);
+        }
+
+        return response;
+    }
+
+    private void writeBody(Writer writer) throws IOException {
+        writer.write("title=" + URLEncoder.encode(this.title, "UTF-8") + "&");
+        writer.write("language=" + URLEncoder.encode("text", "UTF-8") + "&");
+        writer.write("private=" + URLEncoder.encode("1", "UTF-8") + "&");
+        writer.write("text=");
+
+        for (String line : this.lines) {
+            writer.write(URLEncoder.encode(line + "\n", "UTF-8"));
+        }
     }
 }
@@ -0,0 +1,397 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import com.atlauncher.data.minecraft.ExtractRule;
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.managers.LogManager;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.zeroturnaround.zip.NameMapper;
+
+/**
+ * Extracts a zip into a directory, merging into and overwriting whatever is already there.
+ *
+ * The entries are found from the zip's central directory and then extracted on a small pool of threads at once, each
+ * reading its entry from the zip with positional reads so they don't have to take turns on a shared stream. The
+ * directories needed are created once up front, and each thread reuses the same buffer for every entry it extracts.
+ * Large stored entries (such as jars inside a pack) are copied with {@link FileChannel#transferTo} without passing
+ * through the JVM.
+ *
+ * Entries which would end up outside of the target directory (such as ../../ or absolute paths) are never written.
+ * When more than one entry would end up at the same place, only the last of them is written.
+ * Zips with a central directory which can't be read are extracted by reading through the zip on the calling thread.
+ */
+public final class ArchiveExtractor {
+    /**
+     * Stored entries this size and over are copied with transferTo rather than through a buffer.
+     */
+    public static final long LARGE_ENTRY_SIZE = 1024 * 1024;
+    private static final int BUFFER_SIZE = 65536;
+    private static final int MAX_THREADS = 8;
+
+    private static final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private final Path archive;
+    private final Path target;
+    private NameMapper nameMapper = name -> name;
+    private ExtractRule extractRule = null;
+    private int threads = Math.max(2, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+    private NetworkProgressable progress = null;
+    private BooleanSupplier cancelled = () -> false;
+
+    private volatile boolean aborted = false;
+    private Thread callingThread;
+
+    public ArchiveExtractor(Path archive, Path target) {
+        this.archive = archive;
+        this.target = target.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Sets what each entry is extracted as, relative to the target. Entries mapped to null aren't extracted.
+     */
+    public ArchiveExtractor nameMapper(NameMapper nameMapper) {
+        this.nameMapper = nameMapper;
+        return this;
+    }
+
+    /**
+     * Only extracts the files under the given folder in the zip, with the folder taken off their names.
+     */
+    public ArchiveExtractor folder(String folder) {
+        String prefix = folder.endsWith("/") ? folder : folder + "/";
+
+        return nameMapper(name -> name.startsWith(prefix) && name.length() > prefix.length()
+                ? name.substring(prefix.length())
+                : null);
+    }
+
+    /**
+     * Sets the rule for which entries to leave out, which is checked against the entry names in the zip.
+     */
+    public ArchiveExtractor extractRule(ExtractRule extractRule) {
+        this.extractRule = extractRule;
+        return this;
+    }
+
+    /**
+     * Sets how many entries can be extracted at once.
+     */
+    public ArchiveExtractor threads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Sets what to tell the total size of the entries being extracted and how much has been extracted so far.
+     */
+    public ArchiveExtractor progress(NetworkProgressable progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * Sets a check for if extracting should be stopped. It's also stopped if the calling thread is interrupted.
+     */
+    public ArchiveExtractor cancelled(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+        return this;
+    }
+
+    /**
+     * Extracts the zip.
+     *
+     * @throws InterruptedIOException if extracting was cancelled part way through
+     */
+    public void extract() throws IOException {
+        this.callingThread = Thread.currentThread();
+
+        ZipFile zipFile;
+        try {
+            zipFile = new ZipFile(this.archive.toFile());
+        } catch (IOException e) {
+            LogManager.warn("Couldn't read the central directory of " + this.archive + " (" + e.getMessage()
+                    + "), reading through it instead");
+            extractStream();
+            return;
+        }
+
+        try (ZipFile zip = zipFile;
+                FileChannel channel = FileChannel.open(this.archive, StandardOpenOption.READ)) {
+            extractEntries(zip, channel);
+        }
+    }
+
+    private void extractEntries(ZipFile zip, FileChannel channel) throws IOException {
+        Map<Path, EntryToExtract> entries = new LinkedHashMap<>();
+        Set<Path> directories = new TreeSet<>();
+
+        Enumeration<ZipArchiveEntry> physicalOrder = zip.getEntriesInPhysicalOrder();
+        for (ZipArchiveEntry entry : Collections.list(physicalOrder)) {
+            Path to = resolve(entry.getName());
+
+            if (to == null) {
+                continue;
+            }
+
+            if (entry.isDirectory()) {
+                directories.add(to);
+                continue;
+            }
+
+            if (!zip.canReadEntryData(entry)) {
+                LogManager.warn("Skipping " + entry.getName() + " in " + this.archive + " as it can't be read");
+                continue;
+            }
+
+            directories.add(to.getParent());
+
+            // entries which end up at the same place (such as duplicate names, or names mapped to the same file) can't
+            // be written at the same time, so only the last of them is extracted, just as if they'd been written in
+            // order
+            if (entries.remove(to) != null) {
+                LogManager.debug("Only extracting the last of the entries in " + this.archive + " extracted to " + to);
+            }
+            entries.put(to, new EntryToExtract(entry, to));
+        }
+
+        for (Path directory : directories) {
+            checkCancelled();
+            Files.createDirectories(directory);
+        }
+
+        reportTotal(entries.values().stream().mapToLong(entry -> Math.max(0, entry.entry.getSize())).sum());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.threads, Math.max(1, entries.size())));
+        List<Future<Void>> futures = new ArrayList<>();
+
+        try {
+            for (EntryToExtract entry : entries.values()) {
+                futures.add(executor.submit(() -> {
+                    if (!this.aborted) {
+                        extractEntry(zip, channel, entry.entry, entry.to);
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                checkCancelled();
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            this.aborted = true;
+            throw new InterruptedIOException("Interrupted while extracting " + this.archive);
+        } catch (ExecutionException e) {
+            this.aborted = true;
+
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Failed to extract " + this.archive, e.getCause());
+        } catch (IOException e) {
+            this.aborted = true;
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void extractEntry(ZipFile zip, FileChannel channel, ZipArchiveEntry entry, Path to) throws IOException {
+        if (entry.isUnixSymlink()) {
+            extractSymlink(zip.getUnixSymlink(entry), entry, to);
+            return;
+        }
+
+        if (entry.getMethod() == ZipArchiveEntry.STORED && entry.getSize() >= LARGE_ENTRY_SIZE
+                && entry.getDataOffset() > 0) {
+            try (FileChannel out = FileChannel.open(to, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                long start = entry.getDataOffset();
+                long length = entry.getSize();
+                long position = 0;
+
+                while (position < length) {
+                    checkCancelled();
+                    position += channel.transferTo(start + position, length - position, out);
+                }
+            }
+        } else {
+            try (InputStream in = zip.getInputStream(entry)) {
+                write(in, to);
+            }
+        }
+
+        setPermissions(entry, to);
+        reportExtracted(Math.max(0, entry.getSize()));
+    }
+
+    /**
+     * Reads through the zip from the start, for zips without a usable central directory.
+     */
+    private void extractStream() throws IOException {
+        reportTotal(Files.size(this.archive));
+
+        try (InputStream is = Files.newInputStream(this.archive);
+                ZipArchiveInputStream zis = new ZipArchiveInputStream(is)) {
+            ZipArchiveEntry entry;
+            while ((entry = zis.getNextZipEntry()) != null) {
+                checkCancelled();
+                Path to = resolve(entry.getName());
+
+                if (to == null || !zis.canReadEntryData(entry)) {
+                    continue;
+                }
+
+                if (entry.isDirectory()) {
+                    Files.createDirectories(to);
+                    continue;
+                }
+
+                Files.createDirectories(to.getParent());
+                write(zis, to);
+                setPermissions(entry, to);
+                reportExtracted(Math.max(0, entry.getCompressedSize()));
+            }
+        }
+    }
+
+    /**
+     * Gets where an entry should be extracted to, or null if it shouldn't be extracted at all.
+     */
+    private Path resolve(String name) {
+        if (this.extractRule != null && this.extractRule.shouldExclude(name)) {
+            return null;
+        }
+
+        String mapped = this.nameMapper.map(name);
+        if (mapped == null || mapped.isEmpty()) {
+            return null;
+        }
+
+        Path to;
+        try {
+            to = this.target.resolve(mapped).normalize();
+        } catch (InvalidPathException e) {
+            String renamed = mapped.replaceAll("[:*\\?\"<>|]", "");
+            LogManager.warn(String.format("InvalidPath when extracting file with name of '%s'. Renaming to '%s'",
+                    mapped, renamed));
+            to = this.target.resolve(renamed).normalize();
+        }
+
+        if (!to.startsWith(this.target) || to.equals(this.target)) {
+            LogManager.warn("Not extracting " + name + " from " + this.archive + " as it's outside of " + this.target);
+            return null;
+        }
+
+        return to;
+    }
+
+    private void write(InputStream in, Path to) throws IOException {
+        byte[] buffer = buffers.get();
+
+        try (OutputStream out = Files.newOutputStream(to)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                checkCancelled();
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void extractSymlink(String link, ZipArchiveEntry entry, Path to) {
+        try {
+            // links are only made if they point somewhere inside of the target
+            if (link == null || !to.getParent().resolve(link).normalize().startsWith(this.target)) {
+                LogManager.warn("Not extracting link " + entry.getName() + " from " + this.archive + " to " + link);
+                return;
+            }
+
+            Files.deleteIfExists(to);
+            Files.createSymbolicLink(to, Paths.get(link));
+        } catch (UnsupportedOperationException | InvalidPathException | IOException e) {
+            LogManager.debug("Couldn't create link " + to + " to " + link + ": " + e.getMessage());
+        }
+    }
+
+    private static void setPermissions(ZipArchiveEntry entry, Path to) {
+        // keep executables (such as the java binaries in a runtime) executable
+        if (entry.getPlatform() == ZipArchiveEntry.PLATFORM_UNIX && (entry.getUnixMode() & 0111) != 0) {
+            to.toFile().setExecutable(true, (entry.getUnixMode() & 011) == 0);
+        }
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (this.aborted || this.cancelled.getAsBoolean()
+                || (this.callingThread != null && this.callingThread.isInterrupted())) {
+            this.aborted = true;
+            throw new InterruptedIOException("Extracting " + this.archive + " was cancelled");
+        }
+    }
+
+    private void reportTotal(long bytes) {
+        if (this.progress != null) {
+            this.progress.setTotalBytes(bytes);
+        }
+    }
+
+    private synchronized void reportExtracted(long bytes) {
+        if (this.progress != null) {
+            this.progress.addDownloadedBytes(bytes);
+        }
+    }
+
+    private static final class EntryToExtract {
+        private final ZipArchiveEntry entry;
+        private final Path to;
+
+        private EntryToExtract(ZipArchiveEntry entry, Path to) {
+            this.entry = entry;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The central directory of a zip, read once and kept around so looking up or reading entries doesn't mean scanning or
+ * re-parsing the zip each time.
+ *
+ * Mod jars get looked into over and over (for mcmod.info, then fabric.mod.json, and again whenever the mods list is
+ * shown), so the directories of recently used zips are cached by path, and thrown away when the file's size or last
+ * modified time changes. No file handles are kept open between reads, so cached zips can still be moved or deleted.
+ *
+ * Only what mods and packs need is supported: stored and deflated entries in zips without ZIP64 records. Anything else
+ * throws a ZipException so callers can fall back to a full zip library.
+ */
+public final class ArchiveIndex {
+    // each entry is a name and a few numbers (around 200 bytes), so this keeps the cache to around 20 MB
+    private static final int MAX_CACHED_ENTRIES = 100000;
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private static final Map<Path, ArchiveIndex> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private static int cachedEntries = 0;
+
+    private final Path archive;
+    private final long size;
+    private final long lastModified;
+    private final Map<String, Entry> entries;
+
+    private ArchiveIndex(Path archive, long size, long lastModified, Map<String, Entry> entries) {
+        this.archive = archive;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the index of the given zip, reading its central directory if it's not cached or has changed since.
+     */
+    public static ArchiveIndex forFile(Path archive) throws IOException {
+        Path key = archive.toAbsolutePath().normalize();
+        long size = Files.size(key);
+        long lastModified = Files.getLastModifiedTime(key).toMillis();
+
+        ArchiveIndex index = getCached(key);
+        if (index != null && index.size == size && index.lastModified == lastModified) {
+            return index;
+        }
+
+        index = new ArchiveIndex(key, size, lastModified, readCentralDirectory(key, size));
+        cache(key, index);
+
+        return index;
+    }
+
+    private static synchronized ArchiveIndex getCached(Path key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Caches the index, throwing away the least recently used ones until the cache holds no more than
+     * {@link #MAX_CACHED_ENTRIES} entries in total. How many zips that is depends on how big they are, so a few huge
+     * zips can't pin down a lot of memory.
+     */
+    private static synchronized void cache(Path key, ArchiveIndex index) {
+        ArchiveIndex previous = cache.put(key, index);
+        cachedEntries += index.entries.size() - (previous == null ? 0 : previous.entries.size());
+
+        // the one just read is the most recently used, so it's always kept no matter how big it is
+        Iterator<ArchiveIndex> eldest = cache.values().iterator();
+        while (cachedEntries > MAX_CACHED_ENTRIES && cache.size() > 1) {
+            cachedEntries -= eldest.next().entries.size();
+            eldest.remove();
+        }
+    }
+
+    public boolean contains(String name) {
+        return this.entries.containsKey(name);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(this.entries.keySet());
+    }
+
+    /**
+     * Reads a single entry, or returns null if there's no entry with that name.
+     */
+    public byte[] read(String name) throws IOException {
+        Entry entry = this.entries.get(name);
+
+        if (entry == null) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(this.archive, StandardOpenOption.READ)) {
+            return read(channel, entry);
+        }
+    }
+
+    /**
+     * Reads each of the given entries which exist, opening the zip only once.
+     */
+    public Map<String, byte[]> read(Collection<String> names) throws IOException {
+        Map<String, byte[]> contents = new HashMap<>();
+
+        if (names.stream().noneMatch(this.entries::containsKey)) {
+            return contents;
+        }
+
+        try (FileChannel channel = FileChannel.open(this.archive, StandardOpenOption.READ)) {
+            for (String name : names) {
+                Entry entry = this.entries.get(name);
+
+                if (entry != null) {
+                    contents.put(name, read(channel, entry));
+                }
+            }
+        }
+
+        return contents;
+    }
+
+    private byte[] read(FileChannel channel, Entry entry) throws IOException {
+        if (entry.encrypted) {
+            throw new ZipException("Entry " + entry.name + " in " + this.archive + " is encrypted");
+        }
+
+        if (entry.size > Integer.MAX_VALUE - 8 || entry.compressedSize > Integer.MAX_VALUE - 8) {
+            throw new ZipException("Entry " + entry.name + " in " + this.archive + " is too big to read at once");
+        }
+
+        ByteBuffer header = readFully(channel, entry.localHeaderOffset, LOCAL_FILE_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_FILE_HEADER) {
+            throw new ZipException("Bad local header for " + entry.name + " in " + this.archive);
+        }
+
+        long dataOffset = entry.localHeaderOffset + LOCAL_FILE_HEADER_SIZE + (header.getShort(26) & 0xFFFF)
+                + (header.getShort(28) & 0xFFFF);
+        byte[] compressed = readFully(channel, dataOffset, (int) entry.compressedSize).array();
+        byte[] data;
+
+        if (entry.method == METHOD_STORED) {
+            data = compressed;
+        } else if (entry.method == METHOD_DEFLATED) {
+            data = new byte[(int) entry.size];
+            Inflater inflater = new Inflater(true);
+
+            try {
+                inflater.setInput(compressed);
+
+                int read = 0;
+                while (read < data.length && !inflater.finished()) {
+                    int inflated = inflater.inflate(data, read, data.length - read);
+
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+
+                    read += inflated;
+                }
+
+                if (read != data.length) {
+                    throw new ZipException("Entry " + entry.name + " in " + this.archive + " is truncated");
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Entry " + entry.name + " in " + this.archive + " is corrupt");
+            } finally {
+                inflater.end();
+            }
+        } else {
+            throw new ZipException("Entry " + entry.name + " in " + this.archive + " uses unsupported compression "
+                    + entry.method);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        if (crc.getValue() != entry.crc) {
+            throw new ZipException("Entry " + entry.name + " in " + this.archive + " failed its CRC check");
+        }
+
+        return data;
+    }
+
+    private static Map<String, Entry> readCentralDirectory(Path archive, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            // the end of central directory record is at the very end, after a comment of up to 64KB
+            int tailSize = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+            ByteBuffer tail = readFully(channel, size - tailSize, tailSize);
+
+            int end = -1;
+            for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY) {
+                    end = i;
+                    break;
+                }
+            }
+
+            if (end == -1) {
+                throw new ZipException(archive + " isn't a zip");
+            }
+
+            int totalEntries = tail.getShort(end + 10) & 0xFFFF;
+            long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+            long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+
+            if (totalEntries == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+                throw new ZipException(archive + " is a ZIP64 archive");
+            }
+
+            // the offsets are from the start of the zip, so if anything (like a self extractor) comes before it then
+            // the central directory won't end where the end record is
+            if (directoryOffset + directorySize != size - tailSize + end) {
+                throw new ZipException(archive + " has data before or after its central directory");
+            }
+
+            ByteBuffer directory = readFully(channel, directoryOffset, (int) directorySize);
+            Map<String, Entry> entries = new HashMap<>(totalEntries * 2);
+
+            if (totalEntries != 0 && (directorySize < 4 || directory.getInt(0) != CENTRAL_DIRECTORY_HEADER)) {
+                throw new ZipException(archive + " doesn't have a central directory where it says it does");
+            }
+
+            int records = 0;
+            int position = 0;
+            while (position + 46 <= directorySize && directory.getInt(position) == CENTRAL_DIRECTORY_HEADER) {
+                int flags = directory.getShort(position + 8) & 0xFFFF;
+                int nameLength = directory.getShort(position + 28) & 0xFFFF;
+                int extraLength = directory.getShort(position + 30) & 0xFFFF;
+                int commentLength = directory.getShort(position + 32) & 0xFFFF;
+
+                byte[] nameBytes = new byte[nameLength];
+                directory.position(position + 46);
+                directory.get(nameBytes);
+
+                String name = new String(nameBytes,
+                        (flags & 0x800) != 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+
+                entries.put(name,
+                        new Entry(name, directory.getShort(position + 10) & 0xFFFF,
+                                directory.getInt(position + 16) & 0xFFFFFFFFL,
+                                directory.getInt(position + 20) & 0xFFFFFFFFL,
+                                directory.getInt(position + 24) & 0xFFFFFFFFL,
+                                directory.getInt(position + 42) & 0xFFFFFFFFL, (flags & 0x1) != 0));
+
+                position += 46 + nameLength + extraLength + commentLength;
+                records++;
+            }
+
+            if (records != totalEntries) {
+                throw new ZipException(archive + " should have " + totalEntries + " entries but " + records
+                        + " were found");
+            }
+
+            return entries;
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new ZipException("Unexpected end of zip");
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final int method;
+        private final long crc;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+        private final boolean encrypted;
+
+        private Entry(String name, int method, long crc, long compressedSize, long size, long localHeaderOffset,
+                boolean encrypted) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+            this.encrypted = encrypted;
+        }
+    }
+}
@@ -17,29 +17,43 @@
  */
 package com.atlauncher.utils;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
-import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.walker.PathFilter;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.utils.IOUtils;
 import org.zeroturnaround.zip.NameMapper;
 import org.zeroturnaround.zip.ZipUtil;
 
 public class ArchiveUtils {
     public static boolean archiveContainsFile(Path archivePath, String file) {
+        try {
+            return ArchiveIndex.forFile(archivePath).contains(file);
+        } catch (Throwable t) {
+            // allow this to fail as we can fallback to reading the zip with other libraries
+            LogManager.debug("Failed to read central directory of " + archivePath.toAbsolutePath() + ": "
+                    + t.getMessage());
+        }
+
         try {
             return ZipUtil.containsEntry(archivePath.toFile(), file);
         } catch (Throwable t) {
@@ -69,7 +83,48 @@ public class ArchiveUtils {
         return found;
     }
 
+    /**
+     * Gets the names of the files in the archive from its central directory, without reading or extracting any of
+     * them. Directory entries are left out.
+     */
+    public static Set<String> getFileNames(Path archivePath) {
+        try {
+            return ArchiveIndex.forFile(archivePath).getNames().stream().filter(name -> !name.endsWith("/"))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        } catch (Throwable t) {
+            // allow this to fail as we can fallback to Apache Commons library, which handles ZIP64
+            LogManager.debug("Failed to read central directory of " + archivePath.toAbsolutePath() + ": "
+                    + t.getMessage());
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+
+        try (ZipFile zipFile = new ZipFile(archivePath.toFile())) {
+            Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+
+                if (!entry.isDirectory()) {
+                    names.add(entry.getName());
+                }
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to list files in " + archivePath.toAbsolutePath(), e);
+        }
+
+        return names;
+    }
+
     public static String getFile(Path archivePath, String file) {
+        try {
+            byte[] contents = ArchiveIndex.forFile(archivePath).read(file);
+            return contents == null ? null : new String(contents, StandardCharsets.UTF_8);
+        } catch (Throwable t) {
+            // allow this to fail as we can fallback to reading the zip with other libraries
+            LogManager.debug("Failed to read " + file + " from central directory of " + archivePath.toAbsolutePath()
+                    + ": " + t.getMessage());
+        }
+
         try {
             return new String(ZipUtil.unpackEntry(archivePath.toFile(), file));
         } catch (Throwable t) {
@@ -105,58 +160,10 @@ public class ArchiveUtils {
 
     public static void extract(Path archivePath, Path extractToPath, NameMapper nameMapper) {
         try {
-            ZipUtil.unpack(archivePath.toFile(), extractToPath.toFile(), nameMapper);
-            return;
-        } catch (Throwable t) {
-            // allow this to fail as we can fallback to Apache Commons library
-            LogManager.error("Failed to extract " + archivePath.toAbsolutePath());
+            new ArchiveExtractor(archivePath, extractToPath).nameMapper(nameMapper).extract();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to extract " + archivePath.toAbsolutePath(), e);
         }
-
-        try (InputStream is = Files.newInputStream(archivePath);
-                ArchiveInputStream ais = new ArchiveStreamFactory().createArchiveInputStream("ZIP", is)) {
-            ArchiveEntry entry = null;
-            while ((entry = ais.getNextEntry()) != null) {
-                if (!ais.canReadEntryData(entry)) {
-                    continue;
-                }
-
-                Path outputPath;
-                String fileName = nameMapper.map(entry.getName());
-
-                if (fileName == null) {
-                    continue;
-                }
-
-                try {
-                    outputPath = extractToPath.resolve(fileName);
-                } catch (InvalidPathException e) {
-                    String newFilename = fileName.replaceAll("[:*\\?\"<>|]", "");
-                    LogManager
-                            .warn(String.format("InvalidPath when extracting file with name of '%s'. Renaming to '%s'",
-                                    fileName, newFilename));
-                    outputPath = extractToPath.resolve(newFilename);
-                }
-
-                File f = outputPath.toFile();
-                if (entry.isDirectory()) {
-                    if (!f.isDirectory() && !f.mkdirs()) {
-                        throw new IOException("Failed to create directory " + f);
-                    }
-                } else {
-                    File parent = f.getParentFile();
-                    if (!parent.isDirectory() && !parent.mkdirs()) {
-                        throw new IOException("Failed to create directory " + parent);
-                    }
-                    try (OutputStream o = Files.newOutputStream(f.toPath())) {
-                        IOUtils.copy(ais, o);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LogManager.logStackTrace(e);
-        }
-
-        return;
     }
 
     public static void createZip(Path pathToCompress, Path archivePath) {
@@ -217,4 +224,18 @@ public class ArchiveUtils {
 
         return;
     }
+
+    /**
+     * Creates a zip of the files the filter matches. Directories the filter can't match anything in are never walked
+     * into.
+     *
+     * @param parallel if the files should be compressed on all cores at once
+     */
+    public static void createZip(Path pathToCompress, Path archivePath, PathFilter filter, boolean parallel) {
+        try {
+            new ArchiveWriter().parallel(parallel).addDirectory("", pathToCompress, filter).write(archivePath, null);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to create zip " + archivePath.toAbsolutePath(), e);
+        }
+    }
 }
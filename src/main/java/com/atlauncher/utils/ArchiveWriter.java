@@ -0,0 +1,298 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.walker.FilteredFileVisitor;
+import com.atlauncher.utils.walker.PathFilter;
+
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+
+/**
+ * Writes a zip from any mix of files made in memory and files on disk, reading the files on disk straight into the zip
+ * rather than copying them anywhere first.
+ *
+ * Entries can be compressed on all cores at once. Files which are already compressed (jars, images, sounds) are stored
+ * rather than deflated again.
+ */
+public final class ArchiveWriter {
+    private static final Set<String> STORED_EXTENSIONS = new HashSet<>(Arrays.asList("jar", "zip", "litemod", "png",
+            "jpg", "jpeg", "gif", "ogg", "mp3", "gz", "xz", "bz2", "7z"));
+
+    private final List<Source> sources = new ArrayList<>();
+    private long totalSize = 0;
+    private boolean parallel = false;
+    private Path tempDirectory = null;
+
+    /**
+     * Sets if the entries should be compressed on all cores at once.
+     */
+    public ArchiveWriter parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Sets where entries compressed in parallel are kept until they're written to the zip. Defaults to the launchers
+     * temp directory.
+     */
+    public ArchiveWriter tempDirectory(Path tempDirectory) {
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    /**
+     * Adds an entry with the given contents.
+     */
+    public ArchiveWriter addFile(String name, byte[] contents) {
+        return add(new Source(name, null, contents, contents.length, System.currentTimeMillis()));
+    }
+
+    /**
+     * Adds a file from disk under the given name.
+     */
+    public ArchiveWriter addFile(String name, Path file) throws IOException {
+        return add(new Source(name, file, null, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+    }
+
+    /**
+     * Adds the files under the directory which the filter matches, with their paths relative to the directory.
+     * Directories the filter can't match anything in are never walked into.
+     *
+     * @param prefix the directory in the zip to put them in, such as "overrides/", or an empty string for the root
+     */
+    public ArchiveWriter addDirectory(String prefix, Path directory, PathFilter filter) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return this;
+        }
+
+        FilteredFileVisitor.walk(directory, filter, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                // only add files, no symbolic links or directories
+                if (attributes.isRegularFile()) {
+                    add(new Source(prefix + FilteredFileVisitor.getRelativePath(directory, file), file, null,
+                            attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LogManager.logStackTrace(String.format("Unable to add %s to zip", file), e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return this;
+    }
+
+    public long getTotalSize() {
+        return this.totalSize;
+    }
+
+    /**
+     * Writes the zip. If compressing in parallel fails, it falls back to compressing on a single thread.
+     *
+     * With only one core there's nothing to gain from compressing in parallel, only the cost of writing every entry to
+     * a scratch file first, so it's always done on a single thread then.
+     *
+     * @param progress told the total size of the files going in, and how much has been written as it goes, or null
+     */
+    public void write(Path archivePath, NetworkProgressable progress) throws IOException {
+        if (this.parallel && Runtime.getRuntime().availableProcessors() > 1) {
+            try {
+                writeParallel(archivePath, progress);
+                return;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                LogManager.logStackTrace("Failed to create zip " + archivePath.toAbsolutePath()
+                        + " in parallel, falling back to a single thread", e, false);
+            }
+        }
+
+        writeSerial(archivePath, progress);
+    }
+
+    private void writeSerial(Path archivePath, NetworkProgressable progress) throws IOException {
+        if (progress != null) {
+            progress.setTotalBytes(this.totalSize);
+        }
+
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archivePath.toFile())) {
+            for (Source source : this.sources) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Interrupted while creating zip " + archivePath);
+                }
+
+                if (archivePath.equals(source.file)) {
+                    continue;
+                }
+
+                zos.putArchiveEntry(source.createEntry());
+
+                if (source.contents != null) {
+                    zos.write(source.contents);
+                } else {
+                    Files.copy(source.file, zos);
+                }
+
+                zos.closeArchiveEntry();
+                reportProgress(progress, source.size);
+            }
+        }
+    }
+
+    private void writeParallel(Path archivePath, NetworkProgressable progress) throws IOException {
+        if (progress != null) {
+            progress.setTotalBytes(this.totalSize);
+        }
+
+        // each thread compresses into its own file before they're all put together, so keep them with our other
+        // temp files rather than in the system's temp directory
+        Path scatterDirectory = this.tempDirectory == null ? FileSystem.TEMP : this.tempDirectory;
+        Files.createDirectories(scatterDirectory);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor,
+                () -> new FileBasedScatterGatherBackingStore(
+                        Files.createTempFile(scatterDirectory, "parallelscatter", "").toFile()));
+
+        try {
+            for (Source source : this.sources) {
+                if (archivePath.equals(source.file)) {
+                    continue;
+                }
+
+                creator.addArchiveEntry(source.createEntry(), () -> source.open(this, progress));
+            }
+
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archivePath.toFile())) {
+                creator.writeTo(zos);
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while creating zip " + archivePath);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to create zip " + archivePath, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ArchiveWriter add(Source source) {
+        this.sources.add(source);
+        this.totalSize += source.size;
+
+        return this;
+    }
+
+    private synchronized void reportProgress(NetworkProgressable progress, long bytes) {
+        if (progress != null) {
+            progress.addDownloadedBytes(bytes);
+        }
+    }
+
+    private static boolean shouldStore(String name) {
+        int dot = name.lastIndexOf('.');
+
+        return dot != -1 && STORED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+    }
+
+    private static final class Source {
+        private final String name;
+        private final Path file;
+        private final byte[] contents;
+        private final long size;
+        private final long lastModified;
+
+        private Source(String name, Path file, byte[] contents, long size, long lastModified) {
+            this.name = name;
+            this.file = file;
+            this.contents = contents;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private ZipArchiveEntry createEntry() {
+            ZipArchiveEntry entry = new ZipArchiveEntry(this.name);
+            entry.setTime(this.lastModified);
+            entry.setMethod(shouldStore(this.name) ? ZipArchiveEntry.STORED : ZipArchiveEntry.DEFLATED);
+
+            return entry;
+        }
+
+        /**
+         * Opens the contents, reporting progress once they've been read and closed.
+         */
+        private InputStream open(ArchiveWriter writer, NetworkProgressable progress) {
+            InputStream stream;
+
+            if (this.contents != null) {
+                stream = new ByteArrayInputStream(this.contents);
+            } else {
+                try {
+                    stream = Files.newInputStream(this.file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            return new FilterInputStream(stream) {
+                private boolean reported = false;
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+
+                    if (!this.reported) {
+                        this.reported = true;
+                        writer.reportProgress(progress, size);
+                    }
+                }
+            };
+        }
+    }
+}
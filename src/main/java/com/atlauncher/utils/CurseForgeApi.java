@@ -20,6 +20,10 @@ package com.atlauncher.utils;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -27,8 +31,10 @@ import java.util.stream.Collectors;
 
 import com.atlauncher.Gsons;
 import com.atlauncher.constants.Constants;
+import com.atlauncher.data.DisableableMod;
 import com.atlauncher.data.curseforge.CurseForgeFile;
 import com.atlauncher.data.curseforge.CurseForgeFingerprint;
+import com.atlauncher.data.curseforge.CurseForgeFingerprintedMod;
 import com.atlauncher.data.curseforge.CurseForgeProject;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Download;
@@ -42,6 +48,8 @@ import okhttp3.RequestBody;
  * Various utility methods for interacting with the CurseForge API.
  */
 public class CurseForgeApi {
+    private static final int FINGERPRINT_BATCH_SIZE = 500;
+
     public static List<CurseForgeProject> searchCurseForge(int sectionId, String query, int page, int categoryId,
             String sort) {
         return searchCurseForge(null, sectionId, query, page, categoryId, sort);
@@ -139,7 +147,45 @@ public class CurseForgeApi {
         return checkFingerprints(hashes);
     }
 
+    /**
+     * Checks the given fingerprints against CurseForge, splitting them up into batches so that large instances don't
+     * send one huge request.
+     */
     public static CurseForgeFingerprint checkFingerprints(Long[] murmurHashes) {
+        if (murmurHashes.length <= FINGERPRINT_BATCH_SIZE) {
+            return checkFingerprintsBatch(murmurHashes);
+        }
+
+        CurseForgeFingerprint combined = null;
+
+        for (int i = 0; i < murmurHashes.length; i += FINGERPRINT_BATCH_SIZE) {
+            CurseForgeFingerprint batch = checkFingerprintsBatch(
+                    Arrays.copyOfRange(murmurHashes, i, Math.min(i + FINGERPRINT_BATCH_SIZE, murmurHashes.length)));
+
+            if (batch == null) {
+                continue;
+            }
+
+            if (combined == null) {
+                combined = new CurseForgeFingerprint();
+                combined.isCacheBuilt = batch.isCacheBuilt;
+                combined.exactMatches = new ArrayList<>();
+                combined.exactFingerprints = new ArrayList<>();
+            }
+
+            if (batch.exactMatches != null) {
+                combined.exactMatches.addAll(batch.exactMatches);
+            }
+
+            if (batch.exactFingerprints != null) {
+                combined.exactFingerprints.addAll(batch.exactFingerprints);
+            }
+        }
+
+        return combined;
+    }
+
+    private static CurseForgeFingerprint checkFingerprintsBatch(Long[] murmurHashes) {
         return Download.build()
                 .post(RequestBody.create(Gsons.DEFAULT.toJson(murmurHashes),
                         MediaType.get("application/json; charset=utf-8")))
@@ -147,4 +193,65 @@ public class CurseForgeApi {
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
                 .asClass(CurseForgeFingerprint.class);
     }
+
+    /**
+     * Fingerprints the given mods files (in parallel) and looks them up on CurseForge, adding the CurseForge
+     * information to any mods which are found.
+     */
+    public static void addCurseForgeInformation(Map<DisableableMod, Path> mods) {
+        Map<Path, Long> hashes = Hashing.murmur(mods.values());
+        Map<Long, List<DisableableMod>> modsByHash = new HashMap<>();
+
+        mods.forEach((mod, file) -> {
+            Long hash = hashes.get(file);
+
+            if (hash != null) {
+                LogManager.debug("File " + file.getFileName() + " has murmur hash of " + hash);
+                modsByHash.computeIfAbsent(hash, k -> new ArrayList<>()).add(mod);
+            }
+        });
+
+        if (modsByHash.size() == 0) {
+            return;
+        }
+
+        CurseForgeFingerprint fingerprintResponse = checkFingerprints(modsByHash.keySet().toArray(new Long[0]));
+
+        if (fingerprintResponse == null || fingerprintResponse.exactMatches == null) {
+            return;
+        }
+
+        int[] projectIdsFound = fingerprintResponse.exactMatches.stream().mapToInt(em -> em.id).distinct().toArray();
+
+        if (projectIdsFound.length == 0) {
+            return;
+        }
+
+        Map<Integer, CurseForgeProject> foundProjects = getProjectsAsMap(projectIdsFound);
+
+        for (CurseForgeFingerprintedMod foundMod : fingerprintResponse.exactMatches) {
+            List<DisableableMod> matchingMods = modsByHash.get(foundMod.file.packageFingerprint);
+
+            if (matchingMods == null) {
+                continue;
+            }
+
+            for (DisableableMod dm : matchingMods) {
+                // add CurseForge information
+                dm.curseForgeProjectId = foundMod.id;
+                dm.curseForgeFile = foundMod.file;
+                dm.curseForgeFileId = foundMod.file.id;
+
+                CurseForgeProject curseForgeProject = foundProjects == null ? null : foundProjects.get(foundMod.id);
+
+                if (curseForgeProject != null) {
+                    dm.curseForgeProject = curseForgeProject;
+                    dm.name = curseForgeProject.name;
+                    dm.description = curseForgeProject.summary;
+                }
+
+                LogManager.debug("Found matching mod from CurseForge called " + dm.curseForgeFile.displayName);
+            }
+        }
+    }
 }
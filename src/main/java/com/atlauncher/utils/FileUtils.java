@@ -25,6 +25,8 @@ import java.util.stream.Stream;
 
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.walker.DeleteDirVisitor;
+import com.atlauncher.utils.walker.FilteredFileVisitor;
+import com.atlauncher.utils.walker.PathFilter;
 
 public class FileUtils {
     public static boolean delete(Path path) {
@@ -68,6 +70,26 @@ public class FileUtils {
         return true;
     }
 
+    /**
+     * Deletes the files and directories under the given directory which the filter matches, without walking into
+     * directories it can't match anything in.
+     */
+    public static boolean deleteDirectory(Path dir, PathFilter filter) {
+        if (!Files.isDirectory(dir)) {
+            LogManager.error("Cannot delete from directory " + dir + " as it doesn't exist or isn't a directory!");
+            return false;
+        }
+
+        try {
+            FilteredFileVisitor.walk(dir, filter, new DeleteDirVisitor());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Error trying to delete from the directory " + dir, e, false);
+            return false;
+        }
+
+        return true;
+    }
+
     public static boolean createDirectory(Path directory) {
         if (Files.exists(directory)) {
             if (Files.isDirectory(directory)) {
@@ -30,18 +30,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.atlauncher.collection.Caching;
 import com.atlauncher.managers.LogManager;
-import com.sangupta.murmur.Murmur2;
-
-import org.apache.commons.lang3.ArrayUtils;
 
 public final class Hashing {
     private static final char[] hex = "0123456789abcdef".toCharArray();
     private static final SoftReference<Caching.Cache<Object, HashCode>> hashcodes = new SoftReference<>(
             Caching.newLRU());
+    // enough for the mods of any pack, accessed only while synchronized on it since it's not thread safe
+    private static final Caching.Cache<String, long[]> murmurs = Caching.newLRU(4096);
 
     public static HashCode md5(Path file) {
         if (!Files.exists(file)) {
@@ -56,14 +60,138 @@ public final class Hashing {
         }
     }
 
+    /**
+     * Gets the CurseForge fingerprint of a file, which is a Murmur2 hash (seed of 1) of the file with all tab, newline,
+     * carriage return and space bytes removed.
+     *
+     * Results for the most recently hashed files are kept by path, size and last modified time so unchanged files aren't
+     * hashed again.
+     */
     public static long murmur(Path to) throws IOException {
-        byte[] bytes = ArrayUtils
-                .removeAllOccurrences(ArrayUtils.removeAllOccurrences(
-                        ArrayUtils.removeAllOccurrences(
-                                ArrayUtils.removeAllOccurrences(Files.readAllBytes(to), (byte) 9), (byte) 10),
-                        (byte) 13), (byte) 32);
+        String key = to.toAbsolutePath().toString();
+        long size = Files.size(to);
+        long lastModified = Files.getLastModifiedTime(to).toMillis();
+
+        long[] cached;
+        synchronized (murmurs) {
+            cached = murmurs.get(key);
+        }
+
+        if (cached != null && cached[0] == size && cached[1] == lastModified) {
+            return cached[2];
+        }
+
+        long hash = murmurUncached(to);
+        synchronized (murmurs) {
+            murmurs.put(key, new long[] { size, lastModified, hash });
+        }
+
+        return hash;
+    }
+
+    /**
+     * Gets the CurseForge fingerprints of many files at once, hashing them in parallel. Files which fail to hash are
+     * logged and left out of the returned map.
+     */
+    public static Map<Path, Long> murmur(Collection<Path> files) {
+        Map<Path, Long> hashes = new ConcurrentHashMap<>();
+
+        if (files.isEmpty()) {
+            return hashes;
+        }
+
+        ExecutorService executor = Executors
+                .newFixedThreadPool(Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+
+        try {
+            CompletableFuture.allOf(files.stream().map(file -> CompletableFuture.runAsync(() -> {
+                try {
+                    hashes.put(file, murmur(file));
+                } catch (IOException e) {
+                    LogManager.logStackTrace("Error hashing (Murmur) file " + file.getFileName(), e);
+                }
+            }, executor)).toArray(CompletableFuture<?>[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        return hashes;
+    }
+
+    /**
+     * Streams the file twice, once to find the length once whitespace is removed (which the hash is seeded with) and
+     * once to hash it, so that the file never needs to be held in memory.
+     */
+    private static long murmurUncached(Path to) throws IOException {
+        byte[] buffer = new byte[65536];
+        int length = 0;
+
+        try (InputStream is = Files.newInputStream(to)) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (!isMurmurWhitespace(buffer[i])) {
+                        length++;
+                    }
+                }
+            }
+        }
 
-        return Murmur2.hash(bytes, bytes.length, 1L);
+        final long m = 0x5bd1e995L;
+        final long mask = 0xFFFFFFFFL;
+
+        long h = (1L ^ length) & mask;
+        byte[] word = new byte[4];
+        int wordLength = 0;
+
+        try (InputStream is = Files.newInputStream(to)) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (isMurmurWhitespace(buffer[i])) {
+                        continue;
+                    }
+
+                    word[wordLength++] = buffer[i];
+
+                    if (wordLength == 4) {
+                        long k = (word[0] & 0xFF) | ((word[1] & 0xFF) << 8) | ((word[2] & 0xFF) << 16)
+                                | ((long) (word[3] & 0xFF) << 24);
+                        k = (k * m) & mask;
+                        k ^= (k >>> 24) & mask;
+                        k = (k * m) & mask;
+                        h = (h * m) & mask;
+                        h = (h ^ k) & mask;
+
+                        wordLength = 0;
+                    }
+                }
+            }
+        }
+
+        // the remaining bytes are sign extended, the same as the Murmur2 library CurseForge fingerprints are made with
+        if (wordLength >= 3) {
+            h ^= ((long) (word[2] << 16)) & mask;
+        }
+
+        if (wordLength >= 2) {
+            h ^= ((long) (word[1] << 8)) & mask;
+        }
+
+        if (wordLength >= 1) {
+            h ^= ((long) word[0]) & mask;
+            h = (h * m) & mask;
+        }
+
+        h ^= (h >>> 13) & mask;
+        h = (h * m) & mask;
+        h ^= h >>> 15;
+
+        return h;
+    }
+
+    private static boolean isMurmurWhitespace(byte b) {
+        return b == 9 || b == 10 || b == 13 || b == 32;
     }
 
     private static HashCode md5Internal(String str) {
@@ -232,6 +360,21 @@ public final class Hashing {
         }
     }
 
+    /**
+     * Hashes part of a byte array in place, without copying it first.
+     */
+    public static HashCode sha1(byte[] bytes, int offset, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(bytes, offset, length);
+
+            return new HashCode(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // every Java is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
     private interface Hasher extends Closeable {
         HashCode hash();
     }
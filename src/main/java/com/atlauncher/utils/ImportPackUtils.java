@@ -18,12 +18,12 @@
 package com.atlauncher.utils;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.StringReader;
 import java.nio.file.Path;
 import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
@@ -56,17 +56,19 @@ public class ImportPackUtils {
                 return loadCurseForgeFormat(file, null, null);
             }
 
-            Path tmpDir = FileSystem.TEMP.resolve("multimcimport" + file.getName().toString().toLowerCase());
+            // MultiMC exports have everything inside a single folder named after the instance
+            Set<String> folders = ArchiveUtils.getFileNames(file.toPath()).stream()
+                    .map(name -> name.contains("/") ? name.substring(0, name.indexOf('/')) : name)
+                    .collect(Collectors.toSet());
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
+            if (folders.size() == 1) {
+                String folder = folders.iterator().next();
 
-            if (tmpDir.toFile().list().length == 1
-                    && ArchiveUtils.archiveContainsFile(file.toPath(), tmpDir.toFile().list()[0] + "/mmc-pack.json")) {
-                return loadMultiMCFormat(tmpDir.resolve(tmpDir.toFile().list()[0]));
+                if (ArchiveUtils.archiveContainsFile(file.toPath(), folder + "/mmc-pack.json")) {
+                    return loadMultiMCFormat(file.toPath(), folder);
+                }
             }
 
-            FileUtils.deleteDirectory(tmpDir);
-
             LogManager.error("Unknown format for importing");
         } catch (Throwable t) {
             LogManager.logStackTrace("Error in zip file for import", t);
@@ -81,8 +83,6 @@ public class ImportPackUtils {
             return false;
         }
 
-        Path tmpDir = FileSystem.TEMP.resolve("curseforgeimport" + file.getName().toString().toLowerCase());
-
         try {
             CurseForgeManifest manifest = Gsons.MINECRAFT.fromJson(ArchiveUtils.getFile(file.toPath(), "manifest.json"),
                     CurseForgeManifest.class);
@@ -104,25 +104,33 @@ public class ImportPackUtils {
                 LogManager.warn("Manifest is version " + manifest.manifestVersion + " which may be an issue!");
             }
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
-
-            new InstanceInstallerDialog(manifest, tmpDir);
+            // the overrides are extracted straight from the zip into the instance when installing
+            new InstanceInstallerDialog(manifest, file.toPath());
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to install CurseForge pack", e);
-            FileUtils.deleteDirectory(tmpDir);
             return false;
         }
 
         return true;
     }
 
-    public static boolean loadMultiMCFormat(Path extractedPath) {
-        try (FileReader fileReader = new FileReader(extractedPath.resolve("mmc-pack.json").toFile());
-                InputStream instanceCfgStream = new FileInputStream(extractedPath.resolve("instance.cfg").toFile())) {
-            MultiMCManifest manifest = Gsons.MINECRAFT.fromJson(fileReader, MultiMCManifest.class);
+    /**
+     * Loads a MultiMC export, reading the pack definition and instance config straight out of the archive.
+     *
+     * @param folder the folder in the archive the instance is in
+     */
+    public static boolean loadMultiMCFormat(Path archive, String folder) {
+        try {
+            MultiMCManifest manifest = Gsons.MINECRAFT
+                    .fromJson(ArchiveUtils.getFile(archive, folder + "/mmc-pack.json"), MultiMCManifest.class);
+
+            String instanceCfg = ArchiveUtils.getFile(archive, folder + "/instance.cfg");
+            if (instanceCfg == null) {
+                throw new IOException("No instance.cfg found in " + folder);
+            }
 
             Properties props = new Properties();
-            props.load(instanceCfgStream);
+            props.load(new StringReader(instanceCfg));
             manifest.config = new MultiMCInstanceConfig(props);
 
             if (manifest.formatVersion != 1) {
@@ -131,7 +139,7 @@ public class ImportPackUtils {
                 return false;
             }
 
-            new InstanceInstallerDialog(manifest, extractedPath);
+            new InstanceInstallerDialog(manifest, archive);
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to install MultiMC pack", e);
             return false;
@@ -0,0 +1,96 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.atlauncher.data.LogLine;
+import com.atlauncher.evnt.LogEvent.LogType;
+
+/**
+ * Cuts a log down to size for uploading, keeping the start of it (launcher and system details), the end of it (where
+ * things usually went wrong) and every error and warning along with any stack trace following it.
+ *
+ * Anything removed is replaced with a single line saying how many lines were left out.
+ */
+public final class LogTruncator {
+    public static final int MAX_LINES = 5000;
+    public static final int HEAD_LINES = 500;
+    public static final int TAIL_LINES = 1500;
+
+    public static List<String> truncate(List<LogLine> lines) {
+        return truncate(lines, MAX_LINES, HEAD_LINES, TAIL_LINES);
+    }
+
+    /**
+     * Truncates the log if it's longer than the given maximum number of lines.
+     */
+    public static List<String> truncate(List<LogLine> lines, int maxLines, int headLines, int tailLines) {
+        List<String> truncated = new ArrayList<>();
+
+        if (lines.size() <= maxLines) {
+            lines.forEach(line -> truncated.add(line.toString()));
+            return truncated;
+        }
+
+        boolean[] keep = new boolean[lines.size()];
+        boolean inBlock = false;
+
+        for (int i = 0; i < lines.size(); i++) {
+            LogLine line = lines.get(i);
+
+            if (line.type == LogType.ERROR || line.type == LogType.WARN) {
+                inBlock = true;
+            } else if (inBlock && !isContinuation(line)) {
+                inBlock = false;
+            }
+
+            keep[i] = inBlock || i < headLines || i >= lines.size() - tailLines;
+        }
+
+        int omitted = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            if (!keep[i]) {
+                omitted++;
+                continue;
+            }
+
+            if (omitted != 0) {
+                truncated.add("[... " + omitted + " lines omitted ...]");
+                omitted = 0;
+            }
+
+            truncated.add(lines.get(i).toString());
+        }
+
+        return truncated;
+    }
+
+    private static boolean isContinuation(LogLine line) {
+        if (line.timestamp == null) {
+            return true;
+        }
+
+        String text = line.text.trim();
+
+        return text.startsWith("at ") || text.startsWith("Caused by:") || text.startsWith("... ")
+                || line.text.startsWith("\t");
+    }
+}
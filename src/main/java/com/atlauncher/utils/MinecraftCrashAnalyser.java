@@ -0,0 +1,262 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.atlauncher.App;
+import com.atlauncher.Gsons;
+import com.atlauncher.collection.AhoCorasick;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Looks for known crash signatures in the output of Minecraft as each line comes in, so that once the game exits
+ * there's a diagnosis ready without having to go back over the log.
+ *
+ * All the signatures are looked for in a single pass over each line, and only the last few lines are kept around to
+ * give some context in the report. A new analyser is needed for each launch.
+ *
+ * The known crash signatures are loaded from {@value #DEFAULT_RULES}, so they can be changed without touching any code.
+ */
+public final class MinecraftCrashAnalyser {
+    public static final String DEFAULT_RULES = "/assets/minecraft-crash-rules.json";
+
+    public static final String OUT_OF_MEMORY = "out_of_memory";
+    public static final String CONCURRENT_MODIFICATION_ERROR_1_6 = "concurrent_modification_error_1_6";
+    public static final String USING_NEWER_JAVA_THAN_8 = "using_newer_java_than_8";
+    public static final String USING_OLDER_JAVA = "using_older_java";
+    public static final String MISSING_DEPENDENCIES = "missing_dependencies";
+    public static final String MIXIN_FAILURE = "mixin_failure";
+    public static final String DUPLICATE_MODS = "duplicate_mods";
+
+    public static final int DEFAULT_CONTEXT_LINES = 200;
+
+    private final List<Rule> rules;
+    private final AhoCorasick<Rule> matcher;
+    private final String[] lastLines;
+    private final Map<Rule, Finding> findings = new LinkedHashMap<>();
+    private long lineCount = 0;
+
+    private MinecraftCrashAnalyser(List<Rule> rules, int contextLines) {
+        this.rules = rules;
+        this.lastLines = new String[contextLines];
+
+        AhoCorasick.Builder<Rule> builder = AhoCorasick.builder();
+        for (Rule rule : rules) {
+            for (String marker : rule.markers) {
+                builder.add(marker, rule);
+            }
+        }
+        this.matcher = builder.build();
+    }
+
+    /**
+     * Gets an analyser with the known crash signatures which apply to the given Minecraft version.
+     */
+    public static MinecraftCrashAnalyser forMinecraftVersion(String minecraftVersion) {
+        try (InputStream stream = App.class.getResourceAsStream(DEFAULT_RULES)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing " + DEFAULT_RULES);
+            }
+
+            return fromJson(new InputStreamReader(stream, StandardCharsets.UTF_8), minecraftVersion);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + DEFAULT_RULES, e);
+        }
+    }
+
+    /**
+     * Reads a list of crash signatures, each with an id, a description, the markers to look for and optionally the
+     * newest Minecraft version it applies to (maxMinecraftVersion). Signatures which don't apply to the given
+     * Minecraft version are left out.
+     */
+    public static MinecraftCrashAnalyser fromJson(Reader reader, String minecraftVersion) {
+        List<RuleData> rules = Gsons.DEFAULT.fromJson(reader, new TypeToken<List<RuleData>>() {
+        }.getType());
+
+        Builder builder = builder();
+        for (RuleData rule : rules) {
+            if (rule.maxMinecraftVersion == null || minecraftVersion == null
+                    || Utils.matchVersion(minecraftVersion, rule.maxMinecraftVersion, true, true)) {
+                builder.add(rule.id, rule.description, rule.markers.toArray(new String[0]));
+            }
+        }
+
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks a line of output against all the crash signatures. Should be called with every line, in order.
+     */
+    public void accept(String line) {
+        this.lastLines[(int) (this.lineCount % this.lastLines.length)] = line;
+        this.lineCount++;
+
+        if (this.findings.size() == this.rules.size()) {
+            return;
+        }
+
+        this.matcher.find(line, (start, end, rule) -> {
+            // only the first time each problem shows up is interesting
+            if (!this.findings.containsKey(rule)) {
+                this.findings.put(rule, new Finding(rule.id, rule.description, this.lineCount, line));
+            }
+
+            return true;
+        });
+    }
+
+    /**
+     * Gets the diagnosis for everything seen so far.
+     */
+    public Diagnosis getDiagnosis(int exitCode) {
+        int kept = (int) Math.min(this.lineCount, this.lastLines.length);
+        List<String> context = new ArrayList<>(kept);
+
+        for (long i = this.lineCount - kept; i < this.lineCount; i++) {
+            context.add(this.lastLines[(int) (i % this.lastLines.length)]);
+        }
+
+        return new Diagnosis(exitCode, new ArrayList<>(this.findings.values()), context);
+    }
+
+    public static final class Finding {
+        public final String id;
+        public final String description;
+        public final long lineNumber;
+        public final String line;
+
+        private Finding(String id, String description, long lineNumber, String line) {
+            this.id = id;
+            this.description = description;
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        @Override
+        public String toString() {
+            return this.description + " (line " + this.lineNumber + ": " + this.line.trim() + ")";
+        }
+    }
+
+    public static final class Diagnosis {
+        public final int exitCode;
+        public final List<Finding> findings;
+        public final List<String> lastLines;
+
+        private Diagnosis(int exitCode, List<Finding> findings, List<String> lastLines) {
+            this.exitCode = exitCode;
+            this.findings = Collections.unmodifiableList(findings);
+            this.lastLines = Collections.unmodifiableList(lastLines);
+        }
+
+        public boolean hasFinding(String id) {
+            return this.findings.stream().anyMatch(finding -> finding.id.equals(id));
+        }
+
+        public boolean isCrash() {
+            return this.exitCode != 0;
+        }
+
+        /**
+         * Gets a plain text report of what was found along with the last lines of output.
+         */
+        public String getReport() {
+            StringBuilder report = new StringBuilder();
+            report.append("Exit code: ").append(this.exitCode).append(System.lineSeparator());
+
+            if (this.findings.size() == 0) {
+                report.append("No known problems found").append(System.lineSeparator());
+            }
+
+            for (Finding finding : this.findings) {
+                report.append("Found: ").append(finding).append(System.lineSeparator());
+            }
+
+            report.append(System.lineSeparator()).append("Last ").append(this.lastLines.size())
+                    .append(" lines of output:").append(System.lineSeparator());
+
+            for (String line : this.lastLines) {
+                report.append(line).append(System.lineSeparator());
+            }
+
+            return report.toString();
+        }
+    }
+
+    private static final class Rule {
+        private final String id;
+        private final String description;
+        private final List<String> markers;
+
+        private Rule(String id, String description, List<String> markers) {
+            this.id = id;
+            this.description = description;
+            this.markers = markers;
+        }
+    }
+
+    private static final class RuleData {
+        private String id;
+        private String description;
+        private List<String> markers;
+        private String maxMinecraftVersion;
+    }
+
+    public static final class Builder {
+        private final List<Rule> rules = new ArrayList<>();
+        private int contextLines = DEFAULT_CONTEXT_LINES;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a problem which is found when a line contains any of the markers.
+         */
+        public Builder add(String id, String description, String... markers) {
+            this.rules.add(new Rule(id, description, Arrays.asList(markers)));
+            return this;
+        }
+
+        /**
+         * Sets how many of the last lines of output are kept for the report.
+         */
+        public Builder contextLines(int contextLines) {
+            this.contextLines = Math.max(1, contextLines);
+            return this;
+        }
+
+        public MinecraftCrashAnalyser build() {
+            return new MinecraftCrashAnalyser(new ArrayList<>(this.rules), this.contextLines);
+        }
+    }
+}
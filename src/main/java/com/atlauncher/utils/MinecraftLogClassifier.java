@@ -0,0 +1,345 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.atlauncher.App;
+import com.atlauncher.Gsons;
+import com.atlauncher.collection.AhoCorasick;
+import com.atlauncher.evnt.LogEvent.LogType;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Works out the type of a line of output from Minecraft and trims off anything before the log level/thread marker.
+ *
+ * Rules are checked in the order they're added, with the first rule whose marker is anywhere in the line winning. All
+ * the markers are looked for in a single pass over the line rather than a contains check per rule.
+ *
+ * A classifier can also censor lines (see {@link #censoring(Map)}), in which case the strings to censor are looked for
+ * in that same pass, so each line is only scanned once to both redact and classify it.
+ *
+ * The default rules are loaded from {@value #DEFAULT_RULES}, so they can be changed without touching any code.
+ */
+public final class MinecraftLogClassifier {
+    public static final String DEFAULT_RULES = "/assets/minecraft-log-rules.json";
+
+    private static MinecraftLogClassifier defaultClassifier;
+
+    private final List<Rule> rules;
+    private final Map<String, String> replacements;
+    private final AhoCorasick<Token> matcher;
+
+    private MinecraftLogClassifier(List<Rule> rules, Map<String, String> replacements) {
+        this.rules = rules;
+        this.replacements = replacements;
+
+        Map<String, Token> tokens = new LinkedHashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            tokens.putIfAbsent(rules.get(i).marker, new Token(i, null));
+        }
+
+        // a string to censor which is also a marker is only censored, as censored text never counts as a marker
+        replacements.forEach((text, replacement) -> tokens.put(text, new Token(-1, replacement)));
+
+        AhoCorasick.Builder<Token> builder = AhoCorasick.builder();
+        tokens.forEach(builder::add);
+        this.matcher = builder.build();
+    }
+
+    public static synchronized MinecraftLogClassifier getDefault() {
+        if (defaultClassifier == null) {
+            try (InputStream stream = App.class.getResourceAsStream(DEFAULT_RULES)) {
+                if (stream == null) {
+                    throw new IllegalStateException("Missing " + DEFAULT_RULES);
+                }
+
+                defaultClassifier = fromJson(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read " + DEFAULT_RULES, e);
+            }
+        }
+
+        return defaultClassifier;
+    }
+
+    /**
+     * Reads a list of rules in the order they should be checked, each with a marker, a type and optionally wholeLine
+     * and a list of overrides with the text to look for and the type to use instead.
+     */
+    public static MinecraftLogClassifier fromJson(Reader reader) {
+        List<RuleData> rules = Gsons.DEFAULT.fromJson(reader, new TypeToken<List<RuleData>>() {
+        }.getType());
+
+        Builder builder = builder();
+        for (RuleData rule : rules) {
+            if (rule.wholeLine) {
+                builder.addWholeLine(rule.marker, rule.type);
+            } else {
+                builder.add(rule.marker, rule.type);
+            }
+
+            if (rule.overrides != null) {
+                rule.overrides.forEach(override -> builder.override(override.contains, override.type));
+            }
+        }
+
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets a classifier with the same rules which also replaces each of the given strings in a line with its
+     * replacement. Null or empty strings are ignored.
+     */
+    public MinecraftLogClassifier censoring(Map<String, String> replacements) {
+        Map<String, String> combined = new LinkedHashMap<>(this.replacements);
+        combined.putAll(replacements);
+
+        return new MinecraftLogClassifier(this.rules, combined);
+    }
+
+    /**
+     * Censors and classifies a line. The returned result's line is the censored line, with the message taken from it.
+     */
+    public Result classify(String text) {
+        List<Match> markers = new ArrayList<>(1);
+        List<Match> censored = new ArrayList<>(0);
+        boolean censoring = !this.replacements.isEmpty();
+
+        this.matcher.find(text, (start, end, token) -> {
+            (token.replacement == null ? markers : censored).add(new Match(start, end, token));
+
+            // without anything to censor, there's nothing to look for once the highest priority marker is found
+            return censoring || token.rule != 0;
+        });
+
+        List<Match> replaced = selectReplacements(censored);
+        String line = replace(text, replaced);
+
+        // only the first occurrence of the highest priority marker which wasn't censored matters
+        Match best = null;
+        for (Match marker : markers) {
+            if ((best == null || marker.token.rule < best.token.rule) && !overlapsAny(marker, replaced)) {
+                best = marker;
+            }
+        }
+
+        if (best == null) {
+            return new Result(line, LogType.INFO, line);
+        }
+
+        Rule rule = this.rules.get(best.token.rule);
+        String message = rule.wholeLine ? line : line.substring(shift(best.start, replaced));
+
+        return new Result(line, rule.getType(message), message);
+    }
+
+    /**
+     * Picks which of the matches to replace, preferring the leftmost and then longest where they overlap.
+     */
+    private static List<Match> selectReplacements(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        matches.sort((a, b) -> a.start != b.start ? Integer.compare(a.start, b.start) : Integer.compare(b.end, a.end));
+
+        List<Match> selected = new ArrayList<>(matches.size());
+        int position = 0;
+
+        for (Match match : matches) {
+            if (match.start >= position) {
+                selected.add(match);
+                position = match.end;
+            }
+        }
+
+        return selected;
+    }
+
+    private static String replace(String text, List<Match> replaced) {
+        if (replaced.isEmpty()) {
+            return text;
+        }
+
+        StringBuilder line = new StringBuilder(text.length());
+        int position = 0;
+
+        for (Match match : replaced) {
+            line.append(text, position, match.start).append(match.token.replacement);
+            position = match.end;
+        }
+
+        return line.append(text, position, text.length()).toString();
+    }
+
+    private static boolean overlapsAny(Match marker, List<Match> replaced) {
+        for (Match match : replaced) {
+            if (match.start < marker.end && marker.start < match.end) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Works out where a position in the original line ends up once the replacements before it are made.
+     */
+    private static int shift(int position, List<Match> replaced) {
+        int shifted = position;
+
+        for (Match match : replaced) {
+            if (match.end > position) {
+                break;
+            }
+
+            shifted += match.token.replacement.length() - (match.end - match.start);
+        }
+
+        return shifted;
+    }
+
+    public static final class Result {
+        /**
+         * The whole line which was classified, after being censored.
+         */
+        public final String line;
+        public final LogType type;
+        public final String message;
+
+        private Result(String line, LogType type, String message) {
+            this.line = line;
+            this.type = type;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Something looked for in a line, which is either a rule's marker or a string to censor.
+     */
+    private static final class Token {
+        private final int rule;
+        private final String replacement;
+
+        private Token(int rule, String replacement) {
+            this.rule = rule;
+            this.replacement = replacement;
+        }
+    }
+
+    private static final class Match {
+        private final int start;
+        private final int end;
+        private final Token token;
+
+        private Match(int start, int end, Token token) {
+            this.start = start;
+            this.end = end;
+            this.token = token;
+        }
+    }
+
+    private static final class Rule {
+        private final String marker;
+        private final LogType type;
+        private final boolean wholeLine;
+        private final List<TypeOverride> overrides = new ArrayList<>();
+
+        private Rule(String marker, LogType type, boolean wholeLine) {
+            this.marker = marker;
+            this.type = type;
+            this.wholeLine = wholeLine;
+        }
+
+        private LogType getType(String message) {
+            for (TypeOverride override : this.overrides) {
+                if (message.contains(override.contains)) {
+                    return override.type;
+                }
+            }
+
+            return this.type;
+        }
+    }
+
+    private static final class TypeOverride {
+        private final String contains;
+        private final LogType type;
+
+        private TypeOverride(String contains, LogType type) {
+            this.contains = contains;
+            this.type = type;
+        }
+    }
+
+    private static final class RuleData {
+        private String marker;
+        private LogType type;
+        private boolean wholeLine;
+        private List<TypeOverride> overrides;
+    }
+
+    public static final class Builder {
+        private final List<Rule> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a rule for lines containing the marker, with the message starting from the marker.
+         */
+        public Builder add(String marker, LogType type) {
+            this.rules.add(new Rule(marker, type, false));
+            return this;
+        }
+
+        /**
+         * Adds a rule for lines containing the marker, keeping the whole line as the message.
+         */
+        public Builder addWholeLine(String marker, LogType type) {
+            this.rules.add(new Rule(marker, type, true));
+            return this;
+        }
+
+        /**
+         * Changes the type for the last added rule when the message also contains the given text.
+         */
+        public Builder override(String contains, LogType type) {
+            this.rules.get(this.rules.size() - 1).overrides.add(new TypeOverride(contains, type));
+            return this;
+        }
+
+        public MinecraftLogClassifier build() {
+            return new MinecraftLogClassifier(new ArrayList<>(this.rules), Collections.emptyMap());
+        }
+    }
+}
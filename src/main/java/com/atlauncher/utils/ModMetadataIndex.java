@@ -0,0 +1,217 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.constants.Constants;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.ModMetadata;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.walker.FilteredFileVisitor;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Keeps the metadata of the mods in an instance, keyed by the path of the file relative to the instance, so mod lists
+ * can be shown without opening every jar each time.
+ *
+ * Entries are checked against the file's size and last modified time when asked for, and only files which have
+ * changed (or haven't been seen before) are read again. Files outside of the instance (such as ones being dropped in)
+ * are read but not kept, and their hashes aren't worked out.
+ *
+ * The index is saved inside the instance, so it moves along with the instance when it's renamed.
+ */
+public final class ModMetadataIndex {
+    private static final java.lang.reflect.Type ENTRIES_TYPE = new TypeToken<Map<String, ModMetadata>>() {
+    }.getType();
+
+    private static final String INDEX_FILE = "modmetadata.json";
+    private static final int MAX_CACHED = 16;
+
+    private static final Map<Path, ModMetadataIndex> indexes = Collections
+            .synchronizedMap(new LinkedHashMap<Path, ModMetadataIndex>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, ModMetadataIndex> eldest) {
+                    return size() > MAX_CACHED;
+                }
+            });
+
+    private final Path root;
+    private final Path indexFile;
+    private final Map<String, ModMetadata> entries = new ConcurrentHashMap<>();
+    private volatile boolean changed = false;
+
+    ModMetadataIndex(Path root, Path indexFile) {
+        this.root = root.toAbsolutePath().normalize();
+        this.indexFile = indexFile;
+
+        load();
+    }
+
+    public static ModMetadataIndex forInstance(Instance instance) {
+        return forDirectory(instance.getRoot());
+    }
+
+    /**
+     * Gets the index for the given directory, which is saved in the directory's launcher data folder. Only the most
+     * recently used indexes are kept in memory.
+     */
+    public static ModMetadataIndex forDirectory(Path root) {
+        return indexes.computeIfAbsent(root.toAbsolutePath().normalize(),
+                r -> new ModMetadataIndex(r, r.resolve(Constants.INSTANCE_DATA_FOLDER).resolve(INDEX_FILE)));
+    }
+
+    /**
+     * Gets the metadata for the given file, reading it only if it's changed since it was last read. Returns null if
+     * the file couldn't be read.
+     */
+    public ModMetadata get(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+
+        try {
+            if (!absolute.startsWith(this.root)) {
+                return ModMetadata.read(absolute);
+            }
+
+            String key = FilteredFileVisitor.getRelativePath(this.root, absolute);
+            BasicFileAttributes attributes = Files.readAttributes(absolute, BasicFileAttributes.class);
+
+            ModMetadata cached = this.entries.get(key);
+            if (cached != null && cached.isFor(attributes.size(), attributes.lastModifiedTime().toMillis())) {
+                return cached;
+            }
+
+            ModMetadata metadata = ModMetadata.read(absolute);
+            metadata.hash(absolute);
+            this.entries.put(key, metadata);
+            this.changed = true;
+
+            return metadata;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read mod metadata for " + file.getFileName(), e, false);
+            return null;
+        }
+    }
+
+    /**
+     * Gets the metadata for many files at once, reading any which have changed in parallel and then saving the index.
+     * Files which couldn't be read are left out of the returned map.
+     */
+    public Map<Path, ModMetadata> get(Collection<Path> files) {
+        Map<Path, ModMetadata> metadata = new ConcurrentHashMap<>();
+
+        files.parallelStream().forEach(file -> {
+            ModMetadata found = get(file);
+
+            if (found != null) {
+                metadata.put(file, found);
+            }
+        });
+
+        save();
+
+        return metadata;
+    }
+
+    /**
+     * Stores already known metadata against a file in the instance, such as after copying a mod in, so it doesn't
+     * need to be read again.
+     */
+    public void put(Path file, ModMetadata metadata) {
+        Path absolute = file.toAbsolutePath().normalize();
+
+        if (metadata == null || !absolute.startsWith(this.root)) {
+            return;
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(absolute, BasicFileAttributes.class);
+            ModMetadata copy = metadata.forFile(attributes.size(), attributes.lastModifiedTime().toMillis());
+
+            // metadata read from outside of the instance has no hashes yet
+            if (copy.sha1 == null) {
+                copy.hash(absolute);
+            }
+
+            this.entries.put(FilteredFileVisitor.getRelativePath(this.root, absolute), copy);
+            this.changed = true;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to store mod metadata for " + file.getFileName(), e, false);
+        }
+    }
+
+    /**
+     * Saves the index if anything has changed, dropping entries for files which no longer exist.
+     */
+    public synchronized void save() {
+        if (this.indexFile == null || !this.changed) {
+            return;
+        }
+
+        this.changed = false;
+        this.entries.keySet().removeIf(key -> !Files.exists(this.root.resolve(key)));
+
+        Path temp = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+
+        try {
+            FileUtils.createDirectory(this.indexFile.getParent());
+
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(this.entries, ENTRIES_TYPE, writer);
+            }
+
+            Files.move(temp, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save mod metadata index for " + this.root, e, false);
+        }
+    }
+
+    private void load() {
+        if (this.indexFile == null || !Files.exists(this.indexFile)) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(this.indexFile, StandardCharsets.UTF_8)) {
+            Map<String, ModMetadata> loaded = Gsons.DEFAULT.fromJson(reader, ENTRIES_TYPE);
+
+            if (loaded != null) {
+                loaded.forEach((key, metadata) -> {
+                    if (key != null && metadata != null) {
+                        this.entries.put(key, metadata);
+                    }
+                });
+            }
+        } catch (IOException | JsonParseException e) {
+            LogManager.logStackTrace("Failed to load mod metadata index for " + this.root, e, false);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
@@ -55,6 +56,9 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.utils.javafinder.JavaInfo;
+import com.sun.jna.Pointer;
+import com.sun.jna.platform.win32.Kernel32;
+import com.sun.jna.platform.win32.WinNT;
 
 import oshi.SystemInfo;
 import oshi.hardware.GlobalMemory;
@@ -412,6 +416,54 @@ public enum OS {
         return memoryFromTool;
     }
 
+    /**
+     * Gets the id of a process started by the launcher, or -1 if it can't be worked out.
+     *
+     * Java 8 has no API for this, so it's pulled out of the platform specific process class.
+     */
+    public static int getProcessId(Process process) {
+        try {
+            // Java 9 and above
+            Method pid = Process.class.getMethod("pid");
+            return ((Long) pid.invoke(process)).intValue();
+        } catch (NoSuchMethodException ignored) {
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Failed to get process id", t, false);
+            return -1;
+        }
+
+        try {
+            if (isWindows()) {
+                Field handle = process.getClass().getDeclaredField("handle");
+                handle.setAccessible(true);
+
+                return Kernel32.INSTANCE.GetProcessId(new WinNT.HANDLE(new Pointer(handle.getLong(process))));
+            }
+
+            Field pid = process.getClass().getDeclaredField("pid");
+            pid.setAccessible(true);
+
+            return pid.getInt(process);
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Failed to get process id", t, false);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of logical processors in the users system.
+     */
+    public static int getProcessorCount() {
+        try {
+            return getSystemInfo().getHardware().getProcessor().getLogicalProcessorCount();
+        } catch (Throwable t) {
+            LogManager.warn("Couldn't get the number of processors from the system, using what Java reports: " + t);
+
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
     /**
      * Returns the system information via the getSystemInfo tool.
      */
@@ -0,0 +1,66 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.atlauncher.managers.LogManager;
+
+/**
+ * Makes sure the same piece of work isn't done more than once at the same time, such as two instances being launched
+ * together which both need the same assets checked.
+ *
+ * Whoever asks first does the work, anyone else asking for the same key while it's running waits for it to finish.
+ */
+public final class SharedTasks {
+    private static final Map<String, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the task, or waits for it to finish if it's already being run under the same key. If the run being waited
+     * on fails, the task is run again on this thread.
+     */
+    public static void run(String key, Runnable task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = running.putIfAbsent(key, future);
+
+        if (existing != null) {
+            LogManager.debug("Waiting for " + key + " which is already running");
+
+            try {
+                existing.join();
+                return;
+            } catch (CompletionException e) {
+                run(key, task);
+                return;
+            }
+        }
+
+        try {
+            task.run();
+            future.complete(null);
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            running.remove(key, future);
+        }
+    }
+}
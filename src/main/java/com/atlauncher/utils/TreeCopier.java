@@ -0,0 +1,296 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.walker.FilteredFileVisitor;
+import com.atlauncher.utils.walker.PathFilter;
+
+/**
+ * Copies a directory tree into another, merging into and overwriting whatever is already there.
+ *
+ * Trees like config and saves are mostly thousands of tiny files where the time goes on opening and closing them
+ * rather than moving bytes, so small files are copied on a small pool of threads at once. Large files are copied by
+ * the calling thread at the same time with {@link FileChannel#transferTo}, which lets the OS move the data without it
+ * passing through the JVM.
+ *
+ * When copying out of somewhere that's about to be thrown away (such as an extracted pack in the temp folder), files
+ * can be hard linked instead of copied, which falls back to copying when the filesystem doesn't support it.
+ */
+public final class TreeCopier {
+    /**
+     * Files this size and over are copied with transferTo on the calling thread rather than on the pool.
+     */
+    public static final long LARGE_FILE_SIZE = 1024 * 1024;
+    private static final int MAX_THREADS = 8;
+
+    private final Path source;
+    private final Path target;
+    private PathFilter filter = PathFilter.ALL;
+    private boolean hardLinks = false;
+
+    // small file copies mostly wait on the disk, so even with one core a second thread keeps it busy
+    private int threads = Math.max(2, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+    private NetworkProgressable progress = null;
+    private BooleanSupplier cancelled = () -> false;
+
+    private volatile boolean aborted = false;
+    private volatile boolean linksSupported = true;
+    private Thread callingThread;
+
+    /**
+     * @param source the directory to copy the contents of, or a single file to copy to the target
+     * @param target the directory to copy the contents into, or the file to copy to if the source is a file
+     */
+    public TreeCopier(Path source, Path target) {
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Sets which files under the source are copied.
+     */
+    public TreeCopier filter(PathFilter filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Sets if files should be hard linked rather than copied. Only use this when the source is going to be deleted or
+     * never changed, as both paths will point to the same file.
+     */
+    public TreeCopier hardLinks(boolean hardLinks) {
+        this.hardLinks = hardLinks;
+        return this;
+    }
+
+    /**
+     * Sets how many small files can be copied at once.
+     */
+    public TreeCopier threads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Sets what to tell the total size of the files being copied and how much has been copied so far.
+     */
+    public TreeCopier progress(NetworkProgressable progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * Sets a check for if the copy should be stopped. The copy is also stopped if the calling thread is interrupted.
+     */
+    public TreeCopier cancelled(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+        return this;
+    }
+
+    /**
+     * Copies the files.
+     *
+     * @throws InterruptedIOException if the copy was cancelled part way through
+     */
+    public void copy() throws IOException {
+        this.callingThread = Thread.currentThread();
+
+        if (Files.isRegularFile(this.source)) {
+            if (this.target.getParent() != null) {
+                Files.createDirectories(this.target.getParent());
+            }
+
+            reportTotal(Files.size(this.source));
+            copyFile(this.source, this.target, Files.size(this.source));
+            return;
+        }
+
+        List<FileToCopy> files = collectFiles();
+        reportTotal(files.stream().mapToLong(file -> file.size).sum());
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        List<Future<Void>> futures = new ArrayList<>();
+        List<FileToCopy> largeFiles = new ArrayList<>();
+
+        try {
+            for (FileToCopy file : files) {
+                if (file.size >= LARGE_FILE_SIZE) {
+                    largeFiles.add(file);
+                    continue;
+                }
+
+                futures.add(executor.submit(() -> {
+                    if (!this.aborted) {
+                        copyFile(file.from, file.to, file.size);
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (FileToCopy file : largeFiles) {
+                checkCancelled();
+                copyFile(file.from, file.to, file.size);
+            }
+
+            for (Future<Void> future : futures) {
+                checkCancelled();
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            this.aborted = true;
+            throw new InterruptedIOException("Interrupted while copying " + this.source);
+        } catch (ExecutionException e) {
+            this.aborted = true;
+
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Failed to copy " + this.source, e.getCause());
+        } catch (IOException e) {
+            this.aborted = true;
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Walks the source, creating the directories in the target as it goes, and gets the files to copy.
+     */
+    private List<FileToCopy> collectFiles() throws IOException {
+        List<FileToCopy> files = new ArrayList<>();
+
+        FilteredFileVisitor.walk(this.source, this.filter, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                checkCancelled();
+                Files.createDirectories(target.resolve(FilteredFileVisitor.getRelativePath(source, dir)));
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path to = target.resolve(FilteredFileVisitor.getRelativePath(source, file));
+
+                // directories which didn't match the filter themselves won't have been created yet
+                Files.createDirectories(to.getParent());
+                files.add(new FileToCopy(file, to, attrs.size()));
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return files;
+    }
+
+    private void copyFile(Path from, Path to, long size) throws IOException {
+        // copying a file onto itself (such as already being hard linked) would truncate it
+        if (Files.exists(to) && Files.isSameFile(from, to)) {
+            reportCopied(size);
+            return;
+        }
+
+        if (this.hardLinks && this.linksSupported) {
+            try {
+                Files.deleteIfExists(to);
+                Files.createLink(to, from);
+                reportCopied(size);
+                return;
+            } catch (UnsupportedOperationException | IOException e) {
+                // usually because the source and target are on different drives, so don't bother trying again
+                this.linksSupported = false;
+                LogManager.debug("Couldn't hard link " + from + " to " + to + ", copying instead: " + e.getMessage());
+            }
+        }
+
+        if (size >= LARGE_FILE_SIZE) {
+            try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+                    FileChannel out = FileChannel.open(to, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING)) {
+                long length = in.size();
+                long position = 0;
+
+                while (position < length) {
+                    checkCancelled();
+                    position += in.transferTo(position, length - position, out);
+                }
+            }
+
+            Files.setLastModifiedTime(to, Files.getLastModifiedTime(from));
+        } else {
+            Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+
+        reportCopied(size);
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (this.aborted || this.cancelled.getAsBoolean()
+                || (this.callingThread != null && this.callingThread.isInterrupted())) {
+            this.aborted = true;
+            throw new InterruptedIOException("Copying " + this.source + " was cancelled");
+        }
+    }
+
+    private void reportTotal(long bytes) {
+        if (this.progress != null) {
+            this.progress.setTotalBytes(bytes);
+        }
+    }
+
+    private synchronized void reportCopied(long bytes) {
+        if (this.progress != null) {
+            this.progress.addDownloadedBytes(bytes);
+        }
+    }
+
+    private static final class FileToCopy {
+        private final Path from;
+        private final Path to;
+        private final long size;
+
+        private FileToCopy(Path from, Path to, long size) {
+            this.from = from;
+            this.to = to;
+            this.size = size;
+        }
+    }
+}
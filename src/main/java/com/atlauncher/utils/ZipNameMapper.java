@@ -18,26 +18,22 @@
 package com.atlauncher.utils;
 
 import com.atlauncher.data.BackupMode;
+import com.atlauncher.utils.walker.PathFilter;
 
 import org.zeroturnaround.zip.NameMapper;
 
 public class ZipNameMapper {
-    public static final NameMapper NORMAL_BACKUP = name -> {
-        if (name.equalsIgnoreCase("options.txt") || name.startsWith("saves") || name.startsWith("config")) {
-            return name;
-        }
+    public static final PathFilter NORMAL_BACKUP_FILTER = PathFilter.include("options.txt", "saves", "config")
+            .ignoringCase();
 
-        return null;
-    };
+    public static final PathFilter NORMAL_PLUS_MODS_BACKUP_FILTER = PathFilter
+            .include("options.txt", "saves", "config", "mods", "jarmods", "coremods").ignoringCase();
 
-    public static final NameMapper NORMAL_PLUS_MODS_BACKUP = name -> {
-        if (name.equalsIgnoreCase("options.txt") || name.startsWith("saves") || name.startsWith("config")
-                || name.startsWith("mods") || name.startsWith("jarmods") || name.startsWith("coremods")) {
-            return name;
-        }
+    public static final NameMapper NORMAL_BACKUP = name -> NORMAL_BACKUP_FILTER.matches(name) ? name : null;
 
-        return null;
-    };
+    public static final NameMapper NORMAL_PLUS_MODS_BACKUP = name -> NORMAL_PLUS_MODS_BACKUP_FILTER.matches(name)
+            ? name
+            : null;
 
     public static final NameMapper FULL_BACKUP = name -> {
         return name;
@@ -54,4 +50,20 @@ public class ZipNameMapper {
 
         return FULL_BACKUP;
     }
+
+    /**
+     * Gets the filter for what the backup mode covers, which unlike the name mappers lets directories it doesn't cover
+     * be skipped entirely.
+     */
+    public static PathFilter getFilterForBackupMode(BackupMode backupMode) {
+        if (backupMode == BackupMode.NORMAL) {
+            return NORMAL_BACKUP_FILTER;
+        }
+
+        if (backupMode == BackupMode.NORMAL_PLUS_MODS) {
+            return NORMAL_PLUS_MODS_BACKUP_FILTER;
+        }
+
+        return PathFilter.ALL;
+    }
 }
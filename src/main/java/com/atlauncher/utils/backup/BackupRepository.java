@@ -0,0 +1,405 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.backup;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.data.BackupMode;
+import com.atlauncher.data.backup.BackupFile;
+import com.atlauncher.data.backup.BackupSnapshot;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.ZipNameMapper;
+import com.atlauncher.utils.walker.FilteredFileVisitor;
+import com.atlauncher.utils.walker.PathFilter;
+
+/**
+ * Stores incremental, deduplicated backups of instances.
+ *
+ * Files are split into chunks (see {@link Chunker}) which are stored compressed under the hash of their contents, so
+ * a chunk which is the same in many backups (or many instances) is only ever stored once. Each backup is then just a
+ * small manifest listing the chunks that make up each file.
+ *
+ * Files which have the same size and modified time as in the last backup of the instance reuse the chunks from it
+ * without being read, so after the first backup only files which have changed are read, and only chunks which have
+ * changed are written.
+ */
+public final class BackupRepository {
+    private static final Object LOCK = new Object();
+    private static final String MANIFEST_EXTENSION = ".json";
+
+    private final Path chunks;
+    private final Path snapshots;
+
+    public BackupRepository(Path root) {
+        this.chunks = root.resolve("chunks");
+        this.snapshots = root.resolve("snapshots");
+    }
+
+    public static BackupRepository getDefault() {
+        return new BackupRepository(FileSystem.BACKUPS.resolve("repository"));
+    }
+
+    /**
+     * Backs up the files in the given directory which the backup mode covers.
+     *
+     * @param instance the name to store the backup under, usually the instances safe name
+     */
+    public BackupSnapshot createSnapshot(String instance, Path source, BackupMode backupMode) throws IOException {
+        synchronized (LOCK) {
+            PathFilter filter = ZipNameMapper.getFilterForBackupMode(backupMode);
+            List<BackupSnapshot> existing = getSnapshots(instance);
+            Map<String, BackupFile> previousFiles = existing.size() == 0 ? new HashMap<>()
+                    : existing.get(0).files.stream().collect(Collectors.toMap(file -> file.path, file -> file));
+
+            BackupSnapshot snapshot = new BackupSnapshot();
+            snapshot.created = new Date();
+            snapshot.id = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(snapshot.created);
+            snapshot.instance = instance;
+            snapshot.backupMode = backupMode;
+
+            Statistics statistics = new Statistics();
+
+            for (Path file : listFiles(source, filter)) {
+                String path = FilteredFileVisitor.getRelativePath(source, file);
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                BackupFile previous = previousFiles.get(path);
+
+                if (previous != null && previous.size == attributes.size()
+                        && previous.lastModified == attributes.lastModifiedTime().toMillis()) {
+                    snapshot.files.add(previous);
+                    snapshot.totalSize += previous.size;
+                    continue;
+                }
+
+                BackupFile backupFile = new BackupFile();
+                backupFile.path = path;
+                backupFile.size = attributes.size();
+                backupFile.lastModified = attributes.lastModifiedTime().toMillis();
+
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                    Chunker.forFile(path).split(in,
+                            (buffer, length) -> backupFile.chunks.add(storeChunk(buffer, length, statistics)));
+                }
+
+                statistics.filesRead++;
+                snapshot.files.add(backupFile);
+                snapshot.totalSize += backupFile.size;
+            }
+
+            writeSnapshot(snapshot);
+
+            LogManager.info(String.format(
+                    "Backed up %d files (%d MB) of %s, read %d changed files (%d MB) and stored %d new chunks (%d MB)",
+                    snapshot.files.size(), snapshot.totalSize / 1048576, instance, statistics.filesRead,
+                    statistics.bytesRead / 1048576, statistics.chunksWritten, statistics.bytesWritten / 1048576));
+
+            return snapshot;
+        }
+    }
+
+    /**
+     * Gets the backups of an instance, newest first.
+     */
+    public List<BackupSnapshot> getSnapshots(String instance) throws IOException {
+        Path directory = this.snapshots.resolve(instance);
+
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+
+        List<BackupSnapshot> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(MANIFEST_EXTENSION))
+                    .collect(Collectors.toList())) {
+                snapshots.add(readSnapshot(file));
+            }
+        }
+
+        snapshots.sort(Comparator.comparing((BackupSnapshot s) -> s.id).reversed());
+        return snapshots;
+    }
+
+    /**
+     * Restores a backup into the given directory.
+     *
+     * Every file is written out next to where it goes first, so if any chunk is missing or corrupt nothing in the
+     * directory has been changed. Only once they've all been written are they moved into place.
+     *
+     * Any files the backup mode covers which weren't there when the backup was taken (such as newly generated parts of
+     * a world) are removed, so what's covered ends up exactly as it was.
+     */
+    public void restore(BackupSnapshot snapshot, Path target) throws IOException {
+        synchronized (LOCK) {
+            Path root = target.toAbsolutePath().normalize();
+            Map<BackupFile, Path> staged = new LinkedHashMap<>();
+
+            try {
+                for (BackupFile file : snapshot.files) {
+                    Path to = root.resolve(file.path).normalize();
+
+                    if (!to.startsWith(root)) {
+                        throw new IOException("Backup contains a file outside of the instance: " + file.path);
+                    }
+
+                    Files.createDirectories(to.getParent());
+                    Path temp = to.resolveSibling(to.getFileName() + ".restoring");
+                    staged.put(file, temp);
+
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        for (String chunk : file.chunks) {
+                            out.write(readChunk(chunk));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                for (Path temp : staged.values()) {
+                    Files.deleteIfExists(temp);
+                }
+
+                throw e;
+            }
+
+            Set<String> restored = new HashSet<>();
+
+            for (Map.Entry<BackupFile, Path> entry : staged.entrySet()) {
+                BackupFile file = entry.getKey();
+                Path to = root.resolve(file.path).normalize();
+
+                Files.move(entry.getValue(), to, StandardCopyOption.REPLACE_EXISTING);
+                Files.setLastModifiedTime(to, FileTime.fromMillis(file.lastModified));
+                restored.add(file.path);
+            }
+
+            for (Path file : listFiles(root, ZipNameMapper.getFilterForBackupMode(snapshot.backupMode))) {
+                if (!restored.contains(FilteredFileVisitor.getRelativePath(root, file))) {
+                    FileUtils.delete(file);
+                }
+            }
+
+            LogManager.info("Restored " + snapshot.files.size() + " files from backup " + snapshot.id + " of "
+                    + snapshot.instance);
+        }
+    }
+
+    /**
+     * Removes all but the newest backups of an instance, along with any chunks no backup needs anymore.
+     *
+     * @return the number of backups removed
+     */
+    public int prune(String instance, int keep) throws IOException {
+        synchronized (LOCK) {
+            List<BackupSnapshot> existing = getSnapshots(instance);
+
+            if (existing.size() <= keep) {
+                return 0;
+            }
+
+            for (BackupSnapshot snapshot : existing.subList(Math.max(0, keep), existing.size())) {
+                Files.deleteIfExists(this.snapshots.resolve(instance).resolve(snapshot.id + MANIFEST_EXTENSION));
+            }
+
+            removeUnusedChunks();
+
+            return existing.size() - Math.max(0, keep);
+        }
+    }
+
+    private void removeUnusedChunks() throws IOException {
+        Set<String> used = new HashSet<>();
+
+        if (Files.isDirectory(this.snapshots)) {
+            try (Stream<Path> manifests = Files.walk(this.snapshots)) {
+                for (Path manifest : manifests
+                        .filter(f -> f.getFileName().toString().endsWith(MANIFEST_EXTENSION))
+                        .collect(Collectors.toList())) {
+                    readSnapshot(manifest).files.forEach(file -> used.addAll(file.chunks));
+                }
+            }
+        }
+
+        if (!Files.isDirectory(this.chunks)) {
+            return;
+        }
+
+        long[] freed = new long[2];
+        Files.walkFileTree(this.chunks, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (!used.contains(file.getFileName().toString())) {
+                    freed[0]++;
+                    freed[1] += attributes.size();
+                    Files.delete(file);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        LogManager.info("Removed " + freed[0] + " unused backup chunks freeing " + (freed[1] / 1048576) + " MB");
+    }
+
+    private String storeChunk(byte[] buffer, int length, Statistics statistics) throws IOException {
+        String hash = Hashing.sha1(buffer, 0, length).toString();
+        Path chunk = getChunkPath(hash);
+
+        statistics.bytesRead += length;
+
+        if (Files.exists(chunk)) {
+            return hash;
+        }
+
+        Files.createDirectories(chunk.getParent());
+        Path temp = chunk.resolveSibling(hash + ".tmp");
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(temp), deflater)) {
+            out.write(buffer, 0, length);
+        } finally {
+            deflater.end();
+        }
+
+        statistics.chunksWritten++;
+        statistics.bytesWritten += Files.size(temp);
+        Files.move(temp, chunk, StandardCopyOption.REPLACE_EXISTING);
+
+        return hash;
+    }
+
+    private byte[] readChunk(String hash) throws IOException {
+        byte[] data;
+
+        try (InputStream in = new InflaterInputStream(Files.newInputStream(getChunkPath(hash)))) {
+            data = readAll(in);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Backup chunk " + hash + " is missing", e);
+        }
+
+        if (!Hashing.sha1(data, 0, data.length).toString().equals(hash)) {
+            throw new IOException("Backup chunk " + hash + " is corrupt");
+        }
+
+        return data;
+    }
+
+    private Path getChunkPath(String hash) {
+        return this.chunks.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private void writeSnapshot(BackupSnapshot snapshot) throws IOException {
+        Path directory = this.snapshots.resolve(snapshot.instance);
+        Files.createDirectories(directory);
+
+        Path manifest = directory.resolve(snapshot.id + MANIFEST_EXTENSION);
+        Path temp = directory.resolve(snapshot.id + ".tmp");
+
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            Gsons.DEFAULT.toJson(snapshot, writer);
+        }
+
+        // the manifest only shows up once it's complete, so a failed backup never looks like a good one
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static BackupSnapshot readSnapshot(Path manifest) throws IOException {
+        try (Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            return Gsons.DEFAULT.fromJson(reader, BackupSnapshot.class);
+        }
+    }
+
+    private static List<Path> listFiles(Path root, PathFilter filter) throws IOException {
+        List<Path> files = new ArrayList<>();
+
+        if (!Files.isDirectory(root)) {
+            return files;
+        }
+
+        FilteredFileVisitor.walk(root, filter, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    files.add(file);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        files.sort(Comparator.naturalOrder());
+        return files;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        byte[] buffer = new byte[Chunker.MAX_CHUNK_SIZE];
+        int length = 0;
+        int read;
+
+        while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+
+            if (length == buffer.length) {
+                byte[] bigger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, bigger, 0, length);
+                buffer = bigger;
+            }
+        }
+
+        byte[] data = new byte[length];
+        System.arraycopy(buffer, 0, data, 0, length);
+        return data;
+    }
+
+    private static final class Statistics {
+        private long filesRead = 0;
+        private long bytesRead = 0;
+        private long chunksWritten = 0;
+        private long bytesWritten = 0;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.backup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * Splits files up into chunks for the backup repository, so that a file which has only partly changed since the last
+ * backup only needs its changed chunks stored again.
+ *
+ * Most files are split by content (a rolling hash decides where chunks end), so inserting or removing data only
+ * changes the chunks around it rather than shifting every chunk after it.
+ *
+ * Minecraft's region files are made of 4KB sectors which are rewritten in place when a chunk of the world changes, so
+ * they're split on fixed sector aligned boundaries instead, which lines up much better with what's changed.
+ */
+public abstract class Chunker {
+    public static final int MIN_CHUNK_SIZE = 16 * 1024;
+    public static final int AVERAGE_CHUNK_SIZE = 64 * 1024;
+    public static final int MAX_CHUNK_SIZE = 256 * 1024;
+    public static final int REGION_SECTOR_SIZE = 4096;
+    public static final int REGION_CHUNK_SIZE = 16 * REGION_SECTOR_SIZE;
+
+    private static final Chunker CONTENT_DEFINED = new ContentDefinedChunker();
+    private static final Chunker REGION = new FixedSizeChunker(REGION_CHUNK_SIZE);
+
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        void accept(byte[] buffer, int length) throws IOException;
+    }
+
+    /**
+     * Gets the chunker to use for the file with the given name.
+     */
+    public static Chunker forFile(String name) {
+        String lowerName = name.toLowerCase();
+
+        if (lowerName.endsWith(".mca") || lowerName.endsWith(".mcr")) {
+            return REGION;
+        }
+
+        return CONTENT_DEFINED;
+    }
+
+    /**
+     * Reads the stream through to the end, passing each chunk to the consumer in order. The buffer passed to the
+     * consumer is reused, so it must be done with it before returning.
+     */
+    public abstract void split(InputStream in, ChunkConsumer consumer) throws IOException;
+
+    /**
+     * Reads as many bytes as are available up to the given length, only returning less at the end of the stream.
+     */
+    protected static int readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+
+        while (total < length) {
+            int read = in.read(buffer, offset + total, length - total);
+
+            if (read == -1) {
+                break;
+            }
+
+            total += read;
+        }
+
+        return total;
+    }
+
+    private static final class FixedSizeChunker extends Chunker {
+        private final int chunkSize;
+
+        private FixedSizeChunker(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void split(InputStream in, ChunkConsumer consumer) throws IOException {
+            byte[] buffer = new byte[this.chunkSize];
+            int read;
+
+            while ((read = readFully(in, buffer, 0, this.chunkSize)) > 0) {
+                consumer.accept(buffer, read);
+            }
+        }
+    }
+
+    /**
+     * A gear hash based content defined chunker, along the lines of FastCDC.
+     */
+    private static final class ContentDefinedChunker extends Chunker {
+        // the top bits of the hash are the ones with the most history in them, so they're what's checked
+        private static final long MASK = (long) (AVERAGE_CHUNK_SIZE - 1) << 48;
+        private static final long[] GEAR = new long[256];
+
+        static {
+            // the table has to be the same every time or chunks wouldn't line up between backups
+            Random random = new Random(0x41544C61756E6368L);
+            for (int i = 0; i < GEAR.length; i++) {
+                GEAR[i] = random.nextLong();
+            }
+        }
+
+        @Override
+        public void split(InputStream in, ChunkConsumer consumer) throws IOException {
+            byte[] buffer = new byte[MAX_CHUNK_SIZE];
+            int available = 0;
+            boolean ended = false;
+
+            while (true) {
+                if (!ended && available < MAX_CHUNK_SIZE) {
+                    int read = readFully(in, buffer, available, MAX_CHUNK_SIZE - available);
+                    ended = available + read < MAX_CHUNK_SIZE;
+                    available += read;
+                }
+
+                if (available == 0) {
+                    return;
+                }
+
+                int length = findBoundary(buffer, available);
+                consumer.accept(buffer, length);
+
+                System.arraycopy(buffer, length, buffer, 0, available - length);
+                available -= length;
+            }
+        }
+
+        private static int findBoundary(byte[] buffer, int available) {
+            if (available <= MIN_CHUNK_SIZE) {
+                return available;
+            }
+
+            long hash = 0;
+            for (int i = MIN_CHUNK_SIZE; i < available; i++) {
+                hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+
+                if ((hash & MASK) == 0) {
+                    return i + 1;
+                }
+            }
+
+            return available;
+        }
+    }
+}
@@ -24,27 +24,36 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.atlauncher.data.json.CaseType;
 import com.atlauncher.data.json.Mod;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Utils;
 
+/**
+ * Changes the case of the file names of the given mods, to match what the pack expects.
+ */
 public final class CaseFileVisitor extends SimpleFileVisitor<Path> {
     private final CaseType caseType;
-    private final List<Mod> mods;
 
-    public CaseFileVisitor(CaseType caseType, List<Mod> mods) {
+    private CaseFileVisitor(CaseType caseType) {
         this.caseType = caseType;
-        this.mods = mods;
+    }
+
+    /**
+     * Walks the given directory, changing the case of any of the mods directly in it. Subdirectories are never walked
+     * into, and any file which isn't one of the mods is never looked at.
+     */
+    public static void walk(Path directory, CaseType caseType, List<Mod> mods) throws IOException {
+        PathFilter filter = PathFilter.include(mods.stream().map(Mod::getFile).collect(Collectors.toList()))
+                .ignoringCase();
+
+        FilteredFileVisitor.walk(directory, filter, new CaseFileVisitor(caseType));
     }
 
     @Override
     public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
-        if (this.mods.stream().noneMatch(m -> m.getFile().equalsIgnoreCase(path.getFileName().toString()))) {
-            return FileVisitResult.CONTINUE;
-        }
-
         if (!Files.isRegularFile(path) || !Utils.isAcceptedModFile(path)) {
             if (caseType == CaseType.upper) {
                 String filename = path.getFileName().toString();
@@ -18,12 +18,17 @@
 package com.atlauncher.utils.walker;
 
 import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 
+/**
+ * Deletes everything it visits. When walked through a {@link FilteredFileVisitor}, directories still holding files the
+ * filter excluded are left in place.
+ */
 public final class DeleteDirVisitor extends SimpleFileVisitor<Path> {
     @Override
     public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
@@ -34,7 +39,12 @@ public final class DeleteDirVisitor extends SimpleFileVisitor<Path> {
     @Override
     public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
         if (exc == null) {
-            Files.delete(dir);
+            try {
+                Files.delete(dir);
+            } catch (DirectoryNotEmptyException ignored) {
+                // something in it was filtered out of being deleted
+            }
+
             return FileVisitResult.CONTINUE;
         } else {
             throw exc;
@@ -0,0 +1,104 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.walker;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Wraps another visitor so it only sees the paths a {@link PathFilter} matches. Directories which nothing could match
+ * under are skipped in preVisitDirectory, so they're never listed.
+ *
+ * Directories are only passed on to the wrapped visitor when they match themselves, so a filter including
+ * "saves/world" walks through "saves" without the wrapped visitor seeing it.
+ */
+public final class FilteredFileVisitor implements FileVisitor<Path> {
+    private final Path root;
+    private final PathFilter filter;
+    private final FileVisitor<Path> visitor;
+
+    public FilteredFileVisitor(Path root, PathFilter filter, FileVisitor<Path> visitor) {
+        this.root = root;
+        this.filter = filter;
+        this.visitor = visitor;
+    }
+
+    /**
+     * Walks the given directory, only visiting what the filter matches.
+     */
+    public static void walk(Path root, PathFilter filter, FileVisitor<Path> visitor) throws IOException {
+        Files.walkFileTree(root, new FilteredFileVisitor(root, filter, visitor));
+    }
+
+    /**
+     * Gets the path relative to the root, using / as the separator no matter the OS.
+     */
+    public static String getRelativePath(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+        String path = getRelativePath(this.root, dir);
+
+        if (!this.filter.shouldDescend(path)) {
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        if (this.filter.matches(path)) {
+            return this.visitor.preVisitDirectory(dir, attrs);
+        }
+
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        if (this.filter.matches(getRelativePath(this.root, file))) {
+            return this.visitor.visitFile(file, attrs);
+        }
+
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+        if (this.filter.matches(getRelativePath(this.root, file))) {
+            return this.visitor.visitFileFailed(file, exc);
+        }
+
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+        if (this.filter.matches(getRelativePath(this.root, dir))) {
+            return this.visitor.postVisitDirectory(dir, exc);
+        }
+
+        if (exc != null) {
+            throw exc;
+        }
+
+        return FileVisitResult.CONTINUE;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.walker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which paths under a directory a walk should visit, from a set of prefixes to include and a set of prefixes to
+ * exclude. Paths are relative to the directory being walked and use / as the separator.
+ *
+ * A prefix is matched against whole path segments, so "config" matches "config" and "config/mod.cfg" but not
+ * "configs". Excludes always win over includes.
+ *
+ * Unlike a name filter, this knows whether anything under a directory could ever match, so whole directories can be
+ * skipped without listing them (see {@link FilteredFileVisitor}).
+ */
+public final class PathFilter {
+    /**
+     * Matches everything.
+     */
+    public static final PathFilter ALL = new PathFilter(null, Collections.emptyList(), false);
+
+    /**
+     * The prefixes to include, or null if everything is included.
+     */
+    private final List<String> includes;
+    private final List<String> excludes;
+    private final boolean ignoreCase;
+
+    private PathFilter(List<String> includes, List<String> excludes, boolean ignoreCase) {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Creates a filter which only matches the given paths and anything under them.
+     */
+    public static PathFilter include(String... prefixes) {
+        return include(Arrays.asList(prefixes));
+    }
+
+    /**
+     * Creates a filter which only matches the given paths and anything under them.
+     */
+    public static PathFilter include(Collection<String> prefixes) {
+        return new PathFilter(normalise(prefixes), Collections.emptyList(), false);
+    }
+
+    /**
+     * Gets a copy of this filter which also doesn't match the given paths or anything under them.
+     */
+    public PathFilter exclude(String... prefixes) {
+        return exclude(Arrays.asList(prefixes));
+    }
+
+    /**
+     * Gets a copy of this filter which also doesn't match the given paths or anything under them.
+     */
+    public PathFilter exclude(Collection<String> prefixes) {
+        List<String> excludes = new ArrayList<>(this.excludes);
+        excludes.addAll(normalise(prefixes));
+
+        return new PathFilter(this.includes, excludes, this.ignoreCase);
+    }
+
+    /**
+     * Gets a copy of this filter which matches prefixes regardless of their case.
+     */
+    public PathFilter ignoringCase() {
+        return new PathFilter(this.includes, this.excludes, true);
+    }
+
+    /**
+     * Checks if the given path should be visited.
+     */
+    public boolean matches(String path) {
+        String normalised = normalise(path);
+
+        if (this.excludes.stream().anyMatch(exclude -> isUnder(normalised, exclude))) {
+            return false;
+        }
+
+        return this.includes == null || this.includes.stream().anyMatch(include -> isUnder(normalised, include));
+    }
+
+    /**
+     * Checks if anything under the given directory could match, so if it's worth walking into at all.
+     */
+    public boolean shouldDescend(String directory) {
+        String normalised = normalise(directory);
+
+        if (normalised.isEmpty()) {
+            return true;
+        }
+
+        if (this.excludes.stream().anyMatch(exclude -> isUnder(normalised, exclude))) {
+            return false;
+        }
+
+        return this.includes == null || this.includes.stream()
+                .anyMatch(include -> isUnder(normalised, include) || isUnder(include, normalised));
+    }
+
+    private boolean isUnder(String path, String prefix) {
+        return path.regionMatches(this.ignoreCase, 0, prefix, 0, prefix.length())
+                && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static List<String> normalise(Collection<String> prefixes) {
+        return prefixes.stream().map(PathFilter::normalise).filter(prefix -> !prefix.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static String normalise(String path) {
+        String normalised = path.replace('\\', '/');
+
+        while (normalised.startsWith("/")) {
+            normalised = normalised.substring(1);
+        }
+
+        while (normalised.endsWith("/")) {
+            normalised = normalised.substring(0, normalised.length() - 1);
+        }
+
+        return normalised;
+    }
+}
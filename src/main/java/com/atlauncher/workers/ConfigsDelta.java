@@ -0,0 +1,289 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.constants.Constants;
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.ArchiveExtractor;
+import com.atlauncher.utils.FileUtils;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+/**
+ * Applies a packs Configs.zip to an instance by only writing the entries which have changed since the last one was
+ * applied, and removing the files from the last one which are no longer in it.
+ *
+ * A manifest is kept for each instance of what was written, holding the CRC of each entry (as given in the zips
+ * central directory) along with the size and modified time of the file it was written to. An entry is only skipped if
+ * its CRC is the same as last time and the file hasn't been touched since, so anything changed by the user or a mod is
+ * put back to how the pack has it, the same as when the whole zip was extracted.
+ *
+ * On a reinstall the config folder has already been moved out of the way by the {@link InstallRollback} before mods
+ * and actions are installed, so files they put in it are kept. Unchanged entries which were moved out of the way are
+ * moved back rather than being extracted again.
+ */
+public class ConfigsDelta {
+    private static final Type MANIFEST_TYPE = new TypeToken<Map<String, ConfigFile>>() {
+    }.getType();
+
+    private final Path root;
+    private final Path manifestFile;
+    private InstallRollback rollback;
+
+    private int unchangedCount = 0;
+    private int removedCount = 0;
+
+    ConfigsDelta(Path root, Path manifestFile) {
+        this.root = root.toAbsolutePath().normalize();
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * Gets the delta for the given directory, with its manifest saved in the directory's launcher data folder so it
+     * stays with the instance if it's renamed.
+     */
+    public static ConfigsDelta forDirectory(Path root) {
+        return new ConfigsDelta(root, root.resolve(Constants.INSTANCE_DATA_FOLDER).resolve("configs.json"));
+    }
+
+    /**
+     * Sets the rollback of the reinstall this is part of, so unchanged files it removed can be moved back and files
+     * removed from the pack can be put back if the reinstall doesn't finish.
+     */
+    public ConfigsDelta rollback(InstallRollback rollback) {
+        this.rollback = rollback;
+        return this;
+    }
+
+    public int getUnchangedCount() {
+        return this.unchangedCount;
+    }
+
+    public int getRemovedCount() {
+        return this.removedCount;
+    }
+
+    /**
+     * Applies the zip to the instance, extracting only the entries which have changed or been added and deleting the
+     * files which were in the last zip but not this one.
+     *
+     * @throws java.io.InterruptedIOException if extracting was cancelled part way through
+     */
+    public void apply(Path archive, NetworkProgressable progress, BooleanSupplier cancelled) throws IOException {
+        Map<String, ConfigFile> previous = load();
+        Map<String, Long> entries = readEntries(archive);
+
+        if (entries == null) {
+            // nothing can be compared without the central directory, so write it all and forget what was there
+            new ArchiveExtractor(archive, this.root).progress(progress).cancelled(cancelled).extract();
+            Files.deleteIfExists(this.manifestFile);
+            return;
+        }
+
+        Set<String> unchanged = new HashSet<>();
+
+        entries.forEach((name, crc) -> {
+            ConfigFile last = previous.get(name);
+            Path file = resolve(name);
+
+            if (last != null && crc != -1 && last.crc == crc && (last.matches(file) || restore(last, file))) {
+                unchanged.add(name);
+            }
+        });
+
+        // only files which are as they were left are removed, so anything the user has changed themselves is kept
+        for (Map.Entry<String, ConfigFile> entry : previous.entrySet()) {
+            Path file = resolve(entry.getKey());
+
+            if (!entries.containsKey(entry.getKey()) && entry.getValue().matches(file)) {
+                if (this.rollback != null) {
+                    this.rollback.remove(file);
+                } else {
+                    Files.delete(file);
+                }
+
+                this.removedCount++;
+            }
+        }
+
+        if (unchanged.size() != entries.size()) {
+            new ArchiveExtractor(archive, this.root).nameMapper(name -> unchanged.contains(name) ? null : name)
+                    .progress(progress).cancelled(cancelled).extract();
+        }
+
+        this.unchangedCount = unchanged.size();
+        LogManager.info(String.format("Configs delta: %d unchanged, %d written, %d removed", this.unchangedCount,
+                entries.size() - this.unchangedCount, this.removedCount));
+
+        save(entries);
+    }
+
+    /**
+     * Reads the CRC of each file in the zip from its central directory, or null if the central directory can't be
+     * read.
+     */
+    private Map<String, Long> readEntries(Path archive) {
+        Map<String, Long> entries = new LinkedHashMap<>();
+
+        // an empty file is an empty zip, as packs without any configs have an empty Configs.zip
+        if (archive.toFile().length() == 0L) {
+            return entries;
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            for (ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+                if (!entry.isDirectory() && !entry.isUnixSymlink()) {
+                    entries.put(entry.getName(), entry.getCrc());
+                }
+            }
+        } catch (IOException e) {
+            LogManager.warn("Couldn't read the central directory of " + archive + " (" + e.getMessage()
+                    + "), extracting all of it");
+            return null;
+        }
+
+        return entries;
+    }
+
+    /**
+     * Moves an unchanged file back from where the reinstall moved it to, if it's still as it was left.
+     */
+    private boolean restore(ConfigFile last, Path file) {
+        return file != null && this.rollback != null && last.matches(this.rollback.getRemovedFile(file))
+                && this.rollback.restore(file);
+    }
+
+    /**
+     * Gets where an entry is written to in the instance, or null if it's somewhere it would never be written.
+     */
+    private Path resolve(String name) {
+        try {
+            Path file = this.root.resolve(name).normalize();
+
+            return file.startsWith(this.root) && !file.equals(this.root) ? file : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private Map<String, ConfigFile> load() {
+        Map<String, ConfigFile> manifest = new HashMap<>();
+
+        if (!Files.exists(this.manifestFile)) {
+            return manifest;
+        }
+
+        try (Reader reader = Files.newBufferedReader(this.manifestFile, StandardCharsets.UTF_8)) {
+            Map<String, ConfigFile> loaded = Gsons.DEFAULT.fromJson(reader, MANIFEST_TYPE);
+
+            if (loaded != null) {
+                loaded.forEach((name, file) -> {
+                    if (name != null && file != null) {
+                        manifest.put(name, file);
+                    }
+                });
+            }
+        } catch (IOException | JsonParseException e) {
+            LogManager.logStackTrace("Failed to load configs manifest for " + this.root, e, false);
+        }
+
+        return manifest;
+    }
+
+    private void save(Map<String, Long> entries) {
+        Map<String, ConfigFile> manifest = new LinkedHashMap<>();
+
+        entries.forEach((name, crc) -> {
+            Path file = resolve(name);
+
+            try {
+                if (file != null && Files.isRegularFile(file)) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    manifest.put(name,
+                            new ConfigFile(crc, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to read " + file + " for the configs manifest", e, false);
+            }
+        });
+
+        Path temp = this.manifestFile.resolveSibling(this.manifestFile.getFileName() + ".tmp");
+
+        try {
+            FileUtils.createDirectory(this.manifestFile.getParent());
+
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(manifest, MANIFEST_TYPE, writer);
+            }
+
+            Files.move(temp, this.manifestFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save configs manifest for " + this.root, e, false);
+        }
+    }
+
+    private static class ConfigFile {
+        public long crc;
+        public long size;
+        public long lastModified;
+
+        ConfigFile(long crc, long size, long lastModified) {
+            this.crc = crc;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        boolean matches(Path file) {
+            if (file == null) {
+                return false;
+            }
+
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+                return attributes.isRegularFile() && attributes.size() == this.size
+                        && attributes.lastModifiedTime().toMillis() == this.lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.atlauncher.constants.Constants;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+
+/**
+ * Keeps hold of what a reinstall removes from an instance, so that it can all be put back if the reinstall fails or is
+ * cancelled.
+ *
+ * Anything being removed is moved into a folder inside of the instance rather than deleted, which is only a rename so
+ * is no slower than deleting it. Once the install has succeeded {@link #commit()} deletes them, otherwise
+ * {@link #rollback()} removes what the install added and moves everything back.
+ */
+public class InstallRollback {
+    private final Path root;
+    private final Path rollbackDir;
+
+    private final Map<Path, Path> movedPaths = new LinkedHashMap<>();
+    private final Map<Path, Path> restoredFiles = new LinkedHashMap<>();
+    private final List<Path> addedFiles = new ArrayList<>();
+
+    public InstallRollback(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.rollbackDir = this.root.resolve(Constants.INSTANCE_DATA_FOLDER).resolve("rollback");
+
+        // left behind by an install which never finished, so there's nothing which can put it back now
+        if (Files.isDirectory(this.rollbackDir)) {
+            FileUtils.deleteDirectory(this.rollbackDir);
+        }
+    }
+
+    /**
+     * Moves a file or folder in the instance out of the way, or deletes it if it can't be moved.
+     */
+    public void remove(Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+
+        if (!Files.exists(absolute, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+
+        if (!absolute.startsWith(this.root) || absolute.equals(this.root) || absolute.startsWith(this.rollbackDir)) {
+            FileUtils.delete(absolute);
+            return;
+        }
+
+        Path movedTo = this.rollbackDir.resolve(this.root.relativize(absolute));
+
+        try {
+            Files.createDirectories(movedTo.getParent());
+            Files.move(absolute, movedTo);
+            this.movedPaths.put(absolute, movedTo);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Couldn't move " + absolute + " out of the way, so deleting it instead", e, false);
+            FileUtils.delete(absolute);
+        }
+    }
+
+    /**
+     * Notes a file the install has added which wasn't there before, so it's removed again on rollback.
+     */
+    public void added(Path file) {
+        this.addedFiles.add(file.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Gets where a file which was removed (either itself or a folder it was in) has been moved to, or null if it
+     * wasn't removed.
+     */
+    public Path getRemovedFile(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+
+        for (Map.Entry<Path, Path> moved : this.movedPaths.entrySet()) {
+            if (absolute.startsWith(moved.getKey())) {
+                Path movedTo = moved.getValue().resolve(moved.getKey().relativize(absolute).toString());
+
+                return Files.exists(movedTo, LinkOption.NOFOLLOW_LINKS) ? movedTo : null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Moves a file which was removed back to where it was, replacing anything the install has put there since, such
+     * as when it's found to be the same as what would be installed. Returns false if it can't be.
+     */
+    public boolean restore(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path movedTo = getRemovedFile(absolute);
+
+        if (movedTo == null || !Files.isRegularFile(movedTo, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+
+        try {
+            Files.createDirectories(absolute.getParent());
+            Files.move(movedTo, absolute, StandardCopyOption.REPLACE_EXISTING);
+            this.restoredFiles.put(absolute, movedTo);
+
+            return true;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Couldn't move " + movedTo + " back to " + absolute, e, false);
+            return false;
+        }
+    }
+
+    /**
+     * Called once the install has succeeded to throw away everything that was removed.
+     */
+    public void commit() {
+        if (Files.isDirectory(this.rollbackDir)) {
+            FileUtils.deleteDirectory(this.rollbackDir);
+        }
+    }
+
+    /**
+     * Called when the install fails or is cancelled to remove anything newly installed and put back everything that
+     * was removed.
+     */
+    public void rollback() {
+        if (this.movedPaths.isEmpty() && this.addedFiles.isEmpty()) {
+            commit();
+            return;
+        }
+
+        LogManager.warn("Rolling back changes made to " + this.root);
+
+        // restored files go back with the rest of what was removed from the same folder
+        this.restoredFiles.forEach((file, movedTo) -> {
+            try {
+                Files.createDirectories(movedTo.getParent());
+                Files.move(file, movedTo, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Couldn't move " + file + " back out of the way", e, false);
+            }
+        });
+
+        for (Path file : this.addedFiles) {
+            if (Files.exists(file, LinkOption.NOFOLLOW_LINKS)) {
+                FileUtils.delete(file);
+            }
+        }
+
+        List<Path> moved = new ArrayList<>(this.movedPaths.keySet());
+        Collections.reverse(moved);
+
+        for (Path original : moved) {
+            Path movedTo = this.movedPaths.get(original);
+
+            if (!Files.exists(movedTo, LinkOption.NOFOLLOW_LINKS)) {
+                continue;
+            }
+
+            if (Files.exists(original, LinkOption.NOFOLLOW_LINKS)) {
+                FileUtils.delete(original);
+            }
+
+            try {
+                Files.createDirectories(original.getParent());
+                Files.move(movedTo, original);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Couldn't put " + original + " back", e, false);
+            }
+        }
+
+        commit();
+    }
+}
@@ -25,14 +25,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.swing.SwingWorker;
 
@@ -46,11 +48,11 @@ import com.atlauncher.data.APIResponse;
 import com.atlauncher.data.DisableableMod;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.InstanceLauncher;
+import com.atlauncher.data.ModMetadata;
 import com.atlauncher.data.Server;
 import com.atlauncher.data.Type;
 import com.atlauncher.data.curseforge.CurseForgeAttachment;
 import com.atlauncher.data.curseforge.CurseForgeFile;
-import com.atlauncher.data.curseforge.CurseForgeFingerprint;
 import com.atlauncher.data.curseforge.CurseForgeProject;
 import com.atlauncher.data.curseforge.pack.CurseForgeManifest;
 import com.atlauncher.data.curseforge.pack.CurseForgeModLoader;
@@ -67,14 +69,12 @@ import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.AssetIndex;
 import com.atlauncher.data.minecraft.Download;
 import com.atlauncher.data.minecraft.Downloads;
-import com.atlauncher.data.minecraft.FabricMod;
 import com.atlauncher.data.minecraft.JavaRuntime;
 import com.atlauncher.data.minecraft.JavaRuntimeManifest;
 import com.atlauncher.data.minecraft.JavaRuntimeManifestFileType;
 import com.atlauncher.data.minecraft.JavaRuntimes;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.LoggingFile;
-import com.atlauncher.data.minecraft.MCMod;
 import com.atlauncher.data.minecraft.MinecraftVersion;
 import com.atlauncher.data.minecraft.MojangAssetIndex;
 import com.atlauncher.data.minecraft.MojangDownload;
@@ -102,12 +102,16 @@ import com.atlauncher.managers.ServerManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
 import com.atlauncher.network.ErrorReporting;
+import com.atlauncher.utils.ArchiveExtractor;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.CurseForgeApi;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.ModMetadataIndex;
+import com.atlauncher.utils.TreeCopier;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.utils.walker.CaseFileVisitor;
+import com.atlauncher.utils.walker.PathFilter;
 import com.google.gson.reflect.TypeToken;
 
 import org.mini2Dx.gettext.GetText;
@@ -129,11 +133,14 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     public final boolean showModsChooser;
     public LoaderVersion loaderVersion;
     public CurseForgeManifest curseForgeManifest;
-    public Path curseForgeExtractedPath;
+    public Path curseForgeArchive;
     public final ModpacksChPackManifest modpacksChPackManifest;
     public ModpacksChPackVersionManifest modpacksChPackVersionManifest;
     public final MultiMCManifest multiMCManifest;
-    public final Path multiMCExtractedPath;
+    public final Path multiMCArchive;
+    private boolean curseForgeArchiveDownloaded = false;
+    private Set<String> packArchiveFiles = null;
+    private final Map<DisableableMod, String> overridesModsInstalled = new LinkedHashMap<>();
 
     public boolean isReinstall;
     public boolean isServer;
@@ -151,6 +158,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     public List<Mod> selectedMods;
     public List<Mod> unselectedMods = new ArrayList<>();
     public List<DisableableMod> modsInstalled;
+    public InstallRollback rollback;
+    public ModsDelta modsDelta;
 
     public boolean assetsMapToResources = false;
 
@@ -167,8 +176,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
     public InstanceInstaller(String name, com.atlauncher.data.Pack pack, com.atlauncher.data.PackVersion version,
             boolean isReinstall, boolean isServer, boolean saveMods, String shareCode, boolean showModsChooser,
-            LoaderVersion loaderVersion, CurseForgeManifest curseForgeManifest, Path curseForgeExtractedPath,
-            ModpacksChPackManifest modpacksChPackManifest, MultiMCManifest multiMCManifest, Path multiMCExtractedPath) {
+            LoaderVersion loaderVersion, CurseForgeManifest curseForgeManifest, Path curseForgeArchive,
+            ModpacksChPackManifest modpacksChPackManifest, MultiMCManifest multiMCManifest, Path multiMCArchive) {
         this.name = name;
         this.pack = pack;
         this.version = version;
@@ -188,10 +197,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         this.loaderVersion = loaderVersion;
         this.curseForgeManifest = curseForgeManifest;
-        this.curseForgeExtractedPath = curseForgeExtractedPath;
+        this.curseForgeArchive = curseForgeArchive;
         this.modpacksChPackManifest = modpacksChPackManifest;
         this.multiMCManifest = multiMCManifest;
-        this.multiMCExtractedPath = multiMCExtractedPath;
+        this.multiMCArchive = multiMCArchive;
     }
 
     public void setInstance(Instance instance) {
@@ -277,6 +286,14 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             success(false);
             cancel(true);
             LogManager.logStackTrace(e);
+        } finally {
+            if (this.rollback != null) {
+                if (this.success) {
+                    this.rollback.commit();
+                } else {
+                    this.rollback.rollback();
+                }
+            }
         }
 
         return success(false);
@@ -437,10 +454,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         curseForgeManifest = Gsons.MINECRAFT.fromJson(new String(ArchiveUtils.getFile(manifestFile, "manifest.json")),
                 CurseForgeManifest.class);
-        curseForgeExtractedPath = this.temp.resolve("curseforgeimport");
-
-        ArchiveUtils.extract(manifestFile, curseForgeExtractedPath);
-        Files.delete(manifestFile);
+        curseForgeArchive = manifestFile;
+        curseForgeArchiveDownloaded = true;
 
         generatePackVersionFromCurseForgeManifest();
 
@@ -699,6 +714,16 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             this.selectedMods = this.allMods;
         }
 
+        // anything removed when reinstalling/updating an instance is put back if the install doesn't finish
+        if (this.isReinstall && this.instance != null) {
+            this.rollback = new InstallRollback(this.root);
+        }
+
+        // only pack mods that have changed are reinstalled when reinstalling/updating an instance
+        if (this.rollback != null && !this.isServer && this.multiMCManifest == null) {
+            this.modsDelta = new ModsDelta(this.instance, this.root, this.rollback, this.packVersion.minecraft);
+        }
+
         modsInstalled = new ArrayList<>();
         for (com.atlauncher.data.json.Mod mod : this.selectedMods) {
             String file = mod.getFile();
@@ -711,12 +736,18 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 file = file.substring(0, file.lastIndexOf(".")).toLowerCase() + file.substring(file.lastIndexOf("."));
             }
 
-            this.modsInstalled.add(new com.atlauncher.data.DisableableMod(mod.getName(), mod.getVersion(),
+            DisableableMod disableableMod = new com.atlauncher.data.DisableableMod(mod.getName(), mod.getVersion(),
                     mod.isOptional(), file, mod.path,
                     com.atlauncher.data.Type.valueOf(com.atlauncher.data.Type.class, mod.getType().toString()),
                     this.packVersion.getColour(mod.getColour()), mod.getDescription(), false, false, true,
                     mod.getCurseForgeProjectId(), mod.getCurseForgeFileId(), mod.curseForgeProject,
-                    mod.curseForgeFile));
+                    mod.curseForgeFile);
+
+            this.modsInstalled.add(disableableMod);
+
+            if (this.modsDelta != null) {
+                this.modsDelta.addSelectedMod(mod, disableableMod);
+            }
         }
 
         if (this.isReinstall && instance.hasCustomMods()) {
@@ -731,104 +762,98 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             if (!this.saveMods && !instance.id.equalsIgnoreCase(version.minecraftVersion.id)) {
                 for (com.atlauncher.data.DisableableMod mod : instance.getCustomDisableableMods()) {
                     this.instance.launcher.mods.remove(mod);
-                    Utils.delete((mod.isDisabled() ? mod.getDisabledFile(this.instance) : mod.getFile(this.instance)));
+                    removeFile((mod.isDisabled() ? mod.getDisabledFile(this.instance) : mod.getFile(this.instance))
+                            .toPath());
                 }
             }
         }
 
-        if (this.multiMCManifest != null) {
-            String minecraftFolder = Files.exists(multiMCExtractedPath.resolve(".minecraft")) ? ".minecraft"
-                    : "minecraft";
-
-            if (Files.exists(multiMCExtractedPath.resolve(minecraftFolder + "/mods"))) {
-                try (Stream<Path> list = Files.list(multiMCExtractedPath.resolve(minecraftFolder + "/mods"))) {
-                    this.modsInstalled.addAll(list.filter(p -> !Files.isDirectory(p))
-                            .filter(p -> p.toString().toLowerCase().endsWith(".jar")
-                                    || p.toString().toLowerCase().endsWith(".zip"))
-                            .map(p -> convertPathToDisableableMod(p, Type.mods)).collect(Collectors.toList()));
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                }
-            }
+        if (this.curseForgeManifest != null || this.multiMCManifest != null) {
+            addModsInstalledFromOverrides("mods/", Type.mods);
+            addModsInstalledFromOverrides("mods/" + packVersion.minecraft + "/", Type.dependency);
 
-            if (Files.exists(multiMCExtractedPath.resolve(minecraftFolder + "/mods/" + packVersion.minecraft))) {
-                try (Stream<Path> list = Files
-                        .list(multiMCExtractedPath.resolve(minecraftFolder + "/mods/" + packVersion.minecraft))) {
-                    this.modsInstalled.addAll(list.filter(p -> !Files.isDirectory(p))
-                            .filter(p -> p.toString().toLowerCase().endsWith(".jar")
-                                    || p.toString().toLowerCase().endsWith(".zip"))
-                            .map(p -> convertPathToDisableableMod(p, Type.dependency)).collect(Collectors.toList()));
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                }
+            if (this.multiMCManifest != null) {
+                addModsInstalledFromOverrides("mods/ic2/", Type.ic2lib);
             }
+        }
+    }
 
-            if (Files.exists(multiMCExtractedPath.resolve(minecraftFolder + "/mods/ic2"))) {
-                try (Stream<Path> list = Files.list(multiMCExtractedPath.resolve(minecraftFolder + "/mods/ic2"))) {
-                    this.modsInstalled.addAll(list.filter(p -> !Files.isDirectory(p))
-                            .filter(p -> p.toString().toLowerCase().endsWith(".jar")
-                                    || p.toString().toLowerCase().endsWith(".zip"))
-                            .map(p -> convertPathToDisableableMod(p, Type.ic2lib)).collect(Collectors.toList()));
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                }
-            }
+    /**
+     * Gets the names of the files in the imported CurseForge or MultiMC archive, read once from its central directory.
+     */
+    private Set<String> getPackArchiveFiles() {
+        if (this.packArchiveFiles == null) {
+            this.packArchiveFiles = ArchiveUtils
+                    .getFileNames(this.curseForgeManifest != null ? this.curseForgeArchive : this.multiMCArchive);
         }
 
+        return this.packArchiveFiles;
+    }
+
+    /**
+     * Gets the folder in the imported CurseForge or MultiMC archive which holds the files to put in the instance.
+     */
+    private String getOverridesFolder() {
         if (this.curseForgeManifest != null) {
-            if (Files.exists(curseForgeExtractedPath
-                    .resolve(Optional.of(curseForgeManifest.overrides).orElse("overrides") + "/mods"))) {
-                try (Stream<Path> list = Files.list(curseForgeExtractedPath
-                        .resolve(Optional.of(curseForgeManifest.overrides).orElse("overrides") + "/mods"))) {
-                    this.modsInstalled.addAll(list.filter(p -> !Files.isDirectory(p))
-                            .filter(p -> p.toString().toLowerCase().endsWith(".jar")
-                                    || p.toString().toLowerCase().endsWith(".zip"))
-                            .map(p -> convertPathToDisableableMod(p, Type.mods)).collect(Collectors.toList()));
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                }
+            return Optional.ofNullable(curseForgeManifest.overrides).orElse("overrides") + "/";
+        }
+
+        // MultiMC exports have the instance in a single folder, with the game files in .minecraft or minecraft
+        String instanceFolder = getPackArchiveFiles().stream().filter(name -> name.endsWith("mmc-pack.json"))
+                .map(name -> name.substring(0, name.length() - "mmc-pack.json".length())).findFirst().orElse("");
+
+        return getPackArchiveFiles().stream().anyMatch(name -> name.startsWith(instanceFolder + ".minecraft/"))
+                ? instanceFolder + ".minecraft/"
+                : instanceFolder + "minecraft/";
+    }
+
+    /**
+     * Adds the mods directly in the given folder of the pack's overrides to the installed mods. Only their file names
+     * are known until the overrides are extracted, when the rest is filled in by {@link #readOverridesModMetadata()}.
+     */
+    private void addModsInstalledFromOverrides(String folder, Type type) {
+        String prefix = getOverridesFolder() + folder;
+
+        getPackArchiveFiles().stream().filter(name -> name.startsWith(prefix))
+                .map(name -> name.substring(prefix.length())).filter(name -> !name.contains("/"))
+                .filter(name -> name.toLowerCase().endsWith(".jar") || name.toLowerCase().endsWith(".zip"))
+                .forEach(file -> {
+                    DisableableMod mod = createDisableableMod(file, type);
+
+                    this.modsInstalled.add(mod);
+                    this.overridesModsInstalled.put(mod, folder + file);
+                });
+    }
+
+    /**
+     * Fills in the names and versions of the mods from the pack's overrides now they're in the instance. They're read
+     * through the instance's mod metadata index, so they won't need to be read again when the mods are next shown.
+     */
+    private void readOverridesModMetadata() {
+        Map<DisableableMod, Path> files = new LinkedHashMap<>();
+        this.overridesModsInstalled.forEach((mod, file) -> {
+            if (Files.exists(this.root.resolve(file))) {
+                files.put(mod, this.root.resolve(file));
             }
+        });
 
-            if (Files.exists(
-                    curseForgeExtractedPath.resolve(Optional.of(curseForgeManifest.overrides).orElse("overrides")
-                            + "/mods/" + packVersion.minecraft))) {
-                try (Stream<Path> list = Files.list(
-                        curseForgeExtractedPath.resolve(Optional.of(curseForgeManifest.overrides).orElse("overrides")
-                                + "/mods/" + packVersion.minecraft))) {
-                    this.modsInstalled.addAll(list.filter(p -> !Files.isDirectory(p))
-                            .filter(p -> p.toString().toLowerCase().endsWith(".jar")
-                                    || p.toString().toLowerCase().endsWith(".zip"))
-                            .map(p -> convertPathToDisableableMod(p, Type.dependency)).collect(Collectors.toList()));
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                }
+        Map<Path, ModMetadata> metadata = ModMetadataIndex.forDirectory(this.root).get(files.values());
+
+        files.forEach((mod, file) -> {
+            if (metadata.containsKey(file)) {
+                metadata.get(file).applyTo(mod, mod.file);
             }
-        }
+        });
     }
 
-    private DisableableMod convertPathToDisableableMod(Path p, Type t) {
+    private DisableableMod createDisableableMod(String file, Type t) {
         DisableableMod mod = new DisableableMod();
 
         mod.optional = true;
-        mod.name = p.getFileName().toString();
+        mod.name = file;
         mod.version = "Unknown";
         mod.description = null;
-
-        MCMod mcMod = Utils.getMCModForFile(p.toFile());
-        if (mcMod != null) {
-            mod.name = Optional.ofNullable(mcMod.name).orElse(p.getFileName().toString());
-            mod.version = Optional.ofNullable(mcMod.version).orElse("Unknown");
-            mod.description = Optional.ofNullable(mcMod.description).orElse(null);
-        } else {
-            FabricMod fabricMod = Utils.getFabricModForFile(p.toFile());
-            if (fabricMod != null) {
-                mod.name = Optional.ofNullable(fabricMod.name).orElse(p.getFileName().toString());
-                mod.version = Optional.ofNullable(fabricMod.version).orElse("Unknown");
-                mod.description = Optional.ofNullable(fabricMod.description).orElse(null);
-            }
-        }
-
-        mod.file = p.getFileName().toString();
+        mod.file = file;
         mod.type = t;
 
         return mod;
@@ -917,7 +942,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         // Copy over common configs if any
         if (FileSystem.COMMON.toFile().listFiles().length != 0) {
-            Utils.copyDirectory(FileSystem.COMMON.toFile(), this.root.toFile());
+            new TreeCopier(FileSystem.COMMON, this.root).cancelled(this::isCancelled).copy();
         }
 
         restoreSelectFiles();
@@ -1529,11 +1554,20 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         OkHttpClient httpClient = Network.createProgressClient(this);
         DownloadPool pool = new DownloadPool();
 
-        this.selectedMods.stream().filter(mod -> mod.download != DownloadType.browser).forEach(mod -> {
+        this.selectedMods.stream().filter(mod -> mod.download != DownloadType.browser)
+                .filter(mod -> modsDelta == null || !modsDelta.isUnchanged(mod)).forEach(mod -> {
+            Path downloadTo = downloadsDirectly(mod) ? getDirectDownloadPath(mod)
+                    : FileSystem.DOWNLOADS.resolve(mod.getFile());
+
             com.atlauncher.network.Download download = new com.atlauncher.network.Download()
-                    .setUrl(mod.getDownloadUrl()).downloadTo(FileSystem.DOWNLOADS.resolve(mod.getFile()))
+                    .setUrl(mod.getDownloadUrl()).downloadTo(downloadTo)
                     .ignoreFailures().size(mod.filesize).withInstanceInstaller(this).withHttpClient(httpClient);
 
+            // anything already in the instance which doesn't match the manifest is downloaded again
+            if (downloadsDirectly(mod)) {
+                download = download.replaceChanged();
+            }
+
             if (mod.fingerprint != null) {
                 download = download.fingerprint(mod.fingerprint);
             }
@@ -1557,7 +1591,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireSubProgressUnknown();
 
         this.selectedMods.stream().filter(mod -> mod.download == DownloadType.browser)
-                .forEach(mod -> mod.download(this));
+                .filter(mod -> modsDelta == null || !modsDelta.isUnchanged(mod)).forEach(mod -> mod.download(this));
 
         hideSubProgressBar();
     }
@@ -1575,13 +1609,33 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         double subPercentPerMod = 100.0 / this.selectedMods.size();
 
         this.selectedMods.parallelStream().forEach(mod -> {
-            mod.install(this);
+            if ((modsDelta == null || !modsDelta.isUnchanged(mod)) && !downloadsDirectly(mod)) {
+                mod.install(this);
+            }
+
             addSubPercent(subPercentPerMod);
         });
 
         hideSubProgressBar();
     }
 
+    /**
+     * Mods from modpacks.ch are single files with a known sha1 and location, so they're downloaded straight into the
+     * instance rather than into the downloads folder and then copied across.
+     */
+    private boolean downloadsDirectly(com.atlauncher.data.json.Mod mod) {
+        return this.modpacksChPackManifest != null && mod.download != DownloadType.browser && mod.path != null;
+    }
+
+    /**
+     * Gets where a mod downloaded straight into the instance goes. modpacks.ch files always come with their path in the
+     * instance, so unlike {@link com.atlauncher.data.json.Mod#getInstalledFile} this doesn't depend on the mods type
+     * (which servers don't have for them).
+     */
+    private Path getDirectDownloadPath(com.atlauncher.data.json.Mod mod) {
+        return this.root.resolve(mod.path).resolve(mod.getFile());
+    }
+
     private void installLegacyJavaFixer() {
         addPercent(5);
 
@@ -1630,8 +1684,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             return;
         }
 
-        Files.walkFileTree(this.root.resolve("mods"), new CaseFileVisitor(this.packVersion.caseAllFiles,
-                this.selectedMods.stream().filter(m -> m.type == ModType.mods).collect(Collectors.toList())));
+        CaseFileVisitor.walk(this.root.resolve("mods"), this.packVersion.caseAllFiles,
+                this.selectedMods.stream().filter(m -> m.type == ModType.mods).collect(Collectors.toList()));
     }
 
     private void runActions() {
@@ -1655,22 +1709,32 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         if (curseForgeManifest != null) {
             fireSubProgressUnknown();
-            fireTask(GetText.tr("Copying Overrides"));
-            Utils.copyDirectory(this.curseForgeExtractedPath
-                    .resolve(Optional.of(curseForgeManifest.overrides).orElse("overrides")).toFile(),
-                    this.root.toFile(), false);
+            fireTask(GetText.tr("Extracting Overrides"));
+            new ArchiveExtractor(this.curseForgeArchive, this.root).folder(getOverridesFolder()).progress(this)
+                    .cancelled(this::isCancelled).extract();
+            readOverridesModMetadata();
+
+            if (curseForgeArchiveDownloaded) {
+                Utils.delete(this.curseForgeArchive.toFile());
+            }
         } else if (modpacksChPackManifest != null) {
             fireSubProgressUnknown();
             fireTask(GetText.tr("Calculating Files To Download"));
 
-            List<com.atlauncher.network.Download> filesToDownload = modpacksChPackVersionManifest.files.parallelStream()
+            List<com.atlauncher.network.Download> filesToDownload = modpacksChPackVersionManifest.files.stream()
                     .filter(f -> f.type != ModpacksChPackVersionManifectFileType.MOD).map(file -> {
+                        Path downloadTo = root.resolve(
+                                (file.path.substring(0, 2).equalsIgnoreCase("./") ? file.path.substring(2) : file.path)
+                                        + file.name);
+
+                        // files left from the previous version are kept if they're unchanged, including ones
+                        // the reinstall has moved out of the way, which are moved back rather than downloaded again
+                        restoreIfUnchanged(downloadTo, file.sha1);
+
                         com.atlauncher.network.Download download = com.atlauncher.network.Download.build()
                                 .setUrl(file.url).size((long) file.size).hash(file.sha1).ignoreFailures()
-                                .downloadTo(root.resolve(
-                                        (file.path.substring(0, 2).equalsIgnoreCase("./") ? file.path.substring(2)
-                                                : file.path) + file.name))
-                                .withInstanceInstaller(this).withHttpClient(Network.createProgressClient(this));
+                                .replaceChanged().downloadTo(downloadTo).withInstanceInstaller(this)
+                                .withHttpClient(Network.createProgressClient(this));
 
                         return download;
                     }).collect(Collectors.toList());
@@ -1704,12 +1768,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             smallPool.downloadAll();
         } else if (multiMCManifest != null) {
             fireSubProgressUnknown();
-            String minecraftFolder = Files.exists(multiMCExtractedPath.resolve(".minecraft")) ? ".minecraft"
-                    : "minecraft";
-
-            fireTask(GetText.tr("Copying " + minecraftFolder + " folder"));
-            Utils.copyDirectory(this.multiMCExtractedPath.resolve(minecraftFolder + "/").toFile(), this.root.toFile(),
-                    false);
+            fireTask(GetText.tr("Extracting Instance Files"));
+            new ArchiveExtractor(this.multiMCArchive, this.root).folder(getOverridesFolder()).progress(this)
+                    .cancelled(this::isCancelled).extract();
+            readOverridesModMetadata();
         } else if (!pack.vanillaInstance) {
             fireTask(GetText.tr("Downloading Configs"));
 
@@ -1728,15 +1790,13 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 throw new Exception("Failed to download configs for pack!");
             }
 
-            // file is empty, so don't try to extract
-            if (configs.length() == 0L) {
-                return;
-            }
-
             fireSubProgressUnknown();
             fireTask(GetText.tr("Extracting Configs"));
 
-            ArchiveUtils.extract(configs.toPath(), this.root);
+            // only what's changed since the last configs were applied is written, with unchanged files moved back from
+            // where the reinstall moved them to
+            ConfigsDelta.forDirectory(this.root).rollback(this.rollback).apply(configs.toPath(), this,
+                    this::isCancelled);
             Utils.delete(configs);
         }
     }
@@ -1783,53 +1843,14 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Checking Mods On CurseForge"));
         fireSubProgressUnknown();
 
-        Map<Long, DisableableMod> murmurHashes = new HashMap<>();
+        Map<DisableableMod, Path> modsToCheck = new LinkedHashMap<>();
 
         this.modsInstalled.stream().filter(dm -> dm.curseForgeProject == null && dm.curseForgeFile == null)
-                .filter(dm -> dm.getFile(root, this.packVersion.minecraft) != null).forEach(dm -> {
-                    try {
-                        long hash = Hashing.murmur(dm.getFile(root, this.packVersion.minecraft).toPath());
-                        murmurHashes.put(hash, dm);
-                    } catch (Throwable t) {
-                        LogManager.logStackTrace(t);
-                    }
-                });
-
-        if (murmurHashes.size() != 0) {
-            CurseForgeFingerprint fingerprintResponse = CurseForgeApi
-                    .checkFingerprints(murmurHashes.keySet().stream().toArray(Long[]::new));
-
-            if (fingerprintResponse != null && fingerprintResponse.exactMatches != null) {
-                int[] projectIdsFound = fingerprintResponse.exactMatches.stream().mapToInt(em -> em.id).toArray();
-
-                if (projectIdsFound.length != 0) {
-                    Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi.getProjectsAsMap(projectIdsFound);
-
-                    if (foundProjects != null) {
-                        fingerprintResponse.exactMatches.stream()
-                                .filter(em -> murmurHashes.containsKey(em.file.packageFingerprint))
-                                .forEach(foundMod -> {
-                                    DisableableMod dm = murmurHashes.get(foundMod.file.packageFingerprint);
+                .filter(dm -> dm.getFile(root, this.packVersion.minecraft) != null)
+                .forEach(dm -> modsToCheck.put(dm, dm.getFile(root, this.packVersion.minecraft).toPath()));
 
-                                    // add CurseForge information
-                                    dm.curseForgeProjectId = foundMod.id;
-                                    dm.curseForgeFile = foundMod.file;
-                                    dm.curseForgeFileId = foundMod.file.id;
-
-                                    CurseForgeProject curseForgeProject = foundProjects.get(foundMod.id);
-
-                                    if (curseForgeProject != null) {
-                                        dm.curseForgeProject = curseForgeProject;
-                                        dm.name = curseForgeProject.name;
-                                        dm.description = curseForgeProject.summary;
-                                    }
-
-                                    LogManager.debug("Found matching mod from CurseForge called "
-                                            + dm.curseForgeFile.displayName);
-                                });
-                    }
-                }
-            }
+        if (modsToCheck.size() != 0) {
+            CurseForgeApi.addCurseForgeInformation(modsToCheck);
         }
     }
 
@@ -1941,18 +1962,45 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         }
     }
 
+    /**
+     * Moves a file the reinstall removed back into place if it's the same as what's about to be downloaded.
+     */
+    private void restoreIfUnchanged(Path file, String sha1) {
+        if (this.rollback == null || sha1 == null) {
+            return;
+        }
+
+        Path removed = this.rollback.getRemovedFile(file);
+
+        if (removed != null && Files.isRegularFile(removed)
+                && Hashing.sha1(removed).toString().equalsIgnoreCase(sha1)) {
+            this.rollback.restore(file);
+        }
+    }
+
+    /**
+     * Removes a file or folder from the instance, so that it's put back if this is a reinstall which doesn't finish.
+     */
+    private void removeFile(Path path) {
+        if (this.rollback != null) {
+            this.rollback.remove(path);
+        } else {
+            FileUtils.delete(path);
+        }
+    }
+
     protected void prepareFilesystem() throws Exception {
         if (isReinstall || isServer) {
-            if (Files.isDirectory(this.root.resolve("bin"))) {
-                FileUtils.deleteDirectory(this.root.resolve("bin"));
-            }
+            List<String> pathsToDelete = new ArrayList<>();
+            pathsToDelete.add("bin");
 
-            if (instance == null
-                    || (!instance.launcher.vanillaInstance && Files.isDirectory(this.root.resolve("config")))) {
-                FileUtils.deleteDirectory(this.root.resolve("config"));
+            if (instance == null || !instance.launcher.vanillaInstance) {
+                pathsToDelete.add("config");
             }
 
-            if (isReinstall) {
+            if (this.modsDelta != null) {
+                this.modsDelta.apply();
+            } else if (isReinstall) {
                 if (Files.isDirectory(this.root.resolve("mods"))) {
                     Utils.deleteWithFilter(this.root.resolve("mods").toFile(),
                             instance.getPackMods(com.atlauncher.data.Type.mods), true);
@@ -1971,23 +2019,21 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                             instance.getPackMods(com.atlauncher.data.Type.forge), true);
                 }
             } else {
-                FileUtils.deleteDirectory(this.root.resolve("mods"));
-
-                if (isReinstall && Files.isDirectory(this.root.resolve("jarmods"))) {
-                    FileUtils.deleteDirectory(this.root.resolve("jarmods"));
-                }
+                pathsToDelete.add("mods");
             }
 
             if (isReinstall) {
-                if (Files.exists(this.root.resolve("texturepacks/TexturePack.zip"))) {
-                    FileUtils.delete(this.root.resolve("texturepacks/TexturePack.zip"));
-                }
-
-                if (Files.exists(this.root.resolve("resourcepacks/ResourcePack.zip"))) {
-                    FileUtils.delete(this.root.resolve("resourcepacks/ResourcePack.zip"));
-                }
+                pathsToDelete.add("texturepacks/TexturePack.zip");
+                pathsToDelete.add("resourcepacks/ResourcePack.zip");
             } else {
-                FileUtils.deleteDirectory(this.root.resolve("libraries"));
+                pathsToDelete.add("libraries");
+            }
+
+            if (this.rollback != null) {
+                pathsToDelete.forEach(path -> this.rollback.remove(this.root.resolve(path)));
+            } else if (Files.isDirectory(this.root)) {
+                // one walk which only goes into what's being deleted, rather than one per directory
+                FileUtils.deleteDirectory(this.root, PathFilter.include(pathsToDelete));
             }
 
             if (isReinstall && this.packVersion.deletes != null) {
@@ -1998,7 +2044,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                         if (delete.isAllowed()) {
                             File file = delete.getFile(this.root.toFile());
                             if (file.exists()) {
-                                Utils.delete(file);
+                                removeFile(file.toPath());
                             }
                         }
                     }
@@ -2009,27 +2055,32 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                         if (delete.isAllowed()) {
                             File file = delete.getFile(this.root.toFile());
                             if (file.exists()) {
-                                Utils.delete(file);
+                                removeFile(file.toPath());
                             }
                         }
                     }
                 }
             }
 
-            // delete all files downloaded previously if modpacks.ch pack
+            // delete all files downloaded previously if modpacks.ch pack which are no longer in the pack, anything
+            // still in the pack is checked against its hash when downloading the configs
             if (isReinstall && instance != null && instance.isModpacksChPack()) {
+                Set<Path> newFiles = this.modpacksChPackVersionManifest == null ? Collections.emptySet()
+                        : this.modpacksChPackVersionManifest.files.stream()
+                                .filter(f -> f.type != ModpacksChPackVersionManifectFileType.MOD)
+                                .map(file -> instance.ROOT.resolve((file.path.substring(0, 2).equalsIgnoreCase("./")
+                                        ? file.path.substring(2)
+                                        : file.path) + file.name))
+                                .collect(Collectors.toSet());
+
                 instance.launcher.modpacksChPackVersionManifest.files.stream()
                         .filter(f -> f.type != ModpacksChPackVersionManifectFileType.MOD)
                         .map(file -> instance.ROOT.resolve(
                                 (file.path.substring(0, 2).equalsIgnoreCase("./") ? file.path.substring(2) : file.path)
                                         + file.name))
-                        .forEach(path -> {
+                        .filter(path -> !newFiles.contains(path)).forEach(path -> {
                             if (Files.exists(path) && !Files.isDirectory(path)) {
-                                try {
-                                    Files.delete(path);
-                                } catch (IOException e) {
-                                    LogManager.logStackTrace(e);
-                                }
+                                removeFile(path);
                             }
                         });
 
@@ -0,0 +1,155 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.atlauncher.data.DisableableMod;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.Type;
+import com.atlauncher.data.json.Mod;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Hashing;
+
+/**
+ * Works out which pack mods actually changed between what's installed in an instance and what a reinstall/update is
+ * about to install, so that only those files are removed and installed again.
+ *
+ * Files that are removed go through the installs {@link InstallRollback}, so that if the install fails they can be put
+ * back.
+ */
+public class ModsDelta {
+    // the types which get cleaned out of the instance on a reinstall and are a single file copied into place
+    private static final List<Type> DIFFABLE_TYPES = Arrays.asList(Type.mods, Type.coremods, Type.jar, Type.forge);
+
+    private final Instance instance;
+    private final Path root;
+    private final InstallRollback rollback;
+    private final String minecraftVersion;
+
+    private final Map<Mod, DisableableMod> selectedMods = new LinkedHashMap<>();
+    private final Set<Mod> unchangedMods = Collections.synchronizedSet(new HashSet<>());
+
+    public ModsDelta(Instance instance, Path root, InstallRollback rollback, String minecraftVersion) {
+        this.instance = instance;
+        this.root = root;
+        this.rollback = rollback;
+        this.minecraftVersion = minecraftVersion;
+    }
+
+    public void addSelectedMod(Mod mod, DisableableMod disableableMod) {
+        this.selectedMods.put(mod, disableableMod);
+    }
+
+    public boolean isUnchanged(Mod mod) {
+        return this.unchangedMods.contains(mod);
+    }
+
+    /**
+     * Compares the installed pack mods against the selected mods and moves out of the way any installed files which
+     * are no longer wanted or have changed.
+     */
+    public void apply() {
+        Map<Path, DisableableMod> installedFiles = new HashMap<>();
+
+        this.instance.launcher.mods.stream()
+                .filter(dm -> !dm.userAdded && !dm.disabled && DIFFABLE_TYPES.contains(dm.type)).forEach(dm -> {
+                    File file = dm.getFile(this.root, this.instance.id);
+
+                    if (file != null && file.exists()) {
+                        installedFiles.put(file.toPath(), dm);
+                    }
+                });
+
+        Set<Path> keptFiles = Collections.synchronizedSet(new HashSet<>());
+
+        this.selectedMods.entrySet().parallelStream().filter(e -> DIFFABLE_TYPES.contains(e.getValue().type))
+                .forEach(e -> {
+                    File file = e.getValue().getFile(this.root, this.minecraftVersion);
+
+                    if (file == null) {
+                        return;
+                    }
+
+                    DisableableMod installed = installedFiles.get(file.toPath());
+
+                    if (installed != null && fileMatches(e.getKey(), installed, file.toPath())) {
+                        this.unchangedMods.add(e.getKey());
+                        keptFiles.add(file.toPath());
+                    }
+                });
+
+        List<Path> filesToRemove = installedFiles.keySet().stream().filter(p -> !keptFiles.contains(p))
+                .collect(Collectors.toList());
+
+        filesToRemove.forEach(this.rollback::remove);
+
+        // anything not already on disk at this point is new, and is what gets removed again on rollback
+        int addedCount = 0;
+        for (Map.Entry<Mod, DisableableMod> selected : this.selectedMods.entrySet()) {
+            DisableableMod dm = selected.getValue();
+
+            if (DIFFABLE_TYPES.contains(dm.type) && !this.unchangedMods.contains(selected.getKey())) {
+                File file = dm.getFile(this.root, this.minecraftVersion);
+
+                if (file != null && !file.exists()) {
+                    this.rollback.added(file.toPath());
+                    addedCount++;
+                }
+            }
+        }
+
+        LogManager.info(String.format("Mods delta: %d unchanged, %d to install, %d removed",
+                this.unchangedMods.size(), addedCount, filesToRemove.size()));
+    }
+
+    private boolean fileMatches(Mod mod, DisableableMod installed, Path file) {
+        try {
+            if (mod.fingerprint != null) {
+                return Hashing.murmur(file) == mod.fingerprint;
+            }
+
+            if (mod.sha1 != null) {
+                return Hashing.sha1(file).equals(Hashing.HashCode.fromString(mod.sha1));
+            }
+
+            if (mod.md5 != null) {
+                return Hashing.md5(file).equals(Hashing.HashCode.fromString(mod.md5));
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to hash " + file + " when checking for changes", e);
+            return false;
+        }
+
+        // no hash to go off, so only consider it the same if the version and size haven't changed
+        return mod.version != null && mod.version.equals(installed.version) && mod.filesize > 0
+                && file.toFile().length() == mod.filesize;
+    }
+}
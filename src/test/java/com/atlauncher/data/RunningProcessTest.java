@@ -0,0 +1,135 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.atlauncher.evnt.LogEvent.LogType;
+import com.atlauncher.utils.MinecraftLogClassifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RunningProcessTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testThatOutputIsSplitIntoCensoredLines() throws Exception {
+        List<String> handled = new ArrayList<>();
+        RunningProcess runningProcess = new RunningProcess("test",
+                new ExitedProcess("first\r\nsecret second\nthird without newline"), tempDir,
+                MinecraftLogClassifier.getDefault().censoring(Collections.singletonMap("secret", "**SECRET**")),
+                result -> handled.add(result.line));
+
+        // a tiny buffer so lines get split across reads
+        byte[] buffer = new byte[4];
+        while (runningProcess.pump(buffer)) {
+        }
+        assertFalse(runningProcess.pump(buffer));
+
+        List<String> expected = Arrays.asList("first", "**SECRET** second", "third without newline");
+
+        assertTrue(runningProcess.isFinished());
+        assertEquals(expected, handled);
+        assertEquals(expected, runningProcess.getBufferedLines());
+        assertEquals(3, runningProcess.getTotalLines());
+        assertEquals(expected, Files.readAllLines(tempDir.resolve(RunningProcess.LOG_FILE_NAME)));
+    }
+
+    @Test
+    public void testThatListenersAreGivenBufferedLinesFirst() {
+        List<MinecraftLogClassifier.Result> handled = new ArrayList<>();
+        RunningProcess runningProcess = new RunningProcess("test",
+                new ExitedProcess("one\n[main/WARN]: two\n"), null, MinecraftLogClassifier.getDefault(),
+                handled::add);
+
+        runningProcess.pump(new byte[4]);
+
+        List<MinecraftLogClassifier.Result> listened = new ArrayList<>();
+        runningProcess.addLineListener(listened::add);
+
+        while (runningProcess.pump(new byte[4])) {
+        }
+
+        assertEquals(2, listened.size());
+        assertEquals("one", listened.get(0).line);
+        assertEquals(LogType.WARN, listened.get(1).type);
+
+        // each line is only classified once, with the handler and listeners given the same result
+        assertSame(handled.get(0), listened.get(0));
+        assertSame(handled.get(1), listened.get(1));
+    }
+
+    private static class ExitedProcess extends Process {
+        private final InputStream inputStream;
+
+        private ExitedProcess(String output) {
+            this.inputStream = new ByteArrayInputStream(output.getBytes(Charset.defaultCharset()));
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return this.inputStream;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public boolean isAlive() {
+            return false;
+        }
+    }
+}
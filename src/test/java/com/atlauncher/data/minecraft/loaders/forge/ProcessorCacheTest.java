@@ -0,0 +1,74 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders.forge;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProcessorCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPruning() throws IOException {
+        long now = System.currentTimeMillis();
+        ProcessorCache cache = new ProcessorCache();
+
+        cache.putRun("recent", runWithCopy("recent"));
+        cache.putRun("old", runWithCopy("old"));
+        cache.getRun("old").lastUsed = now - TimeUnit.DAYS.toMillis(365);
+
+        ProcessorCache.CachedRun missingCopy = runWithCopy("missing");
+        Files.delete(tempDir.resolve("missing/0-output.jar"));
+        cache.putRun("missing", missingCopy);
+
+        Files.createDirectories(tempDir.resolve("orphaned"));
+
+        cache.prune(tempDir, now);
+
+        assertNotNull(cache.getRun("recent"));
+        assertNull(cache.getRun("old"));
+        assertNull(cache.getRun("missing"));
+        assertTrue(Files.exists(tempDir.resolve("recent/0-output.jar")));
+        assertFalse(Files.exists(tempDir.resolve("old")));
+        assertFalse(Files.exists(tempDir.resolve("orphaned")));
+    }
+
+    private ProcessorCache.CachedRun runWithCopy(String signature) throws IOException {
+        Path copy = Files.createDirectories(tempDir.resolve(signature)).resolve("0-output.jar");
+        Files.write(copy, new byte[] { 1 });
+
+        ProcessorCache.CachedFile output = new ProcessorCache.CachedFile("sha1", 1, 0);
+        output.copy = copy.toAbsolutePath().toString();
+
+        ProcessorCache.CachedRun run = new ProcessorCache.CachedRun();
+        run.outputs.put("{INSTALLER}/output.jar", output);
+
+        return run;
+    }
+}
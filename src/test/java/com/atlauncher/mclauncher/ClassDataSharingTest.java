@@ -0,0 +1,58 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ClassDataSharingTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testThatArchiveKeyChangesWithModsClasspathAndFlags() throws IOException {
+        Path javaRoot = Files.createDirectories(tempDir.resolve("java"));
+        Path mods = Files.createDirectories(tempDir.resolve("mods"));
+        Path library = Files.write(tempDir.resolve("library.jar"), "library".getBytes(StandardCharsets.UTF_8));
+        String classpath = library.toAbsolutePath().toString();
+
+        String key = ClassDataSharing.getArchiveKey(javaRoot, classpath, mods, Collections.emptyList());
+        assertEquals(key, ClassDataSharing.getArchiveKey(javaRoot, classpath, mods, Collections.emptyList()));
+
+        Files.write(mods.resolve("mod.jar"), "mod".getBytes(StandardCharsets.UTF_8));
+        String withMod = ClassDataSharing.getArchiveKey(javaRoot, classpath, mods, Collections.emptyList());
+        assertNotEquals(key, withMod);
+
+        Files.write(library, "a newer library".getBytes(StandardCharsets.UTF_8));
+        String withNewLibrary = ClassDataSharing.getArchiveKey(javaRoot, classpath, mods, Collections.emptyList());
+        assertNotEquals(withMod, withNewLibrary);
+
+        assertNotEquals(withNewLibrary,
+                ClassDataSharing.getArchiveKey(javaRoot, classpath, mods, Arrays.asList("-XX:+UseZGC")));
+    }
+}
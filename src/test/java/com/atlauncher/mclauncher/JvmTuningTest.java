@@ -0,0 +1,96 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.atlauncher.constants.Constants;
+import com.atlauncher.data.JvmTuningProfile;
+
+import org.junit.jupiter.api.Test;
+
+public class JvmTuningTest {
+    @Test
+    public void testThatHeavyForgePacksGetG1WithoutChangingTheHeapSize() {
+        JvmTuning tuning = JvmTuning.builder().profile(JvmTuningProfile.AUTOMATIC).javaMajorVersion(8).modCount(200)
+                .forge(true).processors(4).systemRam(32768).initialMemory(512).maximumMemory(4096)
+                .javaArguments(Constants.DEFAULT_JAVA_PARAMETERS).build();
+
+        assertEquals(JvmTuningProfile.THROUGHPUT, tuning.profile);
+        assertEquals(4096, tuning.maximumMemory);
+        assertEquals(512, tuning.initialMemory);
+        assertEquals(7168, tuning.recommendedMemory);
+        assertTrue(tuning.isBelowRecommendedMemory());
+        assertEquals("", tuning.javaArguments);
+        assertTrue(tuning.arguments.contains("-XX:+UseG1GC"));
+        assertTrue(tuning.arguments.contains("-XX:G1HeapRegionSize=8M"));
+        assertFalse(tuning.arguments.contains("-XX:+AlwaysPreTouch"));
+    }
+
+    @Test
+    public void testThatTheRecommendedMemoryIsOnlyUsedWhenAskedFor() {
+        JvmTuning.Builder builder = JvmTuning.builder().profile(JvmTuningProfile.AUTOMATIC).modCount(200).forge(true)
+                .systemRam(32768).maximumMemory(4096).useRecommendedMemory(true);
+
+        assertEquals(7168, builder.build().maximumMemory);
+        assertFalse(builder.build().isBelowRecommendedMemory());
+        assertEquals(4096, builder.profile(JvmTuningProfile.THROUGHPUT).build().maximumMemory);
+        assertEquals(4096, builder.profile(JvmTuningProfile.AUTOMATIC).useRecommendedMemory(false).build()
+                .maximumMemory);
+    }
+
+    @Test
+    public void testThatTheInitialMemoryIsNeverAboveTheMaximum() {
+        JvmTuning tuning = JvmTuning.builder().profile(JvmTuningProfile.AUTOMATIC).modCount(10).systemRam(8192)
+                .initialMemory(8192).maximumMemory(6144).build();
+
+        assertEquals(6144, tuning.maximumMemory);
+        assertEquals(6144, tuning.initialMemory);
+        assertFalse(tuning.isBelowRecommendedMemory());
+        assertTrue(tuning.arguments.contains("-XX:+AlwaysPreTouch"));
+    }
+
+    @Test
+    public void testThatUsersGcChoiceIsKept() {
+        JvmTuning tuning = JvmTuning.builder().profile(JvmTuningProfile.LOW_LATENCY).javaMajorVersion(17)
+                .linux(true).modCount(10).systemRam(16384).initialMemory(512).maximumMemory(4096)
+                .javaArguments("-XX:+UseShenandoahGC -XX:-AlwaysPreTouch").build();
+
+        assertEquals("-XX:+UseShenandoahGC -XX:-AlwaysPreTouch", tuning.javaArguments);
+        assertFalse(tuning.arguments.stream().anyMatch(argument -> argument.contains("GC")));
+        assertFalse(tuning.arguments.contains("-XX:+AlwaysPreTouch"));
+        assertTrue(tuning.arguments.contains("-XX:+UseTransparentHugePages"));
+    }
+
+    @Test
+    public void testThatLowLatencyUsesZgcOnlyWhereItsAvailable() {
+        JvmTuning java21 = JvmTuning.builder().profile(JvmTuningProfile.LOW_LATENCY).javaMajorVersion(21).build();
+        JvmTuning java11 = JvmTuning.builder().profile(JvmTuningProfile.LOW_LATENCY).javaMajorVersion(11).build();
+        JvmTuning disabled = JvmTuning.builder().profile(JvmTuningProfile.DISABLED).javaArguments("-Dfoo=bar")
+                .build();
+
+        assertTrue(java21.arguments.contains("-XX:+UseZGC"));
+        assertTrue(java21.arguments.contains("-XX:+ZGenerational"));
+        assertTrue(java11.arguments.contains("-XX:+UseG1GC"));
+        assertTrue(java11.arguments.contains("-XX:MaxGCPauseMillis=50"));
+        assertTrue(disabled.arguments.isEmpty());
+        assertEquals("-Dfoo=bar", disabled.javaArguments);
+    }
+}
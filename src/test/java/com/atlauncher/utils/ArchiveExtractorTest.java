@@ -0,0 +1,150 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import com.atlauncher.data.minecraft.ExtractRule;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArchiveExtractorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testExtract() throws IOException {
+        byte[] largeStored = new byte[3 * 1024 * 1024];
+        new Random(1).nextBytes(largeStored);
+        byte[] config = new byte[100000];
+
+        Path archive = tempDir.resolve("archive.zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive.toFile())) {
+            ZipArchiveEntry directory = new ZipArchiveEntry("saves/");
+            zos.putArchiveEntry(directory);
+            zos.closeArchiveEntry();
+
+            ZipTestUtils.writeEntry(zos, "mods/mod.jar", largeStored, ZipArchiveEntry.STORED);
+            ZipTestUtils.writeEntry(zos, "config/sub/mod.cfg", config, ZipArchiveEntry.DEFLATED);
+            ZipTestUtils.writeEntry(zos, "options.txt", "fov:70".getBytes(StandardCharsets.UTF_8),
+                    ZipArchiveEntry.DEFLATED);
+        }
+
+        Path target = tempDir.resolve("target");
+        new ArchiveExtractor(archive, target).extract();
+
+        assertTrue(Files.isDirectory(target.resolve("saves")));
+        assertArrayEquals(largeStored, Files.readAllBytes(target.resolve("mods/mod.jar")));
+        assertArrayEquals(config, Files.readAllBytes(target.resolve("config/sub/mod.cfg")));
+        assertArrayEquals("fov:70".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target.resolve("options.txt")));
+    }
+
+    @Test
+    public void testFolder() throws IOException {
+        Path archive = tempDir.resolve("archive.zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archive.toFile())) {
+            ZipTestUtils.writeEntry(zos, "manifest.json", "{}".getBytes(StandardCharsets.UTF_8),
+                    ZipArchiveEntry.DEFLATED);
+            ZipTestUtils.writeEntry(zos, "overrides/config/mod.cfg", new byte[] { 1, 2, 3 }, ZipArchiveEntry.DEFLATED);
+            ZipTestUtils.writeEntry(zos, "overrides/mods/mod.jar", new byte[] { 4, 5, 6 }, ZipArchiveEntry.STORED);
+        }
+
+        Path target = tempDir.resolve("target");
+        new ArchiveExtractor(archive, target).folder("overrides").extract();
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(target.resolve("config/mod.cfg")));
+        assertArrayEquals(new byte[] { 4, 5, 6 }, Files.readAllBytes(target.resolve("mods/mod.jar")));
+        assertFalse(Files.exists(target.resolve("manifest.json")));
+        assertFalse(Files.exists(target.resolve("overrides")));
+    }
+
+    @Test
+    public void testEntriesOutsideOfTheTargetAreNotExtracted() throws IOException {
+        Path archive = ZipTestUtils.writeZip(tempDir.resolve("archive.zip"), "../escaped.txt", new byte[] { 1 },
+                "config/../../escaped2.txt", new byte[] { 2 },
+                tempDir.resolve("absolute.txt").toAbsolutePath().toString(), new byte[] { 3 },
+                "config/../inside.txt", new byte[] { 4 });
+
+        Path target = Files.createDirectories(tempDir.resolve("nested/target"));
+        new ArchiveExtractor(archive, target).extract();
+
+        assertFalse(Files.exists(tempDir.resolve("nested/escaped.txt")));
+        assertFalse(Files.exists(tempDir.resolve("escaped2.txt")));
+        assertFalse(Files.exists(tempDir.resolve("absolute.txt")));
+        assertArrayEquals(new byte[] { 4 }, Files.readAllBytes(target.resolve("inside.txt")));
+    }
+
+    @Test
+    public void testExtractRule() throws IOException {
+        Path archive = ZipTestUtils.writeZip(tempDir.resolve("natives.jar"), "META-INF/MANIFEST.MF", new byte[] { 1 },
+                "liblwjgl.so", new byte[] { 2 });
+
+        ExtractRule extractRule = new ExtractRule();
+        extractRule.exclude = Collections.singletonList("META-INF/");
+
+        Path target = tempDir.resolve("natives");
+        new ArchiveExtractor(archive, target).extractRule(extractRule).extract();
+
+        assertFalse(Files.exists(target.resolve("META-INF")));
+        assertArrayEquals(new byte[] { 2 }, Files.readAllBytes(target.resolve("liblwjgl.so")));
+    }
+
+    @Test
+    public void testOnlyTheLastEntryExtractedToTheSamePlaceIsWritten() throws IOException {
+        Object[] namesAndContents = new Object[100];
+        for (int i = 0; i < 50; i++) {
+            byte[] contents = new byte[65536];
+            Arrays.fill(contents, (byte) i);
+
+            namesAndContents[i * 2] = "package" + i + "/aux.class";
+            namesAndContents[i * 2 + 1] = contents;
+        }
+        Path archive = ZipTestUtils.writeZip(tempDir.resolve("archive.zip"), namesAndContents);
+
+        Path target = tempDir.resolve("extracted");
+        new ArchiveExtractor(archive, target).threads(4)
+                .nameMapper(name -> name.endsWith("aux.class") ? "aux_class" : name).extract();
+
+        byte[] expected = new byte[65536];
+        Arrays.fill(expected, (byte) 49);
+        assertArrayEquals(expected, Files.readAllBytes(target.resolve("aux_class")));
+    }
+
+    @Test
+    public void testCancelling() throws IOException {
+        Path archive = ZipTestUtils.writeZip(tempDir.resolve("archive.zip"), "options.txt", new byte[] { 1 });
+
+        assertThrows(InterruptedIOException.class,
+                () -> new ArchiveExtractor(archive, tempDir.resolve("target")).cancelled(() -> true).extract());
+    }
+}
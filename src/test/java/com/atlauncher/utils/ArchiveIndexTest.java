@@ -0,0 +1,152 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArchiveIndexTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRead() throws IOException {
+        byte[] classFile = new byte[20000];
+        new Random(1).nextBytes(classFile);
+
+        Path jar = tempDir.resolve("mod.jar");
+        ZipTestUtils.writeZip(jar, "fabric.mod.json", "{\"id\": \"mod\"}", "com/mod/Mod.class", classFile);
+
+        ArchiveIndex index = ArchiveIndex.forFile(jar);
+
+        assertTrue(index.contains("fabric.mod.json"));
+        assertFalse(index.contains("mcmod.info"));
+        assertNull(index.read("mcmod.info"));
+        assertArrayEquals(classFile, index.read("com/mod/Mod.class"));
+
+        Map<String, byte[]> contents = index.read(Arrays.asList("mcmod.info", "fabric.mod.json"));
+        assertEquals(1, contents.size());
+        assertEquals("{\"id\": \"mod\"}", new String(contents.get("fabric.mod.json"), StandardCharsets.UTF_8));
+
+        assertEquals("{\"id\": \"mod\"}", ArchiveUtils.getFile(jar, "fabric.mod.json"));
+    }
+
+    @Test
+    public void testThatTheCacheIsInvalidatedWhenTheFileChanges() throws IOException {
+        Path jar = tempDir.resolve("mod.jar");
+        ZipTestUtils.writeZip(jar, "mcmod.info", new byte[] { 1 });
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000));
+
+        ArchiveIndex index = ArchiveIndex.forFile(jar);
+        assertSame(index, ArchiveIndex.forFile(jar));
+
+        ZipTestUtils.writeZip(jar, "fabric.mod.json", new byte[] { 2 });
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(2000000));
+
+        assertTrue(ArchiveIndex.forFile(jar).contains("fabric.mod.json"));
+        assertFalse(ArchiveIndex.forFile(jar).contains("mcmod.info"));
+    }
+
+    @Test
+    public void testThatNonZipsThrow() throws IOException {
+        Path file = tempDir.resolve("not-a-zip.jar");
+        Files.write(file, "not a zip".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ZipException.class, () -> ArchiveIndex.forFile(file));
+    }
+
+    @Test
+    public void testThatZipsWithAPrefixThrow() throws IOException {
+        Path jar = tempDir.resolve("mod.jar");
+        ZipTestUtils.writeZip(jar, "mcmod.info", new byte[] { 1 });
+
+        Path prefixed = tempDir.resolve("prefixed.jar");
+        Files.write(prefixed, new byte[4096]);
+        Files.write(prefixed, Files.readAllBytes(jar), StandardOpenOption.APPEND);
+
+        assertThrows(ZipException.class, () -> ArchiveIndex.forFile(prefixed));
+        assertEquals("\u0001", ArchiveUtils.getFile(prefixed, "mcmod.info"));
+    }
+
+    @Test
+    public void testThatEveryEntryOfTheDependencyJarsMatchesZipFile() throws IOException {
+        List<Path> jars = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> entry.endsWith(".jar")).map(Paths::get).filter(Files::isRegularFile)
+                .collect(Collectors.toList());
+        int checked = 0;
+
+        for (Path jar : jars) {
+            ArchiveIndex index;
+            try {
+                index = ArchiveIndex.forFile(jar);
+            } catch (ZipException e) {
+                // anything the index doesn't handle falls back to a full zip library
+                continue;
+            }
+
+            try (ZipFile zip = new ZipFile(jar.toFile())) {
+                Set<String> names = new HashSet<>();
+
+                for (ZipEntry entry : Collections.list(zip.entries())) {
+                    names.add(entry.getName());
+
+                    try (InputStream is = zip.getInputStream(entry)) {
+                        assertArrayEquals(IOUtils.toByteArray(is), index.read(entry.getName()),
+                                entry.getName() + " in " + jar);
+                    }
+                }
+
+                assertEquals(names, index.getNames(), jar.toString());
+            }
+
+            checked++;
+        }
+
+        assertTrue(checked != 0, "None of " + jars.size() + " jars on the class path could be checked");
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import com.atlauncher.utils.walker.PathFilter;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArchiveUtilsTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCreateZipInParallel() throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        Files.createDirectories(source.resolve("config/sub"));
+        Files.createDirectories(source.resolve("mods"));
+
+        byte[] jar = new byte[100000];
+        new Random(1).nextBytes(jar);
+        byte[] config = new byte[100000];
+
+        Files.write(source.resolve("config/sub/mod.cfg"), config);
+        Files.write(source.resolve("mods/mod.jar"), jar);
+        Files.write(source.resolve("options.txt"), "fov:70".getBytes(StandardCharsets.UTF_8));
+
+        Path archive = tempDir.resolve("archive.zip");
+        ArchiveUtils.createZip(source, archive, PathFilter.ALL.exclude("options.txt"), true);
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            ZipArchiveEntry configEntry = zip.getEntry("config/sub/mod.cfg");
+            ZipArchiveEntry jarEntry = zip.getEntry("mods/mod.jar");
+
+            assertEquals(ZipArchiveEntry.DEFLATED, configEntry.getMethod());
+            assertEquals(ZipArchiveEntry.STORED, jarEntry.getMethod());
+            assertNull(zip.getEntry("options.txt"));
+
+            try (InputStream is = zip.getInputStream(configEntry)) {
+                assertArrayEquals(config, IOUtils.toByteArray(is));
+            }
+
+            try (InputStream is = zip.getInputStream(jarEntry)) {
+                assertArrayEquals(jar, IOUtils.toByteArray(is));
+            }
+        }
+    }
+
+    @Test
+    public void testCreateZipSkipsFilteredDirectories() throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        Files.createDirectories(source.resolve("saves/world"));
+        Files.createDirectories(source.resolve("libraries"));
+
+        Files.write(source.resolve("saves/world/level.dat"), new byte[] { 1, 2, 3 });
+        Files.write(source.resolve("libraries/lib.jar"), new byte[] { 4, 5, 6 });
+
+        Path archive = tempDir.resolve("archive.zip");
+        ArchiveUtils.createZip(source, archive, PathFilter.include("saves"), false);
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertNull(zip.getEntry("libraries/lib.jar"));
+
+            try (InputStream is = zip.getInputStream(zip.getEntry("saves/world/level.dat"))) {
+                assertArrayEquals(new byte[] { 1, 2, 3 }, IOUtils.toByteArray(is));
+            }
+        }
+    }
+
+    @Test
+    public void testGetFileNames() throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        Files.createDirectories(source.resolve("overrides/config"));
+        Files.createDirectories(source.resolve("overrides/mods"));
+
+        Files.write(source.resolve("manifest.json"), "{}".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("overrides/config/mod.cfg"), new byte[] { 1, 2, 3 });
+        Files.write(source.resolve("overrides/mods/mod.jar"), new byte[] { 4, 5, 6 });
+
+        Path archive = tempDir.resolve("archive.zip");
+        ArchiveUtils.createZip(source, archive, PathFilter.ALL, false);
+
+        assertEquals(
+                new HashSet<>(Arrays.asList("manifest.json", "overrides/config/mod.cfg", "overrides/mods/mod.jar")),
+                ArchiveUtils.getFileNames(archive));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.utils.walker.PathFilter;
+
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArchiveWriterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testThatFilesFromMemoryAndDiskAreWrittenWithProgress() throws IOException {
+        Path instance = Files.createDirectories(tempDir.resolve("instance"));
+        Files.createDirectories(instance.resolve("config"));
+        Files.createDirectories(instance.resolve("mods"));
+        Files.write(instance.resolve("config/mod.cfg"), new byte[] { 1, 2, 3 });
+        Files.write(instance.resolve("mods/curseforge.jar"), new byte[] { 4, 5, 6 });
+        Files.write(instance.resolve("mods/custom.jar"), new byte[] { 7, 8 });
+
+        for (boolean parallel : new boolean[] { false, true }) {
+            AtomicLong written = new AtomicLong();
+            AtomicLong total = new AtomicLong();
+            Path archive = tempDir.resolve("export-" + parallel + ".zip");
+
+            new ArchiveWriter().parallel(parallel).tempDirectory(tempDir)
+                    .addFile("manifest.json", "{}".getBytes(StandardCharsets.UTF_8))
+                    .addDirectory("overrides/", instance,
+                            PathFilter.include("config", "mods").exclude("mods/curseforge.jar"))
+                    .write(archive, new NetworkProgressable() {
+                        @Override
+                        public void setTotalBytes(long bytes) {
+                            total.set(bytes);
+                        }
+
+                        @Override
+                        public void addDownloadedBytes(long bytes) {
+                            written.addAndGet(bytes);
+                        }
+
+                        @Override
+                        public void addBytesToDownload(long bytes) {
+                            total.addAndGet(bytes);
+                        }
+                    });
+
+            assertEquals(7, total.get());
+            assertEquals(7, written.get());
+
+            try (ZipFile zip = new ZipFile(archive.toFile())) {
+                assertNull(zip.getEntry("overrides/mods/curseforge.jar"));
+
+                try (InputStream is = zip.getInputStream(zip.getEntry("manifest.json"))) {
+                    assertEquals("{}", new String(IOUtils.toByteArray(is), StandardCharsets.UTF_8));
+                }
+
+                try (InputStream is = zip.getInputStream(zip.getEntry("overrides/mods/custom.jar"))) {
+                    assertArrayEquals(new byte[] { 7, 8 }, IOUtils.toByteArray(is));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.sangupta.murmur.Murmur2;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HashingTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testThatMurmurMatchesCurseForgeFingerprint() throws IOException {
+        Random random = new Random(1);
+
+        for (int size : new int[] { 0, 1, 2, 3, 4, 5, 7, 100, 65535, 65536, 65537, 200003 }) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+
+            // make sure there's plenty of whitespace to strip out
+            for (int i = 0; i < size; i += 7) {
+                bytes[i] = (byte) new int[] { 9, 10, 13, 32 }[random.nextInt(4)];
+            }
+
+            Path file = tempDir.resolve("file-" + size + ".jar");
+            Files.write(file, bytes);
+
+            assertEquals(expectedFingerprint(bytes), Hashing.murmur(file));
+        }
+    }
+
+    private static long expectedFingerprint(byte[] bytes) {
+        byte[] stripped = bytes;
+
+        for (byte whitespace : new byte[] { 9, 10, 13, 32 }) {
+            stripped = ArrayUtils.removeAllOccurrences(stripped, whitespace);
+        }
+
+        return Murmur2.hash(stripped, stripped.length, 1L);
+    }
+}
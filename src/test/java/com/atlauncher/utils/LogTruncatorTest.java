@@ -0,0 +1,62 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.atlauncher.data.LogLine;
+import com.atlauncher.evnt.LogEvent.LogType;
+
+import org.junit.jupiter.api.Test;
+
+public class LogTruncatorTest {
+    @Test
+    public void testThatShortLogsAreLeftAlone() {
+        List<LogLine> lines = Arrays.asList(info("one"), info("two"));
+
+        assertEquals(Arrays.asList("[00:00:00] one", "[00:00:00] two"), LogTruncator.truncate(lines, 2, 0, 0));
+    }
+
+    @Test
+    public void testThatHeadTailAndErrorBlocksAreKept() {
+        List<LogLine> lines = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lines.add(info("line " + i));
+        }
+        lines.add(new LogLine(LogType.ERROR, "[00:00:00] ", "java.lang.RuntimeException: broken"));
+        lines.add(info("\tat com.example.Mod.init(Mod.java:1)"));
+        lines.add(new LogLine(LogType.ERROR, null, "more of the same error"));
+        for (int i = 10; i < 20; i++) {
+            lines.add(info("line " + i));
+        }
+
+        List<String> expected = Arrays.asList("[00:00:00] line 0", "[00:00:00] line 1", "[... 8 lines omitted ...]",
+                "[00:00:00] java.lang.RuntimeException: broken", "[00:00:00] \tat com.example.Mod.init(Mod.java:1)",
+                "more of the same error", "[... 8 lines omitted ...]", "[00:00:00] line 18", "[00:00:00] line 19");
+
+        assertEquals(expected, LogTruncator.truncate(lines, 5, 2, 2));
+    }
+
+    private static LogLine info(String text) {
+        return new LogLine(LogType.INFO, "[00:00:00] ", text);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class MinecraftCrashAnalyserTest {
+    @Test
+    public void testThatKnownProblemsAreFoundOnTheFirstLineTheyAppear() {
+        MinecraftCrashAnalyser analyser = MinecraftCrashAnalyser.forMinecraftVersion("1.16.5");
+
+        analyser.accept("[main/INFO]: Loading Minecraft");
+        analyser.accept("java.lang.OutOfMemoryError: Java heap space");
+        analyser.accept("[main/ERROR]: Mixin apply failed mymod.mixins.json:MixinWorld");
+        analyser.accept("java.lang.OutOfMemoryError: Metaspace");
+        analyser.accept("java.util.ConcurrentModificationException");
+
+        MinecraftCrashAnalyser.Diagnosis diagnosis = analyser.getDiagnosis(1);
+
+        assertTrue(diagnosis.isCrash());
+        assertEquals(2, diagnosis.findings.size());
+        assertEquals(MinecraftCrashAnalyser.OUT_OF_MEMORY, diagnosis.findings.get(0).id);
+        assertEquals(2, diagnosis.findings.get(0).lineNumber);
+        assertTrue(diagnosis.hasFinding(MinecraftCrashAnalyser.MIXIN_FAILURE));
+
+        // the concurrent modification problem only applies to 1.6
+        assertFalse(diagnosis.hasFinding(MinecraftCrashAnalyser.CONCURRENT_MODIFICATION_ERROR_1_6));
+    }
+
+    @Test
+    public void testThatVersionSpecificProblemsAreLoadedForThatVersion() {
+        MinecraftCrashAnalyser analyser = MinecraftCrashAnalyser.forMinecraftVersion("1.6.4");
+
+        analyser.accept("java.util.ConcurrentModificationException");
+
+        assertTrue(analyser.getDiagnosis(1).hasFinding(MinecraftCrashAnalyser.CONCURRENT_MODIFICATION_ERROR_1_6));
+    }
+
+    @Test
+    public void testThatOnlyTheLastLinesAreKept() {
+        MinecraftCrashAnalyser analyser = MinecraftCrashAnalyser.builder()
+                .add("custom", "Something custom broke", "custom failure").contextLines(3).build();
+
+        for (int i = 1; i <= 5; i++) {
+            analyser.accept("line " + i);
+        }
+        analyser.accept("a custom failure happened");
+
+        MinecraftCrashAnalyser.Diagnosis diagnosis = analyser.getDiagnosis(0);
+
+        assertFalse(diagnosis.isCrash());
+        assertTrue(diagnosis.hasFinding("custom"));
+        assertEquals(Arrays.asList("line 4", "line 5", "a custom failure happened"), diagnosis.lastLines);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+
+import com.atlauncher.collection.AhoCorasick;
+import com.atlauncher.evnt.LogEvent.LogType;
+
+import org.junit.jupiter.api.Test;
+
+public class MinecraftLogClassifierTest {
+    private static void assertClassified(String line, LogType type, String message) {
+        MinecraftLogClassifier.Result result = MinecraftLogClassifier.getDefault().classify(line);
+
+        assertEquals(type, result.type);
+        assertEquals(message, result.message);
+    }
+
+    @Test
+    public void testThatLinesAreClassifiedByTheirMarker() {
+        assertClassified("[12:00:00] [Client thread/INFO]: Setting user: Player",
+                LogType.INFO, "[Client thread/INFO]: Setting user: Player");
+        assertClassified("[12:00:00] [Server thread/WARN]: Can't keep up!", LogType.WARN,
+                "[Server thread/WARN]: Can't keep up!");
+        assertClassified("[12:00:00] [main/ERROR]: Mixin apply failed", LogType.ERROR,
+                "[main/ERROR]: Mixin apply failed");
+        assertClassified("Just some output", LogType.INFO, "Just some output");
+    }
+
+    @Test
+    public void testThatEarlierRulesWinOverLaterOnes() {
+        assertClassified("2013-01-01 [INFO] [STDERR] oops", LogType.WARN, "[INFO] [STDERR] oops");
+        assertClassified("2013-01-01 [INFO] [ForgeModLoader] CONFLICT found", LogType.ERROR,
+                "[INFO] [ForgeModLoader] CONFLICT found");
+        assertClassified("2013-01-01 [INFO] overwriting existing item", LogType.WARN,
+                "[INFO] overwriting existing item");
+
+        // Exception keeps the whole line, but [main/INFO] is checked after it
+        assertClassified("[12:00:00] [main/INFO]: java.lang.RuntimeException", LogType.ERROR,
+                "[12:00:00] [main/INFO]: java.lang.RuntimeException");
+    }
+
+    @Test
+    public void testThatTheFirstOccurrenceOfTheMarkerIsUsed() {
+        assertClassified("a [Client thread/WARN] b [Client thread/WARN] c", LogType.WARN,
+                "[Client thread/WARN] b [Client thread/WARN] c");
+    }
+
+    @Test
+    public void testThatReplaceAllPrefersTheLongestMatch() {
+        AhoCorasick<String> censor = AhoCorasick.<String>builder().add("Player", "**NAME**")
+                .add("Player123", "**NAME**").add("abcd-ef", "**UUID**").add(null, "ignored").build();
+
+        assertEquals("**NAME** joined with **UUID** and **NAME**",
+                censor.replaceAll("Player123 joined with abcd-ef and Player", r -> r));
+        assertEquals("nothing here", censor.replaceAll("nothing here", r -> r));
+    }
+
+    @Test
+    public void testThatCensoringAndClassifyingHappenTogether() {
+        MinecraftLogClassifier classifier = MinecraftLogClassifier.getDefault()
+                .censoring(Collections.singletonMap("Player", "**MINECRAFTUSERNAME**"));
+
+        MinecraftLogClassifier.Result result = classifier
+                .classify("[12:00:00] Player [Client thread/WARN]: Player did something");
+        assertEquals("[12:00:00] **MINECRAFTUSERNAME** [Client thread/WARN]: **MINECRAFTUSERNAME** did something",
+                result.line);
+        assertEquals(LogType.WARN, result.type);
+        assertEquals("[Client thread/WARN]: **MINECRAFTUSERNAME** did something", result.message);
+
+        // a censored string containing a marker stops it counting
+        result = MinecraftLogClassifier.getDefault().censoring(Collections.singletonMap("[main/ERROR]", "**SECRET**"))
+                .classify("[12:00:00] [main/ERROR]: oops");
+        assertEquals(LogType.INFO, result.type);
+        assertEquals("[12:00:00] **SECRET**: oops", result.message);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import com.atlauncher.data.ModMetadata;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModMetadataIndexTest {
+    private static final String FABRIC_MOD_JSON = "{\"id\": \"fabricmod\", \"name\": \"Fabric Mod\", "
+            + "\"version\": \"1.0.0\", \"depends\": {\"fabric\": \"*\", \"minecraft\": \"1.16.x\"}}";
+    private static final String MCMOD_INFO = "[{\"modid\": \"forgemod\", \"name\": \"Forge Mod\", "
+            + "\"version\": \"2.0.0\", \"dependencies\": [\"jei\"]}]";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadingMetadata() throws IOException {
+        Path mods = Files.createDirectories(tempDir.resolve("instance/mods"));
+        Path fabricJar = mods.resolve("fabric.jar");
+        Path forgeJar = mods.resolve("forge.jar");
+        ZipTestUtils.writeZip(fabricJar, "fabric.mod.json", FABRIC_MOD_JSON);
+        ZipTestUtils.writeZip(forgeJar, "mcmod.info", MCMOD_INFO);
+
+        ModMetadataIndex index = new ModMetadataIndex(tempDir.resolve("instance"), null);
+        Map<Path, ModMetadata> metadata = index.get(Arrays.asList(fabricJar, forgeJar));
+
+        ModMetadata fabric = metadata.get(fabricJar);
+        assertEquals("fabricmod", fabric.id);
+        assertEquals("Fabric Mod", fabric.name);
+        assertEquals("1.0.0", fabric.version);
+        assertEquals(LoaderType.FABRIC, fabric.loader);
+        assertTrue(fabric.dependencies.containsAll(Arrays.asList("fabric", "minecraft")));
+        assertEquals(Hashing.murmur(fabricJar), fabric.murmur);
+        assertEquals(Hashing.sha1(fabricJar).toString(), fabric.sha1);
+
+        ModMetadata forge = metadata.get(forgeJar);
+        assertEquals("forgemod", forge.id);
+        assertEquals(LoaderType.FORGE, forge.loader);
+        assertEquals(Collections.singletonList("jei"), forge.dependencies);
+    }
+
+    @Test
+    public void testThatUnchangedFilesAreNotReadAgain() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path jar = Files.createDirectories(instance.resolve("mods")).resolve("mod.jar");
+        Path indexFile = tempDir.resolve("index.json");
+        ZipTestUtils.writeZip(jar, "fabric.mod.json", FABRIC_MOD_JSON);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000));
+
+        new ModMetadataIndex(instance, indexFile).get(Collections.singletonList(jar));
+        assertTrue(Files.exists(indexFile));
+
+        // same size and last modified time, so the saved entry should be used rather than the file being read
+        byte[] junk = new byte[(int) Files.size(jar)];
+        Files.write(jar, junk);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000));
+
+        ModMetadata cached = new ModMetadataIndex(instance, indexFile).get(jar);
+        assertNotNull(cached);
+        assertEquals("Fabric Mod", cached.name);
+
+        ZipTestUtils.writeZip(jar, "mcmod.info", MCMOD_INFO);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(2000000));
+
+        assertEquals("Forge Mod", new ModMetadataIndex(instance, indexFile).get(jar).name);
+    }
+
+    @Test
+    public void testThatDeletedFilesAreDroppedOnSave() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path jar = Files.createDirectories(instance.resolve("mods")).resolve("mod.jar");
+        Path copy = instance.resolve("mods/copy.jar");
+        Path indexFile = tempDir.resolve("index.json");
+        ZipTestUtils.writeZip(jar, "fabric.mod.json", FABRIC_MOD_JSON);
+
+        ModMetadataIndex index = new ModMetadataIndex(instance, indexFile);
+        ModMetadata metadata = index.get(jar);
+
+        Files.copy(jar, copy);
+        index.put(copy, metadata);
+        Files.delete(jar);
+        index.save();
+
+        String saved = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+        assertTrue(saved.contains("mods/copy.jar"));
+        assertFalse(saved.contains("mods/mod.jar"));
+        assertEquals("Fabric Mod", new ModMetadataIndex(instance, indexFile).get(copy).name);
+        assertNull(index.get(jar));
+    }
+
+    @Test
+    public void testThatTheIndexIsKeptInTheInstance() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path jar = ZipTestUtils.writeZip(Files.createDirectories(instance.resolve("mods")).resolve("mod.jar"),
+                "fabric.mod.json", FABRIC_MOD_JSON);
+        Path dropped = ZipTestUtils.writeZip(tempDir.resolve("dropped.jar"), "mcmod.info", MCMOD_INFO);
+
+        ModMetadataIndex index = ModMetadataIndex.forDirectory(instance);
+        assertSame(index, ModMetadataIndex.forDirectory(instance));
+
+        // files outside of the instance aren't kept, so they aren't hashed
+        ModMetadata metadata = index.get(dropped);
+        assertNull(metadata.sha1);
+
+        Path copy = Files.copy(dropped, instance.resolve("mods/dropped.jar"));
+        index.put(copy, metadata);
+        index.get(Collections.singletonList(jar));
+        assertTrue(Files.exists(instance.resolve(".atlauncher/modmetadata.json")));
+
+        Path renamed = Files.move(instance, tempDir.resolve("renamed"));
+        Path renamedCopy = renamed.resolve("mods/dropped.jar");
+        FileTime lastModified = Files.getLastModifiedTime(renamedCopy);
+        Files.write(renamedCopy, new byte[(int) Files.size(renamedCopy)]);
+        Files.setLastModifiedTime(renamedCopy, lastModified);
+
+        ModMetadata cached = ModMetadataIndex.forDirectory(renamed).get(renamedCopy);
+        assertEquals("Forge Mod", cached.name);
+        assertEquals(Hashing.sha1(dropped).toString(), cached.sha1);
+    }
+}
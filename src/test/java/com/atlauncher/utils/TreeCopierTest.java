@@ -0,0 +1,116 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.utils.walker.PathFilter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TreeCopierTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCopy() throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        Files.createDirectories(source.resolve("config/empty"));
+        Files.createDirectories(source.resolve("mods"));
+
+        byte[] large = new byte[(int) TreeCopier.LARGE_FILE_SIZE + 100];
+        new Random(1).nextBytes(large);
+
+        for (int i = 0; i < 50; i++) {
+            Files.write(source.resolve("config/mod" + i + ".cfg"), new byte[] { (byte) i });
+        }
+        Files.write(source.resolve("mods/large.jar"), large);
+        Files.write(source.resolve("options.txt"), new byte[] { 1 });
+
+        Path target = tempDir.resolve("target");
+        Files.createDirectories(target);
+        Files.write(target.resolve("keep.txt"), new byte[] { 2 });
+
+        AtomicLong total = new AtomicLong();
+        AtomicLong copied = new AtomicLong();
+        new TreeCopier(source, target).filter(PathFilter.ALL.exclude("options.txt"))
+                .progress(new NetworkProgressable() {
+                    @Override
+                    public void setTotalBytes(long bytes) {
+                        total.set(bytes);
+                    }
+
+                    @Override
+                    public void addDownloadedBytes(long bytes) {
+                        copied.addAndGet(bytes);
+                    }
+
+                    @Override
+                    public void addBytesToDownload(long bytes) {
+                        total.addAndGet(bytes);
+                    }
+                }).copy();
+
+        assertEquals(large.length + 50, total.get());
+        assertEquals(total.get(), copied.get());
+        assertArrayEquals(large, Files.readAllBytes(target.resolve("mods/large.jar")));
+        assertArrayEquals(new byte[] { 49 }, Files.readAllBytes(target.resolve("config/mod49.cfg")));
+        assertTrue(Files.isDirectory(target.resolve("config/empty")));
+        assertTrue(Files.exists(target.resolve("keep.txt")));
+        assertFalse(Files.exists(target.resolve("options.txt")));
+        assertEquals(Files.getLastModifiedTime(source.resolve("mods/large.jar")),
+                Files.getLastModifiedTime(target.resolve("mods/large.jar")));
+    }
+
+    @Test
+    public void testThatHardLinksPointToTheSameFile() throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        Files.write(source.resolve("mod.jar"), new byte[] { 1, 2, 3 });
+
+        Path target = tempDir.resolve("target");
+        new TreeCopier(source, target).hardLinks(true).copy();
+
+        assertTrue(Files.isSameFile(source.resolve("mod.jar"), target.resolve("mod.jar")));
+
+        // copying again onto the same file mustn't empty it
+        new TreeCopier(source, target).copy();
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(source.resolve("mod.jar")));
+    }
+
+    @Test
+    public void testThatCopyingCanBeCancelled() throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("source"));
+        Files.write(source.resolve("options.txt"), new byte[] { 1 });
+
+        assertThrows(InterruptedIOException.class,
+                () -> new TreeCopier(source, tempDir.resolve("target")).cancelled(() -> true).copy());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * Writes small zips for the tests which need them.
+ */
+public final class ZipTestUtils {
+    private ZipTestUtils() {
+    }
+
+    /**
+     * Writes a zip of the given names and contents, which can be strings or byte arrays. The first entry is stored and
+     * the rest are deflated so both methods are read.
+     */
+    public static Path writeZip(Path path, Object... namesAndContents) throws IOException {
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(path.toFile())) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                Object contents = namesAndContents[i + 1];
+
+                writeEntry(zos, (String) namesAndContents[i],
+                        contents instanceof String ? ((String) contents).getBytes(StandardCharsets.UTF_8)
+                                : (byte[]) contents,
+                        i == 0 ? ZipArchiveEntry.STORED : ZipArchiveEntry.DEFLATED);
+            }
+        }
+
+        return path;
+    }
+
+    public static void writeEntry(ZipArchiveOutputStream zos, String name, byte[] contents, int method)
+            throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setMethod(method);
+
+        if (method == ZipArchiveEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(contents);
+            entry.setSize(contents.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        zos.putArchiveEntry(entry);
+        zos.write(contents);
+        zos.closeArchiveEntry();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.backup;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import com.atlauncher.data.BackupMode;
+import com.atlauncher.data.backup.BackupSnapshot;
+import com.atlauncher.utils.Hashing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BackupRepositoryTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testThatContentDefinedChunksSurviveAnInsert() throws IOException {
+        byte[] data = new byte[1024 * 1024];
+        new Random(1).nextBytes(data);
+
+        byte[] inserted = new byte[data.length + 10];
+        System.arraycopy(data, 0, inserted, 10, data.length);
+
+        List<String> original = chunks(data);
+        List<String> shifted = chunks(inserted);
+
+        // everything after the first chunk should line back up
+        assertEquals(original.subList(1, original.size()), shifted.subList(1, shifted.size()));
+    }
+
+    @Test
+    public void testThatBackupsAreIncrementalAndRestoreAndPrune() throws IOException {
+        Path instance = Files.createDirectories(tempDir.resolve("instance"));
+        Path saves = Files.createDirectories(instance.resolve("saves/world/region"));
+        byte[] region = new byte[Chunker.REGION_CHUNK_SIZE * 4];
+        new Random(2).nextBytes(region);
+        Files.write(saves.resolve("r.0.0.mca"), region);
+        Files.write(instance.resolve("options.txt"), "fov:70".getBytes(StandardCharsets.UTF_8));
+        Files.write(instance.resolve("ignored.txt"), "not backed up".getBytes(StandardCharsets.UTF_8));
+
+        BackupRepository repository = new BackupRepository(tempDir.resolve("repository"));
+        BackupSnapshot first = repository.createSnapshot("instance", instance, BackupMode.NORMAL);
+        assertEquals(2, first.files.size());
+
+        // change one sector of the region file and add a new one
+        region[Chunker.REGION_CHUNK_SIZE + 5]++;
+        Files.write(saves.resolve("r.0.0.mca"), region);
+        Files.write(saves.resolve("r.0.1.mca"), new byte[] { 1, 2, 3 });
+        repository.createSnapshot("instance", instance, BackupMode.NORMAL);
+
+        try (Stream<Path> stored = Files.walk(tempDir.resolve("repository/chunks"))) {
+            // 4 region chunks and options.txt, then 1 changed region chunk and the new region file
+            assertEquals(7, stored.filter(Files::isRegularFile).count());
+        }
+
+        repository.restore(first, instance);
+        assertArrayEquals(restoredOriginal(region), Files.readAllBytes(saves.resolve("r.0.0.mca")));
+        assertFalse(Files.exists(saves.resolve("r.0.1.mca")));
+        assertEquals("not backed up", new String(Files.readAllBytes(instance.resolve("ignored.txt")),
+                StandardCharsets.UTF_8));
+
+        assertEquals(1, repository.prune("instance", 1));
+        assertEquals(1, repository.getSnapshots("instance").size());
+    }
+
+    @Test
+    public void testThatNothingIsRestoredWhenAChunkIsMissing() throws IOException {
+        Path instance = Files.createDirectories(tempDir.resolve("instance"));
+        Path world = Files.createDirectories(instance.resolve("saves/world"));
+        byte[] level = "level".getBytes(StandardCharsets.UTF_8);
+        Files.write(instance.resolve("options.txt"), "fov:70".getBytes(StandardCharsets.UTF_8));
+        Files.write(world.resolve("level.dat"), level);
+
+        BackupRepository repository = new BackupRepository(tempDir.resolve("repository"));
+        BackupSnapshot snapshot = repository.createSnapshot("instance", instance, BackupMode.NORMAL);
+
+        Files.write(instance.resolve("options.txt"), "fov:90".getBytes(StandardCharsets.UTF_8));
+        String hash = Hashing.sha1(level, 0, level.length).toString();
+        Files.delete(tempDir.resolve("repository/chunks").resolve(hash.substring(0, 2)).resolve(hash));
+
+        assertThrows(IOException.class, () -> repository.restore(snapshot, instance));
+        assertEquals("fov:90", new String(Files.readAllBytes(instance.resolve("options.txt")),
+                StandardCharsets.UTF_8));
+        assertFalse(Files.exists(instance.resolve("options.txt.restoring")));
+    }
+
+    private static byte[] restoredOriginal(byte[] changed) {
+        byte[] original = changed.clone();
+        original[Chunker.REGION_CHUNK_SIZE + 5]--;
+        return original;
+    }
+
+    private static List<String> chunks(byte[] data) throws IOException {
+        List<String> chunks = new ArrayList<>();
+
+        Chunker.forFile("file.dat").split(new ByteArrayInputStream(data), (buffer, length) -> {
+            chunks.add(Arrays.hashCode(Arrays.copyOf(buffer, length)) + ":" + length);
+        });
+
+        return chunks;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils.walker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PathFilterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testMatches() {
+        PathFilter filter = PathFilter.include("options.txt", "saves", "config/").exclude("saves/backup");
+
+        assertTrue(filter.matches("options.txt"));
+        assertTrue(filter.matches("saves/world/level.dat"));
+        assertTrue(filter.matches("config\\mod.cfg"));
+        assertFalse(filter.matches("configs/mod.cfg"));
+        assertFalse(filter.matches("saves/backup/level.dat"));
+        assertFalse(filter.matches("OPTIONS.txt"));
+        assertTrue(filter.ignoringCase().matches("OPTIONS.txt"));
+
+        assertTrue(PathFilter.ALL.matches("anything/at/all"));
+        assertFalse(PathFilter.include(new ArrayList<>()).matches("anything"));
+    }
+
+    @Test
+    public void testShouldDescend() {
+        PathFilter filter = PathFilter.include("saves/world", "mods").exclude("mods/memory_repo");
+
+        assertTrue(filter.shouldDescend(""));
+        assertTrue(filter.shouldDescend("saves"));
+        assertTrue(filter.shouldDescend("saves/world/region"));
+        assertTrue(filter.shouldDescend("mods/1.16.5"));
+        assertFalse(filter.shouldDescend("saves/other"));
+        assertFalse(filter.shouldDescend("libraries"));
+        assertFalse(filter.shouldDescend("mods/memory_repo"));
+    }
+
+    @Test
+    public void testThatWalkingSkipsDirectoriesWhichCantMatch() throws IOException {
+        for (String path : Arrays.asList("saves/world/level.dat", "saves/other/level.dat", "libraries/lib.jar",
+                "options.txt")) {
+            Files.createDirectories(tempDir.resolve(path).getParent());
+            Files.write(tempDir.resolve(path), new byte[] { 1 });
+        }
+
+        List<String> visited = new ArrayList<>();
+        FilteredFileVisitor.walk(tempDir, PathFilter.include("saves/world", "options.txt"),
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        visited.add(FilteredFileVisitor.getRelativePath(tempDir, dir) + "/");
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        visited.add(FilteredFileVisitor.getRelativePath(tempDir, file));
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+
+        visited.sort(String::compareTo);
+        assertEquals(Arrays.asList("options.txt", "saves/world/", "saves/world/level.dat"), visited);
+    }
+}
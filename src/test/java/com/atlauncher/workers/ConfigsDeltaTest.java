@@ -0,0 +1,149 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.atlauncher.utils.ZipTestUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ConfigsDeltaTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testOnlyChangedEntriesAreWritten() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path manifest = tempDir.resolve("manifest.json");
+
+        apply(instance, manifest, ZipTestUtils.writeZip(tempDir.resolve("first.zip"), "config/same.cfg", "same",
+                "config/changed.cfg", "before", "scripts/removed.zs", "removed"));
+
+        Files.write(instance.resolve("config/generated.cfg"), "made by a mod".getBytes(StandardCharsets.UTF_8));
+
+        ConfigsDelta delta = apply(instance, manifest, ZipTestUtils.writeZip(tempDir.resolve("second.zip"),
+                "config/same.cfg", "same", "config/changed.cfg", "after", "config/added/new.cfg", "new"));
+
+        assertEquals(1, delta.getUnchangedCount());
+        assertEquals(1, delta.getRemovedCount());
+        assertEquals("same", read(instance.resolve("config/same.cfg")));
+        assertEquals("after", read(instance.resolve("config/changed.cfg")));
+        assertEquals("new", read(instance.resolve("config/added/new.cfg")));
+        assertFalse(Files.exists(instance.resolve("scripts/removed.zs")));
+        assertTrue(Files.exists(instance.resolve("config/generated.cfg")));
+    }
+
+    @Test
+    public void testThatChangedFilesAreWrittenAgain() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path manifest = tempDir.resolve("manifest.json");
+
+        Path zip = ZipTestUtils.writeZip(tempDir.resolve("configs.zip"), "config/edited.cfg", "from the pack",
+                "config/deleted.cfg", "from the pack", "options.txt", "from the pack");
+        apply(instance, manifest, zip);
+
+        Files.write(instance.resolve("config/edited.cfg"), "edited".getBytes(StandardCharsets.UTF_8));
+        Files.delete(instance.resolve("config/deleted.cfg"));
+
+        ConfigsDelta delta = apply(instance, manifest, zip);
+
+        assertEquals(1, delta.getUnchangedCount());
+        assertEquals("from the pack", read(instance.resolve("config/edited.cfg")));
+        assertEquals("from the pack", read(instance.resolve("config/deleted.cfg")));
+    }
+
+    @Test
+    public void testThatUserChangedFilesNoLongerInThePackAreKept() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path manifest = tempDir.resolve("manifest.json");
+
+        apply(instance, manifest, ZipTestUtils.writeZip(tempDir.resolve("first.zip"), "scripts/edited.zs",
+                "from the pack"));
+
+        Files.write(instance.resolve("scripts/edited.zs"), "edited".getBytes(StandardCharsets.UTF_8));
+
+        ConfigsDelta delta = apply(instance, manifest, ZipTestUtils.writeZip(tempDir.resolve("second.zip")));
+
+        assertEquals(0, delta.getRemovedCount());
+        assertEquals("edited", read(instance.resolve("scripts/edited.zs")));
+    }
+
+    @Test
+    public void testThatUnchangedFilesAreMovedBackOnReinstall() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path manifest = tempDir.resolve("manifest.json");
+
+        apply(instance, manifest, ZipTestUtils.writeZip(tempDir.resolve("first.zip"), "config/same.cfg", "same",
+                "config/changed.cfg", "before"));
+
+        // the reinstall moves the config folder out of the way before mods and actions put files in it
+        InstallRollback rollback = new InstallRollback(instance);
+        rollback.remove(instance.resolve("config"));
+        Files.createDirectories(instance.resolve("config"));
+        Files.write(instance.resolve("config/extracted.cfg"), "from a mod".getBytes(StandardCharsets.UTF_8));
+
+        ConfigsDelta delta = new ConfigsDelta(instance, manifest).rollback(rollback);
+        delta.apply(ZipTestUtils.writeZip(tempDir.resolve("second.zip"), "config/same.cfg", "same",
+                "config/changed.cfg", "after"), null, () -> false);
+
+        assertEquals(1, delta.getUnchangedCount());
+        assertNull(rollback.getRemovedFile(instance.resolve("config/same.cfg")));
+        assertEquals("same", read(instance.resolve("config/same.cfg")));
+        assertEquals("after", read(instance.resolve("config/changed.cfg")));
+        assertEquals("from a mod", read(instance.resolve("config/extracted.cfg")));
+
+        rollback.rollback();
+
+        assertEquals("same", read(instance.resolve("config/same.cfg")));
+        assertEquals("before", read(instance.resolve("config/changed.cfg")));
+        assertFalse(Files.exists(instance.resolve("config/extracted.cfg")));
+    }
+
+    @Test
+    public void testEmptyZip() throws IOException {
+        Path instance = tempDir.resolve("instance");
+        Path manifest = tempDir.resolve("manifest.json");
+        apply(instance, manifest, ZipTestUtils.writeZip(tempDir.resolve("first.zip"), "config/old.cfg", "old"));
+
+        ConfigsDelta delta = apply(instance, manifest, Files.createFile(tempDir.resolve("Configs.zip")));
+
+        assertEquals(1, delta.getRemovedCount());
+        assertFalse(Files.exists(instance.resolve("config/old.cfg")));
+    }
+
+    private ConfigsDelta apply(Path instance, Path manifest, Path zip) throws IOException {
+        ConfigsDelta delta = new ConfigsDelta(instance, manifest);
+        delta.apply(zip, null, () -> false);
+
+        return delta;
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2021 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.atlauncher.constants.Constants;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class InstallRollbackTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRollbackPutsEverythingBack() throws IOException {
+        write(tempDir.resolve("config/mod.cfg"), "original");
+        write(tempDir.resolve("mods/old.jar"), "old");
+
+        InstallRollback rollback = new InstallRollback(tempDir);
+        rollback.remove(tempDir.resolve("config"));
+        rollback.remove(tempDir.resolve("mods/old.jar"));
+
+        assertFalse(Files.exists(tempDir.resolve("config")));
+        assertFalse(Files.exists(tempDir.resolve("mods/old.jar")));
+
+        write(tempDir.resolve("config/mod.cfg"), "from the install");
+        write(tempDir.resolve("mods/new.jar"), "new");
+        rollback.added(tempDir.resolve("mods/new.jar"));
+
+        rollback.rollback();
+
+        assertEquals("original", read(tempDir.resolve("config/mod.cfg")));
+        assertEquals("old", read(tempDir.resolve("mods/old.jar")));
+        assertFalse(Files.exists(tempDir.resolve("mods/new.jar")));
+        assertFalse(Files.exists(tempDir.resolve(Constants.INSTANCE_DATA_FOLDER).resolve("rollback")));
+    }
+
+    @Test
+    public void testRestoredFilesAreKeptOnCommitAndPutBackOnRollback() throws IOException {
+        write(tempDir.resolve("config/same.cfg"), "same");
+        write(tempDir.resolve("config/removed.cfg"), "removed");
+
+        InstallRollback rollback = new InstallRollback(tempDir);
+        rollback.remove(tempDir.resolve("config"));
+
+        assertTrue(rollback.restore(tempDir.resolve("config/same.cfg")));
+        assertFalse(rollback.restore(tempDir.resolve("config/missing.cfg")));
+        assertEquals("same", read(tempDir.resolve("config/same.cfg")));
+
+        rollback.rollback();
+
+        assertEquals("same", read(tempDir.resolve("config/same.cfg")));
+        assertEquals("removed", read(tempDir.resolve("config/removed.cfg")));
+
+        rollback = new InstallRollback(tempDir);
+        rollback.remove(tempDir.resolve("config"));
+        rollback.restore(tempDir.resolve("config/same.cfg"));
+        rollback.commit();
+
+        assertEquals("same", read(tempDir.resolve("config/same.cfg")));
+        assertFalse(Files.exists(tempDir.resolve("config/removed.cfg")));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}